@@ -0,0 +1,62 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.common.antlr;
+
+import java.util.function.Function;
+import org.antlr.v4.runtime.ANTLRErrorListener;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+/**
+ * Two-stage parsing which tries the faster SLL prediction mode first with a bail-out error
+ * strategy, and only falls back to full LL mode with the default error strategy and the given
+ * error listener if SLL fails. SLL parses most of the queries correctly and a successful SLL parse
+ * is always the same as LL, so the slower LL mode is paid only by queries which are ambiguous for
+ * SLL or have syntax error. The error reported is always from the LL stage.
+ */
+public class TwoStageParser {
+
+  private TwoStageParser() {
+  }
+
+  /**
+   * Parse by the start rule in SLL mode and then LL mode on failure.
+   *
+   * @param parser        ANTLR parser
+   * @param errorListener error listener for the syntax error found in LL mode
+   * @param startRule     start rule of the parser, ex. root
+   * @return              parse tree returned by the start rule
+   */
+  public static <P extends Parser, T> T parse(P parser,
+                                              ANTLRErrorListener errorListener,
+                                              Function<P, T> startRule) {
+    parser.removeErrorListeners();
+    parser.setErrorHandler(new BailErrorStrategy());
+    parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+    try {
+      return startRule.apply(parser);
+    } catch (ParseCancellationException e) {
+      parser.reset();
+      parser.addErrorListener(errorListener);
+      parser.setErrorHandler(new DefaultErrorStrategy());
+      parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+      return startRule.apply(parser);
+    }
+  }
+}
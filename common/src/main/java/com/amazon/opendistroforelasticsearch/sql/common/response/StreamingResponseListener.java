@@ -0,0 +1,47 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.common.response;
+
+/**
+ * Response listener which receives the response chunk by chunk, so the whole response is never
+ * materialized at once. This is necessary because execution engine may schedule and execute in
+ * different thread.
+ *
+ * @param <R> response chunk class
+ */
+public interface StreamingResponseListener<R> {
+
+  /**
+   * Handle one chunk of the response. It is called zero or more times before
+   * {@link #onComplete()} in the order of the response.
+   *
+   * @param chunk response chunk
+   */
+  void onChunk(R chunk);
+
+  /**
+   * Handle the end of response after all the chunks.
+   */
+  void onComplete();
+
+  /**
+   * Handle failed response. It could be called after some chunks, but not after
+   * {@link #onComplete()}.
+   *
+   * @param e exception captured
+   */
+  void onFailure(Exception e);
+}
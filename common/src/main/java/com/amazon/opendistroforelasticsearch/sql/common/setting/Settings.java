@@ -26,7 +26,10 @@ import lombok.RequiredArgsConstructor;
 public abstract class Settings {
   @RequiredArgsConstructor
   public enum Key {
-    PPL_QUERY_MEMORY_LIMIT("opendistro.ppl.query.memory_limit");
+    PPL_QUERY_MEMORY_LIMIT("opendistro.ppl.query.memory_limit"),
+    PPL_QUERY_OPERATOR_MEMORY_LIMIT("opendistro.ppl.query.operator.memory_limit"),
+    PPL_QUERY_OPERATOR_PARALLELISM("opendistro.ppl.query.operator.parallelism"),
+    PPL_QUERY_TIMEOUT("opendistro.ppl.query.timeout");
 
     @Getter
     private final String keyValue;
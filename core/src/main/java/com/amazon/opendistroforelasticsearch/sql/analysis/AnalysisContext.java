@@ -15,7 +15,18 @@
 
 package com.amazon.opendistroforelasticsearch.sql.analysis;
 
+import com.amazon.opendistroforelasticsearch.sql.ast.expression.Literal;
+import com.amazon.opendistroforelasticsearch.sql.expression.LiteralExpression;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import lombok.Getter;
+import lombok.Setter;
 
 /**
  * The context used for Analyzer.
@@ -26,12 +37,47 @@ public class AnalysisContext {
    */
   private TypeEnvironment environment;
 
+  /**
+   * Index of the query token which each {@link Literal} in the AST is parsed from, by identity.
+   */
+  private final Map<Literal, Integer> literalTokens;
+
+  /**
+   * Literal expressions analyzed from each literal token, which could be bound to another value.
+   */
+  private final Map<Integer, List<LiteralExpression>> parameters = new HashMap<>();
+
+  /**
+   * Literal tokens which have been analyzed where the literal can't be bound to another value.
+   */
+  private final Set<Integer> fixedTokens = new HashSet<>();
+
+  /**
+   * Whether the literals analyzed now could be bound to another value.
+   */
+  @Getter
+  @Setter
+  private boolean parameterized = false;
+
   public AnalysisContext() {
-    this.environment = new TypeEnvironment(null);
+    this(new TypeEnvironment(null));
   }
 
   public AnalysisContext(TypeEnvironment environment) {
+    this(environment, Collections.emptyMap());
+  }
+
+  /**
+   * AnalysisContext constructor.
+   * @param literalTokens index of the query token which each literal in the AST is parsed from
+   */
+  public AnalysisContext(Map<Literal, Integer> literalTokens) {
+    this(new TypeEnvironment(null), literalTokens);
+  }
+
+  private AnalysisContext(TypeEnvironment environment, Map<Literal, Integer> literalTokens) {
     this.environment = environment;
+    this.literalTokens = literalTokens;
   }
 
   /**
@@ -62,4 +108,31 @@ public class AnalysisContext {
     environment = curEnv.getParent();
     return curEnv;
   }
+
+  /**
+   * Add the literal expression analyzed from the literal in the AST. It is a parameter if the
+   * literal is parsed from a literal token and it is analyzed where it could be bound to another
+   * value. The literal token is not a parameter if any of its literals is analyzed elsewhere.
+   */
+  public void addLiteral(Literal node, LiteralExpression expr) {
+    Integer token = literalTokens.get(node);
+    if (token == null) {
+      return;
+    }
+    if (parameterized) {
+      parameters.computeIfAbsent(token, index -> new ArrayList<>()).add(expr);
+    } else {
+      fixedTokens.add(token);
+    }
+  }
+
+  /**
+   * Literal expressions which could be bound to another value, by the index of the query token
+   * they are parsed from.
+   */
+  public Map<Integer, List<LiteralExpression>> getParameters() {
+    Map<Integer, List<LiteralExpression>> result = new HashMap<>(parameters);
+    result.keySet().removeAll(fixedTokens);
+    return result;
+  }
 }
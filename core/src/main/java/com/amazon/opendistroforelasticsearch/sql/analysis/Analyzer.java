@@ -79,6 +79,23 @@ public class Analyzer extends AbstractNodeVisitor<LogicalPlan, AnalysisContext>
     return unresolved.accept(this, context);
   }
 
+  /**
+   * Analyze the AST parsed from the query into the plan whose parameters could be bound to the
+   * literal values of another query sharing the template.
+   *
+   * @param unresolved    AST
+   * @param query         query lexed into the template and the literal tokens
+   * @param literalTokens index of the token which each literal in the AST is parsed from
+   * @return parameterized plan
+   */
+  public ParameterizedPlan analyze(UnresolvedPlan unresolved, ParameterizedQuery query,
+                                   java.util.Map<Literal, Integer> literalTokens) {
+    AnalysisContext context = new AnalysisContext(literalTokens);
+    LogicalPlan plan = analyze(unresolved, context);
+    return new ParameterizedPlan(plan, query, context.getParameters(),
+        new ParameterBinder(expressionAnalyzer));
+  }
+
   @Override
   public LogicalPlan visitRelation(Relation node, AnalysisContext context) {
     context.push();
@@ -91,7 +108,7 @@ public class Analyzer extends AbstractNodeVisitor<LogicalPlan, AnalysisContext>
   @Override
   public LogicalPlan visitFilter(Filter node, AnalysisContext context) {
     LogicalPlan child = node.getChild().get(0).accept(this, context);
-    Expression condition = expressionAnalyzer.analyze(node.getCondition(), context);
+    Expression condition = expressionAnalyzer.analyzeParameterized(node.getCondition(), context);
     return new LogicalFilter(child, condition);
   }
 
@@ -181,7 +198,7 @@ public class Analyzer extends AbstractNodeVisitor<LogicalPlan, AnalysisContext>
     ImmutableList.Builder<Pair<ReferenceExpression, Expression>> expressionsBuilder =
         new Builder<>();
     for (Let let : node.getExpressionList()) {
-      Expression expression = expressionAnalyzer.analyze(let.getExpression(), context);
+      Expression expression = expressionAnalyzer.analyzeParameterized(let.getExpression(), context);
       ReferenceExpression ref = DSL.ref(let.getVar().getField().toString(), expression.type());
       expressionsBuilder.add(ImmutablePair.of(ref, expression));
       TypeEnvironment typeEnvironment = context.peek();
@@ -205,7 +222,8 @@ public class Analyzer extends AbstractNodeVisitor<LogicalPlan, AnalysisContext>
                 sortField -> {
                   // the first options is {"asc": "true/false"}
                   Boolean asc = (Boolean) sortField.getFieldArgs().get(0).getValue().getValue();
-                  Expression expression = expressionAnalyzer.analyze(sortField, context);
+                  Expression expression =
+                      expressionAnalyzer.analyzeParameterized(sortField, context);
                   return ImmutablePair.of(
                       asc ? SortOption.PPL_ASC : SortOption.PPL_DESC, expression);
                 })
@@ -30,18 +30,23 @@ import com.amazon.opendistroforelasticsearch.sql.ast.expression.Or;
 import com.amazon.opendistroforelasticsearch.sql.ast.expression.UnresolvedAttribute;
 import com.amazon.opendistroforelasticsearch.sql.ast.expression.UnresolvedExpression;
 import com.amazon.opendistroforelasticsearch.sql.ast.expression.Xor;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.amazon.opendistroforelasticsearch.sql.exception.SemanticCheckException;
 import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.LiteralExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.Aggregator;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionName;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -53,6 +58,9 @@ public class ExpressionAnalyzer extends AbstractNodeVisitor<Expression, Analysis
   private final BuiltinFunctionRepository repository;
   private final DSL dsl;
 
+  /**
+   * ExpressionAnalyzer constructor.
+   */
   public ExpressionAnalyzer(
       BuiltinFunctionRepository repository) {
     this.repository = repository;
@@ -63,6 +71,49 @@ public class ExpressionAnalyzer extends AbstractNodeVisitor<Expression, Analysis
     return unresolved.accept(this, context);
   }
 
+  /**
+   * Analyze the expression whose literals are the parameters of the plan, which could be bound to
+   * the literal values of another query sharing the plan. It is only used where the text of the
+   * expression doesn't name an output field, e.g. filter condition, because the bound expression
+   * has different text.
+   */
+  public Expression analyzeParameterized(UnresolvedExpression unresolved,
+                                         AnalysisContext context) {
+    context.setParameterized(true);
+    try {
+      return analyze(unresolved, context);
+    } finally {
+      context.setParameterized(false);
+    }
+  }
+
+  /**
+   * Bind the new values to the literal expressions. The function expression which has bound
+   * argument is compiled again by the function repository.
+   *
+   * @param expr   expression
+   * @param values new value of the literal expressions, by identity
+   * @return bound expression, or the same expression if none of its literals is bound
+   */
+  public Expression bind(Expression expr, Map<LiteralExpression, ExprValue> values) {
+    if (expr instanceof LiteralExpression) {
+      ExprValue value = values.get(expr);
+      return (value == null) ? expr : DSL.literal(value);
+    } else if (expr instanceof FunctionExpression) {
+      FunctionExpression function = (FunctionExpression) expr;
+      boolean changed = false;
+      List<Expression> arguments = new ArrayList<>();
+      for (Expression arg : function.getArguments()) {
+        Expression bound = bind(arg, values);
+        changed |= bound != arg;
+        arguments.add(bound);
+      }
+      return changed ? (Expression) repository.compile(function.getFunctionName(), arguments)
+          : expr;
+    }
+    return expr;
+  }
+
   @Override
   public Expression visitUnresolvedAttribute(UnresolvedAttribute node, AnalysisContext context) {
     return visitIdentifier(node.getAttr(), context);
@@ -78,7 +129,9 @@ public class ExpressionAnalyzer extends AbstractNodeVisitor<Expression, Analysis
 
   @Override
   public Expression visitLiteral(Literal node, AnalysisContext context) {
-    return DSL.literal(ExprValueUtils.fromObjectValue(node.getValue()));
+    LiteralExpression literal = DSL.literal(ExprValueUtils.fromObjectValue(node.getValue()));
+    context.addLiteral(node, literal);
+    return literal;
   }
 
   @Override
@@ -0,0 +1,117 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.analysis;
+
+import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.SortOption;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.LiteralExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.ChildReplacer;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalEval;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalFilter;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanNodeVisitor;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalSort;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Bind the new values to the parameters of the analyzed plan, which are the literal expressions
+ * in the expressions analyzed by {@link ExpressionAnalyzer#analyzeParameterized}. The plan nodes
+ * from the bound node up to the root are copied, and the others are shared with the plan.
+ */
+@RequiredArgsConstructor
+public class ParameterBinder
+    extends LogicalPlanNodeVisitor<LogicalPlan, Map<LiteralExpression, ExprValue>> {
+
+  private static final ChildReplacer CHILD_REPLACER = new ChildReplacer();
+
+  private final ExpressionAnalyzer expressionAnalyzer;
+
+  /**
+   * Bind the values to the plan bottom-up.
+   *
+   * @param plan   analyzed plan
+   * @param values new value of the literal expressions, by identity
+   * @return bound plan
+   */
+  public LogicalPlan bind(LogicalPlan plan, Map<LiteralExpression, ExprValue> values) {
+    LogicalPlan node = plan;
+    if (!plan.getChild().isEmpty()) {
+      LogicalPlan child = plan.getChild().get(0);
+      LogicalPlan boundChild = bind(child, values);
+      if (boundChild != child) {
+        node = plan.accept(CHILD_REPLACER, boundChild);
+      }
+    }
+    return node.accept(this, values);
+  }
+
+  @Override
+  protected LogicalPlan visitNode(LogicalPlan plan, Map<LiteralExpression, ExprValue> values) {
+    return plan;
+  }
+
+  @Override
+  public LogicalPlan visitFilter(LogicalFilter plan, Map<LiteralExpression, ExprValue> values) {
+    Expression condition = expressionAnalyzer.bind(plan.getCondition(), values);
+    if (condition == plan.getCondition()) {
+      return plan;
+    }
+    return new LogicalFilter(plan.getChild().get(0), condition);
+  }
+
+  @Override
+  public LogicalPlan visitEval(LogicalEval plan, Map<LiteralExpression, ExprValue> values) {
+    List<Pair<ReferenceExpression, Expression>> expressions =
+        bindPairs(plan.getExpressions(), values);
+    if (expressions == plan.getExpressions()) {
+      return plan;
+    }
+    return new LogicalEval(plan.getChild().get(0), expressions);
+  }
+
+  @Override
+  public LogicalPlan visitSort(LogicalSort plan, Map<LiteralExpression, ExprValue> values) {
+    List<Pair<SortOption, Expression>> sortList = bindPairs(plan.getSortList(), values);
+    if (sortList == plan.getSortList()) {
+      return plan;
+    }
+    return new LogicalSort(plan.getChild().get(0), plan.getCount(), sortList);
+  }
+
+  /**
+   * Bind the values to the expression of each pair.
+   *
+   * @return bound pairs, or the same list if none of the expressions is bound
+   */
+  private <T> List<Pair<T, Expression>> bindPairs(List<Pair<T, Expression>> pairs,
+                                                  Map<LiteralExpression, ExprValue> values) {
+    boolean changed = false;
+    List<Pair<T, Expression>> bound = new ArrayList<>();
+    for (Pair<T, Expression> pair : pairs) {
+      Expression expr = expressionAnalyzer.bind(pair.getRight(), values);
+      changed |= expr != pair.getRight();
+      bound.add(ImmutablePair.of(pair.getLeft(), expr));
+    }
+    return changed ? bound : pairs;
+  }
+}
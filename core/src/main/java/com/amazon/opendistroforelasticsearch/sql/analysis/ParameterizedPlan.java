@@ -0,0 +1,81 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.analysis;
+
+import com.amazon.opendistroforelasticsearch.sql.analysis.ParameterizedQuery.LiteralToken;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.expression.LiteralExpression;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Logical plan analyzed from the {@link ParameterizedQuery}, whose parameters are the literal
+ * expressions analyzed from the literal tokens where they could be bound to another value. The
+ * plan is reused by the query sharing the template by binding its literal values to the
+ * parameters. The plan is not simplified yet, so the literals are not folded away.
+ */
+@RequiredArgsConstructor
+public class ParameterizedPlan {
+  /**
+   * Analyzed plan with the literal values of the query.
+   */
+  @Getter
+  private final LogicalPlan plan;
+
+  /**
+   * Query the plan is analyzed from.
+   */
+  private final ParameterizedQuery query;
+
+  /**
+   * Literal expressions analyzed from each literal token, by the index of the token.
+   */
+  private final Map<Integer, List<LiteralExpression>> parameters;
+
+  private final ParameterBinder binder;
+
+  /**
+   * Bind the literal values of the query sharing the template to the plan. The plan can't be
+   * reused if a literal which is not a parameter has different text, e.g. the count of head
+   * command, or a parameter has the value of another type, because the functions are resolved by
+   * the argument types.
+   *
+   * @param other query sharing the template
+   * @return the bound plan, or empty if the plan can't be reused by the query
+   */
+  public Optional<LogicalPlan> bind(ParameterizedQuery other) {
+    Map<LiteralExpression, ExprValue> values = new IdentityHashMap<>();
+    for (int i = 0; i < query.getLiterals().size(); i++) {
+      LiteralToken literal = query.getLiterals().get(i);
+      LiteralToken otherLiteral = other.getLiterals().get(i);
+      if (literal.getText().equals(otherLiteral.getText())) {
+        continue;
+      }
+      List<LiteralExpression> exprs = parameters.get(literal.getIndex());
+      if (exprs == null || otherLiteral.getValue() == null
+          || !literal.getValue().type().equals(otherLiteral.getValue().type())) {
+        return Optional.empty();
+      }
+      exprs.forEach(expr -> values.put(expr, otherLiteral.getValue()));
+    }
+    return Optional.of(values.isEmpty() ? plan : binder.bind(plan, values));
+  }
+}
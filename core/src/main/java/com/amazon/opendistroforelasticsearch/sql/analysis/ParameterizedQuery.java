@@ -0,0 +1,72 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.analysis;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Query lexed into the template and the literal tokens. The template is the tokens of the query
+ * with each literal token replaced by {@link #PLACEHOLDER}, so the queries differing only in the
+ * literal values share the template, which is the key of the cached plan.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class ParameterizedQuery {
+  /**
+   * Placeholder of the literal token in the template, which is not a token of the languages.
+   */
+  public static final String PLACEHOLDER = "?";
+
+  /**
+   * Query text.
+   */
+  private final String query;
+
+  /**
+   * Tokens of the query separated by a single space, with the literal tokens replaced.
+   */
+  private final String template;
+
+  /**
+   * Literal tokens in the order of the query.
+   */
+  private final List<LiteralToken> literals;
+
+  @Getter
+  @ToString
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  public static class LiteralToken {
+    /**
+     * Index of the token in the token stream of the query, which is also counted by the parser.
+     */
+    private final int index;
+
+    private final String text;
+
+    /**
+     * Value parsed from the text, or null if the text is not a valid value.
+     */
+    private final ExprValue value;
+  }
+}
@@ -0,0 +1,262 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.data.batch;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.BOOLEAN;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.DOUBLE;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.FLOAT;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.LONG;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import java.util.Arrays;
+import java.util.BitSet;
+import lombok.ToString;
+
+/**
+ * Column Vector. The values of one expression evaluated over a {@link RowBatch}.
+ * The NULL and MISSING positions are tracked in bitmaps, so consumer could skip them without
+ * inspecting each value.
+ *
+ * <p>The values of INTEGER and LONG are stored in a long array, FLOAT and DOUBLE in a double
+ * array and BOOLEAN in a boolean array, so the column kernels of the functions read and write
+ * the primitive values without boxing. The {@link ExprValue} of the value set as primitive is
+ * created once it is read by {@link ColumnVector#get(int)}, the array of the boxed values is
+ * only allocated then.
+ */
+@ToString
+public class ColumnVector {
+  private final ExprType type;
+  private final int size;
+  private ExprValue[] values;
+  private final long[] longs;
+  private final double[] doubles;
+  private final boolean[] booleans;
+  private final BitSet nulls;
+  private final BitSet missings;
+
+  /**
+   * ColumnVector Constructor of the boxed values.
+   * @param size number of values in the vector
+   */
+  public ColumnVector(int size) {
+    this(null, size);
+  }
+
+  /**
+   * ColumnVector Constructor.
+   * @param type type of the values which decides the primitive array, null if the values are
+   *             only boxed
+   * @param size number of values in the vector
+   */
+  public ColumnVector(ExprType type, int size) {
+    this.type = type;
+    this.size = size;
+    this.longs = (type == INTEGER || type == LONG) ? new long[size] : null;
+    this.doubles = (type == FLOAT || type == DOUBLE) ? new double[size] : null;
+    this.booleans = (type == BOOLEAN) ? new boolean[size] : null;
+    this.values = (longs == null && doubles == null && booleans == null)
+        ? new ExprValue[size] : null;
+    this.nulls = new BitSet(size);
+    this.missings = new BitSet(size);
+  }
+
+  /**
+   * Build a vector which has the same value in every position.
+   */
+  public static ColumnVector constant(ExprValue value, int size) {
+    if (value.isNull() || value.isMissing()) {
+      ColumnVector vector = new ColumnVector(size);
+      Arrays.fill(vector.values, value);
+      (value.isNull() ? vector.nulls : vector.missings).set(0, size);
+      return vector;
+    }
+
+    ColumnVector vector = new ColumnVector(value.type(), size);
+    if (vector.longs != null) {
+      Arrays.fill(vector.longs, value.longValue());
+    } else if (vector.doubles != null) {
+      Arrays.fill(vector.doubles, value.doubleValue());
+    } else if (vector.booleans != null) {
+      Arrays.fill(vector.booleans, value.booleanValue());
+    } else {
+      Arrays.fill(vector.values, value);
+    }
+    return vector;
+  }
+
+  /**
+   * Set the value at position. The primitive value is unboxed into the primitive array.
+   */
+  public void set(int position, ExprValue value) {
+    boxedValues()[position] = value;
+    clearNullOrMissing(position);
+    if (value.isNull()) {
+      nulls.set(position);
+    } else if (value.isMissing()) {
+      missings.set(position);
+    } else if (longs != null) {
+      longs[position] = value.longValue();
+    } else if (doubles != null) {
+      doubles[position] = value.doubleValue();
+    } else if (booleans != null) {
+      booleans[position] = value.booleanValue();
+    }
+  }
+
+  public void setInteger(int position, int value) {
+    setLong(position, value);
+  }
+
+  /**
+   * Set the primitive value at position of the INTEGER or LONG vector.
+   */
+  public void setLong(int position, long value) {
+    longs[position] = value;
+    setPrimitive(position);
+  }
+
+  public void setFloat(int position, float value) {
+    setDouble(position, value);
+  }
+
+  /**
+   * Set the primitive value at position of the FLOAT or DOUBLE vector.
+   */
+  public void setDouble(int position, double value) {
+    doubles[position] = value;
+    setPrimitive(position);
+  }
+
+  /**
+   * Set the primitive value at position of the BOOLEAN vector.
+   */
+  public void setBoolean(int position, boolean value) {
+    booleans[position] = value;
+    setPrimitive(position);
+  }
+
+  /**
+   * Get the value at position. The value set as primitive is boxed on the first read.
+   */
+  public ExprValue get(int position) {
+    ExprValue[] boxed = boxedValues();
+    if (boxed[position] == null) {
+      boxed[position] = box(position);
+    }
+    return boxed[position];
+  }
+
+  public int getInteger(int position) {
+    return longs != null ? (int) longs[position] : get(position).integerValue();
+  }
+
+  public long getLong(int position) {
+    return longs != null ? longs[position] : get(position).longValue();
+  }
+
+  public float getFloat(int position) {
+    return doubles != null ? (float) doubles[position] : get(position).floatValue();
+  }
+
+  public double getDouble(int position) {
+    return doubles != null ? doubles[position] : get(position).doubleValue();
+  }
+
+  public boolean getBoolean(int position) {
+    return booleans != null ? booleans[position] : get(position).booleanValue();
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isNull(int position) {
+    return nulls.get(position);
+  }
+
+  public boolean isMissing(int position) {
+    return missings.get(position);
+  }
+
+  public boolean isNullOrMissing(int position) {
+    return nulls.get(position) || missings.get(position);
+  }
+
+  /**
+   * The positions of the NULL and MISSING values.
+   * @return new {@link BitSet} which could be modified by the caller
+   */
+  public BitSet nullOrMissing() {
+    BitSet positions = (BitSet) nulls.clone();
+    positions.or(missings);
+    return positions;
+  }
+
+  /**
+   * Is the value at position BOOLEAN TRUE. NULL and MISSING are not true.
+   */
+  public boolean isTrue(int position) {
+    if (isNullOrMissing(position)) {
+      return false;
+    }
+    return booleans != null
+        ? booleans[position] : ExprValueUtils.getBooleanValue(get(position));
+  }
+
+  private void setPrimitive(int position) {
+    if (values != null) {
+      values[position] = null;
+    }
+    clearNullOrMissing(position);
+  }
+
+  /**
+   * Clear the bits only if they are set, because {@link BitSet#clear(int)} on the non-empty
+   * bitmap recalculates the words in use every time. Nothing is checked on the empty bitmaps.
+   */
+  private void clearNullOrMissing(int position) {
+    if (!nulls.isEmpty() && nulls.get(position)) {
+      nulls.clear(position);
+    }
+    if (!missings.isEmpty() && missings.get(position)) {
+      missings.clear(position);
+    }
+  }
+
+  private ExprValue[] boxedValues() {
+    if (values == null) {
+      values = new ExprValue[size];
+    }
+    return values;
+  }
+
+  private ExprValue box(int position) {
+    if (type == INTEGER) {
+      return ExprValueUtils.integerValue((int) longs[position]);
+    } else if (type == LONG) {
+      return ExprValueUtils.longValue(longs[position]);
+    } else if (type == FLOAT) {
+      return ExprValueUtils.floatValue((float) doubles[position]);
+    } else if (type == DOUBLE) {
+      return ExprValueUtils.doubleValue(doubles[position]);
+    } else {
+      return ExprValueUtils.booleanValue(booleans[position]);
+    }
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.data.batch;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.google.common.collect.Iterators;
+import java.util.Arrays;
+import java.util.Iterator;
+import lombok.ToString;
+
+/**
+ * Row Batch. A bounded group of rows which is passed between the operators at once, instead of
+ * one row per {@link Iterator#next()} call.
+ */
+@ToString
+public class RowBatch implements Iterable<ExprValue> {
+  /**
+   * Default number of rows in one batch.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 1024;
+
+  private final ExprValue[] rows;
+  private int size;
+
+  /**
+   * RowBatch Constructor.
+   * @param capacity max number of rows the batch could hold
+   */
+  public RowBatch(int capacity) {
+    this.rows = new ExprValue[capacity];
+    this.size = 0;
+  }
+
+  /**
+   * Build a batch from rows.
+   */
+  public static RowBatch of(ExprValue... rows) {
+    RowBatch batch = new RowBatch(rows.length);
+    for (ExprValue row : rows) {
+      batch.add(row);
+    }
+    return batch;
+  }
+
+  public void add(ExprValue row) {
+    rows[size++] = row;
+  }
+
+  public ExprValue get(int position) {
+    return rows[position];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean isFull() {
+    return size == rows.length;
+  }
+
+  /**
+   * Select the rows whose position is true in the selection vector.
+   * @param selection {@link ColumnVector} with the same size as the batch
+   * @return new batch which only has the selected rows
+   */
+  public RowBatch select(ColumnVector selection) {
+    RowBatch selected = new RowBatch(size);
+    for (int i = 0; i < size; i++) {
+      if (selection.isTrue(i)) {
+        selected.add(rows[i]);
+      }
+    }
+    return selected;
+  }
+
+  @Override
+  public Iterator<ExprValue> iterator() {
+    return Iterators.limit(Arrays.asList(rows).iterator(), size);
+  }
+}
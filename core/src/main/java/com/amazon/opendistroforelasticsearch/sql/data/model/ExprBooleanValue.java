@@ -23,9 +23,9 @@ public class ExprBooleanValue implements ExprValue {
   private static final ExprValue TRUE = new ExprBooleanValue(true);
   private static final ExprValue FALSE = new ExprBooleanValue(false);
 
-  private final Boolean value;
+  private final boolean value;
 
-  private ExprBooleanValue(Boolean value) {
+  private ExprBooleanValue(boolean value) {
     this.value = value;
   }
 
@@ -37,11 +37,20 @@ public class ExprBooleanValue implements ExprValue {
     return FALSE;
   }
 
+  public static ExprValue of(boolean value) {
+    return value ? TRUE : FALSE;
+  }
+
   @Override
   public Object value() {
     return value;
   }
 
+  @Override
+  public boolean booleanValue() {
+    return value;
+  }
+
   @Override
   public ExprCoreType type() {
     return ExprCoreType.BOOLEAN;
@@ -49,6 +58,6 @@ public class ExprBooleanValue implements ExprValue {
 
   @Override
   public String toString() {
-    return value.toString();
+    return Boolean.toString(value);
   }
 }
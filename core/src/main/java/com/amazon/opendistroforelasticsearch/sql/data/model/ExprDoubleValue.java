@@ -22,13 +22,33 @@ import lombok.RequiredArgsConstructor;
 @EqualsAndHashCode
 @RequiredArgsConstructor
 public class ExprDoubleValue implements ExprValue {
-  private final Double value;
+  private final double value;
 
   @Override
   public Object value() {
     return value;
   }
 
+  @Override
+  public int integerValue() {
+    return (int) value;
+  }
+
+  @Override
+  public long longValue() {
+    return (long) value;
+  }
+
+  @Override
+  public float floatValue() {
+    return (float) value;
+  }
+
+  @Override
+  public double doubleValue() {
+    return value;
+  }
+
   @Override
   public ExprCoreType type() {
     return ExprCoreType.DOUBLE;
@@ -36,6 +56,6 @@ public class ExprDoubleValue implements ExprValue {
 
   @Override
   public String toString() {
-    return value.toString();
+    return Double.toString(value);
   }
 }
@@ -22,13 +22,33 @@ import lombok.RequiredArgsConstructor;
 @EqualsAndHashCode
 @RequiredArgsConstructor
 public class ExprFloatValue implements ExprValue {
-  private final Float value;
+  private final float value;
 
   @Override
   public Object value() {
     return value;
   }
 
+  @Override
+  public int integerValue() {
+    return (int) value;
+  }
+
+  @Override
+  public long longValue() {
+    return (long) value;
+  }
+
+  @Override
+  public float floatValue() {
+    return value;
+  }
+
+  @Override
+  public double doubleValue() {
+    return value;
+  }
+
   @Override
   public ExprCoreType type() {
     return ExprCoreType.FLOAT;
@@ -36,6 +56,6 @@ public class ExprFloatValue implements ExprValue {
 
   @Override
   public String toString() {
-    return value.toString();
+    return Float.toString(value);
   }
 }
@@ -22,13 +22,33 @@ import lombok.RequiredArgsConstructor;
 @EqualsAndHashCode
 @RequiredArgsConstructor
 public class ExprIntegerValue implements ExprValue {
-  private final Integer value;
+  private final int value;
 
   @Override
   public Object value() {
     return value;
   }
 
+  @Override
+  public int integerValue() {
+    return value;
+  }
+
+  @Override
+  public long longValue() {
+    return value;
+  }
+
+  @Override
+  public float floatValue() {
+    return value;
+  }
+
+  @Override
+  public double doubleValue() {
+    return value;
+  }
+
   @Override
   public ExprCoreType type() {
     return ExprCoreType.INTEGER;
@@ -36,6 +56,6 @@ public class ExprIntegerValue implements ExprValue {
 
   @Override
   public String toString() {
-    return value.toString();
+    return Integer.toString(value);
   }
 }
@@ -22,13 +22,33 @@ import lombok.RequiredArgsConstructor;
 @EqualsAndHashCode
 @RequiredArgsConstructor
 public class ExprLongValue implements ExprValue {
-  private final Long value;
+  private final long value;
 
   @Override
   public Object value() {
     return value;
   }
 
+  @Override
+  public int integerValue() {
+    return (int) value;
+  }
+
+  @Override
+  public long longValue() {
+    return value;
+  }
+
+  @Override
+  public float floatValue() {
+    return value;
+  }
+
+  @Override
+  public double doubleValue() {
+    return value;
+  }
+
   @Override
   public ExprCoreType type() {
     return ExprCoreType.LONG;
@@ -36,6 +56,6 @@ public class ExprLongValue implements ExprValue {
 
   @Override
   public String toString() {
-    return value.toString();
+    return Long.toString(value);
   }
 }
@@ -0,0 +1,159 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.data.model;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * The schema of {@link ExprTupleValue}. It maps the field names to the positions of the values in
+ * the value array of the tuple. The rows produced by one operator share the schema, and the rows
+ * derived by project, rename and remove share the value array of the input row with a remapped
+ * schema.
+ */
+public class ExprTupleSchema {
+  /**
+   * Schemas smaller than the threshold find the field by linear scan instead of a hash index.
+   */
+  private static final int INDEX_THRESHOLD = 8;
+
+  private final String[] fieldNames;
+
+  /**
+   * Position in the value array of each field.
+   */
+  private final int[] positions;
+
+  /**
+   * Index of each field name, built on the first lookup for large schemas.
+   */
+  private Map<String, Integer> fieldIndex;
+
+  private ExprTupleSchema(String[] fieldNames, int[] positions) {
+    this.fieldNames = fieldNames;
+    this.positions = positions;
+  }
+
+  /**
+   * Create the schema whose fields are stored in the value array in order.
+   *
+   * @param fieldNames field names
+   * @return {@link ExprTupleSchema}
+   */
+  public static ExprTupleSchema of(Collection<String> fieldNames) {
+    int[] positions = new int[fieldNames.size()];
+    Arrays.setAll(positions, i -> i);
+    return new ExprTupleSchema(fieldNames.toArray(new String[0]), positions);
+  }
+
+  public int size() {
+    return fieldNames.length;
+  }
+
+  public String fieldName(int index) {
+    return fieldNames[index];
+  }
+
+  /**
+   * Position of the field at the index in the value array.
+   */
+  public int position(int index) {
+    return positions[index];
+  }
+
+  /**
+   * Index of the field.
+   *
+   * @param fieldName field name
+   * @return index of the field, or -1 if the field doesn't exist
+   */
+  public int indexOf(String fieldName) {
+    if (fieldNames.length <= INDEX_THRESHOLD) {
+      for (int i = 0; i < fieldNames.length; i++) {
+        if (fieldNames[i].equals(fieldName)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+    if (fieldIndex == null) {
+      ImmutableMap.Builder<String, Integer> builder = ImmutableMap.builder();
+      for (int i = 0; i < fieldNames.length; i++) {
+        builder.put(fieldNames[i], i);
+      }
+      fieldIndex = builder.build();
+    }
+    return fieldIndex.getOrDefault(fieldName, -1);
+  }
+
+  /**
+   * Is the schema consisted of the field names in order.
+   */
+  public boolean hasFieldNames(Collection<String> names) {
+    if (names.size() != fieldNames.length) {
+      return false;
+    }
+    int i = 0;
+    for (String name : names) {
+      if (!fieldNames[i++].equals(name)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Schema with the fields renamed. The positions of the fields are unchanged.
+   *
+   * @param renameFunction function returns the new name of the field
+   * @return renamed schema
+   * @throws IllegalArgumentException if two fields have the same name after rename
+   */
+  public ExprTupleSchema rename(UnaryOperator<String> renameFunction) {
+    String[] newNames = new String[fieldNames.length];
+    Set<String> uniqueNames = new HashSet<>();
+    for (int i = 0; i < fieldNames.length; i++) {
+      newNames[i] = renameFunction.apply(fieldNames[i]);
+      if (!uniqueNames.add(newNames[i])) {
+        throw new IllegalArgumentException(
+            String.format("duplicate field name %s after rename", newNames[i]));
+      }
+    }
+    return new ExprTupleSchema(newNames, positions);
+  }
+
+  /**
+   * Schema with the fields at the indices. The positions of the fields are unchanged.
+   *
+   * @param indices indices of the selected fields
+   * @return schema with the selected fields
+   */
+  public ExprTupleSchema select(List<Integer> indices) {
+    String[] newNames = new String[indices.size()];
+    int[] newPositions = new int[indices.size()];
+    for (int i = 0; i < newNames.length; i++) {
+      newNames[i] = fieldNames[indices.get(i)];
+      newPositions[i] = positions[indices.get(i)];
+    }
+    return new ExprTupleSchema(newNames, newPositions);
+  }
+}
@@ -16,28 +16,91 @@
 package com.amazon.opendistroforelasticsearch.sql.data.model;
 
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
 import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
-import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.LazyBindingTuple;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.stream.Collectors;
-import lombok.RequiredArgsConstructor;
+import java.util.stream.IntStream;
 
-@RequiredArgsConstructor
+/**
+ * Tuple value. The values are kept in an array, the field names and the positions of the values
+ * are kept in the {@link ExprTupleSchema} which is shared by the rows with the same fields.
+ */
 public class ExprTupleValue implements ExprValue {
 
-  private final LinkedHashMap<String, ExprValue> valueMap;
+  private final ExprTupleSchema schema;
+
+  private final ExprValue[] values;
+
+  /**
+   * The {@link BindingTuple} is created once and shared by all the expressions evaluated on
+   * this tuple.
+   */
+  private BindingTuple bindingTuple;
+
+  /**
+   * ExprTupleValue constructor.
+   *
+   * @param schema schema
+   * @param values value array which has the value of each field at the position in the schema
+   */
+  public ExprTupleValue(ExprTupleSchema schema, ExprValue[] values) {
+    this.schema = schema;
+    this.values = values;
+  }
 
   public static ExprTupleValue fromExprValueMap(Map<String, ExprValue> map) {
-    LinkedHashMap<String, ExprValue> linkedHashMap = new LinkedHashMap<>(map);
-    return new ExprTupleValue(linkedHashMap);
+    return fromExprValueMap(map, null);
+  }
+
+  /**
+   * Create the tuple from map. The given schema is reused if it has the same field names as the
+   * map, so the consecutive rows with the same fields share one schema.
+   *
+   * @param map       field name and value map
+   * @param reuseable schema to reuse, could be null
+   * @return {@link ExprTupleValue}
+   */
+  public static ExprTupleValue fromExprValueMap(Map<String, ExprValue> map,
+                                                ExprTupleSchema reuseable) {
+    ExprTupleSchema schema = (reuseable != null && reuseable.hasFieldNames(map.keySet()))
+        ? reuseable : ExprTupleSchema.of(map.keySet());
+    return new ExprTupleValue(schema, map.values().toArray(new ExprValue[0]));
+  }
+
+  public ExprTupleSchema getSchema() {
+    return schema;
+  }
+
+  /**
+   * Value of the field at the index in the schema.
+   */
+  public ExprValue valueAt(int index) {
+    return values[schema.position(index)];
+  }
+
+  /**
+   * Create the tuple with the same values but different schema, e.g. with renamed fields. The
+   * value array is shared instead of copied.
+   *
+   * @param newSchema schema remapped from the schema of this tuple
+   * @return {@link ExprTupleValue}
+   */
+  public ExprTupleValue withSchema(ExprTupleSchema newSchema) {
+    return new ExprTupleValue(newSchema, values);
   }
 
+  /**
+   * The read-only map view of the tuple. The map is not copied.
+   */
   @Override
   public Object value() {
-    return valueMap;
+    return new TupleMap();
   }
 
   @Override
@@ -47,16 +110,23 @@ public class ExprTupleValue implements ExprValue {
 
   @Override
   public String toString() {
-    return valueMap.entrySet()
-        .stream()
-        .map(entry -> String.format("%s:%s", entry.getKey(), entry.getValue()))
+    return IntStream.range(0, schema.size())
+        .mapToObj(i -> String.format("%s:%s", schema.fieldName(i), valueAt(i)))
         .collect(Collectors.joining(",", "{", "}"));
   }
 
   @Override
   public BindingTuple bindingTuples() {
-    return new LazyBindingTuple(
-        bindingName -> valueMap.getOrDefault(bindingName, ExprMissingValue.of()));
+    if (bindingTuple == null) {
+      bindingTuple = new BindingTuple() {
+        @Override
+        public ExprValue resolve(ReferenceExpression ref) {
+          int index = schema.indexOf(ref.getAttr());
+          return index < 0 ? ExprMissingValue.of() : valueAt(index);
+        }
+      };
+    }
+    return bindingTuple;
   }
 
   /**
@@ -70,15 +140,71 @@ public class ExprTupleValue implements ExprValue {
       return false;
     } else {
       ExprTupleValue other = (ExprTupleValue) o;
-      Iterator<Entry<String, ExprValue>> thisIterator = this.valueMap.entrySet().iterator();
-      Iterator<Entry<String, ExprValue>> otherIterator = other.valueMap.entrySet().iterator();
-      while (thisIterator.hasNext() && otherIterator.hasNext()) {
-        if (!thisIterator.next().equals(otherIterator.next())) {
+      if (schema.size() != other.schema.size()) {
+        return false;
+      }
+      for (int i = 0; i < schema.size(); i++) {
+        if (!schema.fieldName(i).equals(other.schema.fieldName(i))
+            || !valueAt(i).equals(other.valueAt(i))) {
           return false;
         }
       }
-      return !(thisIterator.hasNext() || otherIterator.hasNext());
+      return true;
     }
   }
 
+  /**
+   * Read-only map view of the tuple in field order.
+   */
+  private class TupleMap extends AbstractMap<String, ExprValue> {
+
+    @Override
+    public ExprValue get(Object key) {
+      int index = schema.indexOf((String) key);
+      return index < 0 ? null : valueAt(index);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return schema.indexOf((String) key) >= 0;
+    }
+
+    @Override
+    public int size() {
+      return schema.size();
+    }
+
+    @Override
+    public Set<Entry<String, ExprValue>> entrySet() {
+      return new AbstractSet<Entry<String, ExprValue>>() {
+        @Override
+        public Iterator<Entry<String, ExprValue>> iterator() {
+          return new Iterator<Entry<String, ExprValue>>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+              return index < schema.size();
+            }
+
+            @Override
+            public Entry<String, ExprValue> next() {
+              if (!hasNext()) {
+                throw new NoSuchElementException();
+              }
+              Entry<String, ExprValue> entry =
+                  new SimpleImmutableEntry<>(schema.fieldName(index), valueAt(index));
+              index++;
+              return entry;
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return schema.size();
+        }
+      };
+    }
+  }
 }
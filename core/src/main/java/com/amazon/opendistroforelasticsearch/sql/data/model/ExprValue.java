@@ -16,6 +16,7 @@
 package com.amazon.opendistroforelasticsearch.sql.data.model;
 
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
+import com.amazon.opendistroforelasticsearch.sql.exception.ExpressionEvaluationException;
 import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
 
 /**
@@ -50,6 +51,46 @@ public interface ExprValue {
     return false;
   }
 
+  /**
+   * Get the primitive int value without boxing. Only numeric values support it.
+   */
+  default int integerValue() {
+    throw new ExpressionEvaluationException(
+        String.format("invalid to get integerValue from value of type %s", type()));
+  }
+
+  /**
+   * Get the primitive long value without boxing. Only numeric values support it.
+   */
+  default long longValue() {
+    throw new ExpressionEvaluationException(
+        String.format("invalid to get longValue from value of type %s", type()));
+  }
+
+  /**
+   * Get the primitive float value without boxing. Only numeric values support it.
+   */
+  default float floatValue() {
+    throw new ExpressionEvaluationException(
+        String.format("invalid to get floatValue from value of type %s", type()));
+  }
+
+  /**
+   * Get the primitive double value without boxing. Only numeric values support it.
+   */
+  default double doubleValue() {
+    throw new ExpressionEvaluationException(
+        String.format("invalid to get doubleValue from value of type %s", type()));
+  }
+
+  /**
+   * Get the primitive boolean value without boxing. Only boolean value support it.
+   */
+  default boolean booleanValue() {
+    throw new ExpressionEvaluationException(
+        String.format("invalid to get booleanValue from value of type %s", type()));
+  }
+
   /**
    * Get the {@link BindingTuple}.
    */
@@ -39,23 +39,23 @@ public class ExprValueUtils {
   public static final ExprValue LITERAL_NULL = ExprNullValue.of();
   public static final ExprValue LITERAL_MISSING = ExprMissingValue.of();
 
-  public static ExprValue booleanValue(Boolean value) {
+  public static ExprValue booleanValue(boolean value) {
     return value ? LITERAL_TRUE : LITERAL_FALSE;
   }
 
-  public static ExprValue integerValue(Integer value) {
+  public static ExprValue integerValue(int value) {
     return new ExprIntegerValue(value);
   }
 
-  public static ExprValue doubleValue(Double value) {
+  public static ExprValue doubleValue(double value) {
     return new ExprDoubleValue(value);
   }
 
-  public static ExprValue floatValue(Float value) {
+  public static ExprValue floatValue(float value) {
     return new ExprFloatValue(value);
   }
 
-  public static ExprValue longValue(Long value) {
+  public static ExprValue longValue(long value) {
     return new ExprLongValue(value);
   }
 
@@ -69,7 +69,7 @@ public class ExprValueUtils {
   public static ExprValue tupleValue(Map<String, Object> map) {
     LinkedHashMap<String, ExprValue> valueMap = new LinkedHashMap<>();
     map.forEach((k, v) -> valueMap.put(k, fromObjectValue(v)));
-    return new ExprTupleValue(valueMap);
+    return ExprTupleValue.fromExprValueMap(valueMap);
   }
 
   /**
@@ -0,0 +1,168 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.data.utils;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprCollectionValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
+import com.amazon.opendistroforelasticsearch.sql.exception.ExpressionEvaluationException;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Binary codec of {@link ExprValue}, which is used to spill the {@link ExprValue} to disk and
+ * read it back. Each value is encoded as one tag byte followed by the payload of the type.
+ */
+@UtilityClass
+public class ExprValueCodec {
+  private static final byte NULL = 0;
+  private static final byte MISSING = 1;
+  private static final byte BOOLEAN = 2;
+  private static final byte INTEGER = 3;
+  private static final byte LONG = 4;
+  private static final byte FLOAT = 5;
+  private static final byte DOUBLE = 6;
+  private static final byte STRING = 7;
+  private static final byte STRUCT = 8;
+  private static final byte ARRAY = 9;
+
+  /**
+   * Encode the {@link ExprValue} to output.
+   */
+  public static void encode(ExprValue value, DataOutput out) throws IOException {
+    if (value.isNull()) {
+      out.writeByte(NULL);
+      return;
+    }
+    if (value.isMissing()) {
+      out.writeByte(MISSING);
+      return;
+    }
+    switch (value.type()) {
+      case BOOLEAN:
+        out.writeByte(BOOLEAN);
+        out.writeBoolean(value.booleanValue());
+        break;
+      case INTEGER:
+        out.writeByte(INTEGER);
+        out.writeInt(value.integerValue());
+        break;
+      case LONG:
+        out.writeByte(LONG);
+        out.writeLong(value.longValue());
+        break;
+      case FLOAT:
+        out.writeByte(FLOAT);
+        out.writeFloat(value.floatValue());
+        break;
+      case DOUBLE:
+        out.writeByte(DOUBLE);
+        out.writeDouble(value.doubleValue());
+        break;
+      case STRING:
+        out.writeByte(STRING);
+        writeString(ExprValueUtils.getStringValue(value), out);
+        break;
+      case STRUCT:
+        Map<String, ExprValue> tuple = ExprValueUtils.getTupleValue(value);
+        out.writeByte(STRUCT);
+        out.writeInt(tuple.size());
+        for (Map.Entry<String, ExprValue> entry : tuple.entrySet()) {
+          writeString(entry.getKey(), out);
+          encode(entry.getValue(), out);
+        }
+        break;
+      case ARRAY:
+        List<ExprValue> collection = ExprValueUtils.getCollectionValue(value);
+        out.writeByte(ARRAY);
+        out.writeInt(collection.size());
+        for (ExprValue element : collection) {
+          encode(element, out);
+        }
+        break;
+      default:
+        throw new ExpressionEvaluationException(
+            String.format("unsupported value type [%s] in encoding", value.type()));
+    }
+  }
+
+  /**
+   * Decode the {@link ExprValue} from input.
+   */
+  public static ExprValue decode(DataInput in) throws IOException {
+    byte tag = in.readByte();
+    switch (tag) {
+      case NULL:
+        return ExprValueUtils.LITERAL_NULL;
+      case MISSING:
+        return ExprValueUtils.LITERAL_MISSING;
+      case BOOLEAN:
+        return ExprValueUtils.booleanValue(in.readBoolean());
+      case INTEGER:
+        return ExprValueUtils.integerValue(in.readInt());
+      case LONG:
+        return ExprValueUtils.longValue(in.readLong());
+      case FLOAT:
+        return ExprValueUtils.floatValue(in.readFloat());
+      case DOUBLE:
+        return ExprValueUtils.doubleValue(in.readDouble());
+      case STRING:
+        return ExprValueUtils.stringValue(readString(in));
+      case STRUCT:
+        int tupleSize = in.readInt();
+        LinkedHashMap<String, ExprValue> tuple = new LinkedHashMap<>();
+        for (int i = 0; i < tupleSize; i++) {
+          tuple.put(readString(in), decode(in));
+        }
+        return ExprTupleValue.fromExprValueMap(tuple);
+      case ARRAY:
+        int collectionSize = in.readInt();
+        List<ExprValue> collection = new ArrayList<>(collectionSize);
+        for (int i = 0; i < collectionSize; i++) {
+          collection.add(decode(in));
+        }
+        return new ExprCollectionValue(collection);
+      default:
+        throw new ExpressionEvaluationException(
+            String.format("unexpected tag [%d] in decoding", tag));
+    }
+  }
+
+  /**
+   * {@link DataOutput#writeUTF(String)} is limited to 64KB, so the string is written as the
+   * length and the UTF-8 bytes.
+   */
+  private static void writeString(String value, DataOutput out) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInput in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.data.utils;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
+import java.util.Map;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Estimate the heap size of {@link ExprValue} in bytes. The estimation is rough, which is only
+ * used to decide when the operator should spill to disk.
+ */
+@UtilityClass
+public class ExprValueSizeEstimator {
+  /**
+   * Object header plus the reference to the value.
+   */
+  private static final long OBJECT_OVERHEAD = 16;
+  private static final long ENTRY_OVERHEAD = 32;
+  private static final long STRING_OVERHEAD = 40;
+
+  /**
+   * Estimate the heap size of the {@link ExprValue}.
+   */
+  public static long estimate(ExprValue value) {
+    if (value.isNull() || value.isMissing()) {
+      return 0;
+    }
+    switch (value.type()) {
+      case LONG:
+      case DOUBLE:
+        return OBJECT_OVERHEAD + Long.BYTES;
+      case STRING:
+        return OBJECT_OVERHEAD + estimate(ExprValueUtils.getStringValue(value));
+      case STRUCT:
+        long tupleSize = OBJECT_OVERHEAD;
+        for (Map.Entry<String, ExprValue> entry : ExprValueUtils.getTupleValue(value).entrySet()) {
+          tupleSize += ENTRY_OVERHEAD + estimate(entry.getKey()) + estimate(entry.getValue());
+        }
+        return tupleSize;
+      case ARRAY:
+        long collectionSize = OBJECT_OVERHEAD;
+        for (ExprValue element : ExprValueUtils.getCollectionValue(value)) {
+          collectionSize += Long.BYTES + estimate(element);
+        }
+        return collectionSize;
+      default:
+        return OBJECT_OVERHEAD;
+    }
+  }
+
+  private static long estimate(String value) {
+    return STRING_OVERHEAD + 2L * value.length();
+  }
+}
@@ -17,6 +17,7 @@
 package com.amazon.opendistroforelasticsearch.sql.executor;
 
 import com.amazon.opendistroforelasticsearch.sql.common.response.ResponseListener;
+import com.amazon.opendistroforelasticsearch.sql.common.response.StreamingResponseListener;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
 import java.util.List;
@@ -35,6 +36,41 @@ public interface ExecutionEngine {
    */
   void execute(PhysicalPlan plan, ResponseListener<QueryResponse> listener);
 
+  /**
+   * Execute physical plan and call back streaming response listener with the results chunk by
+   * chunk. By default, all the results are returned in one chunk.
+   *
+   * @param plan     executable physical plan
+   * @param listener streaming response listener
+   */
+  default void stream(PhysicalPlan plan, StreamingResponseListener<QueryResponse> listener) {
+    execute(plan, new ResponseListener<QueryResponse>() {
+      @Override
+      public void onResponse(QueryResponse response) {
+        listener.onChunk(response);
+        listener.onComplete();
+      }
+
+      @Override
+      public void onFailure(Exception e) {
+        listener.onFailure(e);
+      }
+    });
+  }
+
+  /**
+   * Execute physical plan in the {@link QueryContext} which stops the execution once the query is
+   * cancelled or timed out. By default, the context is ignored.
+   *
+   * @param plan     executable physical plan
+   * @param context  query context
+   * @param listener streaming response listener
+   */
+  default void stream(PhysicalPlan plan, QueryContext context,
+                      StreamingResponseListener<QueryResponse> listener) {
+    stream(plan, listener);
+  }
+
   /**
    * Data class that encapsulates ExprValue.
    */
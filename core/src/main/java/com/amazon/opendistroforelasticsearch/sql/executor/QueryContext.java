@@ -0,0 +1,117 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.executor;
+
+import com.amazon.opendistroforelasticsearch.sql.exception.QueryCancelledException;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Execution context of one query, which carries the deadline and the cancellation flag. The query
+ * is stopped cooperatively: the operators call {@link #checkCancelled()} while pulling the rows,
+ * and the query fails with {@link QueryCancelledException} once it is cancelled or timed out.
+ * If profiling is requested, the {@link QueryProfile} of the plan is set once all the rows are
+ * returned.
+ */
+public class QueryContext {
+
+  /**
+   * Max time the query is allowed to run. Null means the query runs until completion.
+   */
+  @Getter
+  private final Duration timeout;
+
+  /**
+   * Deadline in {@link System#nanoTime()}, only valid if timeout is not null.
+   */
+  private final long deadline;
+
+  /**
+   * The reason why the query is cancelled, or null if it is not cancelled.
+   */
+  private volatile String cancelReason;
+
+  /**
+   * Is the runtime profile of the operators collected.
+   */
+  @Getter
+  private final boolean profiling;
+
+  /**
+   * Profile of the plan, or null if not profiling or the query is not completed.
+   */
+  @Getter
+  @Setter
+  private volatile QueryProfile profile;
+
+  /**
+   * Context of the query without timeout.
+   */
+  public QueryContext() {
+    this(null);
+  }
+
+  /**
+   * Context of the query with timeout which starts from now.
+   * @param timeout max time the query is allowed to run, no timeout if null or not positive
+   */
+  public QueryContext(Duration timeout) {
+    this(timeout, false);
+  }
+
+  /**
+   * Context of the query with timeout which starts from now.
+   * @param timeout max time the query is allowed to run, no timeout if null or not positive
+   * @param profiling collect the runtime profile of the operators if true
+   */
+  public QueryContext(Duration timeout, boolean profiling) {
+    this.profiling = profiling;
+    if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+      this.timeout = null;
+      this.deadline = 0L;
+    } else {
+      this.timeout = timeout;
+      this.deadline = System.nanoTime() + timeout.toNanos();
+    }
+  }
+
+  /**
+   * Cancel the query. The operators stop at the next time they check the context.
+   * @param reason why the query is cancelled
+   */
+  public void cancel(String reason) {
+    this.cancelReason = reason;
+  }
+
+  public boolean isCancelled() {
+    return cancelReason != null;
+  }
+
+  /**
+   * Check if the query is cancelled or timed out.
+   * @throws QueryCancelledException if the query should stop
+   */
+  public void checkCancelled() {
+    if (cancelReason != null) {
+      throw new QueryCancelledException("Query was cancelled: " + cancelReason);
+    }
+    if (timeout != null && System.nanoTime() - deadline > 0) {
+      throw new QueryCancelledException(
+          "Query timed out after " + timeout.toMillis() + "ms");
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.executor;
+
+import java.util.List;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Runtime profile of one operator in the physical plan, with the profiles of its inputs as the
+ * children. The input rows are pulled by the operator, so its time includes the time of the
+ * children.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class QueryProfile {
+
+  /**
+   * Name of the operator.
+   */
+  private final String name;
+
+  /**
+   * Number of rows returned by the operator.
+   */
+  private final long rows;
+
+  /**
+   * Wall time in nanoseconds spent in the operator, including the time of the children.
+   */
+  private final long timeNanos;
+
+  /**
+   * Metrics specific to the operator, such as the peak memory of the buffered rows.
+   */
+  private final Map<String, Long> metrics;
+
+  /**
+   * Profiles of the input operators.
+   */
+  private final List<QueryProfile> children;
+
+  /**
+   * Number of rows read from the children.
+   */
+  public long getRowsIn() {
+    return children.stream().mapToLong(QueryProfile::getRows).sum();
+  }
+
+  /**
+   * Wall time in nanoseconds spent in the operator itself, excluding the time of the children.
+   */
+  public long getSelfTimeNanos() {
+    long childrenTime = children.stream().mapToLong(QueryProfile::getTimeNanos).sum();
+    return Math.max(0L, timeNanos - childrenTime);
+  }
+}
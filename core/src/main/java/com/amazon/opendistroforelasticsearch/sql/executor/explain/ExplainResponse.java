@@ -0,0 +1,29 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.executor.explain;
+
+import lombok.Data;
+
+/**
+ * Explanation of how a query is planned: the logical plan analyzed from the query, the logical
+ * plan after optimization, and the physical plan with the operations pushed down to the storage.
+ */
+@Data
+public class ExplainResponse {
+  private final ExplainNode analyzed;
+  private final ExplainNode optimized;
+  private final ExplainNode physical;
+}
@@ -0,0 +1,256 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.executor.explain;
+
+import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.SortOption;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.planner.Planner;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalAggregation;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalDedupe;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalEval;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalFilter;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanNodeVisitor;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalProject;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalRelation;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalRemove;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalRename;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalSort;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalValues;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.AggregationOperator;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.DedupeOperator;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.EvalOperator;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.FilterOperator;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlanNodeVisitor;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.ProjectOperator;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.RemoveOperator;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.RenameOperator;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.SortOperator;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.ValuesOperator;
+import com.amazon.opendistroforelasticsearch.sql.storage.TableScanOperator;
+import com.google.common.collect.ImmutableMap;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Explain the logical and physical plan node by node. The expressions are described by their
+ * string representation, and the table scan is described by the request it sends to the storage,
+ * which shows the operations pushed down.
+ */
+public class PlanExplainer {
+
+  /**
+   * Explain how the analyzed logical plan is optimized and implemented by the planner. The
+   * physical plan is only generated, not opened, so nothing is sent to the storage.
+   *
+   * @param plan    logical plan analyzed from the query
+   * @param planner planner
+   * @return explanation of the analyzed, optimized and physical plan
+   */
+  public ExplainResponse explain(LogicalPlan plan, Planner planner) {
+    LogicalPlan optimized = planner.optimize(plan);
+    return new ExplainResponse(explain(plan), explain(optimized),
+        explain(planner.implement(optimized)));
+  }
+
+  /**
+   * Explain the logical plan.
+   *
+   * @param plan logical plan
+   * @return explanation of the root node
+   */
+  public ExplainNode explain(LogicalPlan plan) {
+    return plan.accept(new LogicalPlanNodeVisitor<ExplainNode, Object>() {
+      private ExplainNode explainNode(LogicalPlan node, Map<String, Object> description) {
+        List<ExplainNode> children = node.getChild().stream()
+            .map(child -> child.accept(this, null))
+            .collect(Collectors.toList());
+        return new ExplainNode(node.getClass().getSimpleName(), description, children);
+      }
+
+      @Override
+      public ExplainNode visitRelation(LogicalRelation node, Object context) {
+        return explainNode(node, ImmutableMap.of("relationName", node.getRelationName()));
+      }
+
+      @Override
+      public ExplainNode visitFilter(LogicalFilter node, Object context) {
+        return explainNode(node, ImmutableMap.of("condition", node.getCondition().toString()));
+      }
+
+      @Override
+      public ExplainNode visitAggregation(LogicalAggregation node, Object context) {
+        return explainNode(node, ImmutableMap.of(
+            "aggregators", describe(node.getAggregatorList()),
+            "groupBy", describe(node.getGroupByList())));
+      }
+
+      @Override
+      public ExplainNode visitDedupe(LogicalDedupe node, Object context) {
+        return explainNode(node, describeDedupe(node.getDedupeList(),
+            node.getAllowedDuplication(), node.getKeepEmpty(), node.getConsecutive()));
+      }
+
+      @Override
+      public ExplainNode visitRename(LogicalRename node, Object context) {
+        return explainNode(node, ImmutableMap.of("mapping", describe(node.getRenameMap())));
+      }
+
+      @Override
+      public ExplainNode visitProject(LogicalProject node, Object context) {
+        return explainNode(node, ImmutableMap.of("fields", describe(node.getProjectList())));
+      }
+
+      @Override
+      public ExplainNode visitRemove(LogicalRemove node, Object context) {
+        return explainNode(node, ImmutableMap.of("fields", describe(node.getRemoveList())));
+      }
+
+      @Override
+      public ExplainNode visitEval(LogicalEval node, Object context) {
+        return explainNode(node, ImmutableMap.of("expressions",
+            describeAssignments(node.getExpressions())));
+      }
+
+      @Override
+      public ExplainNode visitSort(LogicalSort node, Object context) {
+        return explainNode(node, describeSort(node.getCount(), node.getSortList()));
+      }
+
+      @Override
+      public ExplainNode visitValues(LogicalValues node, Object context) {
+        return explainNode(node, ImmutableMap.of("values", node.getValues().toString()));
+      }
+    }, null);
+  }
+
+  /**
+   * Explain the physical plan.
+   *
+   * @param plan physical plan
+   * @return explanation of the root operator
+   */
+  public ExplainNode explain(PhysicalPlan plan) {
+    return plan.accept(new PhysicalPlanNodeVisitor<ExplainNode, Object>() {
+      private ExplainNode explainNode(PhysicalPlan node, Map<String, Object> description) {
+        List<ExplainNode> children = node.getChild().stream()
+            .map(child -> child.accept(this, null))
+            .collect(Collectors.toList());
+        return new ExplainNode(node.getClass().getSimpleName(), description, children);
+      }
+
+      @Override
+      public ExplainNode visitTableScan(TableScanOperator node, Object context) {
+        return explainNode(node, node.explain());
+      }
+
+      @Override
+      public ExplainNode visitFilter(FilterOperator node, Object context) {
+        return explainNode(node, ImmutableMap.of("condition", node.getConditions().toString()));
+      }
+
+      @Override
+      public ExplainNode visitAggregation(AggregationOperator node, Object context) {
+        return explainNode(node, ImmutableMap.of(
+            "aggregators", describe(node.getAggregatorList()),
+            "groupBy", describe(node.getGroupByExprList())));
+      }
+
+      @Override
+      public ExplainNode visitDedupe(DedupeOperator node, Object context) {
+        return explainNode(node, describeDedupe(node.getDedupeList(),
+            node.getAllowedDuplication(), node.getKeepEmpty(), node.getConsecutive()));
+      }
+
+      @Override
+      public ExplainNode visitRename(RenameOperator node, Object context) {
+        return explainNode(node, ImmutableMap.of("mapping", describe(node.getMapping())));
+      }
+
+      @Override
+      public ExplainNode visitProject(ProjectOperator node, Object context) {
+        return explainNode(node, ImmutableMap.of("fields", describe(node.getProjectList())));
+      }
+
+      @Override
+      public ExplainNode visitRemove(RemoveOperator node, Object context) {
+        return explainNode(node, ImmutableMap.of("fields", describe(node.getRemoveList())));
+      }
+
+      @Override
+      public ExplainNode visitEval(EvalOperator node, Object context) {
+        return explainNode(node, ImmutableMap.of("expressions",
+            describeAssignments(node.getExpressionList())));
+      }
+
+      @Override
+      public ExplainNode visitSort(SortOperator node, Object context) {
+        return explainNode(node, describeSort(node.getCount(), node.getSortList()));
+      }
+
+      @Override
+      public ExplainNode visitValues(ValuesOperator node, Object context) {
+        return explainNode(node, ImmutableMap.of("values", node.getValues().toString()));
+      }
+    }, null);
+  }
+
+  private Map<String, Object> describeDedupe(List<Expression> fields, Integer allowedDuplication,
+                                             Boolean keepEmpty, Boolean consecutive) {
+    return ImmutableMap.of(
+        "fields", describe(fields),
+        "allowedDuplication", allowedDuplication,
+        "keepEmpty", keepEmpty,
+        "consecutive", consecutive);
+  }
+
+  /**
+   * The count is omitted if the sort is not limited.
+   */
+  private Map<String, Object> describeSort(Integer count,
+                                           List<Pair<SortOption, Expression>> sortList) {
+    ImmutableMap.Builder<String, Object> description = ImmutableMap.builder();
+    if (count != null) {
+      description.put("count", count);
+    }
+    description.put("sortList", sortList.stream()
+        .map(sort -> String.format("%s %s %s", sort.getRight(),
+            sort.getLeft().getSortOrder(), sort.getLeft().getNullOrder()))
+        .collect(Collectors.toList()));
+    return description.build();
+  }
+
+  private List<String> describeAssignments(
+      List<Pair<ReferenceExpression, Expression>> assignments) {
+    return assignments.stream()
+        .map(assignment -> assignment.getLeft() + " = " + assignment.getRight())
+        .collect(Collectors.toList());
+  }
+
+  private List<String> describe(Collection<? extends Expression> expressions) {
+    return expressions.stream().map(Object::toString).collect(Collectors.toList());
+  }
+
+  private Map<String, String> describe(Map<ReferenceExpression, ReferenceExpression> mapping) {
+    return mapping.entrySet().stream().collect(Collectors.toMap(
+        entry -> entry.getKey().toString(), entry -> entry.getValue().toString()));
+  }
+}
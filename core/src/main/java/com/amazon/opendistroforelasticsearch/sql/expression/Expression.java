@@ -15,6 +15,8 @@
 
 package com.amazon.opendistroforelasticsearch.sql.expression;
 
+import com.amazon.opendistroforelasticsearch.sql.data.batch.ColumnVector;
+import com.amazon.opendistroforelasticsearch.sql.data.batch.RowBatch;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
 import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
@@ -29,6 +31,18 @@ public interface Expression {
    */
   ExprValue valueOf(Environment<Expression, ExprValue> valueEnv);
 
+  /**
+   * Evaluate the value of expression for each row in the {@link RowBatch}.
+   * By default, the expression is evaluated row by row.
+   */
+  default ColumnVector batchValueOf(RowBatch batch) {
+    ColumnVector vector = new ColumnVector(batch.size());
+    for (int i = 0; i < batch.size(); i++) {
+      vector.set(i, valueOf(batch.get(i).bindingTuples()));
+    }
+    return vector;
+  }
+
   /**
    * The type of the expression.
    */
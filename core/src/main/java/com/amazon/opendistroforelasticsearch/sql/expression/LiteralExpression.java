@@ -15,6 +15,8 @@
 
 package com.amazon.opendistroforelasticsearch.sql.expression;
 
+import com.amazon.opendistroforelasticsearch.sql.data.batch.ColumnVector;
+import com.amazon.opendistroforelasticsearch.sql.data.batch.RowBatch;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
 import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
@@ -34,6 +36,11 @@ public class LiteralExpression implements Expression {
     return exprValue;
   }
 
+  @Override
+  public ColumnVector batchValueOf(RowBatch batch) {
+    return ColumnVector.constant(exprValue, batch.size());
+  }
+
   @Override
   public ExprType type() {
     return exprValue.type();
@@ -15,6 +15,11 @@
 
 package com.amazon.opendistroforelasticsearch.sql.expression;
 
+import com.amazon.opendistroforelasticsearch.sql.data.batch.ColumnVector;
+import com.amazon.opendistroforelasticsearch.sql.data.batch.RowBatch;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprMissingValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleSchema;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
 import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
@@ -35,6 +40,32 @@ public class ReferenceExpression implements Expression {
     return env.resolve(this);
   }
 
+  /**
+   * Read the field of each row into the vector of the reference type, so the primitive values
+   * are unboxed once for the functions on the column. The index of the field in the
+   * {@link ExprTupleValue} rows is only resolved when the schema changes, not per row.
+   */
+  @Override
+  public ColumnVector batchValueOf(RowBatch batch) {
+    ColumnVector vector = new ColumnVector(type, batch.size());
+    ExprTupleSchema schema = null;
+    int index = -1;
+    for (int i = 0; i < batch.size(); i++) {
+      ExprValue row = batch.get(i);
+      if (row instanceof ExprTupleValue) {
+        ExprTupleValue tuple = (ExprTupleValue) row;
+        if (tuple.getSchema() != schema) {
+          schema = tuple.getSchema();
+          index = schema.indexOf(attr);
+        }
+        vector.set(i, index < 0 ? ExprMissingValue.of() : tuple.valueAt(index));
+      } else {
+        vector.set(i, valueOf(row.bindingTuples()));
+      }
+    }
+    return vector;
+  }
+
   @Override
   public ExprType type() {
     return type;
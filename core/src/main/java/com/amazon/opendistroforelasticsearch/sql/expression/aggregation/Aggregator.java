@@ -25,6 +25,7 @@ import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionImplementation;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionName;
 import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
+import java.util.Arrays;
 import java.util.List;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -60,6 +61,51 @@ public abstract class Aggregator<S extends AggregationState>
    */
   public abstract S iterate(BindingTuple tuple, S state);
 
+  /**
+   * Create an {@link GroupedAggregationState} which keeps the states of all the groups.
+   * By default, one {@link AggregationState} is created for each group. The aggregator which could
+   * keep its state in primitive arrays should override it.
+   */
+  public GroupedAggregationState createGroupedState() {
+    return new DefaultGroupedState();
+  }
+
+  /**
+   * Grouped state which keeps one {@link AggregationState} per group.
+   */
+  protected class DefaultGroupedState extends GroupedAggregationState {
+    private Object[] states = new Object[INITIAL_CAPACITY];
+
+    @Override
+    public int addGroup() {
+      int groupId = super.addGroup();
+      states[groupId] = create();
+      return groupId;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void iterate(int groupId, BindingTuple tuple) {
+      states[groupId] = Aggregator.this.iterate(tuple, (S) states[groupId]);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ExprValue result(int groupId) {
+      return ((S) states[groupId]).result();
+    }
+
+    @Override
+    protected int capacity() {
+      return states.length;
+    }
+
+    @Override
+    protected void grow(int newCapacity) {
+      states = Arrays.copyOf(states, newCapacity);
+    }
+  }
+
   @Override
   public ExprValue valueOf(Environment<Expression, ExprValue> valueEnv) {
     throw new ExpressionEvaluationException(
@@ -24,6 +24,8 @@ import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
 import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Locale;
 
@@ -55,6 +57,11 @@ public class AvgAggregator extends Aggregator<AvgAggregator.AvgState> {
     return state;
   }
 
+  @Override
+  public GroupedAggregationState createGroupedState() {
+    return new GroupedAvgState();
+  }
+
   @Override
   public String toString() {
     return String.format(Locale.ROOT, "avg(%s)", format(getArguments()));
@@ -78,4 +85,42 @@ public class AvgAggregator extends Aggregator<AvgAggregator.AvgState> {
       return isNullResult ? ExprNullValue.of() : ExprValueUtils.doubleValue(total / count);
     }
   }
+
+  /**
+   * Average State of all the groups, the count and total of each group are kept in primitive
+   * arrays.
+   */
+  protected class GroupedAvgState extends GroupedAggregationState {
+    private long[] counts = new long[INITIAL_CAPACITY];
+    private double[] totals = new double[INITIAL_CAPACITY];
+    private final BitSet nullResults = new BitSet();
+
+    @Override
+    public void iterate(int groupId, BindingTuple tuple) {
+      ExprValue value = getArguments().get(0).valueOf(tuple);
+      if (value.isNull() || value.isMissing()) {
+        nullResults.set(groupId);
+      } else {
+        counts[groupId]++;
+        totals[groupId] += value.doubleValue();
+      }
+    }
+
+    @Override
+    public ExprValue result(int groupId) {
+      return nullResults.get(groupId) ? ExprNullValue.of()
+          : ExprValueUtils.doubleValue(totals[groupId] / counts[groupId]);
+    }
+
+    @Override
+    protected int capacity() {
+      return counts.length;
+    }
+
+    @Override
+    protected void grow(int newCapacity) {
+      counts = Arrays.copyOf(counts, newCapacity);
+      totals = Arrays.copyOf(totals, newCapacity);
+    }
+  }
 }
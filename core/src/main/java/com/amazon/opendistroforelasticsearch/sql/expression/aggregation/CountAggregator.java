@@ -24,6 +24,7 @@ import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
 import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.CountAggregator.CountState;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
 import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 
@@ -48,6 +49,11 @@ public class CountAggregator extends Aggregator<CountState> {
     return state;
   }
 
+  @Override
+  public GroupedAggregationState createGroupedState() {
+    return new GroupedCountState();
+  }
+
   @Override
   public String toString() {
     return String.format(Locale.ROOT, "count(%s)", format(getArguments()));
@@ -68,4 +74,34 @@ public class CountAggregator extends Aggregator<CountState> {
       return ExprValueUtils.integerValue(count);
     }
   }
+
+  /**
+   * Count State of all the groups, the count of each group is kept in long array.
+   */
+  protected class GroupedCountState extends GroupedAggregationState {
+    private long[] counts = new long[INITIAL_CAPACITY];
+
+    @Override
+    public void iterate(int groupId, BindingTuple tuple) {
+      ExprValue value = getArguments().get(0).valueOf(tuple);
+      if (!(value.isNull() || value.isMissing())) {
+        counts[groupId]++;
+      }
+    }
+
+    @Override
+    public ExprValue result(int groupId) {
+      return ExprValueUtils.integerValue((int) counts[groupId]);
+    }
+
+    @Override
+    protected int capacity() {
+      return counts.length;
+    }
+
+    @Override
+    protected void grow(int newCapacity) {
+      counts = Arrays.copyOf(counts, newCapacity);
+    }
+  }
 }
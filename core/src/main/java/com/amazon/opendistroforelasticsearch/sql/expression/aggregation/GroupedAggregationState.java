@@ -0,0 +1,71 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.expression.aggregation;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
+
+/**
+ * The aggregation states of all the groups of one {@link Aggregator}. The state of each group is
+ * addressed by the group id, which is assigned incrementally from 0 by {@link #addGroup()}.
+ * The implementation could keep the states in primitive arrays instead of one
+ * {@link AggregationState} object per group.
+ */
+public abstract class GroupedAggregationState {
+  protected static final int INITIAL_CAPACITY = 16;
+
+  private int groupCount = 0;
+
+  /**
+   * Add a new group with the initial state.
+   *
+   * @return group id of the new group.
+   */
+  public int addGroup() {
+    int groupId = groupCount++;
+    if (groupId >= capacity()) {
+      grow(capacity() * 2);
+    }
+    return groupId;
+  }
+
+  public int groupCount() {
+    return groupCount;
+  }
+
+  /**
+   * Iterate on the {@link BindingTuple} which belongs to the group.
+   *
+   * @param groupId group id
+   * @param tuple   {@link BindingTuple}
+   */
+  public abstract void iterate(int groupId, BindingTuple tuple);
+
+  /**
+   * Get {@link ExprValue} result of the group.
+   */
+  public abstract ExprValue result(int groupId);
+
+  /**
+   * Number of groups the state could hold without growing.
+   */
+  protected abstract int capacity();
+
+  /**
+   * Grow the state to hold the capacity of groups.
+   */
+  protected abstract void grow(int newCapacity);
+}
@@ -34,6 +34,8 @@ import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
 import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.SumAggregator.SumState;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
 import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Locale;
 
@@ -64,6 +66,11 @@ public class SumAggregator extends Aggregator<SumState> {
     return state;
   }
 
+  @Override
+  public GroupedAggregationState createGroupedState() {
+    return new GroupedSumState();
+  }
+
   @Override
   public String toString() {
     return String.format(Locale.ROOT, "sum(%s)", format(getArguments()));
@@ -111,4 +118,68 @@ public class SumAggregator extends Aggregator<SumState> {
       return isNullResult ? ExprNullValue.of() : sumResult;
     }
   }
+
+  /**
+   * Sum State of all the groups. The INTEGER and LONG sums are kept in long array, the FLOAT and
+   * DOUBLE sums are kept in double array.
+   */
+  protected class GroupedSumState extends GroupedAggregationState {
+    private long[] longSums = new long[INITIAL_CAPACITY];
+    private double[] doubleSums = new double[INITIAL_CAPACITY];
+    private final BitSet nullResults = new BitSet();
+
+    @Override
+    public void iterate(int groupId, BindingTuple tuple) {
+      ExprValue value = getArguments().get(0).valueOf(tuple);
+      if (value.isNull() || value.isMissing()) {
+        nullResults.set(groupId);
+        return;
+      }
+      switch (returnType) {
+        case INTEGER:
+          longSums[groupId] = (int) longSums[groupId] + value.integerValue();
+          break;
+        case LONG:
+          longSums[groupId] += value.longValue();
+          break;
+        case FLOAT:
+          doubleSums[groupId] = (float) doubleSums[groupId] + value.floatValue();
+          break;
+        case DOUBLE:
+          doubleSums[groupId] += value.doubleValue();
+          break;
+        default:
+          throw new ExpressionEvaluationException(
+              String.format("unexpected type [%s] in sum aggregation", returnType));
+      }
+    }
+
+    @Override
+    public ExprValue result(int groupId) {
+      if (nullResults.get(groupId)) {
+        return ExprNullValue.of();
+      }
+      switch (returnType) {
+        case INTEGER:
+          return integerValue((int) longSums[groupId]);
+        case LONG:
+          return longValue(longSums[groupId]);
+        case FLOAT:
+          return floatValue((float) doubleSums[groupId]);
+        default:
+          return doubleValue(doubleSums[groupId]);
+      }
+    }
+
+    @Override
+    protected int capacity() {
+      return longSums.length;
+    }
+
+    @Override
+    protected void grow(int newCapacity) {
+      longSums = Arrays.copyOf(longSums, newCapacity);
+      doubleSums = Arrays.copyOf(doubleSums, newCapacity);
+    }
+  }
 }
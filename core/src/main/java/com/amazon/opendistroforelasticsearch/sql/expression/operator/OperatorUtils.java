@@ -15,6 +15,8 @@
 
 package com.amazon.opendistroforelasticsearch.sql.expression.operator;
 
+import com.amazon.opendistroforelasticsearch.sql.data.batch.ColumnVector;
+import com.amazon.opendistroforelasticsearch.sql.data.batch.RowBatch;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
@@ -24,57 +26,65 @@ import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionBuilder;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionName;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
-import java.util.function.Function;
+import java.util.function.BinaryOperator;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
 public class OperatorUtils {
   /**
-   * Construct {@link FunctionBuilder} which call function with arguments produced by observer.
+   * Construct {@link FunctionBuilder} which call function with the argument {@link ExprValue}
+   * directly. The function read the primitive value from the argument and build the result
+   * {@link ExprValue} by itself, so no value is boxed in between. In general, if any operand
+   * evaluates to a MISSING value, the enclosing operator will return MISSING; if none of operands
+   * evaluates to a MISSING value but there is an operand evaluates to a NULL value, the enclosing
+   * operator will return NULL.
    *
    * @param functionName function name
-   * @param function     {@link BiFunction}
-   * @param observer     extract the value of type T from the first argument
+   * @param function     {@link BinaryOperator} on non NULL and non MISSING values
    * @param returnType   return type
-   * @param <T>          the type of the first and second argument to the function
-   * @param <R>          the type of the result of the function
    * @return {@link FunctionBuilder}
    */
-  public static <T, R> FunctionBuilder binaryOperator(
+  public static FunctionBuilder binaryOperator(
       FunctionName functionName,
-      BiFunction<T, T, R> function,
-      Function<ExprValue, T> observer,
+      BinaryOperator<ExprValue> function,
       ExprCoreType returnType) {
-    return binaryOperator(functionName, function, observer, observer, returnType);
+    return binaryOperator(functionName, function, returnType,
+        (left, right, result, start, end) -> {
+          for (int i = start; i < end; i++) {
+            result.set(i, function.apply(left.get(i), right.get(i)));
+          }
+        });
   }
 
   /**
-   * Construct {@link FunctionBuilder} which call function with arguments produced by observer1 and
-   * observer2 In general, if any operand evaluates to a MISSING value, the enclosing operator will
-   * return MISSING; if none of operands evaluates to a MISSING value but there is an operand
-   * evaluates to a NULL value, the enclosing operator will return NULL.
+   * Construct {@link FunctionBuilder} like {@link OperatorUtils#binaryOperator(FunctionName,
+   * BinaryOperator, ExprCoreType)}, which evaluates the batch column-wise by the kernel on the
+   * primitive values.
    *
    * @param functionName function name
-   * @param function     {@link BiFunction}
-   * @param observer1    extract the value of type T from the first argument
-   * @param observer2    extract the value of type U from the second argument
+   * @param function     {@link BinaryOperator} on non NULL and non MISSING values
    * @param returnType   return type
-   * @param <T>          the type of the first argument to the function
-   * @param <U>          the type of the second argument to the function
-   * @param <R>          the type of the result of the function
+   * @param kernel       {@link BinaryKernel} on non NULL and non MISSING values
    * @return {@link FunctionBuilder}
    */
-  public static <T, U, R> FunctionBuilder binaryOperator(
+  public static FunctionBuilder binaryOperator(
       FunctionName functionName,
-      BiFunction<T, U, R> function,
-      Function<ExprValue, T> observer1,
-      Function<ExprValue, U> observer2,
-      ExprCoreType returnType) {
+      BinaryOperator<ExprValue> function,
+      ExprCoreType returnType,
+      BinaryKernel kernel) {
     return arguments ->
         new FunctionExpression(functionName, arguments) {
           @Override
@@ -82,15 +92,21 @@ public class OperatorUtils {
             ExprValue arg1 = arguments.get(0).valueOf(env);
             ExprValue arg2 = arguments.get(1).valueOf(env);
             if (arg1.isMissing() || arg2.isMissing()) {
-              return ExprValueUtils.missingValue();
+              return ExprValueUtils.LITERAL_MISSING;
             } else if (arg1.isNull() || arg2.isNull()) {
-              return ExprValueUtils.nullValue();
+              return ExprValueUtils.LITERAL_NULL;
             } else {
-              return ExprValueUtils.fromObjectValue(
-                  function.apply(observer1.apply(arg1), observer2.apply(arg2)));
+              return function.apply(arg1, arg2);
             }
           }
 
+          @Override
+          public ColumnVector batchValueOf(RowBatch batch) {
+            return batchBinary(arguments, batch, returnType, kernel,
+                (arg1, arg2) -> (arg1.isMissing() || arg2.isMissing())
+                    ? ExprValueUtils.LITERAL_MISSING : ExprValueUtils.LITERAL_NULL);
+          }
+
           @Override
           public ExprType type() {
             return returnType;
@@ -105,38 +121,41 @@ public class OperatorUtils {
   }
 
   /**
-   * Construct {@link FunctionBuilder} which call function with arguments produced by observer In
-   * general, if any operand evaluates to a MISSING value, the enclosing operator will return
-   * MISSING; if none of operands evaluates to a MISSING value but there is an operand evaluates to
-   * a NULL value, the enclosing operator will return NULL.
+   * Construct {@link FunctionBuilder} which call function with the argument {@link ExprValue}
+   * directly and evaluates the batch column-wise by the kernel on the primitive values. In
+   * general, if the operand evaluates to a MISSING value, the enclosing operator will return
+   * MISSING; if the operand evaluates to a NULL value, the enclosing operator will return NULL.
    *
    * @param functionName function name
-   * @param function     {@link Function}
-   * @param observer     extract the value of type T from the first argument
+   * @param function     {@link UnaryOperator} on non NULL and non MISSING value
    * @param returnType   return type
-   * @param <T>          the type of the first argument to the function
-   * @param <R>          the type of the result of the function
+   * @param kernel       {@link UnaryKernel} on non NULL and non MISSING value
    * @return {@link FunctionBuilder}
    */
-  public static <T, R> FunctionBuilder unaryOperator(
+  public static FunctionBuilder unaryOperator(
       FunctionName functionName,
-      Function<T, R> function,
-      Function<ExprValue, T> observer,
-      ExprCoreType returnType) {
+      UnaryOperator<ExprValue> function,
+      ExprCoreType returnType,
+      UnaryKernel kernel) {
     return arguments ->
         new FunctionExpression(functionName, arguments) {
           @Override
           public ExprValue valueOf(Environment<Expression, ExprValue> env) {
             ExprValue arg1 = arguments.get(0).valueOf(env);
             if (arg1.isMissing()) {
-              return ExprValueUtils.missingValue();
+              return ExprValueUtils.LITERAL_MISSING;
             } else if (arg1.isNull()) {
-              return ExprValueUtils.nullValue();
+              return ExprValueUtils.LITERAL_NULL;
             } else {
-              return ExprValueUtils.fromObjectValue(function.apply(observer.apply(arg1)));
+              return function.apply(arg1);
             }
           }
 
+          @Override
+          public ColumnVector batchValueOf(RowBatch batch) {
+            return batchUnary(arguments, batch, returnType, kernel, UnaryOperator.identity());
+          }
+
           @Override
           public ExprType type() {
             return returnType;
@@ -152,6 +171,76 @@ public class OperatorUtils {
         };
   }
 
+  /**
+   * Evaluate the binary function over the batch column-wise. The kernel is applied on each run of
+   * the positions where neither operand is NULL or MISSING, the other positions are set by the
+   * function on the boxed operands. If no operand has NULL or MISSING value, the kernel is applied
+   * once on the whole batch.
+   *
+   * @param arguments          the two operand expressions
+   * @param batch              {@link RowBatch}
+   * @param returnType         return type, which decides the primitive array of the result
+   * @param kernel             {@link BinaryKernel} on non NULL and non MISSING values
+   * @param nullOrMissingFunc  function on the operands if either one is NULL or MISSING
+   * @return {@link ColumnVector} of the result
+   */
+  public static ColumnVector batchBinary(
+      List<Expression> arguments,
+      RowBatch batch,
+      ExprType returnType,
+      BinaryKernel kernel,
+      BinaryOperator<ExprValue> nullOrMissingFunc) {
+    ColumnVector left = arguments.get(0).batchValueOf(batch);
+    ColumnVector right = arguments.get(1).batchValueOf(batch);
+    ColumnVector result = new ColumnVector(returnType, batch.size());
+    BitSet nullOrMissing = left.nullOrMissing();
+    nullOrMissing.or(right.nullOrMissing());
+    int start = 0;
+    while (start < batch.size()) {
+      int end = nullOrMissing.nextSetBit(start);
+      end = (end < 0) ? batch.size() : end;
+      kernel.apply(left, right, result, start, end);
+      if (end < batch.size()) {
+        result.set(end, nullOrMissingFunc.apply(left.get(end), right.get(end)));
+      }
+      start = end + 1;
+    }
+    return result;
+  }
+
+  /**
+   * Evaluate the unary function over the batch column-wise, the same way as
+   * {@link OperatorUtils#batchBinary(List, RowBatch, ExprType, BinaryKernel, BinaryOperator)}.
+   *
+   * @param arguments          the operand expression
+   * @param batch              {@link RowBatch}
+   * @param returnType         return type, which decides the primitive array of the result
+   * @param kernel             {@link UnaryKernel} on non NULL and non MISSING value
+   * @param nullOrMissingFunc  function on the operand if it is NULL or MISSING
+   * @return {@link ColumnVector} of the result
+   */
+  public static ColumnVector batchUnary(
+      List<Expression> arguments,
+      RowBatch batch,
+      ExprType returnType,
+      UnaryKernel kernel,
+      UnaryOperator<ExprValue> nullOrMissingFunc) {
+    ColumnVector operand = arguments.get(0).batchValueOf(batch);
+    ColumnVector result = new ColumnVector(returnType, batch.size());
+    BitSet nullOrMissing = operand.nullOrMissing();
+    int start = 0;
+    while (start < batch.size()) {
+      int end = nullOrMissing.nextSetBit(start);
+      end = (end < 0) ? batch.size() : end;
+      kernel.apply(operand, result, start, end);
+      if (end < batch.size()) {
+        result.set(end, nullOrMissingFunc.apply(operand.get(end)));
+      }
+      start = end + 1;
+    }
+    return result;
+  }
+
   /**
    * String comparator.
    */
@@ -171,4 +260,206 @@ public class OperatorUtils {
    */
   public static final BiPredicate<ExprValue, ExprValue> COMPARE_WITH_NULL_OR_MISSING =
       (left, right) -> left.isMissing() || right.isMissing() || left.isNull() || right.isNull();
+
+  /**
+   * Column kernel of a binary function. It loops over the positions from start (inclusive) to end
+   * (exclusive), where neither operand is NULL or MISSING, reads the operands from the operand
+   * vectors and sets the result at the same position of the result vector, e.g. by
+   * {@link ColumnVector#getInteger(int)} and {@link ColumnVector#setInteger(int, int)}, so the
+   * primitive values are not boxed.
+   */
+  @FunctionalInterface
+  public interface BinaryKernel {
+    void apply(ColumnVector left, ColumnVector right, ColumnVector result, int start, int end);
+  }
+
+  /**
+   * Column kernel of a unary function, the unary version of {@link BinaryKernel}.
+   */
+  @FunctionalInterface
+  public interface UnaryKernel {
+    void apply(ColumnVector operand, ColumnVector result, int start, int end);
+  }
+
+  /**
+   * {@link BinaryKernel} of the int function on INTEGER columns.
+   */
+  public static BinaryKernel integerKernel(IntBinaryOperator function) {
+    return (left, right, result, start, end) -> {
+      for (int i = start; i < end; i++) {
+        result.setInteger(i, function.applyAsInt(left.getInteger(i), right.getInteger(i)));
+      }
+    };
+  }
+
+  /**
+   * {@link BinaryKernel} of the long function on LONG columns.
+   */
+  public static BinaryKernel longKernel(LongBinaryOperator function) {
+    return (left, right, result, start, end) -> {
+      for (int i = start; i < end; i++) {
+        result.setLong(i, function.applyAsLong(left.getLong(i), right.getLong(i)));
+      }
+    };
+  }
+
+  /**
+   * {@link BinaryKernel} of the float function on FLOAT columns.
+   */
+  public static BinaryKernel floatKernel(FloatBinaryOperator function) {
+    return (left, right, result, start, end) -> {
+      for (int i = start; i < end; i++) {
+        result.setFloat(i, function.applyAsFloat(left.getFloat(i), right.getFloat(i)));
+      }
+    };
+  }
+
+  /**
+   * {@link BinaryKernel} of the double function on DOUBLE columns.
+   */
+  public static BinaryKernel doubleKernel(DoubleBinaryOperator function) {
+    return (left, right, result, start, end) -> {
+      for (int i = start; i < end; i++) {
+        result.setDouble(i, function.applyAsDouble(left.getDouble(i), right.getDouble(i)));
+      }
+    };
+  }
+
+  /**
+   * {@link BinaryKernel} of the int predicate on INTEGER columns.
+   */
+  public static BinaryKernel integerPredicateKernel(IntBiPredicate predicate) {
+    return (left, right, result, start, end) -> {
+      for (int i = start; i < end; i++) {
+        result.setBoolean(i, predicate.test(left.getInteger(i), right.getInteger(i)));
+      }
+    };
+  }
+
+  /**
+   * {@link BinaryKernel} of the long predicate on LONG columns.
+   */
+  public static BinaryKernel longPredicateKernel(LongBiPredicate predicate) {
+    return (left, right, result, start, end) -> {
+      for (int i = start; i < end; i++) {
+        result.setBoolean(i, predicate.test(left.getLong(i), right.getLong(i)));
+      }
+    };
+  }
+
+  /**
+   * {@link BinaryKernel} of the float predicate on FLOAT columns.
+   */
+  public static BinaryKernel floatPredicateKernel(FloatBiPredicate predicate) {
+    return (left, right, result, start, end) -> {
+      for (int i = start; i < end; i++) {
+        result.setBoolean(i, predicate.test(left.getFloat(i), right.getFloat(i)));
+      }
+    };
+  }
+
+  /**
+   * {@link BinaryKernel} of the double predicate on DOUBLE columns.
+   */
+  public static BinaryKernel doublePredicateKernel(DoubleBiPredicate predicate) {
+    return (left, right, result, start, end) -> {
+      for (int i = start; i < end; i++) {
+        result.setBoolean(i, predicate.test(left.getDouble(i), right.getDouble(i)));
+      }
+    };
+  }
+
+  /**
+   * {@link UnaryKernel} of the int function on INTEGER column.
+   */
+  public static UnaryKernel integerUnaryKernel(IntUnaryOperator function) {
+    return (operand, result, start, end) -> {
+      for (int i = start; i < end; i++) {
+        result.setInteger(i, function.applyAsInt(operand.getInteger(i)));
+      }
+    };
+  }
+
+  /**
+   * {@link UnaryKernel} of the long function on LONG column.
+   */
+  public static UnaryKernel longUnaryKernel(LongUnaryOperator function) {
+    return (operand, result, start, end) -> {
+      for (int i = start; i < end; i++) {
+        result.setLong(i, function.applyAsLong(operand.getLong(i)));
+      }
+    };
+  }
+
+  /**
+   * {@link UnaryKernel} of the float function on FLOAT column.
+   */
+  public static UnaryKernel floatUnaryKernel(FloatUnaryOperator function) {
+    return (operand, result, start, end) -> {
+      for (int i = start; i < end; i++) {
+        result.setFloat(i, function.applyAsFloat(operand.getFloat(i)));
+      }
+    };
+  }
+
+  /**
+   * {@link UnaryKernel} of the double function on DOUBLE column.
+   */
+  public static UnaryKernel doubleUnaryKernel(DoubleUnaryOperator function) {
+    return (operand, result, start, end) -> {
+      for (int i = start; i < end; i++) {
+        result.setDouble(i, function.applyAsDouble(operand.getDouble(i)));
+      }
+    };
+  }
+
+  /**
+   * Float operation on two float operands, the float version of
+   * {@link java.util.function.DoubleBinaryOperator}.
+   */
+  @FunctionalInterface
+  public interface FloatBinaryOperator {
+    float applyAsFloat(float left, float right);
+  }
+
+  /**
+   * Float operation on a single float operand, the float version of
+   * {@link java.util.function.DoubleUnaryOperator}.
+   */
+  @FunctionalInterface
+  public interface FloatUnaryOperator {
+    float applyAsFloat(float operand);
+  }
+
+  /**
+   * Predicate of two int operands.
+   */
+  @FunctionalInterface
+  public interface IntBiPredicate {
+    boolean test(int left, int right);
+  }
+
+  /**
+   * Predicate of two long operands.
+   */
+  @FunctionalInterface
+  public interface LongBiPredicate {
+    boolean test(long left, long right);
+  }
+
+  /**
+   * Predicate of two float operands.
+   */
+  @FunctionalInterface
+  public interface FloatBiPredicate {
+    boolean test(float left, float right);
+  }
+
+  /**
+   * Predicate of two double operands.
+   */
+  @FunctionalInterface
+  public interface DoubleBiPredicate {
+    boolean test(double left, double right);
+  }
 }
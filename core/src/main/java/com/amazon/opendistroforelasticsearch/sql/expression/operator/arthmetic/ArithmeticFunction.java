@@ -20,6 +20,10 @@ import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.F
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.LONG;
 import static com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.binaryOperator;
+import static com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.doubleKernel;
+import static com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.floatKernel;
+import static com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.integerKernel;
+import static com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.longKernel;
 
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
@@ -28,10 +32,13 @@ import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionBui
 import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionName;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionResolver;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionSignature;
+import com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.FloatBinaryOperator;
 import com.google.common.collect.ImmutableMap;
 import java.util.Arrays;
 import java.util.Map;
-import java.util.function.BiFunction;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.LongBinaryOperator;
 import lombok.experimental.UtilityClass;
 
 /**
@@ -113,25 +120,36 @@ public class ArithmeticFunction {
     );
   }
 
+  /**
+   * Build the function bundle for INTEGER, LONG, FLOAT and DOUBLE. The primitive function is
+   * applied on the unboxed operands and the result is wrapped directly, without boxing. The batch
+   * is evaluated by the kernel on the primitive columns.
+   */
   private static Map<FunctionSignature, FunctionBuilder> scalarFunction(
       FunctionName functionName,
-      BiFunction<Integer, Integer, Integer> integerFunc,
-      BiFunction<Long, Long, Long> longFunc,
-      BiFunction<Float, Float, Float> floatFunc,
-      BiFunction<Double, Double, Double> doubleFunc) {
+      IntBinaryOperator integerFunc,
+      LongBinaryOperator longFunc,
+      FloatBinaryOperator floatFunc,
+      DoubleBinaryOperator doubleFunc) {
     ImmutableMap.Builder<FunctionSignature, FunctionBuilder> builder = new ImmutableMap.Builder<>();
     builder
         .put(new FunctionSignature(functionName, Arrays.asList(INTEGER, INTEGER)),
-            binaryOperator(functionName, integerFunc, ExprValueUtils::getIntegerValue,
-                INTEGER));
+            binaryOperator(functionName, (v1, v2) -> ExprValueUtils.integerValue(
+                integerFunc.applyAsInt(v1.integerValue(), v2.integerValue())), INTEGER,
+                integerKernel(integerFunc)));
     builder.put(new FunctionSignature(functionName, Arrays.asList(LONG, LONG)),
-        binaryOperator(functionName, longFunc, ExprValueUtils::getLongValue, LONG));
+        binaryOperator(functionName, (v1, v2) -> ExprValueUtils.longValue(
+            longFunc.applyAsLong(v1.longValue(), v2.longValue())), LONG,
+            longKernel(longFunc)));
     builder.put(new FunctionSignature(functionName, Arrays.asList(FLOAT, FLOAT)),
-        binaryOperator(functionName, floatFunc, ExprValueUtils::getFloatValue, FLOAT));
+        binaryOperator(functionName, (v1, v2) -> ExprValueUtils.floatValue(
+            floatFunc.applyAsFloat(v1.floatValue(), v2.floatValue())), FLOAT,
+            floatKernel(floatFunc)));
     builder
         .put(new FunctionSignature(functionName, Arrays.asList(DOUBLE, DOUBLE)),
-            binaryOperator(functionName, doubleFunc, ExprValueUtils::getDoubleValue,
-                DOUBLE));
+            binaryOperator(functionName, (v1, v2) -> ExprValueUtils.doubleValue(
+                doubleFunc.applyAsDouble(v1.doubleValue(), v2.doubleValue())), DOUBLE,
+                doubleKernel(doubleFunc)));
     return builder.build();
   }
 }
@@ -19,6 +19,10 @@ import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.D
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.FLOAT;
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.LONG;
+import static com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.doubleUnaryKernel;
+import static com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.floatUnaryKernel;
+import static com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.integerUnaryKernel;
+import static com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.longUnaryKernel;
 import static com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.unaryOperator;
 
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
@@ -28,10 +32,13 @@ import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionBui
 import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionName;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionResolver;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionSignature;
+import com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.FloatUnaryOperator;
 import com.google.common.collect.ImmutableMap;
 import java.util.Arrays;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongUnaryOperator;
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
@@ -58,24 +65,31 @@ public class UnaryFunction {
 
   private static Map<FunctionSignature, FunctionBuilder> unaryFunction(
       FunctionName functionName,
-      Function<Integer, Integer> integerFunc,
-      Function<Long, Long> longFunc,
-      Function<Float, Float> floatFunc,
-      Function<Double, Double> doubleFunc) {
+      IntUnaryOperator integerFunc,
+      LongUnaryOperator longFunc,
+      FloatUnaryOperator floatFunc,
+      DoubleUnaryOperator doubleFunc) {
     ImmutableMap.Builder<FunctionSignature, FunctionBuilder> builder = new ImmutableMap.Builder<>();
     builder.put(
         new FunctionSignature(functionName, Arrays.asList(INTEGER)),
-        unaryOperator(
-            functionName, integerFunc, ExprValueUtils::getIntegerValue, INTEGER));
+        unaryOperator(functionName,
+            v -> ExprValueUtils.integerValue(integerFunc.applyAsInt(v.integerValue())), INTEGER,
+            integerUnaryKernel(integerFunc)));
     builder.put(
         new FunctionSignature(functionName, Arrays.asList(LONG)),
-        unaryOperator(functionName, longFunc, ExprValueUtils::getLongValue, LONG));
+        unaryOperator(functionName,
+            v -> ExprValueUtils.longValue(longFunc.applyAsLong(v.longValue())), LONG,
+            longUnaryKernel(longFunc)));
     builder.put(
         new FunctionSignature(functionName, Arrays.asList(FLOAT)),
-        unaryOperator(functionName, floatFunc, ExprValueUtils::getFloatValue, FLOAT));
+        unaryOperator(functionName,
+            v -> ExprValueUtils.floatValue(floatFunc.applyAsFloat(v.floatValue())), FLOAT,
+            floatUnaryKernel(floatFunc)));
     builder.put(
         new FunctionSignature(functionName, Arrays.asList(DOUBLE)),
-        unaryOperator(functionName, doubleFunc, ExprValueUtils::getDoubleValue, DOUBLE));
+        unaryOperator(functionName,
+            v -> ExprValueUtils.doubleValue(doubleFunc.applyAsDouble(v.doubleValue())), DOUBLE,
+            doubleUnaryKernel(doubleFunc)));
     return builder.build();
   }
 }
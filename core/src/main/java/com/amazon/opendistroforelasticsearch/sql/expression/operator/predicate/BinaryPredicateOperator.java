@@ -27,9 +27,17 @@ import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.I
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.LONG;
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRUCT;
+import static com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.batchBinary;
 import static com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.binaryOperator;
+import static com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.doublePredicateKernel;
+import static com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.floatPredicateKernel;
+import static com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.integerPredicateKernel;
+import static com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.longPredicateKernel;
 import static com.amazon.opendistroforelasticsearch.sql.utils.OperatorUtils.matches;
 
+import com.amazon.opendistroforelasticsearch.sql.data.batch.ColumnVector;
+import com.amazon.opendistroforelasticsearch.sql.data.batch.RowBatch;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprBooleanValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
@@ -43,6 +51,11 @@ import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionBui
 import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionName;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionResolver;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionSignature;
+import com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.BinaryKernel;
+import com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.DoubleBiPredicate;
+import com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.FloatBiPredicate;
+import com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.IntBiPredicate;
+import com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.LongBiPredicate;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableTable;
 import com.google.common.collect.Table;
@@ -50,6 +63,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
 import java.util.function.Function;
 import lombok.experimental.UtilityClass;
 
@@ -202,7 +216,11 @@ public class BinaryPredicateOperator {
         .functionName(functionName)
         .functionBundle(new FunctionSignature(functionName,
             Arrays.asList(BOOLEAN, BOOLEAN)), binaryPredicate(functionName,
-            andTable, BOOLEAN))
+            andTable, BOOLEAN, (left, right, result, start, end) -> {
+                for (int i = start; i < end; i++) {
+                  result.setBoolean(i, left.getBoolean(i) && right.getBoolean(i));
+                }
+              }))
         .build();
   }
 
@@ -212,7 +230,11 @@ public class BinaryPredicateOperator {
         .functionName(functionName)
         .functionBundle(new FunctionSignature(functionName,
             Arrays.asList(BOOLEAN, BOOLEAN)), binaryPredicate(functionName,
-            orTable, BOOLEAN))
+            orTable, BOOLEAN, (left, right, result, start, end) -> {
+                for (int i = start; i < end; i++) {
+                  result.setBoolean(i, left.getBoolean(i) || right.getBoolean(i));
+                }
+              }))
         .build();
   }
 
@@ -222,7 +244,11 @@ public class BinaryPredicateOperator {
         .functionName(functionName)
         .functionBundle(new FunctionSignature(functionName,
             Arrays.asList(BOOLEAN, BOOLEAN)), binaryPredicate(functionName,
-            xorTable, BOOLEAN))
+            xorTable, BOOLEAN, (left, right, result, start, end) -> {
+                for (int i = start; i < end; i++) {
+                  result.setBoolean(i, left.getBoolean(i) ^ right.getBoolean(i));
+                }
+              }))
         .build();
   }
 
@@ -233,10 +259,10 @@ public class BinaryPredicateOperator {
             BuiltinFunctionName.EQUAL.getName(),
             equalTable,
             LITERAL_FALSE,
-            Integer::equals,
-            Long::equals,
-            Float::equals,
-            Double::equals,
+            (v1, v2) -> v1 == v2,
+            (v1, v2) -> v1 == v2,
+            (v1, v2) -> Float.compare(v1, v2) == 0,
+            (v1, v2) -> Double.compare(v1, v2) == 0,
             String::equals,
             Boolean::equals,
             List::equals,
@@ -252,10 +278,10 @@ public class BinaryPredicateOperator {
             BuiltinFunctionName.NOTEQUAL.getName(),
             notEqualTable,
             LITERAL_TRUE,
-            (v1, v2) -> ! v1.equals(v2),
-            (v1, v2) -> ! v1.equals(v2),
-            (v1, v2) -> ! v1.equals(v2),
-            (v1, v2) -> ! v1.equals(v2),
+            (v1, v2) -> v1 != v2,
+            (v1, v2) -> v1 != v2,
+            (v1, v2) -> Float.compare(v1, v2) != 0,
+            (v1, v2) -> Double.compare(v1, v2) != 0,
             (v1, v2) -> ! v1.equals(v2),
             (v1, v2) -> ! v1.equals(v2),
             (v1, v2) -> ! v1.equals(v2),
@@ -339,10 +365,10 @@ public class BinaryPredicateOperator {
       FunctionName functionName,
       Table<ExprValue, ExprValue, ExprValue> table,
       ExprValue defaultValue,
-      BiFunction<Integer, Integer, Boolean> integerFunc,
-      BiFunction<Long, Long, Boolean> longFunc,
-      BiFunction<Float, Float, Boolean> floatFunc,
-      BiFunction<Double, Double, Boolean> doubleFunc,
+      IntBiPredicate integerFunc,
+      LongBiPredicate longFunc,
+      FloatBiPredicate floatFunc,
+      DoubleBiPredicate doubleFunc,
       BiFunction<String, String, Boolean> stringFunc,
       BiFunction<Boolean, Boolean, Boolean> booleanFunc,
       BiFunction<List, List, Boolean> listFunc,
@@ -350,16 +376,24 @@ public class BinaryPredicateOperator {
     ImmutableMap.Builder<FunctionSignature, FunctionBuilder> builder = new ImmutableMap.Builder<>();
     return builder
         .put(new FunctionSignature(functionName, Arrays.asList(INTEGER, INTEGER)),
-            equalPredicate(functionName, table, integerFunc, ExprValueUtils::getIntegerValue,
+            equalPredicate(functionName, table,
+                (v1, v2) -> integerFunc.test(v1.integerValue(), v2.integerValue()),
+                integerPredicateKernel(integerFunc),
                 defaultValue, BOOLEAN))
         .put(new FunctionSignature(functionName, Arrays.asList(LONG, LONG)),
-            equalPredicate(functionName, table, longFunc, ExprValueUtils::getLongValue,
+            equalPredicate(functionName, table,
+                (v1, v2) -> longFunc.test(v1.longValue(), v2.longValue()),
+                longPredicateKernel(longFunc),
                 defaultValue, BOOLEAN))
         .put(new FunctionSignature(functionName, Arrays.asList(FLOAT, FLOAT)),
-            equalPredicate(functionName, table, floatFunc, ExprValueUtils::getFloatValue,
+            equalPredicate(functionName, table,
+                (v1, v2) -> floatFunc.test(v1.floatValue(), v2.floatValue()),
+                floatPredicateKernel(floatFunc),
                 defaultValue, BOOLEAN))
         .put(new FunctionSignature(functionName, Arrays.asList(DOUBLE, DOUBLE)),
-            equalPredicate(functionName, table, doubleFunc, ExprValueUtils::getDoubleValue,
+            equalPredicate(functionName, table,
+                (v1, v2) -> doubleFunc.test(v1.doubleValue(), v2.doubleValue()),
+                doublePredicateKernel(doubleFunc),
                 defaultValue, BOOLEAN))
         .put(new FunctionSignature(functionName, Arrays.asList(STRING, STRING)),
             equalPredicate(functionName, table, stringFunc, ExprValueUtils::getStringValue,
@@ -383,33 +417,37 @@ public class BinaryPredicateOperator {
    */
   private static Map<FunctionSignature, FunctionBuilder> predicate(
       FunctionName functionName,
-      BiFunction<Integer, Integer, Boolean> integerFunc,
-      BiFunction<Long, Long, Boolean> longFunc,
-      BiFunction<Float, Float, Boolean> floatFunc,
-      BiFunction<Double, Double, Boolean> doubleFunc,
+      IntBiPredicate integerFunc,
+      LongBiPredicate longFunc,
+      FloatBiPredicate floatFunc,
+      DoubleBiPredicate doubleFunc,
       BiFunction<String, String, Boolean> stringFunc) {
     ImmutableMap.Builder<FunctionSignature, FunctionBuilder> builder = new ImmutableMap.Builder<>();
     return builder
         .put(
             new FunctionSignature(functionName, Arrays.asList(INTEGER, INTEGER)),
-            binaryOperator(
-                functionName, integerFunc, ExprValueUtils::getIntegerValue, BOOLEAN))
+            binaryOperator(functionName, (v1, v2) -> ExprBooleanValue.of(
+                integerFunc.test(v1.integerValue(), v2.integerValue())), BOOLEAN,
+                integerPredicateKernel(integerFunc)))
         .put(
             new FunctionSignature(functionName, Arrays.asList(LONG, LONG)),
-            binaryOperator(
-                functionName, longFunc, ExprValueUtils::getLongValue, BOOLEAN))
+            binaryOperator(functionName, (v1, v2) -> ExprBooleanValue.of(
+                longFunc.test(v1.longValue(), v2.longValue())), BOOLEAN,
+                longPredicateKernel(longFunc)))
         .put(
             new FunctionSignature(functionName, Arrays.asList(FLOAT, FLOAT)),
-            binaryOperator(
-                functionName, floatFunc, ExprValueUtils::getFloatValue, BOOLEAN))
+            binaryOperator(functionName, (v1, v2) -> ExprBooleanValue.of(
+                floatFunc.test(v1.floatValue(), v2.floatValue())), BOOLEAN,
+                floatPredicateKernel(floatFunc)))
         .put(
             new FunctionSignature(functionName, Arrays.asList(DOUBLE, DOUBLE)),
-            binaryOperator(
-                functionName, doubleFunc, ExprValueUtils::getDoubleValue, BOOLEAN))
+            binaryOperator(functionName, (v1, v2) -> ExprBooleanValue.of(
+                doubleFunc.test(v1.doubleValue(), v2.doubleValue())), BOOLEAN,
+                doublePredicateKernel(doubleFunc)))
         .put(
             new FunctionSignature(functionName, Arrays.asList(STRING, STRING)),
-            binaryOperator(
-                functionName, stringFunc, ExprValueUtils::getStringValue, BOOLEAN))
+            binaryOperator(functionName, (v1, v2) -> ExprBooleanValue.of(stringFunc.apply(
+                ExprValueUtils.getStringValue(v1), ExprValueUtils.getStringValue(v2))), BOOLEAN))
         .build();
   }
 
@@ -423,8 +461,8 @@ public class BinaryPredicateOperator {
     ImmutableMap.Builder<FunctionSignature, FunctionBuilder> builder = new ImmutableMap.Builder<>();
     return builder
         .put(new FunctionSignature(functionName, Arrays.asList(STRING, STRING)),
-            binaryOperator(functionName, stringFunc, ExprValueUtils::getStringValue,
-                BOOLEAN))
+            binaryOperator(functionName, (v1, v2) -> ExprBooleanValue.of(stringFunc.apply(
+                ExprValueUtils.getStringValue(v1), ExprValueUtils.getStringValue(v2))), BOOLEAN))
         .build();
   }
 
@@ -433,20 +471,22 @@ public class BinaryPredicateOperator {
    * Building method to construct binary logical predicates AND OR XOR
    * Where operands order does not matter.
    * Special cases for missing/null operands refer to {@param table}.
+   * The batch is evaluated by {@param kernel} on the boolean columns.
    */
   private static FunctionBuilder binaryPredicate(FunctionName functionName,
                                                  Table<ExprValue, ExprValue, ExprValue> table,
-                                                 ExprCoreType returnType) {
+                                                 ExprCoreType returnType,
+                                                 BinaryKernel kernel) {
     return arguments -> new FunctionExpression(functionName, arguments) {
       @Override
       public ExprValue valueOf(Environment<Expression, ExprValue> env) {
-        ExprValue arg1 = arguments.get(0).valueOf(env);
-        ExprValue arg2 = arguments.get(1).valueOf(env);
-        if (table.contains(arg1, arg2)) {
-          return table.get(arg1, arg2);
-        } else {
-          return table.get(arg2, arg1);
-        }
+        return lookup(table, arguments.get(0).valueOf(env), arguments.get(1).valueOf(env));
+      }
+
+      @Override
+      public ColumnVector batchValueOf(RowBatch batch) {
+        return batchBinary(arguments, batch, returnType, kernel,
+            (arg1, arg2) -> lookup(table, arg1, arg2));
       }
 
       @Override
@@ -462,17 +502,41 @@ public class BinaryPredicateOperator {
     };
   }
 
+  /**
+   * Building method for equalTo and notEqualTo operators on the value produced by observer.
+   *
+   * @param defaultValue the return value when expr value is missing/null
+   */
+  private static <T> FunctionBuilder equalPredicate(FunctionName functionName,
+                                                    Table<ExprValue, ExprValue, ExprValue> table,
+                                                    BiFunction<T, T, Boolean> function,
+                                                    Function<ExprValue, T> observer,
+                                                    ExprValue defaultValue,
+                                                    ExprType returnType) {
+    BiPredicate<ExprValue, ExprValue> predicate =
+        (v1, v2) -> function.apply(observer.apply(v1), observer.apply(v2));
+    return equalPredicate(functionName, table, predicate,
+        (left, right, result, start, end) -> {
+          for (int i = start; i < end; i++) {
+            result.setBoolean(i, predicate.test(left.get(i), right.get(i)));
+          }
+        },
+        defaultValue, returnType);
+  }
+
   /**
    * Building method for equalTo and notEqualTo operators.
    *
+   * @param predicate    the predicate on non missing/null values
+   * @param kernel       the kernel on the columns of non missing/null values
    * @param defaultValue the return value when expr value is missing/null
    */
-  private static <T, R> FunctionBuilder equalPredicate(FunctionName functionName,
-                                                       Table<ExprValue, ExprValue, ExprValue> table,
-                                                       BiFunction<T, T, R> function,
-                                                       Function<ExprValue, T> observer,
-                                                       ExprValue defaultValue,
-                                                       ExprType returnType) {
+  private static FunctionBuilder equalPredicate(FunctionName functionName,
+                                                Table<ExprValue, ExprValue, ExprValue> table,
+                                                BiPredicate<ExprValue, ExprValue> predicate,
+                                                BinaryKernel kernel,
+                                                ExprValue defaultValue,
+                                                ExprType returnType) {
     return arguments -> new FunctionExpression(functionName, arguments) {
       @Override
       public ExprValue valueOf(Environment<Expression, ExprValue> env) {
@@ -483,11 +547,16 @@ public class BinaryPredicateOperator {
         } else if (arg1.isMissing() || arg1.isNull() || arg2.isMissing() || arg2.isNull()) {
           return defaultValue;
         } else {
-          return ExprValueUtils.fromObjectValue(
-              function.apply(observer.apply(arg1), observer.apply(arg2)));
+          return ExprBooleanValue.of(predicate.test(arg1, arg2));
         }
       }
 
+      @Override
+      public ColumnVector batchValueOf(RowBatch batch) {
+        return batchBinary(arguments, batch, returnType, kernel,
+            (arg1, arg2) -> table.contains(arg1, arg2) ? table.get(arg1, arg2) : defaultValue);
+      }
+
       @Override
       public ExprType type() {
         return returnType;
@@ -500,4 +569,17 @@ public class BinaryPredicateOperator {
       }
     };
   }
+
+  /**
+   * Look up the result of the operands in the table of the predicate where operands order does
+   * not matter.
+   */
+  private static ExprValue lookup(Table<ExprValue, ExprValue, ExprValue> table,
+                                  ExprValue arg1, ExprValue arg2) {
+    if (table.contains(arg1, arg2)) {
+      return table.get(arg1, arg2);
+    } else {
+      return table.get(arg2, arg1);
+    }
+  }
 }
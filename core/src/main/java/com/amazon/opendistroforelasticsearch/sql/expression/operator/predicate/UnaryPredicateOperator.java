@@ -20,7 +20,10 @@ import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtil
 import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_NULL;
 import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_TRUE;
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.BOOLEAN;
+import static com.amazon.opendistroforelasticsearch.sql.expression.operator.OperatorUtils.batchUnary;
 
+import com.amazon.opendistroforelasticsearch.sql.data.batch.ColumnVector;
+import com.amazon.opendistroforelasticsearch.sql.data.batch.RowBatch;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
@@ -81,6 +84,15 @@ public class UnaryPredicateOperator {
         return notMap.get(arguments.get(0).valueOf(env));
       }
 
+      @Override
+      public ColumnVector batchValueOf(RowBatch batch) {
+        return batchUnary(arguments, batch, returnType, (operand, result, start, end) -> {
+          for (int i = start; i < end; i++) {
+            result.setBoolean(i, !operand.getBoolean(i));
+          }
+        }, notMap::get);
+      }
+
       @Override
       public ExprType type() {
         return returnType;
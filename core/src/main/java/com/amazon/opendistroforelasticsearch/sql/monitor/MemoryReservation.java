@@ -0,0 +1,95 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.monitor;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Memory reserved by one operator from the {@link ResourceMonitor}. The estimated bytes in use are
+ * tracked in place and reserved from the monitor in chunks of at least {@link #CHUNK_SIZE}, so the
+ * monitor is not called for every row. The memory is reserved while the rows are buffered, which
+ * makes the query fail as soon as the monitor rejects it, and is released once the operator is
+ * closed. The workers of the operator could reserve the memory concurrently.
+ */
+@RequiredArgsConstructor
+public class MemoryReservation {
+  /**
+   * Min number of bytes reserved from the monitor at once.
+   */
+  static final long CHUNK_SIZE = 64 * 1024;
+
+  private final ResourceMonitor monitor;
+
+  /**
+   * Label of the operator which is reported by the monitor once the reservation is rejected.
+   */
+  private final String label;
+
+  /**
+   * Estimated bytes in use.
+   */
+  @Getter
+  private long used = 0;
+
+  /**
+   * Bytes reserved from the monitor, which are not less than the bytes in use.
+   */
+  @Getter
+  private long reserved = 0;
+
+  /**
+   * Max estimated bytes in use so far, which is kept after the memory is released.
+   */
+  @Getter
+  private long peak = 0;
+
+  /**
+   * Add the estimated bytes in use, which are reserved from the monitor if exceeds the reserved.
+   */
+  public synchronized void add(long bytes) {
+    used += bytes;
+    peak = Math.max(peak, used);
+    if (used > reserved) {
+      long chunk = Math.max(used - reserved, CHUNK_SIZE);
+      monitor.reserveMemory(chunk, label);
+      reserved += chunk;
+    }
+  }
+
+  /**
+   * Subtract the estimated bytes no longer in use. The reserved bytes are released to the monitor
+   * if more than one chunk is not in use.
+   */
+  public synchronized void subtract(long bytes) {
+    used -= bytes;
+    if (reserved - used > CHUNK_SIZE) {
+      monitor.releaseMemory(reserved - used);
+      reserved = used;
+    }
+  }
+
+  /**
+   * Release all the reserved bytes to the monitor.
+   */
+  public synchronized void release() {
+    if (reserved > 0) {
+      monitor.releaseMemory(reserved);
+    }
+    used = 0;
+    reserved = 0;
+  }
+}
@@ -26,4 +26,23 @@ public abstract class ResourceMonitor {
    * @return true for healthy, otherwise false.
    */
   public abstract boolean isHealthy();
+
+  /**
+   * Reserve the estimated bytes of the rows buffered by the operator while it runs. The monitor
+   * rejects the reservation by throwing exception if the resource is not enough. By default, the
+   * memory is not accounted.
+   *
+   * @param bytes estimated bytes to reserve
+   * @param label label of the operator which reserves the memory
+   */
+  public void reserveMemory(long bytes, String label) {
+  }
+
+  /**
+   * Release the bytes reserved by {@link #reserveMemory(long, String)}.
+   *
+   * @param bytes bytes to release
+   */
+  public void releaseMemory(long bytes) {
+  }
 }
@@ -0,0 +1,123 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner;
+
+import com.amazon.opendistroforelasticsearch.sql.analysis.ParameterizedPlan;
+import com.amazon.opendistroforelasticsearch.sql.analysis.ParameterizedQuery;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * LRU cache of the analyzed {@link LogicalPlan} keyed by the template of the query, i.e. the
+ * tokens of the query with the literals replaced by placeholder. The queries differing only in
+ * the literal values share the plan, which is bound to the literal values of each query. The plan
+ * is tagged with the version of the storage metadata when it is analyzed, and is analyzed again if
+ * the version has changed, e.g. the index mapping is updated or a new index matches the index
+ * pattern in the query. The logical plan is immutable, so the cached plan is shared by the
+ * queries running at the same time.
+ */
+public class LogicalPlanCache {
+  /**
+   * Default max number of plans in the cache.
+   */
+  public static final int DEFAULT_CAPACITY = 1000;
+
+  private final Map<String, CachedPlan> plans;
+
+  private final LongAdder hitCount = new LongAdder();
+
+  private final LongAdder missCount = new LongAdder();
+
+  /**
+   * LogicalPlanCache constructor.
+   * @param capacity max number of plans in the cache, the least recently used one is evicted
+   *                 when it is full
+   */
+  public LogicalPlanCache(int capacity) {
+    this.plans = new LinkedHashMap<String, CachedPlan>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CachedPlan> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * Get the logical plan of the query from the cache and bind the literal values of the query to
+   * it, or analyze the query if it is not cached or the cached plan can't be bound. The query is
+   * always analyzed if the storage doesn't track its metadata version.
+   *
+   * @param query    query lexed into the template and the literal tokens
+   * @param version  version of the storage metadata, read before the query is analyzed
+   * @param analyzer analyze the query into the parameterized logical plan
+   * @return logical plan
+   */
+  public LogicalPlan get(ParameterizedQuery query, OptionalLong version,
+                         Supplier<ParameterizedPlan> analyzer) {
+    if (!version.isPresent()) {
+      missCount.increment();
+      return analyzer.get().getPlan();
+    }
+
+    CachedPlan cached;
+    synchronized (plans) {
+      cached = plans.get(query.getTemplate());
+    }
+    if (cached != null && cached.version == version.getAsLong()) {
+      Optional<LogicalPlan> bound = cached.plan.bind(query);
+      if (bound.isPresent()) {
+        hitCount.increment();
+        return bound.get();
+      }
+    }
+
+    missCount.increment();
+    ParameterizedPlan plan = analyzer.get();
+    synchronized (plans) {
+      plans.put(query.getTemplate(), new CachedPlan(version.getAsLong(), plan));
+    }
+    return plan.getPlan();
+  }
+
+  public long hitCount() {
+    return hitCount.sum();
+  }
+
+  public long missCount() {
+    return missCount.sum();
+  }
+
+  /**
+   * Number of plans in the cache.
+   */
+  public int size() {
+    synchronized (plans) {
+      return plans.size();
+    }
+  }
+
+  @RequiredArgsConstructor
+  private static class CachedPlan {
+    private final long version;
+    private final ParameterizedPlan plan;
+  }
+}
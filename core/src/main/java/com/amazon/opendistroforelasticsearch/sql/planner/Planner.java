@@ -21,6 +21,7 @@ import static com.google.common.base.Strings.isNullOrEmpty;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanNodeVisitor;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalRelation;
+import com.amazon.opendistroforelasticsearch.sql.planner.optimizer.LogicalPlanOptimizer;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine;
 import com.amazon.opendistroforelasticsearch.sql.storage.Table;
@@ -39,7 +40,13 @@ public class Planner {
   private final StorageEngine storageEngine;
 
   /**
-   * Generate optimal physical plan for logical plan. If no table involved,
+   * Logical plan optimizer.
+   */
+  private final LogicalPlanOptimizer optimizer;
+
+  /**
+   * Generate optimal physical plan for logical plan. The logical plan is optimized first with
+   * the default rules and the optimization rules of the table. If no table involved,
    * translate logical plan to physical by default implementor.
    * TODO: for now just delegate entire logical plan to storage engine.
    *
@@ -47,13 +54,38 @@ public class Planner {
    * @return optimal physical plan
    */
   public PhysicalPlan plan(LogicalPlan plan) {
+    return implement(optimize(plan));
+  }
+
+  /**
+   * Optimize logical plan with the default rules and the optimization rules of the table.
+   *
+   * @param plan logical plan
+   * @return optimized logical plan
+   */
+  public LogicalPlan optimize(LogicalPlan plan) {
     String tableName = findTableName(plan);
     if (isNullOrEmpty(tableName)) {
-      return plan.accept(new DefaultImplementor<>(), null);
+      return optimizer.optimize(plan);
     }
 
     Table table = storageEngine.getTable(tableName);
-    return table.implement(plan);
+    return optimizer.withRules(table.optimizationRules()).optimize(plan);
+  }
+
+  /**
+   * Implement optimized logical plan by the table, or by default implementor if no table
+   * involved.
+   *
+   * @param plan optimized logical plan
+   * @return physical plan
+   */
+  public PhysicalPlan implement(LogicalPlan plan) {
+    String tableName = findTableName(plan);
+    if (isNullOrEmpty(tableName)) {
+      return plan.accept(new DefaultImplementor<>(), null);
+    }
+    return storageEngine.getTable(tableName).implement(plan);
   }
 
   private String findTableName(LogicalPlan plan) {
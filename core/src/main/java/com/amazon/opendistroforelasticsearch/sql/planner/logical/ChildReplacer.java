@@ -0,0 +1,63 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.logical;
+
+/**
+ * Copy the plan node with the new child, e.g. when the child is rewritten by the optimizer.
+ */
+public class ChildReplacer extends LogicalPlanNodeVisitor<LogicalPlan, LogicalPlan> {
+
+  @Override
+  public LogicalPlan visitFilter(LogicalFilter plan, LogicalPlan child) {
+    return new LogicalFilter(child, plan.getCondition());
+  }
+
+  @Override
+  public LogicalPlan visitAggregation(LogicalAggregation plan, LogicalPlan child) {
+    return new LogicalAggregation(child, plan.getAggregatorList(), plan.getGroupByList());
+  }
+
+  @Override
+  public LogicalPlan visitDedupe(LogicalDedupe plan, LogicalPlan child) {
+    return new LogicalDedupe(child, plan.getDedupeList(), plan.getAllowedDuplication(),
+        plan.getKeepEmpty(), plan.getConsecutive());
+  }
+
+  @Override
+  public LogicalPlan visitRename(LogicalRename plan, LogicalPlan child) {
+    return new LogicalRename(child, plan.getRenameMap());
+  }
+
+  @Override
+  public LogicalPlan visitProject(LogicalProject plan, LogicalPlan child) {
+    return new LogicalProject(child, plan.getProjectList());
+  }
+
+  @Override
+  public LogicalPlan visitRemove(LogicalRemove plan, LogicalPlan child) {
+    return new LogicalRemove(child, plan.getRemoveList());
+  }
+
+  @Override
+  public LogicalPlan visitEval(LogicalEval plan, LogicalPlan child) {
+    return new LogicalEval(child, plan.getExpressions());
+  }
+
+  @Override
+  public LogicalPlan visitSort(LogicalSort plan, LogicalPlan child) {
+    return new LogicalSort(child, plan.getCount(), plan.getSortList());
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_FALSE;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_TRUE;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.exception.ExpressionEvaluationException;
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.LiteralExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Simplify the analyzed {@link Expression} before it is evaluated on each row.
+ * 1. Fold the function whose arguments are all literals into a literal, e.g. 10 * 60 -&gt; 600.
+ * 2. Simplify the boolean logic, e.g. true and x -&gt; x, false or x -&gt; x, not not x -&gt; x.
+ * The three-valued logic is kept, e.g. false and x -&gt; false holds even if x is NULL or MISSING.
+ */
+@RequiredArgsConstructor
+public class ExpressionSimplifier {
+  private final BuiltinFunctionRepository repository;
+
+  /**
+   * Simplify the expression bottom-up.
+   *
+   * @param expr expression
+   * @return simplified expression, or the same expression if nothing could be simplified
+   */
+  public Expression simplify(Expression expr) {
+    if (!(expr instanceof FunctionExpression)) {
+      return expr;
+    }
+    FunctionExpression function = simplifyArguments((FunctionExpression) expr);
+    if (function.getArguments().stream().allMatch(arg -> arg instanceof LiteralExpression)) {
+      return fold(function);
+    }
+    return simplifyBoolean(function);
+  }
+
+  private FunctionExpression simplifyArguments(FunctionExpression function) {
+    boolean changed = false;
+    List<Expression> arguments = new ArrayList<>();
+    for (Expression arg : function.getArguments()) {
+      Expression simplified = simplify(arg);
+      changed |= simplified != arg;
+      arguments.add(simplified);
+    }
+    return changed
+        ? (FunctionExpression) repository.compile(function.getFunctionName(), arguments)
+        : function;
+  }
+
+  /**
+   * The function is kept if it fails on the literals, e.g. divided by zero, so the error is
+   * still raised when the function is evaluated.
+   */
+  private Expression fold(FunctionExpression function) {
+    try {
+      return DSL.literal(function.valueOf(BindingTuple.EMPTY));
+    } catch (ArithmeticException | ExpressionEvaluationException e) {
+      return function;
+    }
+  }
+
+  private Expression simplifyBoolean(FunctionExpression function) {
+    List<Expression> arguments = function.getArguments();
+    if (function.getFunctionName().equals(BuiltinFunctionName.AND.getName())) {
+      return simplifyBinary(arguments, LITERAL_TRUE, LITERAL_FALSE, function);
+    } else if (function.getFunctionName().equals(BuiltinFunctionName.OR.getName())) {
+      return simplifyBinary(arguments, LITERAL_FALSE, LITERAL_TRUE, function);
+    } else if (function.getFunctionName().equals(BuiltinFunctionName.NOT.getName())
+        && isFunction(arguments.get(0), BuiltinFunctionName.NOT)) {
+      return ((FunctionExpression) arguments.get(0)).getArguments().get(0);
+    }
+    return function;
+  }
+
+  /**
+   * Simplify the binary boolean function with the identity value, e.g. true for and, which
+   * could be removed, and the dominant value, e.g. false for and, which decides the result.
+   */
+  private Expression simplifyBinary(List<Expression> arguments, ExprValue identity,
+                                    ExprValue dominant, FunctionExpression function) {
+    Expression left = arguments.get(0);
+    Expression right = arguments.get(1);
+    if (isLiteral(left, dominant) || isLiteral(right, dominant)) {
+      return DSL.literal(dominant);
+    } else if (isLiteral(left, identity)) {
+      return right;
+    } else if (isLiteral(right, identity)) {
+      return left;
+    }
+    return function;
+  }
+
+  private boolean isLiteral(Expression expr, ExprValue value) {
+    return expr instanceof LiteralExpression && expr.valueOf(BindingTuple.EMPTY).equals(value);
+  }
+
+  private boolean isFunction(Expression expr, BuiltinFunctionName functionName) {
+    return expr instanceof FunctionExpression
+        && ((FunctionExpression) expr).getFunctionName().equals(functionName.getName());
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.ChildReplacer;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanNodeVisitor;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Rule based {@link LogicalPlan} optimizer which runs between the Analyzer and the Planner.
+ * The plan is optimized bottom-up. On each node, the {@link Rule}s are applied in order until
+ * none of them rewrites the node any more.
+ */
+@RequiredArgsConstructor
+public class LogicalPlanOptimizer {
+
+  private static final LogicalPlanNodeVisitor<LogicalPlan, LogicalPlan> CHILD_REPLACER =
+      new ChildReplacer();
+
+  private final List<Rule> rules;
+
+  /**
+   * Create the optimizer with the default rules.
+   *
+   * @param repository {@link BuiltinFunctionRepository} used to build the rewritten expressions
+   * @return {@link LogicalPlanOptimizer}
+   */
+  public static LogicalPlanOptimizer create(BuiltinFunctionRepository repository) {
+    return new LogicalPlanOptimizer(ImmutableList.of(
+        new SimplifyExpression(repository),
+        new MergeFilterAndFilter(repository),
+        new PushFilterUnderEval(),
+        new PushFilterUnderRename(repository),
+        new PruneEvalUnderProject(),
+        new MergeProjectAndProject(),
+        new MergeSortAndSort()
+    ));
+  }
+
+  /**
+   * Create a new optimizer which applies the additional rules after the rules of this optimizer,
+   * e.g. the storage specific push down rules of the table.
+   *
+   * @param additionalRules additional rules
+   * @return {@link LogicalPlanOptimizer}
+   */
+  public LogicalPlanOptimizer withRules(List<Rule> additionalRules) {
+    if (additionalRules.isEmpty()) {
+      return this;
+    }
+    return new LogicalPlanOptimizer(
+        ImmutableList.<Rule>builder().addAll(rules).addAll(additionalRules).build());
+  }
+
+  /**
+   * Optimize the {@link LogicalPlan}.
+   *
+   * @param plan logical plan
+   * @return optimized logical plan
+   */
+  public LogicalPlan optimize(LogicalPlan plan) {
+    LogicalPlan node = replaceChild(plan);
+    for (Rule rule : rules) {
+      LogicalPlan optimized = rule.apply(node);
+      if (optimized != node) {
+        // The rewritten node may have new children, e.g. the filter pushed below the eval,
+        // so the whole sub-tree is optimized again.
+        return optimize(optimized);
+      }
+    }
+    return node;
+  }
+
+  private LogicalPlan replaceChild(LogicalPlan plan) {
+    List<LogicalPlan> children = plan.getChild();
+    if (children.isEmpty()) {
+      return plan;
+    }
+    LogicalPlan child = children.get(0);
+    LogicalPlan optimizedChild = optimize(child);
+    return optimizedChild == child ? plan : plan.accept(CHILD_REPLACER, optimizedChild);
+  }
+}
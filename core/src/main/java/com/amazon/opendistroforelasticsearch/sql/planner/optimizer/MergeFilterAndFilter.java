@@ -0,0 +1,46 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalFilter;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+
+/**
+ * Merge the adjacent filters into one filter with the conjunction of both conditions.
+ * Filter(Filter(child, c1), c2) -&gt; Filter(child, c1 AND c2)
+ */
+public class MergeFilterAndFilter extends Rule {
+
+  private final DSL dsl;
+
+  public MergeFilterAndFilter(BuiltinFunctionRepository repository) {
+    this.dsl = new DSL(repository);
+  }
+
+  @Override
+  public LogicalPlan visitFilter(LogicalFilter plan, Object context) {
+    LogicalPlan child = plan.getChild().get(0);
+    if (child instanceof LogicalFilter) {
+      LogicalFilter childFilter = (LogicalFilter) child;
+      return new LogicalFilter(childFilter.getChild().get(0),
+          dsl.and(childFilter.getCondition(), plan.getCondition()));
+    }
+    return plan;
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalProject;
+import java.util.List;
+
+/**
+ * Remove the project below another project if both of them only project fields and the upper
+ * project selects a subset of the fields of the lower one.
+ * Project(Project(child, a, b), a) -&gt; Project(child, a)
+ */
+public class MergeProjectAndProject extends Rule {
+
+  @Override
+  public LogicalPlan visitProject(LogicalProject plan, Object context) {
+    LogicalPlan child = plan.getChild().get(0);
+    if (child instanceof LogicalProject) {
+      LogicalProject childProject = (LogicalProject) child;
+      if (onlyReferences(plan.getProjectList())
+          && onlyReferences(childProject.getProjectList())
+          && ReferenceUtils.referencedFields(childProject.getProjectList())
+              .containsAll(ReferenceUtils.referencedFields(plan.getProjectList()))) {
+        return new LogicalProject(childProject.getChild().get(0), plan.getProjectList());
+      }
+    }
+    return plan;
+  }
+
+  private boolean onlyReferences(List<Expression> projectList) {
+    return projectList.stream().allMatch(expr -> expr instanceof ReferenceExpression);
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer;
+
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalSort;
+
+/**
+ * Remove the redundant sort directly below another sort with the same sort keys. The remaining
+ * sort returns the smaller count of the two.
+ * Sort(Sort(child, 10, a), 5, a) -&gt; Sort(child, 5, a)
+ */
+public class MergeSortAndSort extends Rule {
+
+  @Override
+  public LogicalPlan visitSort(LogicalSort plan, Object context) {
+    LogicalPlan child = plan.getChild().get(0);
+    if (child instanceof LogicalSort) {
+      LogicalSort childSort = (LogicalSort) child;
+      if (plan.getSortList().equals(childSort.getSortList())) {
+        return new LogicalSort(childSort.getChild().get(0),
+            minCount(plan.getCount(), childSort.getCount()), plan.getSortList());
+      }
+    }
+    return plan;
+  }
+
+  /**
+   * Null count means all the rows are returned.
+   */
+  private Integer minCount(Integer count, Integer childCount) {
+    if (count == null) {
+      return childCount;
+    }
+    if (childCount == null) {
+      return count;
+    }
+    return Math.min(count, childCount);
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalEval;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalProject;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.Set;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Remove the evaluated fields which are not referenced by the project above the eval, nor by the
+ * expressions evaluated after them. The eval is removed if none of the fields is referenced.
+ * Project(Eval(child, a = x, b = y), a) -&gt; Project(Eval(child, a = x), a)
+ */
+public class PruneEvalUnderProject extends Rule {
+
+  @Override
+  public LogicalPlan visitProject(LogicalProject plan, Object context) {
+    LogicalPlan child = plan.getChild().get(0);
+    if (child instanceof LogicalEval) {
+      LogicalEval eval = (LogicalEval) child;
+      Set<String> requiredFields = ReferenceUtils.referencedFields(plan.getProjectList());
+      LinkedList<Pair<ReferenceExpression, Expression>> expressions = new LinkedList<>();
+      // Walk backward, the field evaluated by one expression is required by the expressions
+      // before it only if the expressions after it reference it.
+      for (int i = eval.getExpressions().size() - 1; i >= 0; i--) {
+        Pair<ReferenceExpression, Expression> pair = eval.getExpressions().get(i);
+        if (requiredFields.remove(pair.getLeft().getAttr())) {
+          requiredFields.addAll(
+              ReferenceUtils.referencedFields(Collections.singletonList(pair.getRight())));
+          expressions.addFirst(pair);
+        }
+      }
+
+      if (expressions.size() == eval.getExpressions().size()) {
+        return plan;
+      }
+      LogicalPlan evalChild = eval.getChild().get(0);
+      return new LogicalProject(
+          expressions.isEmpty() ? evalChild : new LogicalEval(evalChild, expressions),
+          plan.getProjectList());
+    }
+    return plan;
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer;
+
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalEval;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalFilter;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Push the filter below the eval if the condition doesn't reference any evaluated field.
+ * The eval then only evaluates the rows which pass the filter.
+ * Filter(Eval(child, exprs), c) -&gt; Eval(Filter(child, c), exprs)
+ */
+public class PushFilterUnderEval extends Rule {
+
+  @Override
+  public LogicalPlan visitFilter(LogicalFilter plan, Object context) {
+    LogicalPlan child = plan.getChild().get(0);
+    if (child instanceof LogicalEval) {
+      LogicalEval eval = (LogicalEval) child;
+      Set<String> evaluatedFields = eval.getExpressions().stream()
+          .map(pair -> pair.getLeft().getAttr())
+          .collect(Collectors.toSet());
+      Set<String> referencedFields =
+          ReferenceUtils.referencedFields(Collections.singletonList(plan.getCondition()));
+      if (Collections.disjoint(evaluatedFields, referencedFields)) {
+        return new LogicalEval(
+            new LogicalFilter(eval.getChild().get(0), plan.getCondition()),
+            eval.getExpressions());
+      }
+    }
+    return plan;
+  }
+}
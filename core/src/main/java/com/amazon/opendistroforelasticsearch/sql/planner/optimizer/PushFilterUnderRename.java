@@ -0,0 +1,64 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalFilter;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalRename;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Push the filter below the rename. The renamed fields in the condition are replaced by the
+ * original fields. The filter is kept above the rename if the condition references the original
+ * name of a renamed field, which doesn't exist after the rename.
+ * Filter(Rename(child, a -&gt; b), b &gt; 1) -&gt; Rename(Filter(child, a &gt; 1), a -&gt; b)
+ */
+@RequiredArgsConstructor
+public class PushFilterUnderRename extends Rule {
+
+  private final BuiltinFunctionRepository repository;
+
+  @Override
+  public LogicalPlan visitFilter(LogicalFilter plan, Object context) {
+    LogicalPlan child = plan.getChild().get(0);
+    if (child instanceof LogicalRename) {
+      LogicalRename rename = (LogicalRename) child;
+      Map<String, ReferenceExpression> originalFields = new HashMap<>();
+      rename.getRenameMap().forEach((from, to) -> originalFields.put(to.getAttr(), from));
+
+      Set<String> referencedFields =
+          ReferenceUtils.referencedFields(Collections.singletonList(plan.getCondition()));
+      boolean referenceRemovedField = rename.getRenameMap().keySet().stream()
+          .anyMatch(from -> referencedFields.contains(from.getAttr())
+              && !originalFields.containsKey(from.getAttr()));
+      if (!referenceRemovedField) {
+        Expression condition =
+            ReferenceUtils.replaceReferences(plan.getCondition(), originalFields, repository);
+        return new LogicalRename(
+            new LogicalFilter(rename.getChild().get(0), condition), rename.getRenameMap());
+      }
+    }
+    return plan;
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Utilities to inspect and rewrite the {@link ReferenceExpression}s of an {@link Expression}.
+ */
+@UtilityClass
+class ReferenceUtils {
+
+  /**
+   * Names of the fields referenced by the expressions.
+   */
+  public static Set<String> referencedFields(List<? extends Expression> exprs) {
+    Set<String> fields = new HashSet<>();
+    exprs.forEach(expr -> collectFields(expr, fields));
+    return fields;
+  }
+
+  /**
+   * Replace the {@link ReferenceExpression}s whose name is in the replacement map. The function
+   * expression which has replaced argument is compiled again by the function repository.
+   *
+   * @param expr         expression
+   * @param replacements mapping from field name to the new reference
+   * @param repository   {@link BuiltinFunctionRepository}
+   * @return rewritten expression
+   */
+  public static Expression replaceReferences(Expression expr,
+                                             Map<String, ReferenceExpression> replacements,
+                                             BuiltinFunctionRepository repository) {
+    if (expr instanceof ReferenceExpression) {
+      return replacements.getOrDefault(((ReferenceExpression) expr).getAttr(),
+          (ReferenceExpression) expr);
+    } else if (expr instanceof FunctionExpression) {
+      FunctionExpression function = (FunctionExpression) expr;
+      List<Expression> arguments = function.getArguments().stream()
+          .map(arg -> replaceReferences(arg, replacements, repository))
+          .collect(Collectors.toList());
+      if (arguments.equals(function.getArguments())) {
+        return expr;
+      }
+      return (Expression) repository.compile(function.getFunctionName(), arguments);
+    }
+    return expr;
+  }
+
+  private static void collectFields(Expression expr, Set<String> fields) {
+    if (expr instanceof ReferenceExpression) {
+      fields.add(((ReferenceExpression) expr).getAttr());
+    } else if (expr instanceof FunctionExpression) {
+      ((FunctionExpression) expr).getArguments().forEach(arg -> collectFields(arg, fields));
+    }
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer;
+
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanNodeVisitor;
+
+/**
+ * Optimization rule which rewrites one {@link LogicalPlan} node. The rule overrides the visit
+ * method of the node it matches and returns the rewritten plan. The plan is returned as it is
+ * if the rule doesn't apply.
+ */
+public abstract class Rule extends LogicalPlanNodeVisitor<LogicalPlan, Object> {
+
+  /**
+   * Apply the rule on the plan node.
+   *
+   * @param plan plan node whose children have been optimized already
+   * @return rewritten plan, or the same plan instance if the rule doesn't apply
+   */
+  public LogicalPlan apply(LogicalPlan plan) {
+    return plan.accept(this, null);
+  }
+
+  @Override
+  protected LogicalPlan visitNode(LogicalPlan plan, Object context) {
+    return plan;
+  }
+}
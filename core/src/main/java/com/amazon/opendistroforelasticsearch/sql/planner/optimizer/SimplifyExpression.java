@@ -0,0 +1,87 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer;
+
+import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.SortOption;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalEval;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalFilter;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalSort;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Simplify the filter condition, the evaluated expressions and the sort expressions by
+ * {@link ExpressionSimplifier}. The expressions are simplified in the optimizer instead of the
+ * analyzer, so the analyzed plan keeps the literals of the query which are bound to the new values
+ * when the plan is reused by the query with different literals.
+ */
+public class SimplifyExpression extends Rule {
+
+  private final ExpressionSimplifier simplifier;
+
+  public SimplifyExpression(BuiltinFunctionRepository repository) {
+    this.simplifier = new ExpressionSimplifier(repository);
+  }
+
+  @Override
+  public LogicalPlan visitFilter(LogicalFilter plan, Object context) {
+    Expression condition = simplifier.simplify(plan.getCondition());
+    if (condition == plan.getCondition()) {
+      return plan;
+    }
+    return new LogicalFilter(plan.getChild().get(0), condition);
+  }
+
+  @Override
+  public LogicalPlan visitEval(LogicalEval plan, Object context) {
+    List<Pair<ReferenceExpression, Expression>> expressions = simplify(plan.getExpressions());
+    if (expressions == plan.getExpressions()) {
+      return plan;
+    }
+    return new LogicalEval(plan.getChild().get(0), expressions);
+  }
+
+  @Override
+  public LogicalPlan visitSort(LogicalSort plan, Object context) {
+    List<Pair<SortOption, Expression>> sortList = simplify(plan.getSortList());
+    if (sortList == plan.getSortList()) {
+      return plan;
+    }
+    return new LogicalSort(plan.getChild().get(0), plan.getCount(), sortList);
+  }
+
+  /**
+   * Simplify the expression of each pair.
+   *
+   * @return simplified pairs, or the same list if none of the expressions is simplified
+   */
+  private <T> List<Pair<T, Expression>> simplify(List<Pair<T, Expression>> pairs) {
+    boolean changed = false;
+    List<Pair<T, Expression>> simplified = new ArrayList<>();
+    for (Pair<T, Expression> pair : pairs) {
+      Expression expr = simplifier.simplify(pair.getRight());
+      changed |= expr != pair.getRight();
+      simplified.add(ImmutablePair.of(pair.getLeft(), expr));
+    }
+    return changed ? simplified : pairs;
+  }
+}
@@ -15,22 +15,30 @@
 
 package com.amazon.opendistroforelasticsearch.sql.planner.physical;
 
+import com.amazon.opendistroforelasticsearch.sql.data.batch.RowBatch;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.utils.ExprValueSizeEstimator;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
-import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.AggregationState;
 import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.Aggregator;
+import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.GroupedAggregationState;
+import com.amazon.opendistroforelasticsearch.sql.monitor.AlwaysHealthyMonitor;
+import com.amazon.opendistroforelasticsearch.sql.monitor.MemoryReservation;
+import com.amazon.opendistroforelasticsearch.sql.monitor.ResourceMonitor;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.spill.SpillFile;
 import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
-import java.util.AbstractMap;
+import com.google.common.collect.Iterators;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Collectors;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -40,18 +48,60 @@ import lombok.ToString;
 /**
  * Group the all the input {@link BindingTuple} by {@link AggregationOperator#groupByExprList},
  * calculate the aggregation result by using {@link AggregationOperator#aggregatorList}.
+ * Once the estimated size of the groups exceeds {@link AggregationOperator#memoryLimit}, the rows
+ * of new groups are partitioned by group key and spilled to disk, then each partition is
+ * aggregated separately after the in-memory groups are returned.
+ * With {@link AggregationOperator#parallelism} greater than 1, the rows are partitioned by group
+ * key across the workers of {@link AggregationOperator#pool}, each worker aggregates the disjoint
+ * groups of its partition, so the partial results are simply concatenated at the end.
+ * The estimated size of the groups is reserved from {@link AggregationOperator#monitor} while the
+ * groups are kept in memory.
  */
 @EqualsAndHashCode
 @ToString
 public class AggregationOperator extends PhysicalPlan {
+  /**
+   * Number of rows buffered before the partitions are dispatched to the workers.
+   */
+  private static final int PARALLEL_CHUNK_SIZE = 8 * RowBatch.DEFAULT_BATCH_SIZE;
+
   @Getter
   private final PhysicalPlan input;
   @Getter
   private final List<Aggregator> aggregatorList;
   @Getter
   private final List<Expression> groupByExprList;
+  /**
+   * Max estimated size in bytes of the groups kept in memory before spilling.
+   */
+  @Getter
+  @EqualsAndHashCode.Exclude
+  private final long memoryLimit;
+  /**
+   * Shared fork/join pool which runs the workers.
+   */
+  @Getter
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final ForkJoinPool pool;
+  /**
+   * Number of workers which aggregate the partitions in parallel.
+   */
+  @Getter
+  @EqualsAndHashCode.Exclude
+  private final int parallelism;
+  /**
+   * Resource monitor which the memory of the groups is reserved from.
+   */
+  @Getter
   @EqualsAndHashCode.Exclude
-  private final Group group;
+  @ToString.Exclude
+  private final ResourceMonitor monitor;
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final MemoryReservation memory;
+  @EqualsAndHashCode.Exclude
+  private final List<SpillFile> spillFiles = Collections.synchronizedList(new ArrayList<>());
   @EqualsAndHashCode.Exclude
   private Iterator<ExprValue> iterator;
 
@@ -63,10 +113,58 @@ public class AggregationOperator extends PhysicalPlan {
    */
   public AggregationOperator(PhysicalPlan input, List<Aggregator> aggregatorList,
                              List<Expression> groupByExprList) {
+    this(input, aggregatorList, groupByExprList, Long.MAX_VALUE);
+  }
+
+  /**
+   * AggregationOperator Constructor.
+   * @param input Input {@link PhysicalPlan}
+   * @param aggregatorList List of {@link Aggregator}
+   * @param groupByExprList List of group by {@link Expression}
+   * @param memoryLimit max estimated size in bytes of the groups kept in memory
+   */
+  public AggregationOperator(PhysicalPlan input, List<Aggregator> aggregatorList,
+                             List<Expression> groupByExprList, long memoryLimit) {
+    this(input, aggregatorList, groupByExprList, memoryLimit, null, 1);
+  }
+
+  /**
+   * AggregationOperator Constructor.
+   * @param input Input {@link PhysicalPlan}
+   * @param aggregatorList List of {@link Aggregator}
+   * @param groupByExprList List of group by {@link Expression}
+   * @param memoryLimit max estimated size in bytes of the groups kept in memory
+   * @param pool fork/join pool which runs the workers
+   * @param parallelism number of workers, the rows are aggregated in the calling thread if it is 1
+   */
+  public AggregationOperator(PhysicalPlan input, List<Aggregator> aggregatorList,
+                             List<Expression> groupByExprList, long memoryLimit,
+                             ForkJoinPool pool, int parallelism) {
+    this(input, aggregatorList, groupByExprList, memoryLimit, pool, parallelism,
+        AlwaysHealthyMonitor.ALWAYS_HEALTHY_MONITOR);
+  }
+
+  /**
+   * AggregationOperator Constructor.
+   * @param input Input {@link PhysicalPlan}
+   * @param aggregatorList List of {@link Aggregator}
+   * @param groupByExprList List of group by {@link Expression}
+   * @param memoryLimit max estimated size in bytes of the groups kept in memory
+   * @param pool fork/join pool which runs the workers
+   * @param parallelism number of workers, the rows are aggregated in the calling thread if it is 1
+   * @param monitor resource monitor which the memory of the groups is reserved from
+   */
+  public AggregationOperator(PhysicalPlan input, List<Aggregator> aggregatorList,
+                             List<Expression> groupByExprList, long memoryLimit,
+                             ForkJoinPool pool, int parallelism, ResourceMonitor monitor) {
     this.input = input;
     this.aggregatorList = aggregatorList;
     this.groupByExprList = groupByExprList;
-    this.group = new Group();
+    this.memoryLimit = memoryLimit;
+    this.pool = pool;
+    this.parallelism = parallelism;
+    this.monitor = monitor;
+    this.memory = new MemoryReservation(monitor, "<aggregation>");
   }
 
   @Override
@@ -93,37 +191,231 @@ public class AggregationOperator extends PhysicalPlan {
   @Override
   public void open() {
     super.open();
-    while (input.hasNext()) {
-      group.push(input.next());
+    if (parallelism > 1) {
+      iterator = Iterators.concat(Iterators.transform(
+          Arrays.asList(aggregateInParallel()).iterator(), this::result));
+      return;
+    }
+    Group group = new Group(0, memoryLimit);
+    for (RowBatch batch = input.nextBatch(RowBatch.DEFAULT_BATCH_SIZE); !batch.isEmpty();
+         batch = input.nextBatch(RowBatch.DEFAULT_BATCH_SIZE)) {
+      batch.forEach(group::push);
     }
-    iterator = group.result().iterator();
+    iterator = result(group);
   }
 
-  @VisibleForTesting
+  /**
+   * The input is read and partitioned by group key in the calling thread. Once enough rows are
+   * buffered, each partition is aggregated by one worker, while the calling thread continues to
+   * read the next rows. A partition is never aggregated by two workers at the same time.
+   */
+  private Group[] aggregateInParallel() {
+    Group[] groups = new Group[parallelism];
+    for (int i = 0; i < parallelism; i++) {
+      groups[i] = new Group(0, memoryLimit / parallelism);
+    }
+    List<ForkJoinTask<?>> workers = new ArrayList<>();
+    List<List<KeyedRow>> partitions = newPartitions();
+    int bufferedRows = 0;
+    for (RowBatch batch = input.nextBatch(RowBatch.DEFAULT_BATCH_SIZE); !batch.isEmpty();
+         batch = input.nextBatch(RowBatch.DEFAULT_BATCH_SIZE)) {
+      for (ExprValue row : batch) {
+        BindingTuple tuple = row.bindingTuples();
+        ExprValue[] key = new ExprValue[groupByExprList.size()];
+        for (int i = 0; i < key.length; i++) {
+          key[i] = groupByExprList.get(i).valueOf(tuple);
+        }
+        int hash = hash(key);
+        partitions.get(((hash * 0x85EBCA6B) >>> 16) % parallelism)
+            .add(new KeyedRow(row, tuple, key, hash));
+      }
+      bufferedRows += batch.size();
+      if (bufferedRows >= PARALLEL_CHUNK_SIZE) {
+        dispatch(groups, partitions, workers);
+        partitions = newPartitions();
+        bufferedRows = 0;
+      }
+    }
+    dispatch(groups, partitions, workers);
+    workers.forEach(ForkJoinTask::join);
+    return groups;
+  }
+
+  /**
+   * Wait for the workers of the previous chunk, then submit the workers of the partitions.
+   */
+  private void dispatch(Group[] groups, List<List<KeyedRow>> partitions,
+                        List<ForkJoinTask<?>> workers) {
+    workers.forEach(ForkJoinTask::join);
+    workers.clear();
+    for (int i = 0; i < parallelism; i++) {
+      Group group = groups[i];
+      List<KeyedRow> rows = partitions.get(i);
+      if (!rows.isEmpty()) {
+        workers.add(pool.submit(
+            () -> rows.forEach(row -> group.push(row.value, row.tuple, row.key, row.hash))));
+      }
+    }
+  }
+
+  private List<List<KeyedRow>> newPartitions() {
+    List<List<KeyedRow>> partitions = new ArrayList<>(parallelism);
+    for (int i = 0; i < parallelism; i++) {
+      partitions.add(new ArrayList<>());
+    }
+    return partitions;
+  }
+
+  @Override
+  public void close() {
+    spillFiles.forEach(SpillFile::close);
+    spillFiles.clear();
+    memory.release();
+    super.close();
+  }
+
+  /**
+   * Peak estimated bytes of the groups kept in memory, which is reported by the query profile.
+   */
+  public long getPeakMemory() {
+    return memory.getPeak();
+  }
+
+  /**
+   * The results of in-memory groups, followed by the results of each spilled partition which is
+   * aggregated lazily, so only one partition is kept in memory at a time. The memory of the groups
+   * is released once their results are built.
+   */
+  private Iterator<ExprValue> result(Group group) {
+    List<ExprValue> groupResult = group.result();
+    memory.subtract(group.estimatedSize);
+    Iterator<Iterator<ExprValue>> partitionResults =
+        Iterators.transform(group.spilledPartitions().iterator(), partition -> {
+          Group partitionGroup = new Group(group.level + 1, memoryLimit);
+          partition.read().forEachRemaining(partitionGroup::push);
+          return result(partitionGroup);
+        });
+    return Iterators.concat(groupResult.iterator(), Iterators.concat(partitionResults));
+  }
+
+  /**
+   * Combine the hash of key values, then spread the high bits to the low bits which are used
+   * to address the slot.
+   */
+  private static int hash(ExprValue[] key) {
+    int hash = 1;
+    for (ExprValue value : key) {
+      hash = 31 * hash + value.hashCode();
+    }
+    hash *= 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Row with its group key and hash evaluated by the calling thread.
+   */
   @RequiredArgsConstructor
+  private static class KeyedRow {
+    private final ExprValue value;
+    private final BindingTuple tuple;
+    private final ExprValue[] key;
+    private final int hash;
+  }
+
+  /**
+   * Hash aggregation table. The group keys are kept in an open addressing table which is probed
+   * once per row, the aggregation states are kept in {@link GroupedAggregationState} indexed by
+   * the group id.
+   */
+  @VisibleForTesting
   public class Group {
+    private static final int INITIAL_SLOTS = 16;
+    private static final int EMPTY = -1;
+    private static final int PARTITION_BITS = 3;
+    private static final int PARTITION_COUNT = 1 << PARTITION_BITS;
+    /**
+     * The partition at each level is addressed by different bits of the hash. The partitions at
+     * the max level are not spilled anymore.
+     */
+    private static final int MAX_SPILL_LEVEL = 4;
+    /**
+     * Estimated heap size of the slot and hash of one group, the reference of one key value and
+     * the state of one aggregator.
+     */
+    private static final long GROUP_OVERHEAD = 2 * Integer.BYTES;
+    private static final long KEY_OVERHEAD = Long.BYTES;
+    private static final long STATE_OVERHEAD = 2 * Long.BYTES;
+
+    private final int level;
+    private final long limit;
+
+    private final int keySize = groupByExprList.size();
+    private final ExprValue[] probeKey = new ExprValue[keySize];
+    private final GroupedAggregationState[] states;
+
+    /**
+     * Group id of each slot, or {@link #EMPTY}. The length is always power of 2.
+     */
+    private int[] slots;
+    /**
+     * Hash of the group key, indexed by group id.
+     */
+    private int[] hashes;
+    /**
+     * Group keys flattened, the key of group i is in [i * keySize, (i + 1) * keySize).
+     */
+    private ExprValue[] keys;
+    private int groupCount = 0;
 
-    private final Map<GroupKey, List<Map.Entry<Aggregator, AggregationState>>> groupListMap =
-        new HashMap<>();
+    private long estimatedSize = 0;
+    /**
+     * Once spilling, the rows of the existing groups are still aggregated in memory, and the rows
+     * of new groups are spilled to the partitions.
+     */
+    private boolean spilling = false;
+    private final SpillFile[] partitions = new SpillFile[PARTITION_COUNT];
 
     /**
-     * Push the BindingTuple to Group. Two functions will be applied to each BindingTuple to
-     * generate the {@link GroupKey} and {@link AggregationState}
-     * Key = GroupKey(bindingTuple), State = Aggregator(bindingTuple)
+     * Group Constructor.
+     * @param level number of times the rows have been spilled
+     * @param limit max estimated size in bytes of the groups kept in memory
+     */
+    public Group(int level, long limit) {
+      this.level = level;
+      this.limit = limit;
+      this.states = aggregatorList.stream()
+          .map(Aggregator::createGroupedState)
+          .toArray(GroupedAggregationState[]::new);
+      this.slots = new int[INITIAL_SLOTS];
+      Arrays.fill(slots, EMPTY);
+      this.hashes = new int[INITIAL_SLOTS];
+      this.keys = new ExprValue[INITIAL_SLOTS * keySize];
+    }
+
+    /**
+     * Push the BindingTuple to Group. The group of the BindingTuple is found or added by single
+     * probe, then the states of the group are updated by each {@link Aggregator}.
      */
     public void push(ExprValue inputValue) {
-      GroupKey groupKey = new GroupKey(inputValue);
-      groupListMap.computeIfAbsent(groupKey, k ->
-          aggregatorList.stream()
-              .map(aggregator -> new AbstractMap.SimpleEntry<>(aggregator,
-                  aggregator.create()))
-              .collect(Collectors.toList())
-      );
-      groupListMap.computeIfPresent(groupKey, (key, aggregatorList) -> {
-        aggregatorList
-            .forEach(entry -> entry.getKey().iterate(inputValue.bindingTuples(), entry.getValue()));
-        return aggregatorList;
-      });
+      BindingTuple tuple = inputValue.bindingTuples();
+      for (int i = 0; i < keySize; i++) {
+        probeKey[i] = groupByExprList.get(i).valueOf(tuple);
+      }
+      push(inputValue, tuple, probeKey, hash(probeKey));
+    }
+
+    /**
+     * Push the BindingTuple whose group key and hash have been evaluated.
+     */
+    void push(ExprValue inputValue, BindingTuple tuple, ExprValue[] key, int hash) {
+      int groupId = findOrAddGroup(key, hash);
+      if (groupId == EMPTY) {
+        spill(inputValue, hash);
+        return;
+      }
+      for (GroupedAggregationState state : states) {
+        state.iterate(groupId, tuple);
+      }
     }
 
     /**
@@ -131,47 +423,98 @@ public class AggregationOperator extends PhysicalPlan {
      */
     public List<ExprValue> result() {
       ImmutableList.Builder<ExprValue> resultBuilder = new ImmutableList.Builder<>();
-      for (Map.Entry<GroupKey, List<Map.Entry<Aggregator, AggregationState>>> entry : groupListMap
-          .entrySet()) {
+      for (int groupId = 0; groupId < groupCount; groupId++) {
         LinkedHashMap<String, ExprValue> map = new LinkedHashMap<>();
-        map.putAll(entry.getKey().groupKeyMap());
-        for (Map.Entry<Aggregator, AggregationState> stateEntry : entry.getValue()) {
-          map.put(stateEntry.getKey().toString(), stateEntry.getValue().result());
+        for (int i = 0; i < keySize; i++) {
+          map.put(groupByExprList.get(i).toString(), keys[groupId * keySize + i]);
+        }
+        for (int i = 0; i < states.length; i++) {
+          map.put(aggregatorList.get(i).toString(), states[i].result(groupId));
         }
         resultBuilder.add(ExprTupleValue.fromExprValueMap(map));
       }
       return resultBuilder.build();
     }
-  }
-
-  /**
-   * Group Key.
-   */
-  @EqualsAndHashCode
-  @VisibleForTesting
-  public class GroupKey {
-
-    private final List<ExprValue> groupByValueList;
 
     /**
-     * GroupKey constructor.
+     * Get the non-empty spilled partitions.
      */
-    public GroupKey(ExprValue value) {
-      this.groupByValueList = new ArrayList<>();
-      for (Expression groupExpr : groupByExprList) {
-        this.groupByValueList.add(groupExpr.valueOf(value.bindingTuples()));
+    public List<SpillFile> spilledPartitions() {
+      return Arrays.stream(partitions).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    private int findOrAddGroup(ExprValue[] key, int hash) {
+      int mask = slots.length - 1;
+      int slot = hash & mask;
+      while (slots[slot] != EMPTY) {
+        int groupId = slots[slot];
+        if (hashes[groupId] == hash && keyEquals(groupId, key)) {
+          return groupId;
+        }
+        slot = (slot + 1) & mask;
       }
+      return spilling ? EMPTY : addGroup(slot, key, hash);
     }
 
-    /**
-     * Return the Map of group field and group field value.
-     */
-    public LinkedHashMap<String, ExprValue> groupKeyMap() {
-      LinkedHashMap<String, ExprValue> map = new LinkedHashMap<>();
-      for (int i = 0; i < groupByExprList.size(); i++) {
-        map.put(groupByExprList.get(i).toString(), groupByValueList.get(i));
+    private int addGroup(int slot, ExprValue[] key, int hash) {
+      int groupId = groupCount++;
+      if (groupId == hashes.length) {
+        hashes = Arrays.copyOf(hashes, groupId * 2);
+        keys = Arrays.copyOf(keys, groupId * 2 * keySize);
+      }
+      hashes[groupId] = hash;
+      System.arraycopy(key, 0, keys, groupId * keySize, keySize);
+      for (GroupedAggregationState state : states) {
+        state.addGroup();
+      }
+      slots[slot] = groupId;
+      long groupSize = GROUP_OVERHEAD + states.length * STATE_OVERHEAD;
+      for (ExprValue value : key) {
+        groupSize += KEY_OVERHEAD + ExprValueSizeEstimator.estimate(value);
+      }
+      estimatedSize += groupSize;
+      memory.add(groupSize);
+      if (estimatedSize > limit && level < MAX_SPILL_LEVEL) {
+        spilling = true;
+      }
+      // keep the load factor under 0.75
+      if (groupCount * 4 > slots.length * 3) {
+        rehash(slots.length * 2);
+      }
+      return groupId;
+    }
+
+    private void rehash(int newSize) {
+      slots = new int[newSize];
+      Arrays.fill(slots, EMPTY);
+      int mask = newSize - 1;
+      for (int groupId = 0; groupId < groupCount; groupId++) {
+        int slot = hashes[groupId] & mask;
+        while (slots[slot] != EMPTY) {
+          slot = (slot + 1) & mask;
+        }
+        slots[slot] = groupId;
+      }
+    }
+
+    private void spill(ExprValue inputValue, int hash) {
+      int partition =
+          Integer.rotateLeft(hash, PARTITION_BITS * (level + 1)) & (PARTITION_COUNT - 1);
+      if (partitions[partition] == null) {
+        partitions[partition] = SpillFile.create("aggregation");
+        spillFiles.add(partitions[partition]);
+      }
+      partitions[partition].write(inputValue);
+    }
+
+    private boolean keyEquals(int groupId, ExprValue[] key) {
+      int offset = groupId * keySize;
+      for (int i = 0; i < keySize; i++) {
+        if (!key[i].equals(keys[offset + i])) {
+          return false;
+        }
       }
-      return map;
+      return true;
     }
   }
 }
@@ -16,7 +16,11 @@
 package com.amazon.opendistroforelasticsearch.sql.planner.physical;
 
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.utils.ExprValueSizeEstimator;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.monitor.AlwaysHealthyMonitor;
+import com.amazon.opendistroforelasticsearch.sql.monitor.MemoryReservation;
+import com.amazon.opendistroforelasticsearch.sql.monitor.ResourceMonitor;
 import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
 import com.google.common.collect.ImmutableList;
 import java.util.Collections;
@@ -32,7 +36,9 @@ import lombok.RequiredArgsConstructor;
 
 /**
  * Dedupe operator. Dedupe the input {@link ExprValue} by using the {@link
- * DedupeOperator#dedupeList} The result order follow the input order.
+ * DedupeOperator#dedupeList} The result order follow the input order. Unless in consecutive
+ * mode, the estimated size of the seen keys is reserved from {@link DedupeOperator#monitor} until
+ * the operator is closed.
  */
 @Getter
 @EqualsAndHashCode
@@ -47,10 +53,14 @@ public class DedupeOperator extends PhysicalPlan {
   private final Boolean keepEmpty;
   @Getter
   private final Boolean consecutive;
+  @EqualsAndHashCode.Exclude
+  private final ResourceMonitor monitor;
 
   @EqualsAndHashCode.Exclude
   private final Deduper<List<ExprValue>> deduper;
   @EqualsAndHashCode.Exclude
+  private final MemoryReservation memory;
+  @EqualsAndHashCode.Exclude
   private ExprValue next;
 
   private static final Integer ALL_ONE_DUPLICATION = 1;
@@ -58,6 +68,12 @@ public class DedupeOperator extends PhysicalPlan {
   private static final Boolean NON_CONSECUTIVE = false;
   private static final Predicate<ExprValue> NULL_OR_MISSING = v -> v.isNull() || v.isMissing();
   private static final Integer SEEN_FIRST_TIME = 1;
+  /**
+   * Estimated heap size of the entry in the seen map, the key list and the reference to one
+   * key value.
+   */
+  private static final long ENTRY_OVERHEAD = 64;
+  private static final long KEY_OVERHEAD = 8;
 
   @NonNull
   public DedupeOperator(PhysicalPlan input, List<Expression> dedupeList) {
@@ -79,11 +95,34 @@ public class DedupeOperator extends PhysicalPlan {
       Integer allowedDuplication,
       Boolean keepEmpty,
       Boolean consecutive) {
+    this(input, dedupeList, allowedDuplication, keepEmpty, consecutive,
+        AlwaysHealthyMonitor.ALWAYS_HEALTHY_MONITOR);
+  }
+
+  /**
+   * Dedup Constructor.
+   * @param input input {@link PhysicalPlan}
+   * @param dedupeList list of dedupe {@link Expression}
+   * @param allowedDuplication max allowed duplication
+   * @param keepEmpty keep empty
+   * @param consecutive consecutive mode
+   * @param monitor resource monitor which the memory of the seen keys is reserved from
+   */
+  @NonNull
+  public DedupeOperator(
+      PhysicalPlan input,
+      List<Expression> dedupeList,
+      Integer allowedDuplication,
+      Boolean keepEmpty,
+      Boolean consecutive,
+      ResourceMonitor monitor) {
     this.input = input;
     this.dedupeList = dedupeList;
     this.allowedDuplication = allowedDuplication;
     this.keepEmpty = keepEmpty;
     this.consecutive = consecutive;
+    this.monitor = monitor;
+    this.memory = new MemoryReservation(monitor, "<dedupe>");
     this.deduper = this.consecutive ? Deduper.consecutiveDeduper() : Deduper.historicalDeduper();
   }
 
@@ -114,6 +153,19 @@ public class DedupeOperator extends PhysicalPlan {
     return this.next;
   }
 
+  @Override
+  public void close() {
+    memory.release();
+    super.close();
+  }
+
+  /**
+   * Peak estimated bytes of the keys kept in memory, which is reported by the query profile.
+   */
+  public long getPeakMemory() {
+    return memory.getPeak();
+  }
+
   /**
    * Test the {@link ExprValue} should be keep or ignore
    *
@@ -135,9 +187,20 @@ public class DedupeOperator extends PhysicalPlan {
     }
     List<ExprValue> dedupeKey = dedupeKeyBuilder.build();
     int seenTimes = deduper.seenTimes(dedupeKey);
+    if (!consecutive && seenTimes == SEEN_FIRST_TIME) {
+      memory.add(estimate(dedupeKey));
+    }
     return seenTimes <= allowedDuplication;
   }
 
+  private static long estimate(List<ExprValue> dedupeKey) {
+    long size = ENTRY_OVERHEAD;
+    for (ExprValue value : dedupeKey) {
+      size += KEY_OVERHEAD + ExprValueSizeEstimator.estimate(value);
+    }
+    return size;
+  }
+
   /**
    * Return how many times the dedupeKey has been seen before. The side effect is the seen times
    * will add 1 times after calling this function.
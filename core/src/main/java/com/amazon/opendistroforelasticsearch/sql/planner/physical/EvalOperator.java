@@ -16,21 +16,22 @@
 package com.amazon.opendistroforelasticsearch.sql.planner.physical;
 
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRUCT;
-import static com.amazon.opendistroforelasticsearch.sql.expression.env.Environment.extendEnv;
 
+import com.amazon.opendistroforelasticsearch.sql.data.batch.RowBatch;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprMissingValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleSchema;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
-import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.LiteralExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableMap.Builder;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Set;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -45,16 +46,99 @@ import org.apache.commons.lang3.tuple.Pair;
  * <p>The {@link EvalOperator#expressionList} are evaluated from left to right. It means you can
  * reference previous evaluated field.
  * e.g. fields velocity = distance/time, doubleVelocity = 2 * velocity
+ *
+ * <p>Each field evaluated or referenced by the expressions is assigned a slot when the operator
+ * is planned. For each row, the referenced input fields are loaded into the slot array by the
+ * input indices derived once per input schema, and the compiled expressions read and write the
+ * slot array directly.
  */
 @ToString
 @EqualsAndHashCode(callSuper = false)
-@RequiredArgsConstructor
 public class EvalOperator extends PhysicalPlan {
   @Getter
   private final PhysicalPlan input;
   @Getter
   private final List<Pair<ReferenceExpression, Expression>> expressionList;
 
+  /**
+   * Field name of each slot. The evaluated fields come first in the order of first evaluation,
+   * followed by the other referenced fields. The field evaluated twice shares one slot.
+   */
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final ExprTupleSchema slotSchema;
+
+  /**
+   * Number of the slots of evaluated fields.
+   */
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final int evaluatedSlotCount;
+
+  /**
+   * Slot of the field evaluated by each expression in {@link EvalOperator#expressionList}.
+   */
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final int[] expressionSlots;
+
+  /**
+   * Each expression in {@link EvalOperator#expressionList} compiled on the slot array.
+   */
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final SlotEvaluator[] evaluators;
+
+  /**
+   * Slot array of the current row. The rows are evaluated one at a time, so the array is reused.
+   */
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final ExprValue[] slotValues;
+
+  /**
+   * Environment which resolves the references nested in the function expressions from the slot
+   * array.
+   */
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final Environment<Expression, ExprValue> slotEnvironment;
+
+  /**
+   * Output schema, the input index of each slot and the output index of each evaluated slot,
+   * derived from the input schema.
+   */
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final SchemaDerivedCache<Layout> layout = new SchemaDerivedCache<>(this::layout);
+
+  /**
+   * EvalOperator constructor.
+   * @param input          input
+   * @param expressionList list of field and the expression evaluated into it
+   */
+  public EvalOperator(PhysicalPlan input,
+                      List<Pair<ReferenceExpression, Expression>> expressionList) {
+    this.input = input;
+    this.expressionList = expressionList;
+
+    Set<String> slotFields = new LinkedHashSet<>();
+    expressionList.forEach(expr -> slotFields.add(expr.getKey().getAttr()));
+    this.evaluatedSlotCount = slotFields.size();
+    expressionList.forEach(expr -> collectReferences(expr.getValue(), slotFields));
+    this.slotSchema = ExprTupleSchema.of(slotFields);
+    this.slotValues = new ExprValue[slotFields.size()];
+    this.slotEnvironment =
+        var -> slotValues[slotSchema.indexOf(((ReferenceExpression) var).getAttr())];
+
+    this.expressionSlots = new int[expressionList.size()];
+    this.evaluators = new SlotEvaluator[expressionList.size()];
+    for (int i = 0; i < expressionList.size(); i++) {
+      expressionSlots[i] = slotSchema.indexOf(expressionList.get(i).getKey().getAttr());
+      evaluators[i] = compile(expressionList.get(i).getValue());
+    }
+  }
+
   @Override
   public <R, C> R accept(PhysicalPlanNodeVisitor<R, C> visitor, C context) {
     return visitor.visitEval(this, context);
@@ -72,40 +156,113 @@ public class EvalOperator extends PhysicalPlan {
 
   @Override
   public ExprValue next() {
-    ExprValue inputValue = input.next();
-    Map<String, ExprValue> evalMap = eval(inputValue.bindingTuples());
-
-    if (STRUCT == inputValue.type()) {
-      ImmutableMap.Builder<String, ExprValue> resultBuilder = new Builder<>();
-      Map<String, ExprValue> tupleValue = ExprValueUtils.getTupleValue(inputValue);
-      for (Entry<String, ExprValue> valueEntry : tupleValue.entrySet()) {
-        if (evalMap.containsKey(valueEntry.getKey())) {
-          resultBuilder.put(valueEntry.getKey(), evalMap.get(valueEntry.getKey()));
-          evalMap.remove(valueEntry.getKey());
-        } else {
-          resultBuilder.put(valueEntry);
-        }
-      }
-      resultBuilder.putAll(evalMap);
-      return ExprTupleValue.fromExprValueMap(resultBuilder.build());
-    } else {
+    return eval(input.next());
+  }
+
+  /**
+   * The expression in the {@link EvalOperator#expressionList} could reference the field evaluated
+   * by previous expression of the same row, so the batch is evaluated row by row.
+   */
+  @Override
+  public RowBatch nextBatch(int batchSize) {
+    RowBatch inputBatch = input.nextBatch(batchSize);
+    RowBatch outputBatch = new RowBatch(inputBatch.size());
+    for (ExprValue inputValue : inputBatch) {
+      outputBatch.add(eval(inputValue));
+    }
+    return outputBatch;
+  }
+
+  /**
+   * The output row has the input fields followed by the new fields. The evaluated value replaces
+   * the value of the input field with the same name. The field which is neither in the input nor
+   * evaluated yet is MISSING.
+   */
+  private ExprValue eval(ExprValue inputValue) {
+    if (STRUCT != inputValue.type()) {
       return inputValue;
     }
+
+    ExprTupleValue tupleValue = (ExprTupleValue) inputValue;
+    Layout rowLayout = layout.get(tupleValue.getSchema());
+    for (int slot = 0; slot < slotValues.length; slot++) {
+      int index = rowLayout.inputIndices[slot];
+      slotValues[slot] = (index < 0) ? ExprMissingValue.of() : tupleValue.valueAt(index);
+    }
+    for (int i = 0; i < evaluators.length; i++) {
+      slotValues[expressionSlots[i]] = evaluators[i].evaluate(slotValues);
+    }
+
+    ExprValue[] values = new ExprValue[rowLayout.schema.size()];
+    for (int i = 0; i < tupleValue.getSchema().size(); i++) {
+      values[i] = tupleValue.valueAt(i);
+    }
+    for (int slot = 0; slot < evaluatedSlotCount; slot++) {
+      values[rowLayout.outputIndices[slot]] = slotValues[slot];
+    }
+    return new ExprTupleValue(rowLayout.schema, values);
+  }
+
+  /**
+   * The reference and literal read the slot array or the constant directly. The function is
+   * evaluated on the slot environment, which resolves its references by the index of the field in
+   * the slot schema.
+   */
+  private SlotEvaluator compile(Expression expr) {
+    if (expr instanceof ReferenceExpression) {
+      int slot = slotSchema.indexOf(((ReferenceExpression) expr).getAttr());
+      return values -> values[slot];
+    } else if (expr instanceof LiteralExpression) {
+      ExprValue value = expr.valueOf(slotEnvironment);
+      return values -> value;
+    }
+    return values -> expr.valueOf(slotEnvironment);
+  }
+
+  private static void collectReferences(Expression expr, Set<String> fields) {
+    if (expr instanceof ReferenceExpression) {
+      fields.add(((ReferenceExpression) expr).getAttr());
+    } else if (expr instanceof FunctionExpression) {
+      ((FunctionExpression) expr).getArguments().forEach(arg -> collectReferences(arg, fields));
+    }
   }
 
   /**
-   * Evaluate the expression in the {@link EvalOperator#expressionList} with {@link Environment}.
-   * @param env {@link Environment}
-   * @return The mapping of reference and {@link ExprValue} for each expression.
+   * Derive the output schema from the input schema, the input index of each slot and the output
+   * index of each evaluated slot.
    */
-  private Map<String, ExprValue> eval(Environment<Expression, ExprValue> env) {
-    Map<String, ExprValue> evalResultMap = new LinkedHashMap<>();
-    for (Pair<ReferenceExpression, Expression> pair : expressionList) {
-      ReferenceExpression var = pair.getKey();
-      ExprValue value = pair.getValue().valueOf(env);
-      env = extendEnv(env, var, value);
-      evalResultMap.put(var.toString(), value);
+  private Layout layout(ExprTupleSchema inputSchema) {
+    List<String> fieldNames = new ArrayList<>();
+    for (int i = 0; i < inputSchema.size(); i++) {
+      fieldNames.add(inputSchema.fieldName(i));
+    }
+    int[] inputIndices = new int[slotSchema.size()];
+    int[] outputIndices = new int[evaluatedSlotCount];
+    for (int slot = 0; slot < slotSchema.size(); slot++) {
+      inputIndices[slot] = inputSchema.indexOf(slotSchema.fieldName(slot));
+      if (slot < evaluatedSlotCount) {
+        int index = inputIndices[slot];
+        if (index < 0) {
+          index = fieldNames.size();
+          fieldNames.add(slotSchema.fieldName(slot));
+        }
+        outputIndices[slot] = index;
+      }
     }
-    return evalResultMap;
+    return new Layout(ExprTupleSchema.of(fieldNames), inputIndices, outputIndices);
+  }
+
+  @RequiredArgsConstructor
+  private static class Layout {
+    private final ExprTupleSchema schema;
+    private final int[] inputIndices;
+    private final int[] outputIndices;
+  }
+
+  /**
+   * Expression compiled to evaluate on the slot array of the row.
+   */
+  private interface SlotEvaluator {
+    ExprValue evaluate(ExprValue[] values);
   }
 }
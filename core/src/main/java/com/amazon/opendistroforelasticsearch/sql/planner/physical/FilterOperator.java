@@ -1,5 +1,6 @@
 package com.amazon.opendistroforelasticsearch.sql.planner.physical;
 
+import com.amazon.opendistroforelasticsearch.sql.data.batch.RowBatch;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
@@ -54,4 +55,17 @@ public class FilterOperator extends PhysicalPlan {
   public ExprValue next() {
     return next;
   }
+
+  @Override
+  public RowBatch nextBatch(int batchSize) {
+    RowBatch inputBatch = input.nextBatch(batchSize);
+    while (!inputBatch.isEmpty()) {
+      RowBatch selected = inputBatch.select(conditions.batchValueOf(inputBatch));
+      if (!selected.isEmpty()) {
+        return selected;
+      }
+      inputBatch = input.nextBatch(batchSize);
+    }
+    return inputBatch;
+  }
 }
@@ -15,6 +15,7 @@
 
 package com.amazon.opendistroforelasticsearch.sql.planner.physical;
 
+import com.amazon.opendistroforelasticsearch.sql.data.batch.RowBatch;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.planner.PlanNode;
 import java.util.Iterator;
@@ -43,4 +44,20 @@ public abstract class PhysicalPlan implements PlanNode<PhysicalPlan>,
   public void close() {
     getChild().forEach(PhysicalPlan::close);
   }
+
+  /**
+   * Get the next batch of rows. The empty batch means there is no more rows.
+   * By default, the batch is built by pulling the rows one by one from {@link #next()}. The
+   * operator which could process the rows batch at a time should override it.
+   *
+   * @param batchSize max number of rows in the batch.
+   * @return {@link RowBatch}
+   */
+  public RowBatch nextBatch(int batchSize) {
+    RowBatch batch = new RowBatch(batchSize);
+    while (!batch.isFull() && hasNext()) {
+      batch.add(next());
+    }
+    return batch;
+  }
 }
@@ -15,16 +15,22 @@
 
 package com.amazon.opendistroforelasticsearch.sql.planner.physical;
 
+import com.amazon.opendistroforelasticsearch.sql.data.batch.ColumnVector;
+import com.amazon.opendistroforelasticsearch.sql.data.batch.RowBatch;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleSchema;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableMap.Builder;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 
 /**
@@ -32,13 +38,40 @@ import lombok.ToString;
  */
 @ToString
 @EqualsAndHashCode
-@RequiredArgsConstructor
 public class ProjectOperator extends PhysicalPlan {
   @Getter
   private final PhysicalPlan input;
   @Getter
   private final List<Expression> projectList;
 
+  /**
+   * Schema of the output row which has the value of every expression.
+   */
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final ExprTupleSchema outputSchema;
+
+  /**
+   * If every expression is field reference, the output schema remapped from the input schema.
+   * The value is null if any field doesn't exist in the input schema.
+   */
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final SchemaDerivedCache<ExprTupleSchema> remappedSchema =
+      new SchemaDerivedCache<>(this::remap);
+
+  /**
+   * ProjectOperator constructor.
+   * @param input       input
+   * @param projectList list of the projected expression
+   */
+  public ProjectOperator(PhysicalPlan input, List<Expression> projectList) {
+    this.input = input;
+    this.projectList = projectList;
+    this.outputSchema = ExprTupleSchema.of(
+        projectList.stream().map(Expression::toString).collect(Collectors.toList()));
+  }
+
   @Override
   public <R, C> R accept(PhysicalPlanNodeVisitor<R, C> visitor, C context) {
     return visitor.visitProject(this, context);
@@ -54,17 +87,91 @@ public class ProjectOperator extends PhysicalPlan {
     return input.hasNext();
   }
 
+  /**
+   * If every expression is field reference and all the fields have value, the output row shares
+   * the value array of the input row. Otherwise, the expressions are evaluated into a new row.
+   */
   @Override
   public ExprValue next() {
     ExprValue inputValue = input.next();
-    ImmutableMap.Builder<String, ExprValue> mapBuilder = new Builder<>();
+    if (inputValue instanceof ExprTupleValue) {
+      ExprTupleValue tupleValue = (ExprTupleValue) inputValue;
+      ExprTupleSchema schema = remappedSchema.get(tupleValue.getSchema());
+      if (schema != null) {
+        ExprTupleValue remapped = tupleValue.withSchema(schema);
+        if (hasNoMissingValue(remapped)) {
+          return remapped;
+        }
+      }
+    }
+
+    BindingTuple tuple = inputValue.bindingTuples();
+    ExprValue[] values = new ExprValue[projectList.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = projectList.get(i).valueOf(tuple);
+    }
+    return project(values);
+  }
+
+  /**
+   * Each expression in the {@link ProjectOperator#projectList} is evaluated over the whole input
+   * batch first, then the output rows are assembled from the {@link ColumnVector}.
+   */
+  @Override
+  public RowBatch nextBatch(int batchSize) {
+    RowBatch inputBatch = input.nextBatch(batchSize);
+    ColumnVector[] columns = new ColumnVector[projectList.size()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = projectList.get(i).batchValueOf(inputBatch);
+    }
+
+    RowBatch outputBatch = new RowBatch(inputBatch.size());
+    for (int row = 0; row < inputBatch.size(); row++) {
+      ExprValue[] values = new ExprValue[columns.length];
+      for (int i = 0; i < columns.length; i++) {
+        values[i] = columns[i].get(row);
+      }
+      outputBatch.add(project(values));
+    }
+    return outputBatch;
+  }
+
+  /**
+   * Build the output row from the value of each expression. Missing value is ignored.
+   */
+  private ExprValue project(ExprValue[] values) {
+    ExprTupleValue tupleValue = new ExprTupleValue(outputSchema, values);
+    if (hasNoMissingValue(tupleValue)) {
+      return tupleValue;
+    }
+    Map<String, ExprValue> valueMap = new LinkedHashMap<>();
+    for (int i = 0; i < values.length; i++) {
+      if (!values[i].isMissing()) {
+        valueMap.put(outputSchema.fieldName(i), values[i]);
+      }
+    }
+    return ExprTupleValue.fromExprValueMap(valueMap);
+  }
+
+  private boolean hasNoMissingValue(ExprTupleValue tupleValue) {
+    for (int i = 0; i < tupleValue.getSchema().size(); i++) {
+      if (tupleValue.valueAt(i).isMissing()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private ExprTupleSchema remap(ExprTupleSchema inputSchema) {
+    List<Integer> indices = new ArrayList<>();
     for (Expression expr : projectList) {
-      ExprValue exprValue = expr.valueOf(inputValue.bindingTuples());
-      // missing value is ignored.
-      if (!exprValue.isMissing()) {
-        mapBuilder.put(expr.toString(), exprValue);
+      int index = expr instanceof ReferenceExpression
+          ? inputSchema.indexOf(((ReferenceExpression) expr).getAttr()) : -1;
+      if (index < 0) {
+        return null;
       }
+      indices.add(index);
     }
-    return ExprTupleValue.fromExprValueMap(mapBuilder.build());
+    return inputSchema.select(indices);
   }
 }
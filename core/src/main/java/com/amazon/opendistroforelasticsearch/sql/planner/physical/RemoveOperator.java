@@ -17,16 +17,13 @@ package com.amazon.opendistroforelasticsearch.sql.planner.physical;
 
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRUCT;
 
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleSchema;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
-import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableMap.Builder;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.EqualsAndHashCode;
@@ -46,6 +43,10 @@ public class RemoveOperator extends PhysicalPlan {
   @ToString.Exclude
   @EqualsAndHashCode.Exclude
   private final Set<String> nameRemoveList;
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final SchemaDerivedCache<ExprTupleSchema> outputSchema =
+      new SchemaDerivedCache<>(this::remove);
 
   /**
    * Todo. This is the temporary solution that add the mapping between string and ref. because when
@@ -74,20 +75,27 @@ public class RemoveOperator extends PhysicalPlan {
     return input.hasNext();
   }
 
+  /**
+   * The row with the fields removed shares the value array of the input row.
+   */
   @Override
   public ExprValue next() {
     ExprValue inputValue = input.next();
     if (STRUCT == inputValue.type()) {
-      ImmutableMap.Builder<String, ExprValue> mapBuilder = new Builder<>();
-      Map<String, ExprValue> tupleValue = ExprValueUtils.getTupleValue(inputValue);
-      for (Entry<String, ExprValue> valueEntry : tupleValue.entrySet()) {
-        if (!nameRemoveList.contains(valueEntry.getKey())) {
-          mapBuilder.put(valueEntry);
-        }
-      }
-      return ExprTupleValue.fromExprValueMap(mapBuilder.build());
+      ExprTupleValue tupleValue = (ExprTupleValue) inputValue;
+      return tupleValue.withSchema(outputSchema.get(tupleValue.getSchema()));
     } else {
       return inputValue;
     }
   }
+
+  private ExprTupleSchema remove(ExprTupleSchema inputSchema) {
+    List<Integer> indices = new ArrayList<>();
+    for (int i = 0; i < inputSchema.size(); i++) {
+      if (!nameRemoveList.contains(inputSchema.fieldName(i))) {
+        indices.add(i);
+      }
+    }
+    return inputSchema.select(indices);
+  }
 }
@@ -17,13 +17,11 @@ package com.amazon.opendistroforelasticsearch.sql.planner.physical;
 
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRUCT;
 
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleSchema;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
-import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
 import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableMap.Builder;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -52,6 +50,11 @@ public class RenameOperator extends PhysicalPlan {
   @EqualsAndHashCode.Exclude
   private final Map<String, ReferenceExpression> nameMapping;
 
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final SchemaDerivedCache<ExprTupleSchema> outputSchema =
+      new SchemaDerivedCache<>(this::rename);
+
   /**
    * Constructor of RenameOperator.
    */
@@ -79,22 +82,22 @@ public class RenameOperator extends PhysicalPlan {
     return input.hasNext();
   }
 
+  /**
+   * The renamed row shares the value array of the input row.
+   */
   @Override
   public ExprValue next() {
     ExprValue inputValue = input.next();
     if (STRUCT == inputValue.type()) {
-      Map<String, ExprValue> tupleValue = ExprValueUtils.getTupleValue(inputValue);
-      ImmutableMap.Builder<String, ExprValue> mapBuilder = new Builder<>();
-      for (String bindName : tupleValue.keySet()) {
-        if (nameMapping.containsKey(bindName)) {
-          mapBuilder.put(nameMapping.get(bindName).getAttr(), tupleValue.get(bindName));
-        } else {
-          mapBuilder.put(bindName, tupleValue.get(bindName));
-        }
-      }
-      return ExprTupleValue.fromExprValueMap(mapBuilder.build());
+      ExprTupleValue tupleValue = (ExprTupleValue) inputValue;
+      return tupleValue.withSchema(outputSchema.get(tupleValue.getSchema()));
     } else {
       return inputValue;
     }
   }
+
+  private ExprTupleSchema rename(ExprTupleSchema inputSchema) {
+    return inputSchema.rename(name -> nameMapping.containsKey(name)
+        ? nameMapping.get(name).getAttr() : name);
+  }
 }
@@ -0,0 +1,53 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.physical;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleSchema;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Cache of the value derived from the schema of the last input row, e.g. the output schema of
+ * the operator. The rows from the same input share the schema, so the value is derived once
+ * instead of per row.
+ *
+ * @param <T> type of the derived value
+ */
+@RequiredArgsConstructor
+class SchemaDerivedCache<T> {
+  private final Function<ExprTupleSchema, T> derive;
+
+  /**
+   * The input schema and the derived value are kept in one immutable object to be safe for
+   * concurrent readers.
+   */
+  private Entry<T> last;
+
+  T get(ExprTupleSchema inputSchema) {
+    Entry<T> cached = last;
+    if (cached == null || cached.inputSchema != inputSchema) {
+      cached = new Entry<>(inputSchema, derive.apply(inputSchema));
+      last = cached;
+    }
+    return cached.value;
+  }
+
+  @RequiredArgsConstructor
+  private static class Entry<T> {
+    private final ExprTupleSchema inputSchema;
+    private final T value;
+  }
+}
@@ -19,19 +19,33 @@ import static com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.NullOrder.
 import static com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.SortOrder.ASC;
 
 import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.SortOption;
+import com.amazon.opendistroforelasticsearch.sql.data.batch.RowBatch;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.utils.ExprValueOrdering;
+import com.amazon.opendistroforelasticsearch.sql.data.utils.ExprValueSizeEstimator;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.monitor.AlwaysHealthyMonitor;
+import com.amazon.opendistroforelasticsearch.sql.monitor.MemoryReservation;
+import com.amazon.opendistroforelasticsearch.sql.monitor.ResourceMonitor;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.SortOperator.Sorter.SorterBuilder;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.spill.MergeSortedIterator;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.spill.SpillFile;
+import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
 import com.google.common.collect.Iterators;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.Singular;
 import lombok.ToString;
 import org.apache.commons.lang3.tuple.Pair;
@@ -40,6 +54,13 @@ import org.apache.commons.lang3.tuple.Pair;
  * Sort Operator. The input data is sorted by the sort fields in the {@link SortOperator#sortList}.
  * The sort field is specified by the {@link Expression} with {@link SortOption}. The count indicate
  * how many sorted result should been return.
+ * With count, only the top count rows are kept in a bounded heap. Once the estimated size of the
+ * buffered rows exceeds {@link SortOperator#memoryLimit}, they are sorted and spilled to disk as a
+ * run, then all the runs are merged. The sort is stable.
+ * With {@link SortOperator#parallelism} greater than 1, the buffered rows are split into runs
+ * which are sorted by the workers of {@link SortOperator#pool}, then merged by k-way merge.
+ * The estimated size of the buffered rows is reserved from {@link SortOperator#monitor} until the
+ * rows are spilled or the operator is closed.
  */
 @ToString
 @EqualsAndHashCode
@@ -50,9 +71,40 @@ public class SortOperator extends PhysicalPlan {
   private final Integer count;
   @Getter
   private final List<Pair<SortOption, Expression>> sortList;
+  /**
+   * Max estimated size in bytes of the rows buffered in memory before spilling.
+   */
+  @Getter
+  @EqualsAndHashCode.Exclude
+  private final long memoryLimit;
+  /**
+   * Shared fork/join pool which runs the workers.
+   */
+  @Getter
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final ForkJoinPool pool;
+  /**
+   * Number of workers which sort the runs in parallel.
+   */
+  @Getter
+  @EqualsAndHashCode.Exclude
+  private final int parallelism;
+  /**
+   * Resource monitor which the memory of the buffered rows is reserved from.
+   */
+  @Getter
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final ResourceMonitor monitor;
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final MemoryReservation memory;
   @EqualsAndHashCode.Exclude
   private final Sorter sorter;
   @EqualsAndHashCode.Exclude
+  private final List<SpillFile> runs = new ArrayList<>();
+  @EqualsAndHashCode.Exclude
   private Iterator<ExprValue> iterator;
 
   /**
@@ -64,9 +116,61 @@ public class SortOperator extends PhysicalPlan {
    */
   public SortOperator(
       PhysicalPlan input, Integer count, List<Pair<SortOption, Expression>> sortList) {
+    this(input, count, sortList, Long.MAX_VALUE);
+  }
+
+  /**
+   * Sort Operator Constructor.
+   * @param input input {@link PhysicalPlan}
+   * @param count how many sorted result should been return
+   * @param sortList list of sort sort field.
+   *                 The sort field is specified by the {@link Expression} with {@link SortOption}
+   * @param memoryLimit max estimated size in bytes of the rows buffered in memory
+   */
+  public SortOperator(PhysicalPlan input, Integer count,
+                      List<Pair<SortOption, Expression>> sortList, long memoryLimit) {
+    this(input, count, sortList, memoryLimit, null, 1);
+  }
+
+  /**
+   * Sort Operator Constructor.
+   * @param input input {@link PhysicalPlan}
+   * @param count how many sorted result should been return
+   * @param sortList list of sort sort field.
+   *                 The sort field is specified by the {@link Expression} with {@link SortOption}
+   * @param memoryLimit max estimated size in bytes of the rows buffered in memory
+   * @param pool fork/join pool which runs the workers
+   * @param parallelism number of workers, the rows are sorted in the calling thread if it is 1
+   */
+  public SortOperator(PhysicalPlan input, Integer count,
+                      List<Pair<SortOption, Expression>> sortList, long memoryLimit,
+                      ForkJoinPool pool, int parallelism) {
+    this(input, count, sortList, memoryLimit, pool, parallelism,
+        AlwaysHealthyMonitor.ALWAYS_HEALTHY_MONITOR);
+  }
+
+  /**
+   * Sort Operator Constructor.
+   * @param input input {@link PhysicalPlan}
+   * @param count how many sorted result should been return
+   * @param sortList list of sort sort field.
+   *                 The sort field is specified by the {@link Expression} with {@link SortOption}
+   * @param memoryLimit max estimated size in bytes of the rows buffered in memory
+   * @param pool fork/join pool which runs the workers
+   * @param parallelism number of workers, the rows are sorted in the calling thread if it is 1
+   * @param monitor resource monitor which the memory of the buffered rows is reserved from
+   */
+  public SortOperator(PhysicalPlan input, Integer count,
+                      List<Pair<SortOption, Expression>> sortList, long memoryLimit,
+                      ForkJoinPool pool, int parallelism, ResourceMonitor monitor) {
     this.input = input;
     this.count = count;
     this.sortList = sortList;
+    this.memoryLimit = memoryLimit;
+    this.pool = pool;
+    this.parallelism = parallelism;
+    this.monitor = monitor;
+    this.memory = new MemoryReservation(monitor, "<sort>");
     SorterBuilder sorterBuilder = Sorter.builder();
     for (Pair<SortOption, Expression> pair : sortList) {
       SortOption option = pair.getLeft();
@@ -89,21 +193,53 @@ public class SortOperator extends PhysicalPlan {
   @Override
   public void open() {
     super.open();
-    PriorityQueue<ExprValue> sorted = new PriorityQueue<>(1, sorter::compare);
-    while (input.hasNext()) {
-      sorted.add(input.next());
-    }
-    iterator = Iterators.limit(new Iterator<ExprValue>() {
-      @Override
-      public boolean hasNext() {
-        return !sorted.isEmpty();
+    SortBuffer buffer = new SortBuffer();
+    for (RowBatch batch = input.nextBatch(RowBatch.DEFAULT_BATCH_SIZE); !batch.isEmpty();
+         batch = input.nextBatch(RowBatch.DEFAULT_BATCH_SIZE)) {
+      for (ExprValue row : batch) {
+        buffer.add(row);
+        if (buffer.estimatedSize > memoryLimit) {
+          spill(buffer.sorted());
+          memory.subtract(buffer.estimatedSize);
+          buffer = new SortBuffer();
+        }
       }
+    }
 
-      @Override
-      public ExprValue next() {
-        return sorted.poll();
-      }
-    }, count);
+    Iterator<ExprValue> sorted;
+    if (runs.isEmpty()) {
+      sorted = buffer.sorted();
+    } else {
+      spill(buffer.sorted());
+      memory.subtract(buffer.estimatedSize);
+      List<Iterator<Entry>> sortedRuns = runs.stream()
+          .map(run -> Iterators.transform(run.read(), row -> new Entry(row, sorter.keys(row))))
+          .collect(Collectors.toList());
+      sorted = Iterators.transform(
+          new MergeSortedIterator<>(sortedRuns, Entry.byKeys(sorter)), entry -> entry.row);
+    }
+    iterator = (count == null) ? sorted : Iterators.limit(sorted, count);
+  }
+
+  @Override
+  public void close() {
+    runs.forEach(SpillFile::close);
+    runs.clear();
+    memory.release();
+    super.close();
+  }
+
+  /**
+   * Peak estimated bytes of the rows buffered in memory, which is reported by the query profile.
+   */
+  public long getPeakMemory() {
+    return memory.getPeak();
+  }
+
+  private void spill(Iterator<ExprValue> sortedRows) {
+    SpillFile run = SpillFile.create("sort");
+    runs.add(run);
+    sortedRows.forEachRemaining(run::write);
   }
 
   @Override
@@ -121,20 +257,126 @@ public class SortOperator extends PhysicalPlan {
     return iterator.next();
   }
 
+  /**
+   * Rows buffered in memory. With count, only the top count rows are kept in a bounded heap whose
+   * head is the greatest row, otherwise all the rows are kept.
+   */
+  private class SortBuffer {
+    /**
+     * Min number of rows in one run sorted by a worker.
+     */
+    private static final int MIN_PARALLEL_RUN_SIZE = RowBatch.DEFAULT_BATCH_SIZE;
+    /**
+     * Estimated heap size of the entry and the reference to it.
+     */
+    private static final long ENTRY_OVERHEAD = 48;
+    /**
+     * Estimated heap size of the reference to one sort key.
+     */
+    private static final long KEY_OVERHEAD = 8;
+
+    private final Comparator<Entry> comparator =
+        Entry.byKeys(sorter).thenComparingLong(entry -> entry.sequence);
+    private final List<Entry> rows = new ArrayList<>();
+    private final PriorityQueue<Entry> topRows = new PriorityQueue<>(comparator.reversed());
+    private long sequence = 0;
+    private long estimatedSize = 0;
+
+    void add(ExprValue row) {
+      ExprValue[] keys = sorter.keys(row);
+      Entry entry = new Entry(row, keys, sequence++,
+          ENTRY_OVERHEAD + KEY_OVERHEAD * keys.length + ExprValueSizeEstimator.estimate(row));
+      if (count == null) {
+        rows.add(entry);
+      } else if (topRows.size() < count) {
+        topRows.add(entry);
+      } else if (count > 0 && comparator.compare(entry, topRows.peek()) < 0) {
+        long evictedSize = topRows.poll().size;
+        estimatedSize -= evictedSize;
+        memory.subtract(evictedSize);
+        topRows.add(entry);
+      } else {
+        return;
+      }
+      estimatedSize += entry.size;
+      memory.add(entry.size);
+    }
+
+    /**
+     * Get the sorted rows. The large buffer is split into runs sorted in parallel, then merged.
+     */
+    Iterator<ExprValue> sorted() {
+      Entry[] entries = (count == null)
+          ? rows.toArray(new Entry[0]) : topRows.toArray(new Entry[0]);
+      int runCount = Math.min(parallelism, entries.length / MIN_PARALLEL_RUN_SIZE);
+      if (runCount <= 1) {
+        Arrays.sort(entries, comparator);
+        return Iterators.transform(Iterators.forArray(entries), entry -> entry.row);
+      }
+
+      int runSize = (entries.length + runCount - 1) / runCount;
+      List<ForkJoinTask<?>> workers = new ArrayList<>(runCount);
+      List<Iterator<Entry>> sortedRuns = new ArrayList<>(runCount);
+      for (int from = 0; from < entries.length; from += runSize) {
+        int start = from;
+        int end = Math.min(from + runSize, entries.length);
+        workers.add(pool.submit(() -> Arrays.sort(entries, start, end, comparator)));
+        sortedRuns.add(Arrays.asList(entries).subList(start, end).iterator());
+      }
+      workers.forEach(ForkJoinTask::join);
+      return Iterators.transform(
+          new MergeSortedIterator<>(sortedRuns, comparator), entry -> entry.row);
+    }
+  }
+
+  /**
+   * Row with its sort keys, which are evaluated once per row instead of per comparison.
+   */
+  @RequiredArgsConstructor
+  private static class Entry {
+    private final ExprValue row;
+    private final ExprValue[] keys;
+    /**
+     * Sequence of the row in the input, which break the tie to make the sort stable.
+     */
+    private final long sequence;
+    private final long size;
+
+    /**
+     * Entry read back from the sorted run, which is only compared by keys.
+     */
+    Entry(ExprValue row, ExprValue[] keys) {
+      this(row, keys, 0, 0);
+    }
+
+    static Comparator<Entry> byKeys(Sorter sorter) {
+      return (e1, e2) -> sorter.compareKeys(e1.keys, e2.keys);
+    }
+  }
+
   @Builder
-  public static class Sorter implements Comparator<ExprValue> {
+  public static class Sorter {
     @Singular
     private final List<Pair<Expression, Comparator<ExprValue>>> comparators;
 
-    @Override
-    public int compare(ExprValue o1, ExprValue o2) {
-      for (Pair<Expression, Comparator<ExprValue>> comparator : comparators) {
-        Expression expression = comparator.getKey();
-        int result =
-            comparator
-                .getValue()
-                .compare(
-                    expression.valueOf(o1.bindingTuples()), expression.valueOf(o2.bindingTuples()));
+    /**
+     * Evaluate the sort keys of the row.
+     */
+    public ExprValue[] keys(ExprValue row) {
+      BindingTuple tuple = row.bindingTuples();
+      ExprValue[] keys = new ExprValue[comparators.size()];
+      for (int i = 0; i < keys.length; i++) {
+        keys[i] = comparators.get(i).getKey().valueOf(tuple);
+      }
+      return keys;
+    }
+
+    /**
+     * Compare the sort keys evaluated by {@link Sorter#keys(ExprValue)}.
+     */
+    public int compareKeys(ExprValue[] keys1, ExprValue[] keys2) {
+      for (int i = 0; i < keys1.length; i++) {
+        int result = comparators.get(i).getValue().compare(keys1[i], keys2[i]);
         if (result != 0) {
           return result;
         }
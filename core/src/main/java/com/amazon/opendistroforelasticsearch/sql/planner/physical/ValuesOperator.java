@@ -24,6 +24,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.ToString;
 
 /**
@@ -36,6 +37,7 @@ public class ValuesOperator extends PhysicalPlan {
   /**
    * Original values list for print and equality check.
    */
+  @Getter
   private final List<List<LiteralExpression>> values;
 
   /**
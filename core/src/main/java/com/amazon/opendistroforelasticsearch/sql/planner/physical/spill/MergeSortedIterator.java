@@ -0,0 +1,77 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.planner.physical.spill;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Merge the sorted runs into one sorted iterator by k-way merge. The merge is stable, the equal
+ * elements are returned in the order of the runs.
+ */
+public class MergeSortedIterator<T> implements Iterator<T> {
+  private final List<Iterator<T>> runs;
+  private final PriorityQueue<Head<T>> heads;
+
+  /**
+   * MergeSortedIterator Constructor.
+   * @param runs sorted runs
+   * @param comparator comparator of the elements
+   */
+  public MergeSortedIterator(List<Iterator<T>> runs, Comparator<T> comparator) {
+    this.runs = runs;
+    this.heads = new PriorityQueue<>(Math.max(1, runs.size()), (h1, h2) -> {
+      int result = comparator.compare(h1.element, h2.element);
+      return result != 0 ? result : Integer.compare(h1.run, h2.run);
+    });
+    for (int run = 0; run < runs.size(); run++) {
+      advance(run);
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    return !heads.isEmpty();
+  }
+
+  @Override
+  public T next() {
+    Head<T> head = heads.poll();
+    if (head == null) {
+      throw new NoSuchElementException();
+    }
+    advance(head.run);
+    return head.element;
+  }
+
+  private void advance(int run) {
+    Iterator<T> iterator = runs.get(run);
+    if (iterator.hasNext()) {
+      heads.add(new Head<>(iterator.next(), run));
+    }
+  }
+
+  @RequiredArgsConstructor
+  private static class Head<T> {
+    private final T element;
+    private final int run;
+  }
+}
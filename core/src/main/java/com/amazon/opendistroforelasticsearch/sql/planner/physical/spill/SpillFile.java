@@ -0,0 +1,146 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.planner.physical.spill;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.utils.ExprValueCodec;
+import com.google.common.annotations.VisibleForTesting;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import lombok.Getter;
+
+/**
+ * Spill File. The {@link ExprValue}s are appended to a local temporary file and read back in the
+ * same order. The file is deleted once it has been read to the end or closed.
+ */
+public class SpillFile implements AutoCloseable {
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  @Getter
+  private final Path path;
+  private DataOutputStream output;
+  private DataInputStream input;
+  /**
+   * Number of values in the file.
+   */
+  @Getter
+  private long size = 0;
+
+  private SpillFile(Path path) {
+    this.path = path;
+    this.output = io(() -> new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE)));
+  }
+
+  /**
+   * Create spill file in the temporary directory.
+   */
+  public static SpillFile create(String prefix) {
+    return create(Paths.get(System.getProperty("java.io.tmpdir")), prefix);
+  }
+
+  /**
+   * Create spill file in the directory.
+   */
+  @VisibleForTesting
+  static SpillFile create(Path directory, String prefix) {
+    try {
+      return new SpillFile(Files.createTempFile(directory, prefix, ".spill"));
+    } catch (IOException e) {
+      throw new IllegalStateException(
+          String.format("Failed to create spill file in [%s]", directory), e);
+    }
+  }
+
+  /**
+   * Append the value to the file.
+   */
+  public void write(ExprValue value) {
+    io(() -> {
+      ExprValueCodec.encode(value, output);
+      return null;
+    });
+    size++;
+  }
+
+  /**
+   * Finish writing and read the values back. The file is deleted after all the values are read.
+   */
+  public Iterator<ExprValue> read() {
+    io(() -> {
+      output.close();
+      input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE));
+      return null;
+    });
+    return new Iterator<ExprValue>() {
+      private long remaining = size;
+
+      @Override
+      public boolean hasNext() {
+        if (remaining > 0) {
+          return true;
+        }
+        close();
+        return false;
+      }
+
+      @Override
+      public ExprValue next() {
+        if (remaining <= 0) {
+          throw new NoSuchElementException();
+        }
+        remaining--;
+        return io(() -> ExprValueCodec.decode(input));
+      }
+    };
+  }
+
+  /**
+   * Close the file and delete it. It's safe to call multiple times.
+   */
+  @Override
+  public void close() {
+    io(() -> {
+      output.close();
+      if (input != null) {
+        input.close();
+      }
+      return Files.deleteIfExists(path);
+    });
+  }
+
+  private <T> T io(IoSupplier<T> supplier) {
+    try {
+      return supplier.get();
+    } catch (IOException e) {
+      throw new IllegalStateException(String.format("Failed to access spill file [%s]", path), e);
+    }
+  }
+
+  @FunctionalInterface
+  private interface IoSupplier<T> {
+    T get() throws IOException;
+  }
+}
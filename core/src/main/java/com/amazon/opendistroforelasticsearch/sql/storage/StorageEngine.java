@@ -15,6 +15,8 @@
 
 package com.amazon.opendistroforelasticsearch.sql.storage;
 
+import java.util.OptionalLong;
+
 /**
  * Storage engine for different storage to provide data access API implementation.
  */
@@ -24,4 +26,14 @@ public interface StorageEngine {
    * Get {@link Table} from storage engine.
    */
   Table getTable(String name);
+
+  /**
+   * Get the version of the table metadata, which changes whenever any table is created, deleted
+   * or altered. The logical plan analyzed with an older version is stale.
+   *
+   * @return metadata version, or empty if the storage doesn't track the version
+   */
+  default OptionalLong getMetadataVersion() {
+    return OptionalLong.empty();
+  }
 }
@@ -17,7 +17,10 @@ package com.amazon.opendistroforelasticsearch.sql.storage;
 
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.optimizer.Rule;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -38,4 +41,14 @@ public interface Table {
    */
   PhysicalPlan implement(LogicalPlan plan);
 
+  /**
+   * Storage specific optimization {@link Rule}s, e.g. push down rules, which are applied after
+   * the default rules of the logical plan optimizer.
+   *
+   * @return optimization rules
+   */
+  default List<Rule> optimizationRules() {
+    return Collections.emptyList();
+  }
+
 }
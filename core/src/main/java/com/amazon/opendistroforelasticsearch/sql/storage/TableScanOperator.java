@@ -20,6 +20,7 @@ import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlanNodeVisitor;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Abstract table scan class for different storage to implement.
@@ -37,4 +38,12 @@ public abstract class TableScanOperator extends PhysicalPlan {
     return Collections.emptyList();
   }
 
+  /**
+   * Describe the request sent to the storage, which includes the operations pushed down.
+   *
+   * @return description of the table scan, empty by default.
+   */
+  public Map<String, Object> explain() {
+    return Collections.emptyMap();
+  }
 }
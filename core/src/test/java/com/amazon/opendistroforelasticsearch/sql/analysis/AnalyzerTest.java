@@ -51,6 +51,23 @@ class AnalyzerTest extends AnalyzerTestBase {
             AstDSL.equalTo(AstDSL.field("integer_value"), AstDSL.intLiteral(1))));
   }
 
+  @Test
+  public void filter_relation_with_constant_expression_not_folded() {
+    assertAnalyzeEqual(
+        LogicalPlanDSL.filter(
+            LogicalPlanDSL.relation("schema"),
+            dsl.and(
+                DSL.literal(true),
+                dsl.greater(DSL.ref("integer_value", INTEGER),
+                    dsl.multiply(DSL.literal(10), DSL.literal(60))))),
+        AstDSL.filter(
+            AstDSL.relation("schema"),
+            AstDSL.and(
+                AstDSL.booleanLiteral(true),
+                compare(">", field("integer_value"),
+                    AstDSL.function("*", intLiteral(10), intLiteral(60))))));
+  }
+
   @Test
   public void analyze_filter_relation() {
     assertAnalyzeEqual(
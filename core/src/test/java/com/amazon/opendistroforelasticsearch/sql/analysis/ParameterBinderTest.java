@@ -0,0 +1,107 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.analysis;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.eval;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.filter;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.project;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.relation;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.sort;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.SortOption;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
+import com.amazon.opendistroforelasticsearch.sql.expression.LiteralExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.google.common.collect.ImmutableMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+
+class ParameterBinderTest extends AnalyzerTestBase {
+
+  private final ReferenceExpression a = ref("a", INTEGER);
+  private final ReferenceExpression x = ref("x", INTEGER);
+
+  private final LiteralExpression sortLiteral = literal(1);
+  private final LiteralExpression evalLiteral = literal(1);
+  private final LiteralExpression filterLiteral = literal(1);
+
+  @Test
+  public void plan_without_bound_literal_is_not_changed() {
+    LogicalPlan plan = plan(sortLiteral, evalLiteral, filterLiteral);
+    assertSame(plan, binder().bind(plan, values(literal(1), 2)));
+  }
+
+  @Test
+  public void bind_sort_expression_and_copy_parents() {
+    LogicalPlan plan = plan(sortLiteral, evalLiteral, filterLiteral);
+    LogicalPlan bound = binder().bind(plan, values(sortLiteral, 2));
+    assertEquals(plan(literal(2), evalLiteral, filterLiteral), bound);
+    assertSame(plan.getChild().get(0).getChild().get(0).getChild().get(0).getChild().get(0),
+        bound.getChild().get(0).getChild().get(0).getChild().get(0).getChild().get(0));
+  }
+
+  @Test
+  public void bind_eval_expression() {
+    assertEquals(plan(sortLiteral, literal(2), filterLiteral),
+        binder().bind(plan(sortLiteral, evalLiteral, filterLiteral), values(evalLiteral, 2)));
+  }
+
+  @Test
+  public void bind_filter_condition() {
+    assertEquals(plan(sortLiteral, evalLiteral, literal(2)),
+        binder().bind(plan(sortLiteral, evalLiteral, filterLiteral), values(filterLiteral, 2)));
+  }
+
+  @Test
+  public void bind_literal_condition() {
+    assertEquals(filter(relation("test"), literal(false)),
+        binder().bind(filter(relation("test"), filterLiteral),
+            ImmutableMap.of(filterLiteral, ExprValueUtils.booleanValue(false))));
+  }
+
+  private LogicalPlan plan(LiteralExpression sortLiteral, LiteralExpression evalLiteral,
+                           LiteralExpression filterLiteral) {
+    return project(
+        filter(
+            eval(
+                sort(relation("test"), null,
+                    Pair.of(SortOption.PPL_ASC, a),
+                    Pair.of(SortOption.PPL_DESC, dsl.add(a, sortLiteral))),
+                Pair.of(x, dsl.add(a, evalLiteral))),
+            dsl.greater(x, filterLiteral)),
+        x);
+  }
+
+  private Map<LiteralExpression, ExprValue> values(LiteralExpression literal, int value) {
+    Map<LiteralExpression, ExprValue> values = new IdentityHashMap<>();
+    values.put(literal, integerValue(value));
+    return values;
+  }
+
+  private ParameterBinder binder() {
+    return new ParameterBinder(expressionAnalyzer);
+  }
+}
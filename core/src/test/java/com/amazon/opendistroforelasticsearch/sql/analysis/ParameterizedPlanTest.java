@@ -0,0 +1,112 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.analysis;
+
+import static com.amazon.opendistroforelasticsearch.sql.ast.dsl.AstDSL.and;
+import static com.amazon.opendistroforelasticsearch.sql.ast.dsl.AstDSL.booleanLiteral;
+import static com.amazon.opendistroforelasticsearch.sql.ast.dsl.AstDSL.compare;
+import static com.amazon.opendistroforelasticsearch.sql.ast.dsl.AstDSL.field;
+import static com.amazon.opendistroforelasticsearch.sql.ast.dsl.AstDSL.filter;
+import static com.amazon.opendistroforelasticsearch.sql.ast.dsl.AstDSL.intLiteral;
+import static com.amazon.opendistroforelasticsearch.sql.ast.dsl.AstDSL.project;
+import static com.amazon.opendistroforelasticsearch.sql.ast.dsl.AstDSL.relation;
+import static com.amazon.opendistroforelasticsearch.sql.ast.dsl.AstDSL.stringLiteral;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.doubleValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.amazon.opendistroforelasticsearch.sql.analysis.ParameterizedQuery.LiteralToken;
+import com.amazon.opendistroforelasticsearch.sql.ast.expression.Literal;
+import com.amazon.opendistroforelasticsearch.sql.ast.tree.UnresolvedPlan;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ParameterizedPlanTest extends AnalyzerTestBase {
+
+  @Test
+  public void reuse_plan_of_same_literals() {
+    ParameterizedPlan plan = analyze(1, "a", 10);
+    assertSame(plan.getPlan(), plan.bind(query(token(1, "1", integerValue(1)),
+        token(5, "'a'", stringValue("a")), token(7, "10", integerValue(10)))).get());
+  }
+
+  @Test
+  public void bind_literals_in_filter() {
+    ParameterizedPlan plan = analyze(1, "a", 10);
+    assertEquals(analyze(2, "b", 10).getPlan(),
+        plan.bind(query(token(1, "2", integerValue(2)), token(5, "'b'", stringValue("b")),
+            token(7, "10", integerValue(10)))).get());
+  }
+
+  @Test
+  public void can_not_bind_literal_analyzed_outside_filter() {
+    ParameterizedPlan plan = analyze(1, "a", 10);
+    assertFalse(plan.bind(query(token(1, "1", integerValue(1)),
+        token(5, "'a'", stringValue("a")), token(7, "11", integerValue(11)))).isPresent());
+  }
+
+  @Test
+  public void can_not_bind_literal_of_other_type_or_invalid_value() {
+    ParameterizedPlan plan = analyze(1, "a", 10);
+    assertFalse(plan.bind(query(token(1, "1.5", doubleValue(1.5)),
+        token(5, "'a'", stringValue("a")), token(7, "10", integerValue(10)))).isPresent());
+    assertFalse(plan.bind(query(token(1, "3000000000", null),
+        token(5, "'a'", stringValue("a")), token(7, "10", integerValue(10)))).isPresent());
+  }
+
+  /**
+   * Analyze the plan of query like: source=schema | where true and integer_value > 1 and
+   * string_value = 'a' | fields integer_value, 10. The literal true is not lexed from a literal
+   * token, and 10 is lexed from the same token as the one in the filter.
+   */
+  private ParameterizedPlan analyze(int integer, String string, int fixed) {
+    Literal integerLiteral = intLiteral(integer);
+    Literal stringLiteral = stringLiteral(string);
+    Literal fixedLiteral = intLiteral(fixed);
+    Literal fixedLiteralInFilter = intLiteral(fixed);
+    UnresolvedPlan ast = project(
+        filter(relation("schema"),
+            and(booleanLiteral(true),
+                and(compare(">", field("integer_value"), integerLiteral),
+                    and(compare("=", field("string_value"), stringLiteral),
+                        compare("<", field("integer_value"), fixedLiteralInFilter))))),
+        field("integer_value"), fixedLiteral);
+    Map<Literal, Integer> literalTokens = new IdentityHashMap<>();
+    literalTokens.put(integerLiteral, 1);
+    literalTokens.put(stringLiteral, 5);
+    literalTokens.put(fixedLiteral, 7);
+    literalTokens.put(fixedLiteralInFilter, 7);
+    ParameterizedQuery query = query(
+        token(1, String.valueOf(integer), integerValue(integer)),
+        token(5, "'" + string + "'", stringValue(string)),
+        token(7, String.valueOf(fixed), integerValue(fixed)));
+    return analyzer.analyze(ast, query, literalTokens);
+  }
+
+  private ParameterizedQuery query(LiteralToken... literals) {
+    return new ParameterizedQuery("", "", Arrays.asList(literals));
+  }
+
+  private LiteralToken token(int index, String text, ExprValue value) {
+    return new LiteralToken(index, text, value);
+  }
+}
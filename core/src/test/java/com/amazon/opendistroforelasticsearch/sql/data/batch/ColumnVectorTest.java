@@ -0,0 +1,176 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.data.batch;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_FALSE;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_MISSING;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_NULL;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_TRUE;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.doubleValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.floatValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.longValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.BOOLEAN;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.DOUBLE;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.FLOAT;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.LONG;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.amazon.opendistroforelasticsearch.sql.exception.ExpressionEvaluationException;
+import java.util.BitSet;
+import org.junit.jupiter.api.Test;
+
+class ColumnVectorTest {
+
+  @Test
+  public void set_value_update_null_and_missing_bitmap() {
+    ColumnVector vector = new ColumnVector(3);
+    vector.set(0, LITERAL_NULL);
+    vector.set(1, LITERAL_MISSING);
+    vector.set(2, integerValue(1));
+
+    assertEquals(3, vector.size());
+    assertTrue(vector.isNull(0));
+    assertFalse(vector.isMissing(0));
+    assertTrue(vector.isMissing(1));
+    assertFalse(vector.isNull(1));
+    assertFalse(vector.isNull(2));
+    assertFalse(vector.isMissing(2));
+    assertEquals(integerValue(1), vector.get(2));
+
+    vector.set(0, integerValue(2));
+    assertFalse(vector.isNull(0));
+  }
+
+  @Test
+  public void constant_vector() {
+    ColumnVector vector = ColumnVector.constant(integerValue(1), 2);
+    assertEquals(integerValue(1), vector.get(0));
+    assertEquals(integerValue(1), vector.get(1));
+    assertFalse(vector.isNull(1));
+
+    assertTrue(ColumnVector.constant(LITERAL_NULL, 2).isNull(1));
+    assertTrue(ColumnVector.constant(LITERAL_MISSING, 2).isMissing(1));
+  }
+
+  @Test
+  public void constant_vector_of_primitive_and_boxed_values() {
+    assertEquals(1L, ColumnVector.constant(longValue(1L), 2).getLong(1));
+    assertEquals(1d, ColumnVector.constant(doubleValue(1d), 2).getDouble(1));
+    assertTrue(ColumnVector.constant(LITERAL_TRUE, 2).getBoolean(1));
+    assertEquals(stringValue("str"), ColumnVector.constant(stringValue("str"), 2).get(1));
+  }
+
+  @Test
+  public void set_primitive_value_and_get_boxed_value() {
+    ColumnVector integers = new ColumnVector(INTEGER, 2);
+    integers.setInteger(0, 1);
+    integers.set(1, integerValue(2));
+    assertEquals(1, integers.getInteger(0));
+    assertEquals(2L, integers.getLong(1));
+    assertEquals(integerValue(1), integers.get(0));
+    assertEquals(integerValue(2), integers.get(1));
+
+    ColumnVector longs = new ColumnVector(LONG, 1);
+    longs.setLong(0, 1L);
+    assertEquals(longValue(1L), longs.get(0));
+
+    ColumnVector floats = new ColumnVector(FLOAT, 1);
+    floats.setFloat(0, 1f);
+    assertEquals(1f, floats.getFloat(0));
+    assertEquals(floatValue(1f), floats.get(0));
+
+    ColumnVector doubles = new ColumnVector(DOUBLE, 1);
+    doubles.setDouble(0, 1d);
+    assertEquals(doubleValue(1d), doubles.get(0));
+
+    ColumnVector booleans = new ColumnVector(BOOLEAN, 2);
+    booleans.setBoolean(0, true);
+    booleans.set(1, LITERAL_FALSE);
+    assertEquals(LITERAL_TRUE, booleans.get(0));
+    assertTrue(booleans.isTrue(0));
+    assertFalse(booleans.isTrue(1));
+  }
+
+  @Test
+  public void get_primitive_value_of_boxed_vector() {
+    ColumnVector vector = new ColumnVector(2);
+    vector.set(0, integerValue(1));
+    vector.set(1, LITERAL_TRUE);
+    assertEquals(1, vector.getInteger(0));
+    assertEquals(1L, vector.getLong(0));
+    assertEquals(1f, vector.getFloat(0));
+    assertEquals(1d, vector.getDouble(0));
+    assertTrue(vector.getBoolean(1));
+  }
+
+  @Test
+  public void set_primitive_value_clear_null_and_missing_bitmap() {
+    ColumnVector vector = new ColumnVector(INTEGER, 3);
+    vector.set(0, LITERAL_NULL);
+    vector.set(1, LITERAL_MISSING);
+    vector.setInteger(0, 1);
+    vector.setInteger(1, 2);
+    vector.setInteger(2, 3);
+
+    assertFalse(vector.isNull(0));
+    assertFalse(vector.isMissing(1));
+    assertEquals(integerValue(1), vector.get(0));
+    assertTrue(vector.nullOrMissing().isEmpty());
+  }
+
+  @Test
+  public void null_or_missing_positions() {
+    ColumnVector vector = new ColumnVector(DOUBLE, 3);
+    vector.set(0, LITERAL_NULL);
+    vector.set(1, doubleValue(1d));
+    vector.set(2, LITERAL_MISSING);
+
+    BitSet expected = new BitSet();
+    expected.set(0);
+    expected.set(2);
+    assertEquals(expected, vector.nullOrMissing());
+    assertTrue(vector.isNullOrMissing(0));
+    assertFalse(vector.isNullOrMissing(1));
+    assertEquals(1d, vector.getDouble(1));
+  }
+
+  @Test
+  public void is_true() {
+    ColumnVector vector = new ColumnVector(4);
+    vector.set(0, LITERAL_TRUE);
+    vector.set(1, LITERAL_FALSE);
+    vector.set(2, LITERAL_NULL);
+    vector.set(3, LITERAL_MISSING);
+
+    assertTrue(vector.isTrue(0));
+    assertFalse(vector.isTrue(1));
+    assertFalse(vector.isTrue(2));
+    assertFalse(vector.isTrue(3));
+  }
+
+  @Test
+  public void is_true_on_non_boolean_value_throw_exception() {
+    ColumnVector vector = ColumnVector.constant(integerValue(1), 1);
+    assertThrows(ExpressionEvaluationException.class, () -> vector.isTrue(0));
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.data.batch;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_FALSE;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_TRUE;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RowBatchTest {
+
+  @Test
+  public void add_rows_until_full() {
+    RowBatch batch = new RowBatch(2);
+    assertTrue(batch.isEmpty());
+    assertThat(batch, emptyIterable());
+
+    batch.add(integerValue(1));
+    assertFalse(batch.isEmpty());
+    assertFalse(batch.isFull());
+
+    batch.add(integerValue(2));
+    assertTrue(batch.isFull());
+    assertEquals(2, batch.size());
+    assertEquals(integerValue(2), batch.get(1));
+    assertThat(batch, contains(integerValue(1), integerValue(2)));
+  }
+
+  @Test
+  public void select_rows() {
+    RowBatch batch = RowBatch.of(integerValue(1), integerValue(2), integerValue(3));
+    ColumnVector selection = new ColumnVector(3);
+    selection.set(0, LITERAL_TRUE);
+    selection.set(1, LITERAL_FALSE);
+    selection.set(2, LITERAL_TRUE);
+
+    assertThat(batch.select(selection), contains(integerValue(1), integerValue(3)));
+  }
+}
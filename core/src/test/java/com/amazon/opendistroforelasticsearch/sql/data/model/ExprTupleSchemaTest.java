@@ -0,0 +1,74 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.data.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ExprTupleSchemaTest {
+  @Test
+  public void index_of_field_in_small_schema() {
+    ExprTupleSchema schema = ExprTupleSchema.of(Arrays.asList("name", "age"));
+    assertEquals(2, schema.size());
+    assertEquals(1, schema.indexOf("age"));
+    assertEquals(-1, schema.indexOf("salary"));
+  }
+
+  @Test
+  public void index_of_field_in_large_schema() {
+    List<String> fieldNames = IntStream.range(0, 20).mapToObj(i -> "field" + i)
+        .collect(Collectors.toList());
+    ExprTupleSchema schema = ExprTupleSchema.of(fieldNames);
+    assertEquals(15, schema.indexOf("field15"));
+    assertEquals(3, schema.indexOf("field3"));
+    assertEquals(-1, schema.indexOf("field20"));
+  }
+
+  @Test
+  public void has_field_names_in_order() {
+    ExprTupleSchema schema = ExprTupleSchema.of(Arrays.asList("name", "age"));
+    assertTrue(schema.hasFieldNames(Arrays.asList("name", "age")));
+    assertFalse(schema.hasFieldNames(Arrays.asList("age", "name")));
+    assertFalse(schema.hasFieldNames(Arrays.asList("name")));
+  }
+
+  @Test
+  public void rename_keeps_positions() {
+    ExprTupleSchema schema = ExprTupleSchema.of(Arrays.asList("name", "age"))
+        .select(Arrays.asList(1, 0))
+        .rename(name -> name.equals("age") ? "years" : name);
+    assertEquals("years", schema.fieldName(0));
+    assertEquals(1, schema.position(0));
+    assertEquals("name", schema.fieldName(1));
+    assertEquals(0, schema.position(1));
+  }
+
+  @Test
+  public void rename_to_duplicate_field_name_should_fail() {
+    ExprTupleSchema schema = ExprTupleSchema.of(Arrays.asList("name", "age"));
+    IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        () -> schema.rename(name -> "name"));
+    assertEquals("duplicate field name name after rename", exception.getMessage());
+  }
+}
@@ -15,14 +15,25 @@
 
 package com.amazon.opendistroforelasticsearch.sql.data.model;
 
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
 import static com.amazon.opendistroforelasticsearch.sql.utils.ComparisonUtil.compare;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.amazon.opendistroforelasticsearch.sql.exception.ExpressionEvaluationException;
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
 import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import org.junit.jupiter.api.Test;
 
 class ExprTupleValueTest {
@@ -55,4 +66,65 @@ class ExprTupleValueTest {
         () -> compare(tupleValue, tupleValue));
     assertEquals("ExprTupleValue instances are not comparable", exception.getMessage());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void compare_tuple_with_different_field_or_value() {
+    ExprValue tupleValue = ExprValueUtils.tupleValue(ImmutableMap.of("integer_value", 2));
+    assertFalse(tupleValue.equals(ExprValueUtils.tupleValue(ImmutableMap.of("int_value", 2))));
+    assertFalse(tupleValue.equals(ExprValueUtils.tupleValue(ImmutableMap.of("integer_value", 3))));
+  }
+
+  @Test
+  public void map_view_of_tuple() {
+    ExprValue tupleValue =
+        ExprValueUtils.tupleValue(ImmutableMap.of("integer_value", 2, "float_value", 1f));
+    Map<String, ExprValue> map = ExprValueUtils.getTupleValue(tupleValue);
+    assertEquals(ExprValueUtils.integerValue(2), map.get("integer_value"));
+    assertNull(map.get("string_value"));
+    assertTrue(map.containsKey("float_value"));
+    assertFalse(map.containsKey("string_value"));
+    assertEquals(ImmutableMap.of("integer_value", ExprValueUtils.integerValue(2),
+        "float_value", ExprValueUtils.floatValue(1f)), map);
+
+    Iterator<Entry<String, ExprValue>> iterator = map.entrySet().iterator();
+    iterator.next();
+    iterator.next();
+    assertThrows(NoSuchElementException.class, iterator::next);
+  }
+
+  @Test
+  public void reuse_schema_with_same_field_names() {
+    ExprTupleValue tupleValue = ExprTupleValue.fromExprValueMap(
+        ImmutableMap.of("integer_value", ExprValueUtils.integerValue(2)));
+    ExprTupleSchema schema = tupleValue.getSchema();
+    assertSame(schema, ExprTupleValue.fromExprValueMap(
+        ImmutableMap.of("integer_value", ExprValueUtils.integerValue(3)), schema).getSchema());
+    assertNotSame(schema, ExprTupleValue.fromExprValueMap(
+        ImmutableMap.of("int_value", ExprValueUtils.integerValue(3)), schema).getSchema());
+  }
+
+  @Test
+  public void tuple_with_remapped_schema() {
+    ExprTupleValue tupleValue = ExprTupleValue.fromExprValueMap(ImmutableMap.of(
+        "integer_value", ExprValueUtils.integerValue(2),
+        "float_value", ExprValueUtils.floatValue(1f)));
+    ExprTupleValue selected =
+        tupleValue.withSchema(tupleValue.getSchema().select(Arrays.asList(1)));
+    assertEquals("{float_value:1.0}", selected.toString());
+    assertEquals(ExprValueUtils.floatValue(1f), selected.valueAt(0));
+  }
+
+  @Test
+  public void resolve_same_reference_in_tuples_with_different_schemas() {
+    ReferenceExpression ref = DSL.ref("integer_value", INTEGER);
+    ExprValue first = ExprValueUtils.tupleValue(ImmutableMap.of("integer_value", 2));
+    ExprValue second =
+        ExprValueUtils.tupleValue(ImmutableMap.of("float_value", 1f, "integer_value", 3));
+    ExprValue third = ExprValueUtils.tupleValue(ImmutableMap.of("float_value", 1f));
+
+    assertEquals(ExprValueUtils.integerValue(2), first.bindingTuples().resolve(ref));
+    assertEquals(ExprValueUtils.integerValue(3), second.bindingTuples().resolve(ref));
+    assertEquals(ExprMissingValue.of(), third.bindingTuples().resolve(ref));
+    assertEquals(ExprValueUtils.integerValue(2), first.bindingTuples().resolve(ref));
+  }
+}
@@ -17,8 +17,10 @@ package com.amazon.opendistroforelasticsearch.sql.data.model;
 
 import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
 import com.amazon.opendistroforelasticsearch.sql.exception.ExpressionEvaluationException;
@@ -62,6 +64,14 @@ public class ExprValueUtilsTest {
   private static List<Function<ExprValue, Object>> allValueExtractor = Lists.newArrayList(
       Iterables.concat(numberValueExtractor, nonNumberValueExtractor));
 
+  private static List<Function<ExprValue, Number>> primitiveValueExtractor = Arrays.asList(
+      ExprValue::integerValue,
+      ExprValue::longValue,
+      ExprValue::floatValue,
+      ExprValue::doubleValue);
+  private static List<String> primitiveValueExtractorNames = Arrays.asList(
+      "integerValue", "longValue", "floatValue", "doubleValue");
+
   private static List<ExprCoreType> numberTypes =
       Arrays.asList(ExprCoreType.INTEGER, ExprCoreType.LONG, ExprCoreType.FLOAT,
           ExprCoreType.DOUBLE);
@@ -101,6 +111,23 @@ public class ExprValueUtilsTest {
         .map(list -> Arguments.of(list.get(0), list.get(1)));
   }
 
+  private static Stream<Arguments> getPrimitiveValueArgumentStream() {
+    return Lists.cartesianProduct(numberValues, primitiveValueExtractor)
+        .stream()
+        .map(list -> Arguments.of(list.get(0), list.get(1)));
+  }
+
+  private static Stream<Arguments> invalidGetPrimitiveValueArgumentStream() {
+    Stream.Builder<Arguments> builder = Stream.builder();
+    for (ExprValue value : nonNumberValues) {
+      for (int i = 0; i < primitiveValueExtractor.size(); i++) {
+        builder.add(Arguments.of(value, primitiveValueExtractor.get(i),
+            primitiveValueExtractorNames.get(i)));
+      }
+    }
+    return builder.build();
+  }
+
   @SuppressWarnings("unchecked")
   private static Stream<Arguments> invalidConvert() {
     List<Map.Entry<Function<ExprValue, Object>, ExprCoreType>> extractorWithTypeList =
@@ -153,6 +180,33 @@ public class ExprValueUtilsTest {
         exception.getMessage());
   }
 
+  @ParameterizedTest(name = "the primitive value of ExprValue:{0} is 1")
+  @MethodSource("getPrimitiveValueArgumentStream")
+  public void getPrimitiveValue(ExprValue value, Function<ExprValue, Number> extractor) {
+    assertEquals(1D, extractor.apply(value).doubleValue());
+  }
+
+  @ParameterizedTest(name = "invalid to get {2} of ExprValue:{0}")
+  @MethodSource("invalidGetPrimitiveValueArgumentStream")
+  public void invalidGetPrimitiveValue(ExprValue value, Function<ExprValue, Number> extractor,
+                                       String name) {
+    Exception exception = assertThrows(ExpressionEvaluationException.class,
+        () -> extractor.apply(value));
+    assertEquals(
+        String.format("invalid to get %s from value of type %s", name, value.type()),
+        exception.getMessage());
+  }
+
+  @Test
+  public void getPrimitiveBooleanValue() {
+    assertTrue(ExprValueUtils.LITERAL_TRUE.booleanValue());
+    assertFalse(ExprBooleanValue.of(false).booleanValue());
+    Exception exception = assertThrows(ExpressionEvaluationException.class,
+        () -> integerValue(1).booleanValue());
+    assertEquals("invalid to get booleanValue from value of type INTEGER",
+        exception.getMessage());
+  }
+
   /**
    * Test Invalid to convert.
    */
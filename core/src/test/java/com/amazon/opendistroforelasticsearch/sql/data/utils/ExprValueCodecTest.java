@@ -0,0 +1,98 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.data.utils;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_MISSING;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_NULL;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_TRUE;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.collectionValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.doubleValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.floatValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.longValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.tupleValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
+import com.amazon.opendistroforelasticsearch.sql.exception.ExpressionEvaluationException;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ExprValueCodecTest {
+  @Mock
+  ExprValue value;
+
+  @Test
+  public void encode_and_decode() throws IOException {
+    for (ExprValue expected : Arrays.asList(
+        LITERAL_NULL,
+        LITERAL_MISSING,
+        LITERAL_TRUE,
+        integerValue(1),
+        longValue(1L),
+        floatValue(1f),
+        doubleValue(1d),
+        stringValue("中文"),
+        stringValue(Strings.repeat("a", 70000)),
+        collectionValue(Arrays.asList(1, null, "a")),
+        tupleValue(ImmutableMap.of("integer_value", 1, "struct_value",
+            ImmutableMap.of("string_value", "a"), "array_value", ImmutableList.of(1L, 2L))))) {
+      assertEquals(expected, decode(encode(expected)));
+    }
+  }
+
+  @Test
+  public void encode_unsupported_type() {
+    when(value.type()).thenReturn(ExprCoreType.TIMESTAMP);
+    ExpressionEvaluationException exception =
+        assertThrows(ExpressionEvaluationException.class, () -> encode(value));
+    assertEquals("unsupported value type [TIMESTAMP] in encoding", exception.getMessage());
+  }
+
+  @Test
+  public void decode_unexpected_tag() {
+    ExpressionEvaluationException exception =
+        assertThrows(ExpressionEvaluationException.class, () -> decode(new byte[] {-1}));
+    assertEquals("unexpected tag [-1] in decoding", exception.getMessage());
+  }
+
+  private byte[] encode(ExprValue value) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ExprValueCodec.encode(value, new DataOutputStream(bytes));
+    return bytes.toByteArray();
+  }
+
+  private ExprValue decode(byte[] bytes) throws IOException {
+    return ExprValueCodec.decode(new DataInputStream(new ByteArrayInputStream(bytes)));
+  }
+}
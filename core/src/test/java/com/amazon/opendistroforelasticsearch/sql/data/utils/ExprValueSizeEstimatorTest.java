@@ -0,0 +1,57 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.data.utils;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_MISSING;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_NULL;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_TRUE;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.collectionValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.doubleValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.longValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.tupleValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class ExprValueSizeEstimatorTest {
+
+  @Test
+  public void estimate_primitive_values() {
+    assertEquals(0, ExprValueSizeEstimator.estimate(LITERAL_NULL));
+    assertEquals(0, ExprValueSizeEstimator.estimate(LITERAL_MISSING));
+    assertEquals(16, ExprValueSizeEstimator.estimate(LITERAL_TRUE));
+    assertEquals(16, ExprValueSizeEstimator.estimate(integerValue(1)));
+    assertEquals(24, ExprValueSizeEstimator.estimate(longValue(1L)));
+    assertEquals(24, ExprValueSizeEstimator.estimate(doubleValue(1d)));
+    assertEquals(62, ExprValueSizeEstimator.estimate(stringValue("abc")));
+  }
+
+  @Test
+  public void estimate_nested_values() {
+    long collectionSize =
+        ExprValueSizeEstimator.estimate(collectionValue(Arrays.asList(1, "abc")));
+    assertEquals(16 + 8 + 16 + 8 + 62, collectionSize);
+
+    long tupleSize = ExprValueSizeEstimator.estimate(
+        tupleValue(ImmutableMap.of("a", 1, "b", ImmutableMap.of("c", 1))));
+    assertEquals(16 + (32 + 42 + 16) + (32 + 42 + (16 + 32 + 42 + 16)), tupleSize);
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.executor;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.amazon.opendistroforelasticsearch.sql.common.response.StreamingResponseListener;
+import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine.QueryResponse;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ExecutionEngineTest {
+  @Mock
+  private PhysicalPlan plan;
+
+  @Mock
+  private StreamingResponseListener<QueryResponse> listener;
+
+  @Test
+  public void stream_all_results_in_one_chunk() {
+    QueryResponse response = new QueryResponse(Collections.emptyList());
+    ExecutionEngine engine = (physicalPlan, responseListener) ->
+        responseListener.onResponse(response);
+
+    engine.stream(plan, listener);
+    verify(listener).onChunk(response);
+    verify(listener).onComplete();
+  }
+
+  @Test
+  public void stream_failure() {
+    IllegalStateException exception = new IllegalStateException("execution failed");
+    ExecutionEngine engine = (physicalPlan, responseListener) ->
+        responseListener.onFailure(exception);
+
+    engine.stream(plan, listener);
+    verify(listener).onFailure(exception);
+    verify(listener, never()).onChunk(any());
+    verify(listener, never()).onComplete();
+  }
+
+  @Test
+  public void stream_in_context_ignores_context_by_default() {
+    QueryResponse response = new QueryResponse(Collections.emptyList());
+    ExecutionEngine engine = (physicalPlan, responseListener) ->
+        responseListener.onResponse(response);
+
+    engine.stream(plan, new QueryContext(), listener);
+    verify(listener).onChunk(response);
+    verify(listener).onComplete();
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.executor;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.amazon.opendistroforelasticsearch.sql.exception.QueryCancelledException;
+import java.time.Duration;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+class QueryContextTest {
+
+  @Test
+  public void no_timeout_by_default() {
+    QueryContext context = new QueryContext();
+
+    assertNull(context.getTimeout());
+    assertFalse(context.isCancelled());
+    assertFalse(context.isProfiling());
+    assertDoesNotThrow(context::checkCancelled);
+  }
+
+  @Test
+  public void not_positive_timeout_means_no_timeout() {
+    assertNull(new QueryContext(Duration.ZERO).getTimeout());
+    assertNull(new QueryContext(Duration.ofMillis(-1)).getTimeout());
+  }
+
+  @Test
+  public void not_timed_out_before_deadline() {
+    QueryContext context = new QueryContext(Duration.ofHours(1));
+
+    assertEquals(Duration.ofHours(1), context.getTimeout());
+    assertDoesNotThrow(context::checkCancelled);
+  }
+
+  @Test
+  public void timed_out_after_deadline() throws InterruptedException {
+    QueryContext context = new QueryContext(Duration.ofMillis(1));
+    Thread.sleep(10);
+
+    QueryCancelledException exception =
+        assertThrows(QueryCancelledException.class, context::checkCancelled);
+    assertEquals("Query timed out after 1ms", exception.getMessage());
+  }
+
+  @Test
+  public void profile_is_set_once_completed() {
+    QueryContext context = new QueryContext(null, true);
+    assertTrue(context.isProfiling());
+    assertNull(context.getProfile());
+
+    QueryProfile profile =
+        new QueryProfile("scan", 1, 10, Collections.emptyMap(), Collections.emptyList());
+    context.setProfile(profile);
+    assertEquals(profile, context.getProfile());
+  }
+
+  @Test
+  public void cancelled() {
+    QueryContext context = new QueryContext(Duration.ofHours(1));
+    context.cancel("by user request");
+
+    assertTrue(context.isCancelled());
+    QueryCancelledException exception =
+        assertThrows(QueryCancelledException.class, context::checkCancelled);
+    assertEquals("Query was cancelled: by user request", exception.getMessage());
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+class QueryProfileTest {
+
+  @Test
+  public void rows_and_time_of_children() {
+    QueryProfile left = leaf("left", 10, 300);
+    QueryProfile right = leaf("right", 5, 200);
+    QueryProfile profile = new QueryProfile("parent", 3, 1000,
+        ImmutableMap.of("peak_memory_bytes", 64L), Arrays.asList(left, right));
+
+    assertEquals(15, profile.getRowsIn());
+    assertEquals(3, profile.getRows());
+    assertEquals(500, profile.getSelfTimeNanos());
+    assertEquals(ImmutableMap.of("peak_memory_bytes", 64L), profile.getMetrics());
+  }
+
+  @Test
+  public void leaf_has_no_input() {
+    QueryProfile profile = leaf("scan", 10, 300);
+
+    assertEquals(0, profile.getRowsIn());
+    assertEquals(300, profile.getSelfTimeNanos());
+  }
+
+  @Test
+  public void self_time_is_not_negative() {
+    QueryProfile profile = new QueryProfile("filter", 1, 100, Collections.emptyMap(),
+        Collections.singletonList(leaf("scan", 10, 101)));
+
+    assertEquals(0, profile.getSelfTimeNanos());
+  }
+
+  private QueryProfile leaf(String name, long rows, long timeNanos) {
+    return new QueryProfile(name, rows, timeNanos, Collections.emptyMap(),
+        Collections.emptyList());
+  }
+}
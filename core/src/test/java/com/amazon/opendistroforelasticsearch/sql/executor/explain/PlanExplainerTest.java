@@ -0,0 +1,229 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.executor.explain;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+import static java.util.Collections.emptyMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.SortOption;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
+import com.amazon.opendistroforelasticsearch.sql.planner.Planner;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalValues;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlanDSL;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.ValuesOperator;
+import com.amazon.opendistroforelasticsearch.sql.storage.TableScanOperator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith({SpringExtension.class, MockitoExtension.class})
+@ContextConfiguration(classes = {ExpressionConfig.class})
+class PlanExplainerTest {
+
+  @Autowired
+  private DSL dsl;
+
+  @Mock
+  private Planner planner;
+
+  private final PlanExplainer explainer = new PlanExplainer();
+
+  @Test
+  void explainLogicalPlan() {
+    LogicalPlan plan =
+        LogicalPlanDSL.dedupe(
+            LogicalPlanDSL.sort(
+                LogicalPlanDSL.eval(
+                    LogicalPlanDSL.remove(
+                        LogicalPlanDSL.rename(
+                            LogicalPlanDSL.aggregation(
+                                LogicalPlanDSL.filter(
+                                    LogicalPlanDSL.relation("accounts"),
+                                    dsl.equal(ref("age", INTEGER), literal(30))),
+                                ImmutableList.of(dsl.avg(ref("balance", INTEGER))),
+                                ImmutableList.of(ref("gender", STRING))),
+                            ImmutableMap.of(ref("avg(balance)", INTEGER), ref("avg", INTEGER))),
+                        ref("gender", STRING)),
+                    Pair.of(ref("double", INTEGER), dsl.multiply(ref("avg", INTEGER), literal(2)))),
+                null,
+                Pair.of(SortOption.PPL_DESC, ref("avg", INTEGER))),
+            ref("double", INTEGER));
+
+    assertEquals(
+        node("LogicalDedupe", ImmutableMap.of(
+            "fields", ImmutableList.of("double"),
+            "allowedDuplication", 1,
+            "keepEmpty", false,
+            "consecutive", false),
+            node("LogicalSort", ImmutableMap.of(
+                "sortList", ImmutableList.of("avg DESC NULL_LAST")),
+                node("LogicalEval", ImmutableMap.of(
+                    "expressions", ImmutableList.of("double = avg * 2")),
+                    node("LogicalRemove", ImmutableMap.of(
+                        "fields", ImmutableList.of("gender")),
+                        node("LogicalRename", ImmutableMap.of(
+                            "mapping", ImmutableMap.of("avg(balance)", "avg")),
+                            node("LogicalAggregation", ImmutableMap.of(
+                                "aggregators", ImmutableList.of("avg(balance)"),
+                                "groupBy", ImmutableList.of("gender")),
+                                node("LogicalFilter", ImmutableMap.of("condition", "age = 30"),
+                                    node("LogicalRelation",
+                                        ImmutableMap.of("relationName", "accounts"))))))))),
+        explainer.explain(plan));
+  }
+
+  @Test
+  void explainLogicalPlanWithoutRelation() {
+    LogicalPlan plan = LogicalPlanDSL.project(
+        new LogicalValues(ImmutableList.of(ImmutableList.of(literal(1)))), literal(1));
+
+    assertEquals(
+        node("LogicalProject", ImmutableMap.of("fields", ImmutableList.of("1")),
+            node("LogicalValues", ImmutableMap.of("values", "[[1]]"))),
+        explainer.explain(plan));
+  }
+
+  @Test
+  void explainPhysicalPlan() {
+    PhysicalPlan plan =
+        PhysicalPlanDSL.project(
+            PhysicalPlanDSL.dedupe(
+                PhysicalPlanDSL.sort(
+                    PhysicalPlanDSL.eval(
+                        PhysicalPlanDSL.remove(
+                            PhysicalPlanDSL.rename(
+                                PhysicalPlanDSL.agg(
+                                    PhysicalPlanDSL.filter(
+                                        new TestScan(ImmutableMap.of("index", "accounts")),
+                                        dsl.equal(ref("age", INTEGER), literal(30))),
+                                    ImmutableList.of(dsl.avg(ref("balance", INTEGER))),
+                                    ImmutableList.of(ref("gender", STRING))),
+                                ImmutableMap.of(ref("avg(balance)", INTEGER),
+                                    ref("avg", INTEGER))),
+                            ref("gender", STRING)),
+                        Pair.of(ref("double", INTEGER),
+                            dsl.multiply(ref("avg", INTEGER), literal(2)))),
+                    10,
+                    Pair.of(SortOption.PPL_ASC, ref("avg", INTEGER))),
+                ref("double", INTEGER)),
+            ref("double", INTEGER));
+
+    assertEquals(
+        node("ProjectOperator", ImmutableMap.of("fields", ImmutableList.of("double")),
+            node("DedupeOperator", ImmutableMap.of(
+                "fields", ImmutableList.of("double"),
+                "allowedDuplication", 1,
+                "keepEmpty", false,
+                "consecutive", false),
+                node("SortOperator", ImmutableMap.of(
+                    "count", 10,
+                    "sortList", ImmutableList.of("avg ASC NULL_FIRST")),
+                    node("EvalOperator", ImmutableMap.of(
+                        "expressions", ImmutableList.of("double = avg * 2")),
+                        node("RemoveOperator", ImmutableMap.of(
+                            "fields", ImmutableList.of("gender")),
+                            node("RenameOperator", ImmutableMap.of(
+                                "mapping", ImmutableMap.of("avg(balance)", "avg")),
+                                node("AggregationOperator", ImmutableMap.of(
+                                    "aggregators", ImmutableList.of("avg(balance)"),
+                                    "groupBy", ImmutableList.of("gender")),
+                                    node("FilterOperator",
+                                        ImmutableMap.of("condition", "age = 30"),
+                                        node("TestScan",
+                                            ImmutableMap.of("index", "accounts")))))))))),
+        explainer.explain(plan));
+  }
+
+  @Test
+  void explainPhysicalPlanWithDefaultTableScanDescription() {
+    PhysicalPlan plan = PhysicalPlanDSL.project(
+        new ValuesOperator(ImmutableList.of(ImmutableList.of(literal(1)))), literal(1));
+
+    assertEquals(
+        node("ProjectOperator", ImmutableMap.of("fields", ImmutableList.of("1")),
+            node("ValuesOperator", ImmutableMap.of("values", "[[1]]"))),
+        explainer.explain(plan));
+    assertEquals(
+        node("DefaultScan", emptyMap()),
+        explainer.explain(new DefaultScan()));
+  }
+
+  @Test
+  void explainOptimizedAndPhysicalPlan() {
+    LogicalPlan plan = LogicalPlanDSL.project(LogicalPlanDSL.relation("accounts"),
+        ref("age", INTEGER));
+    LogicalPlan optimized = LogicalPlanDSL.relation("accounts");
+    PhysicalPlan physicalPlan = new TestScan(ImmutableMap.of("index", "accounts"));
+    when(planner.optimize(plan)).thenReturn(optimized);
+    when(planner.implement(optimized)).thenReturn(physicalPlan);
+
+    assertEquals(
+        new ExplainResponse(
+            node("LogicalProject", ImmutableMap.of("fields", ImmutableList.of("age")),
+                node("LogicalRelation", ImmutableMap.of("relationName", "accounts"))),
+            node("LogicalRelation", ImmutableMap.of("relationName", "accounts")),
+            node("TestScan", ImmutableMap.of("index", "accounts"))),
+        explainer.explain(plan, planner));
+  }
+
+  private ExplainNode node(String name, Map<String, Object> description,
+                           ExplainNode... children) {
+    return new ExplainNode(name, description, ImmutableList.copyOf(children));
+  }
+
+  private static class DefaultScan extends TableScanOperator {
+    @Override
+    public boolean hasNext() {
+      return false;
+    }
+
+    @Override
+    public ExprValue next() {
+      return null;
+    }
+  }
+
+  private static class TestScan extends DefaultScan {
+    private final Map<String, Object> request;
+
+    TestScan(Map<String, Object> request) {
+      this.request = request;
+    }
+
+    @Override
+    public Map<String, Object> explain() {
+      return request;
+    }
+  }
+}
@@ -31,8 +31,12 @@ import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtil
 import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.nullValue;
 import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
 import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.tupleValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import com.amazon.opendistroforelasticsearch.sql.config.TestConfig;
+import com.amazon.opendistroforelasticsearch.sql.data.batch.ColumnVector;
+import com.amazon.opendistroforelasticsearch.sql.data.batch.RowBatch;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
 import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
@@ -40,7 +44,10 @@ import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -103,6 +110,53 @@ public class ExpressionTestBase {
     return typeEnv;
   }
 
+  /**
+   * Assert the expression evaluated column-wise on the batch of the rows has the same value as
+   * evaluated on each row.
+   */
+  protected void assertBatchValueOf(Expression expression, List<ExprValue> rows) {
+    ColumnVector vector = expression.batchValueOf(RowBatch.of(rows.toArray(new ExprValue[0])));
+    for (int i = 0; i < rows.size(); i++) {
+      assertEquals(expression.valueOf(rows.get(i).bindingTuples()), vector.get(i));
+    }
+  }
+
+  /**
+   * Rows of the fields x and y in every combination of the value, NULL and MISSING. The MISSING
+   * field is absent from the row. The first and the last row have both values.
+   */
+  protected List<ExprValue> batchRows(ExprValue x, ExprValue y) {
+    List<ExprValue> xs = ImmutableList.of(x, nullValue(), missingValue());
+    List<ExprValue> ys = ImmutableList.of(y, nullValue(), missingValue());
+    List<ExprValue> rows = new ArrayList<>();
+    for (ExprValue xv : xs) {
+      for (ExprValue yv : ys) {
+        rows.add(row(xv, yv));
+      }
+    }
+    rows.add(row(x, y));
+    return rows;
+  }
+
+  /**
+   * Rows of the field x in the value, NULL and MISSING.
+   */
+  protected List<ExprValue> batchRows(ExprValue x) {
+    return ImmutableList.of(row(x, missingValue()), row(nullValue(), missingValue()),
+        row(missingValue(), missingValue()), row(x, missingValue()));
+  }
+
+  private ExprValue row(ExprValue x, ExprValue y) {
+    Map<String, ExprValue> map = new LinkedHashMap<>();
+    if (!x.isMissing()) {
+      map.put("x", x);
+    }
+    if (!y.isMissing()) {
+      map.put("y", y);
+    }
+    return ExprTupleValue.fromExprValueMap(map);
+  }
+
   protected Function<List<Expression>, FunctionExpression> functionMapping(
       BuiltinFunctionName builtinFunctionName) {
     switch (builtinFunctionName) {
@@ -38,10 +38,12 @@ import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.S
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
 import com.amazon.opendistroforelasticsearch.sql.exception.ExpressionEvaluationException;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.DisplayNameGenerator;
 import org.junit.jupiter.api.Test;
@@ -77,4 +79,14 @@ class ReferenceExpressionTest extends ExpressionTestBase {
     assertEquals(ExprCoreType.STRUCT, DSL.ref("struct_value", STRUCT).type());
     assertEquals(ExprCoreType.ARRAY, DSL.ref("array_value", ARRAY).type());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void resolve_value_on_batch() {
+    ExprTupleValue row = (ExprTupleValue) tupleValue(ImmutableMap.of("integer_value", 1));
+    assertBatchValueOf(DSL.ref("integer_value", INTEGER), Arrays.asList(
+        row,
+        row.withSchema(row.getSchema()),
+        tupleValue(ImmutableMap.of("str", 1)),
+        integerValue(1)));
+  }
+}
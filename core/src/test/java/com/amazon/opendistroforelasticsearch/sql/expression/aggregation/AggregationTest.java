@@ -91,4 +91,13 @@ public class AggregationTest extends ExpressionTestBase {
     }
     return state.result();
   }
+
+  protected ExprValue groupedAggregation(Aggregator aggregator, List<ExprValue> tuples) {
+    GroupedAggregationState state = aggregator.createGroupedState();
+    int groupId = state.addGroup();
+    for (ExprValue tuple : tuples) {
+      state.iterate(groupId, tuple.bindingTuples());
+    }
+    return state.result(groupId);
+  }
 }
@@ -77,4 +77,24 @@ class AvgAggregatorTest extends AggregationTest {
     assertEquals(String.format("avg(%s * %d)", DSL.ref("integer_value", INTEGER), 10),
         avgAggregator.toString());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void grouped_avg_field_expression() {
+    ExprValue result = groupedAggregation(dsl.avg(DSL.ref("integer_value", INTEGER)), tuples);
+    assertEquals(2.5, result.value());
+  }
+
+  @Test
+  public void grouped_avg_with_missing() {
+    ExprValue result = groupedAggregation(dsl.avg(DSL.ref("integer_value", INTEGER)),
+        tuples_with_null_and_missing);
+    assertTrue(result.isNull());
+  }
+
+  @Test
+  public void grouped_avg_with_null() {
+    ExprValue result = groupedAggregation(dsl.avg(DSL.ref("double_value", DOUBLE)),
+        tuples_with_null_and_missing);
+    assertTrue(result.isNull());
+  }
+}
@@ -123,4 +123,24 @@ class CountAggregatorTest extends AggregationTest {
     assertEquals(String.format("count(abs(%s))", DSL.ref("integer_value", INTEGER)),
         countAggregator.toString());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void grouped_count_field_expression() {
+    ExprValue result = groupedAggregation(dsl.count(DSL.ref("integer_value", INTEGER)), tuples);
+    assertEquals(4, result.value());
+  }
+
+  @Test
+  public void grouped_count_with_missing() {
+    ExprValue result = groupedAggregation(dsl.count(DSL.ref("integer_value", INTEGER)),
+        tuples_with_null_and_missing);
+    assertEquals(2, result.value());
+  }
+
+  @Test
+  public void grouped_count_with_null() {
+    ExprValue result = groupedAggregation(dsl.count(DSL.ref("double_value", DOUBLE)),
+        tuples_with_null_and_missing);
+    assertEquals(2, result.value());
+  }
+}
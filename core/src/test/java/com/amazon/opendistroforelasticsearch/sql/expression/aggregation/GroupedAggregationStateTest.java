@@ -0,0 +1,85 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.expression.aggregation;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.Test;
+
+class GroupedAggregationStateTest extends AggregationTest {
+
+  @Test
+  public void default_grouped_state() {
+    Aggregator aggregator =
+        new DelegatingAggregator(dsl.count(DSL.ref("integer_value", INTEGER)));
+    assertEquals(4, groupedAggregation(aggregator, tuples).value());
+  }
+
+  @Test
+  public void grow_with_many_groups() {
+    Aggregator defaultCount =
+        new DelegatingAggregator(dsl.count(DSL.ref("integer_value", INTEGER)));
+    GroupedAggregationState[] states = {
+        defaultCount.createGroupedState(),
+        dsl.count(DSL.ref("integer_value", INTEGER)).createGroupedState(),
+        dsl.sum(DSL.ref("integer_value", INTEGER)).createGroupedState(),
+        dsl.avg(DSL.ref("integer_value", INTEGER)).createGroupedState()};
+    for (GroupedAggregationState state : states) {
+      for (int groupId = 0; groupId < 100; groupId++) {
+        assertEquals(groupId, state.addGroup());
+        ExprValue tuple = ExprValueUtils.tupleValue(ImmutableMap.of("integer_value", groupId));
+        state.iterate(groupId, tuple.bindingTuples());
+      }
+      assertEquals(100, state.groupCount());
+    }
+    for (int groupId = 0; groupId < 100; groupId++) {
+      assertEquals(1, states[0].result(groupId).value());
+      assertEquals(1, states[1].result(groupId).value());
+      assertEquals(groupId, states[2].result(groupId).value());
+      assertEquals((double) groupId, states[3].result(groupId).value());
+    }
+  }
+
+  /**
+   * Aggregator which doesn't override {@link Aggregator#createGroupedState()}.
+   */
+  private static class DelegatingAggregator extends Aggregator<AggregationState> {
+    private final Aggregator<AggregationState> delegate;
+
+    @SuppressWarnings("unchecked")
+    DelegatingAggregator(Aggregator delegate) {
+      super(delegate.getFunctionName(), delegate.getArguments(), delegate.returnType);
+      this.delegate = delegate;
+    }
+
+    @Override
+    public AggregationState create() {
+      return delegate.create();
+    }
+
+    @Override
+    public AggregationState iterate(BindingTuple tuple, AggregationState state) {
+      return delegate.iterate(tuple, state);
+    }
+  }
+}
@@ -116,4 +116,38 @@ class SumAggregatorTest extends AggregationTest {
     assertEquals(String.format("sum(%s * %d)", DSL.ref("integer_value", INTEGER), 10),
         sumAggregator.toString());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void grouped_sum_field_expression() {
+    assertEquals(10,
+        groupedAggregation(dsl.sum(DSL.ref("integer_value", INTEGER)), tuples).value());
+    assertEquals(10L, groupedAggregation(dsl.sum(DSL.ref("long_value", LONG)), tuples).value());
+    assertEquals(10f, groupedAggregation(dsl.sum(DSL.ref("float_value", FLOAT)), tuples).value());
+    assertEquals(10d,
+        groupedAggregation(dsl.sum(DSL.ref("double_value", DOUBLE)), tuples).value());
+  }
+
+  @Test
+  public void grouped_sum_with_null() {
+    ExprValue result = groupedAggregation(dsl.sum(DSL.ref("double_value", DOUBLE)),
+        tuples_with_null_and_missing);
+    assertTrue(result.isNull());
+  }
+
+  @Test
+  public void grouped_sum_string_field_expression() {
+    SumAggregator sumAggregator =
+        new SumAggregator(ImmutableList.of(DSL.ref("string_value", STRING)), ExprCoreType.STRING);
+    ExpressionEvaluationException exception = assertThrows(ExpressionEvaluationException.class,
+        () -> groupedAggregation(sumAggregator,
+            ImmutableList.of(ExprValueUtils.tupleValue(ImmutableMap.of("string_value", "m")))));
+    assertEquals("unexpected type [STRING] in sum aggregation", exception.getMessage());
+  }
+
+  @Test
+  public void grouped_sum_with_missing() {
+    ExprValue result = groupedAggregation(dsl.sum(DSL.ref("integer_value", INTEGER)),
+        tuples_with_null_and_missing);
+    assertTrue(result.isNull());
+  }
+}
@@ -139,6 +139,19 @@ class ArithmeticFunctionTest extends ExpressionTestBase {
     assertEquals(LITERAL_MISSING, functionExpression.valueOf(valueEnv()));
   }
 
+  @ParameterizedTest(name = "{0}(batch)")
+  @MethodSource("arithmeticOperatorArguments")
+  public void arithmetic_on_batch(BuiltinFunctionName builtinFunctionName) {
+    Function<
+        List<Expression>, FunctionExpression> function = functionMapping(builtinFunctionName);
+    for (Object value : Arrays.asList(3, 3L, 3f, 3D)) {
+      ExprValue op = ExprValueUtils.fromObjectValue(value);
+      FunctionExpression functionExpression =
+          function.apply(Arrays.asList(ref("x", op.type()), ref("y", op.type())));
+      assertBatchValueOf(functionExpression, batchRows(op, op));
+    }
+  }
+
   @ParameterizedTest(name = "subtract({1}, {2})")
   @MethodSource("arithmeticFunctionArguments")
   public void subtract(ExprValue op1, ExprValue op2) {
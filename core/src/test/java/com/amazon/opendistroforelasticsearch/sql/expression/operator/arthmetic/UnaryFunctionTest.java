@@ -25,10 +25,13 @@ import static org.hamcrest.Matchers.allOf;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
 import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
 import com.amazon.opendistroforelasticsearch.sql.expression.ExpressionTestBase;
 import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
+import java.util.Arrays;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.DisplayNameGenerator;
 import org.junit.jupiter.api.Test;
@@ -90,6 +93,17 @@ public class UnaryFunctionTest extends ExpressionTestBase {
     assertEquals(String.format("abs(%s)", value.toString()), abs.toString());
   }
 
+  /**
+   * Test abs on the batch of the values, NULL and MISSING.
+   */
+  @Test
+  public void abs_on_batch() {
+    for (Object value : Arrays.asList(-2, -2L, -2f, -2D)) {
+      ExprValue op = ExprValueUtils.fromObjectValue(value);
+      assertBatchValueOf(dsl.abs(DSL.ref("x", op.type())), batchRows(op));
+    }
+  }
+
   @Test
   public void abs_null_value() {
     assertTrue(dsl.abs(DSL.ref(INT_TYPE_NULL_VALUE_FIELD, INTEGER)).valueOf(valueEnv()).isNull());
@@ -343,6 +343,13 @@ class BinaryPredicateOperatorTest extends ExpressionTestBase {
     assertEquals(String.format("%s = %s", v1.toString(), v2.toString()), equal.toString());
   }
 
+  @ParameterizedTest(name = "equal({0}, {1})")
+  @MethodSource("testNotEqualArguments")
+  public void test_equal_on_different_values(ExprValue v1, ExprValue v2) {
+    FunctionExpression equal = dsl.equal(DSL.literal(v1), DSL.literal(v2));
+    assertEquals(LITERAL_FALSE, equal.valueOf(valueEnv()));
+  }
+
   @Test
   public void test_null_equal_missing() {
     FunctionExpression equal = dsl.equal(DSL.ref(BOOL_TYPE_MISSING_VALUE_FIELD, BOOLEAN),
@@ -719,4 +726,37 @@ class BinaryPredicateOperatorTest extends ExpressionTestBase {
     assertEquals(BOOLEAN, like.type());
     assertEquals(LITERAL_MISSING, like.valueOf(valueEnv()));
   }
-}
\ No newline at end of file
+
+  @ParameterizedTest(name = "batch({0}, {1})")
+  @MethodSource("binaryPredicateArguments")
+  public void test_logic_on_batch(Boolean v1, Boolean v2) {
+    List<ExprValue> rows = batchRows(booleanValue(v1), booleanValue(v2));
+    assertBatchValueOf(dsl.and(DSL.ref("x", BOOLEAN), DSL.ref("y", BOOLEAN)), rows);
+    assertBatchValueOf(dsl.or(DSL.ref("x", BOOLEAN), DSL.ref("y", BOOLEAN)), rows);
+    assertBatchValueOf(dsl.xor(DSL.ref("x", BOOLEAN), DSL.ref("y", BOOLEAN)), rows);
+  }
+
+  @ParameterizedTest(name = "batch({0}, {1})")
+  @MethodSource({"testEqualArguments", "testNotEqualArguments"})
+  public void test_equal_on_batch(ExprValue v1, ExprValue v2) {
+    List<ExprValue> rows = batchRows(v1, v2);
+    assertBatchValueOf(dsl.equal(DSL.ref("x", v1.type()), DSL.ref("y", v2.type())), rows);
+    assertBatchValueOf(dsl.notequal(DSL.ref("x", v1.type()), DSL.ref("y", v2.type())), rows);
+  }
+
+  @ParameterizedTest(name = "batch({0}, {1})")
+  @MethodSource("testCompareValueArguments")
+  public void test_compare_on_batch(ExprValue v1, ExprValue v2) {
+    List<ExprValue> rows = batchRows(v1, v2);
+    assertBatchValueOf(dsl.less(DSL.ref("x", v1.type()), DSL.ref("y", v2.type())), rows);
+    assertBatchValueOf(dsl.lte(DSL.ref("x", v1.type()), DSL.ref("y", v2.type())), rows);
+    assertBatchValueOf(dsl.greater(DSL.ref("x", v1.type()), DSL.ref("y", v2.type())), rows);
+    assertBatchValueOf(dsl.gte(DSL.ref("x", v1.type()), DSL.ref("y", v2.type())), rows);
+  }
+
+  @ParameterizedTest(name = "batch({0}, {1})")
+  @MethodSource("testLikeArguments")
+  public void test_like_on_batch(ExprValue v1, ExprValue v2) {
+    assertBatchValueOf(dsl.like(DSL.ref("x", STRING), DSL.ref("y", STRING)), batchRows(v1, v2));
+  }
+}
@@ -54,4 +54,10 @@ class UnaryPredicateOperatorTest extends ExpressionTestBase {
     assertEquals(BOOLEAN, and.type());
     assertEquals(LITERAL_MISSING, and.valueOf(valueEnv()));
   }
-}
\ No newline at end of file
+
+  @ParameterizedTest(name = "batch({0})")
+  @ValueSource(booleans = {true, false})
+  public void test_not_on_batch(Boolean v) {
+    assertBatchValueOf(dsl.not(DSL.ref("x", BOOLEAN)), batchRows(booleanValue(v)));
+  }
+}
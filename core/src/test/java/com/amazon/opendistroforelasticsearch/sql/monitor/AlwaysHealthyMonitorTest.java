@@ -17,6 +17,7 @@
 
 package com.amazon.opendistroforelasticsearch.sql.monitor;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
@@ -27,4 +28,12 @@ class AlwaysHealthyMonitorTest {
   void isHealthy() {
     assertTrue(new AlwaysHealthyMonitor().isHealthy());
   }
+
+  @Test
+  void memoryIsNotAccounted() {
+    AlwaysHealthyMonitor monitor = new AlwaysHealthyMonitor();
+
+    assertDoesNotThrow(() -> monitor.reserveMemory(Long.MAX_VALUE, "test"));
+    assertDoesNotThrow(() -> monitor.releaseMemory(Long.MAX_VALUE));
+  }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.monitor;
+
+import static com.amazon.opendistroforelasticsearch.sql.monitor.MemoryReservation.CHUNK_SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class MemoryReservationTest {
+
+  @Mock
+  private ResourceMonitor monitor;
+
+  private MemoryReservation memory;
+
+  @BeforeEach
+  void setUp() {
+    memory = new MemoryReservation(monitor, "<test>");
+  }
+
+  @Test
+  void reserveInChunks() {
+    memory.add(100);
+    memory.add(CHUNK_SIZE - 100);
+    verify(monitor).reserveMemory(CHUNK_SIZE, "<test>");
+    assertEquals(CHUNK_SIZE, memory.getUsed());
+    assertEquals(CHUNK_SIZE, memory.getReserved());
+
+    memory.add(3 * CHUNK_SIZE);
+    verify(monitor).reserveMemory(3 * CHUNK_SIZE, "<test>");
+    assertEquals(4 * CHUNK_SIZE, memory.getReserved());
+  }
+
+  @Test
+  void keepReservedWithinOneChunkNotInUse() {
+    memory.add(2 * CHUNK_SIZE);
+    memory.subtract(CHUNK_SIZE);
+    verify(monitor, never()).releaseMemory(anyLong());
+    assertEquals(CHUNK_SIZE, memory.getUsed());
+    assertEquals(2 * CHUNK_SIZE, memory.getReserved());
+
+    memory.subtract(CHUNK_SIZE);
+    verify(monitor).releaseMemory(2 * CHUNK_SIZE);
+    assertEquals(0, memory.getReserved());
+  }
+
+  @Test
+  void releaseAll() {
+    memory.add(10);
+    memory.release();
+    verify(monitor).releaseMemory(CHUNK_SIZE);
+    assertEquals(0, memory.getUsed());
+    assertEquals(0, memory.getReserved());
+  }
+
+  @Test
+  void peakIsKeptAfterRelease() {
+    memory.add(200);
+    memory.subtract(150);
+    memory.add(100);
+    memory.release();
+    assertEquals(200, memory.getPeak());
+  }
+
+  @Test
+  void releaseNothingIfNotReserved() {
+    memory.release();
+    verifyNoInteractions(monitor);
+  }
+
+  @Test
+  void reservationRejected() {
+    doThrow(new IllegalStateException("not enough memory"))
+        .when(monitor).reserveMemory(anyLong(), anyString());
+
+    assertThrows(IllegalStateException.class, () -> memory.add(10));
+    assertEquals(0, memory.getReserved());
+  }
+}
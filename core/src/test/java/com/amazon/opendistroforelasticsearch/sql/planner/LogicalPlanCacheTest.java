@@ -0,0 +1,134 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.amazon.opendistroforelasticsearch.sql.analysis.ParameterBinder;
+import com.amazon.opendistroforelasticsearch.sql.analysis.ParameterizedPlan;
+import com.amazon.opendistroforelasticsearch.sql.analysis.ParameterizedQuery;
+import com.amazon.opendistroforelasticsearch.sql.analysis.ParameterizedQuery.LiteralToken;
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.LiteralExpression;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalRelation;
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.OptionalLong;
+import org.junit.jupiter.api.Test;
+
+class LogicalPlanCacheTest {
+
+  private final LogicalPlanCache cache = new LogicalPlanCache(2);
+
+  @Test
+  public void reuse_plan_of_same_query() {
+    LogicalPlan plan = new LogicalRelation("test");
+    assertSame(plan, cache.get(query("source=test"), OptionalLong.of(1L), () -> analyzed(plan)));
+    assertSame(plan, cache.get(query("source=test"), OptionalLong.of(1L), () -> null));
+    assertEquals(1L, cache.hitCount());
+    assertEquals(1L, cache.missCount());
+  }
+
+  @Test
+  public void bind_literals_of_query_sharing_template() {
+    LiteralExpression literal = DSL.literal(1);
+    LogicalPlan plan = new LogicalRelation("test");
+    LogicalPlan boundPlan = new LogicalRelation("test");
+    ParameterBinder binder = mock(ParameterBinder.class);
+    when(binder.bind(any(), any())).thenReturn(boundPlan);
+    ParameterizedPlan analyzed = new ParameterizedPlan(plan, query("a = ?", literal(3, "1")),
+        ImmutableMap.of(3, Collections.singletonList(literal)), binder);
+
+    cache.get(query("a = ?", literal(3, "1")), OptionalLong.of(1L), () -> analyzed);
+    assertSame(boundPlan,
+        cache.get(query("a = ?", literal(5, "2")), OptionalLong.of(1L), () -> null));
+    assertEquals(1L, cache.hitCount());
+    assertEquals(1L, cache.missCount());
+  }
+
+  @Test
+  public void analyze_again_if_plan_can_not_be_bound() {
+    LogicalPlan plan = new LogicalRelation("test");
+    LogicalPlan newPlan = new LogicalRelation("test");
+    cache.get(query("head ?", literal(2, "1")), OptionalLong.of(1L),
+        () -> analyzed(plan, literal(2, "1")));
+    assertSame(newPlan, cache.get(query("head ?", literal(2, "2")), OptionalLong.of(1L),
+        () -> analyzed(newPlan, literal(2, "2"))));
+    assertSame(newPlan,
+        cache.get(query("head ?", literal(2, "2")), OptionalLong.of(1L), () -> null));
+    assertEquals(1L, cache.hitCount());
+    assertEquals(2L, cache.missCount());
+  }
+
+  @Test
+  public void analyze_again_if_version_changed() {
+    LogicalPlan plan = new LogicalRelation("test");
+    LogicalPlan newPlan = new LogicalRelation("test");
+    cache.get(query("source=test"), OptionalLong.of(1L), () -> analyzed(plan));
+    assertSame(newPlan,
+        cache.get(query("source=test"), OptionalLong.of(2L), () -> analyzed(newPlan)));
+    assertSame(newPlan, cache.get(query("source=test"), OptionalLong.of(2L), () -> null));
+    assertEquals(1L, cache.hitCount());
+    assertEquals(2L, cache.missCount());
+  }
+
+  @Test
+  public void analyze_always_if_version_unknown() {
+    LogicalPlan plan = new LogicalRelation("test");
+    cache.get(query("source=test"), OptionalLong.empty(), () -> analyzed(plan));
+    cache.get(query("source=test"), OptionalLong.empty(), () -> analyzed(plan));
+    assertEquals(0L, cache.hitCount());
+    assertEquals(2L, cache.missCount());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void evict_least_recently_used_plan() {
+    cache.get(query("source=test1"), OptionalLong.of(1L),
+        () -> analyzed(new LogicalRelation("test1")));
+    cache.get(query("source=test2"), OptionalLong.of(1L),
+        () -> analyzed(new LogicalRelation("test2")));
+    cache.get(query("source=test1"), OptionalLong.of(1L), () -> null);
+    cache.get(query("source=test3"), OptionalLong.of(1L),
+        () -> analyzed(new LogicalRelation("test3")));
+    assertEquals(2, cache.size());
+    assertEquals(new LogicalRelation("test1"),
+        cache.get(query("source=test1"), OptionalLong.of(1L), () -> null));
+    assertEquals(new LogicalRelation("test2"),
+        cache.get(query("source=test2"), OptionalLong.of(1L),
+            () -> analyzed(new LogicalRelation("test2"))));
+    assertEquals(2L, cache.hitCount());
+  }
+
+  private ParameterizedQuery query(String template, LiteralToken... literals) {
+    return new ParameterizedQuery(template, template, Arrays.asList(literals));
+  }
+
+  private LiteralToken literal(int index, String text) {
+    return new LiteralToken(index, text, integerValue(Integer.valueOf(text)));
+  }
+
+  private ParameterizedPlan analyzed(LogicalPlan plan, LiteralToken... literals) {
+    return new ParameterizedPlan(plan, query("", literals), Collections.emptyMap(), null);
+  }
+}
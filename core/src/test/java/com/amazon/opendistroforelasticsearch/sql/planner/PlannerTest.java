@@ -24,6 +24,7 @@ import static org.mockito.Mockito.when;
 
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
 import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalAggregation;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalFilter;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
@@ -31,6 +32,7 @@ import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanNodeVisitor;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalRelation;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalRename;
+import com.amazon.opendistroforelasticsearch.sql.planner.optimizer.LogicalPlanOptimizer;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.AggregationOperator;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.FilterOperator;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
@@ -48,6 +50,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
 
 @ExtendWith(MockitoExtension.class)
 public class PlannerTest extends PhysicalPlanTestBase {
@@ -57,6 +60,9 @@ public class PlannerTest extends PhysicalPlanTestBase {
   @Mock
   private StorageEngine storageEngine;
 
+  @Autowired
+  private BuiltinFunctionRepository functionRepository;
+
   @BeforeEach
   public void setUp() {
     when(storageEngine.getTable(any())).thenReturn(new MockTable());
@@ -116,7 +122,8 @@ public class PlannerTest extends PhysicalPlanTestBase {
   }
 
   protected PhysicalPlan analyze(LogicalPlan logicalPlan) {
-    return new Planner(storageEngine).plan(logicalPlan);
+    return new Planner(storageEngine, LogicalPlanOptimizer.create(functionRepository))
+        .plan(logicalPlan);
   }
 
   protected class MockTable extends LogicalPlanNodeVisitor<PhysicalPlan, Object> implements Table {
@@ -0,0 +1,127 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.BOOLEAN;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {ExpressionConfig.class})
+class ExpressionSimplifierTest {
+
+  @Autowired
+  private BuiltinFunctionRepository functionRepository;
+
+  @Autowired
+  private DSL dsl;
+
+  private ExpressionSimplifier simplifier;
+
+  private final ReferenceExpression intRef = ref("integer_value", INTEGER);
+
+  private final ReferenceExpression boolRef = ref("boolean_value", BOOLEAN);
+
+  @BeforeEach
+  public void setUp() {
+    simplifier = new ExpressionSimplifier(functionRepository);
+  }
+
+  @Test
+  public void fold_constant_function() {
+    assertEquals(literal(600000),
+        simplifier.simplify(dsl.multiply(dsl.multiply(literal(10), literal(60)), literal(1000))));
+    assertEquals(literal(true), simplifier.simplify(dsl.equal(literal(1), literal(1))));
+  }
+
+  @Test
+  public void fold_constant_argument() {
+    assertEquals(dsl.greater(intRef, literal(600000)),
+        simplifier.simplify(
+            dsl.greater(intRef, dsl.multiply(dsl.multiply(literal(10), literal(60)),
+                literal(1000)))));
+  }
+
+  @Test
+  public void keep_constant_function_which_fails() {
+    Expression divideByZero = dsl.divide(literal(1), literal(0));
+    assertSame(divideByZero, simplifier.simplify(divideByZero));
+  }
+
+  @Test
+  public void keep_expression_which_could_not_be_simplified() {
+    Expression expr = dsl.greater(intRef, literal(1));
+    assertSame(expr, simplifier.simplify(expr));
+    assertSame(intRef, simplifier.simplify(intRef));
+    assertSame(boolRef, simplifier.simplify(boolRef));
+  }
+
+  @Test
+  public void simplify_and() {
+    assertEquals(boolRef, simplifier.simplify(dsl.and(literal(true), boolRef)));
+    assertEquals(boolRef, simplifier.simplify(dsl.and(boolRef, literal(true))));
+    assertEquals(literal(false), simplifier.simplify(dsl.and(literal(false), boolRef)));
+    assertEquals(literal(false), simplifier.simplify(dsl.and(boolRef, literal(false))));
+
+    Expression expr = dsl.and(boolRef, dsl.greater(intRef, literal(1)));
+    assertSame(expr, simplifier.simplify(expr));
+  }
+
+  @Test
+  public void simplify_or() {
+    assertEquals(boolRef, simplifier.simplify(dsl.or(literal(false), boolRef)));
+    assertEquals(boolRef, simplifier.simplify(dsl.or(boolRef, literal(false))));
+    assertEquals(literal(true), simplifier.simplify(dsl.or(literal(true), boolRef)));
+    assertEquals(literal(true), simplifier.simplify(dsl.or(boolRef, literal(true))));
+  }
+
+  @Test
+  public void simplify_not_not() {
+    assertEquals(boolRef, simplifier.simplify(dsl.not(dsl.not(boolRef))));
+    assertEquals(dsl.greater(intRef, literal(10)),
+        simplifier.simplify(
+            dsl.not(dsl.not(dsl.greater(intRef, dsl.add(literal(4), literal(6)))))));
+
+    Expression notGreater = dsl.not(dsl.greater(intRef, literal(1)));
+    assertSame(notGreater, simplifier.simplify(notGreater));
+    Expression notRef = dsl.not(boolRef);
+    assertSame(notRef, simplifier.simplify(notRef));
+  }
+
+  @Test
+  public void simplify_nested_boolean_logic() {
+    assertEquals(dsl.greater(intRef, literal(10)),
+        simplifier.simplify(
+            dsl.and(
+                dsl.or(literal(false), dsl.greater(intRef, literal(10))),
+                dsl.not(dsl.equal(literal(1), literal(2))))));
+  }
+}
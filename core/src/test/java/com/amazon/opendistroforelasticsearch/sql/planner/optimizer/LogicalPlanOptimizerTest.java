@@ -0,0 +1,328 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.aggregation;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.dedupe;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.eval;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.filter;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.project;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.relation;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.remove;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.rename;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.sort;
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.SortOption;
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalFilter;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalRelation;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.Collections;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {ExpressionConfig.class})
+class LogicalPlanOptimizerTest {
+
+  @Autowired
+  private BuiltinFunctionRepository functionRepository;
+
+  @Autowired
+  private DSL dsl;
+
+  private final ReferenceExpression a = ref("a", INTEGER);
+  private final ReferenceExpression b = ref("b", INTEGER);
+  private final ReferenceExpression c = ref("c", INTEGER);
+  private final ReferenceExpression x = ref("x", INTEGER);
+  private final ReferenceExpression y = ref("y", INTEGER);
+
+  @Test
+  public void simplify_constant_expressions() {
+    assertEquals(
+        filter(relation("test"), dsl.greater(a, literal(600))),
+        optimize(
+            filter(relation("test"),
+                dsl.and(literal(true), dsl.greater(a, dsl.multiply(literal(10), literal(60))))))
+    );
+    assertEquals(
+        eval(relation("test"), Pair.of(x, literal(3)), Pair.of(y, a)),
+        optimize(
+            eval(relation("test"),
+                Pair.of(x, dsl.add(literal(1), literal(2))), Pair.of(y, a)))
+    );
+    assertEquals(
+        sort(relation("test"), null,
+            Pair.of(SortOption.PPL_ASC, a), Pair.of(SortOption.PPL_DESC, dsl.add(b, literal(2)))),
+        optimize(
+            sort(relation("test"), null,
+                Pair.of(SortOption.PPL_ASC, a),
+                Pair.of(SortOption.PPL_DESC, dsl.add(b, dsl.add(literal(1), literal(1))))))
+    );
+  }
+
+  @Test
+  public void merge_adjacent_filters() {
+    assertEquals(
+        filter(relation("test"),
+            dsl.and(dsl.and(dsl.greater(a, literal(1)), dsl.less(b, literal(2))),
+                dsl.equal(c, literal(3)))),
+        optimize(
+            filter(
+                filter(
+                    filter(relation("test"), dsl.greater(a, literal(1))),
+                    dsl.less(b, literal(2))),
+                dsl.equal(c, literal(3))))
+    );
+  }
+
+  @Test
+  public void push_filter_under_eval() {
+    assertEquals(
+        eval(
+            filter(relation("test"), dsl.greater(a, literal(1))),
+            Pair.of(x, dsl.add(a, literal(1)))),
+        optimize(
+            filter(
+                eval(relation("test"), Pair.of(x, dsl.add(a, literal(1)))),
+                dsl.greater(a, literal(1))))
+    );
+  }
+
+  @Test
+  public void keep_filter_above_eval_if_reference_evaluated_field() {
+    LogicalPlan plan =
+        filter(
+            eval(relation("test"), Pair.of(x, dsl.add(a, literal(1)))),
+            dsl.greater(x, literal(1)));
+    assertSame(plan, optimize(plan));
+  }
+
+  @Test
+  public void push_filter_under_rename_with_original_field() {
+    assertEquals(
+        rename(
+            filter(relation("test"),
+                dsl.and(dsl.greater(a, literal(1)), dsl.equal(c, literal(2)))),
+            ImmutableMap.of(a, b)),
+        optimize(
+            filter(
+                rename(relation("test"), ImmutableMap.of(a, b)),
+                dsl.and(dsl.greater(b, literal(1)), dsl.equal(c, literal(2)))))
+    );
+  }
+
+  @Test
+  public void push_filter_under_rename_without_renamed_field() {
+    Expression condition = dsl.equal(c, literal(2));
+    assertEquals(
+        rename(filter(relation("test"), condition), ImmutableMap.of(a, b)),
+        optimize(filter(rename(relation("test"), ImmutableMap.of(a, b)), condition))
+    );
+  }
+
+  @Test
+  public void push_filter_under_rename_which_swaps_fields() {
+    assertEquals(
+        rename(
+            filter(relation("test"), dsl.greater(b, literal(1))),
+            ImmutableMap.of(a, b, b, a)),
+        optimize(
+            filter(
+                rename(relation("test"), ImmutableMap.of(a, b, b, a)),
+                dsl.greater(a, literal(1))))
+    );
+  }
+
+  @Test
+  public void keep_filter_above_rename_if_reference_removed_field() {
+    LogicalPlan plan =
+        filter(
+            rename(relation("test"), ImmutableMap.of(a, b)),
+            dsl.greater(a, literal(1)));
+    assertSame(plan, optimize(plan));
+  }
+
+  @Test
+  public void prune_eval_fields_not_referenced() {
+    assertEquals(
+        project(
+            eval(relation("test"),
+                Pair.of(x, dsl.add(a, literal(1))),
+                Pair.of(y, dsl.add(x, literal(1)))),
+            y),
+        optimize(
+            project(
+                eval(relation("test"),
+                    Pair.of(x, dsl.add(a, literal(1))),
+                    Pair.of(y, dsl.add(x, literal(1))),
+                    Pair.of(c, dsl.add(b, literal(1)))),
+                y))
+    );
+  }
+
+  @Test
+  public void prune_eval_field_overwritten_by_later_expression() {
+    assertEquals(
+        project(eval(relation("test"), Pair.of(x, dsl.add(b, literal(1)))), x),
+        optimize(
+            project(
+                eval(relation("test"),
+                    Pair.of(x, dsl.add(a, literal(1))),
+                    Pair.of(x, dsl.add(b, literal(1)))),
+                x))
+    );
+  }
+
+  @Test
+  public void remove_eval_if_no_field_referenced() {
+    assertEquals(
+        project(relation("test"), a),
+        optimize(project(eval(relation("test"), Pair.of(x, dsl.add(a, literal(1)))), a))
+    );
+  }
+
+  @Test
+  public void keep_eval_if_all_fields_referenced() {
+    LogicalPlan plan = project(eval(relation("test"), Pair.of(x, dsl.add(a, literal(1)))), x);
+    assertSame(plan, optimize(plan));
+  }
+
+  @Test
+  public void merge_adjacent_projects() {
+    assertEquals(
+        project(relation("test"), a),
+        optimize(project(project(relation("test"), a, b), a))
+    );
+  }
+
+  @Test
+  public void keep_adjacent_projects_if_not_subset_or_not_reference() {
+    LogicalPlan notSubset = project(project(relation("test"), a), a, b);
+    assertSame(notSubset, optimize(notSubset));
+
+    LogicalPlan upperNotReference = project(project(relation("test"), a), literal(1));
+    assertSame(upperNotReference, optimize(upperNotReference));
+
+    LogicalPlan lowerNotReference = project(project(relation("test"), a, literal(1)), a);
+    assertSame(lowerNotReference, optimize(lowerNotReference));
+  }
+
+  @Test
+  public void merge_adjacent_sorts_with_same_sort_keys() {
+    Pair<SortOption, Expression> sortByA = Pair.of(SortOption.PPL_ASC, a);
+    assertEquals(
+        sort(relation("test"), 5, sortByA),
+        optimize(sort(sort(relation("test"), 10, sortByA), 5, sortByA)));
+    assertEquals(
+        sort(relation("test"), 5, sortByA),
+        optimize(sort(sort(relation("test"), 5, sortByA), 10, sortByA)));
+    assertEquals(
+        sort(relation("test"), 10, sortByA),
+        optimize(sort(sort(relation("test"), 10, sortByA), null, sortByA)));
+    assertEquals(
+        sort(relation("test"), 10, sortByA),
+        optimize(sort(sort(relation("test"), null, sortByA), 10, sortByA)));
+  }
+
+  @Test
+  public void keep_adjacent_sorts_with_different_sort_keys() {
+    LogicalPlan plan = sort(
+        sort(relation("test"), null, Pair.of(SortOption.PPL_ASC, a)),
+        null, Pair.of(SortOption.PPL_DESC, a));
+    assertSame(plan, optimize(plan));
+  }
+
+  @Test
+  public void optimize_children_of_every_plan_node() {
+    Expression condition1 = dsl.greater(a, literal(1));
+    Expression condition2 = dsl.less(b, literal(2));
+    LogicalPlan filters = filter(filter(relation("test"), condition1), condition2);
+    LogicalPlan merged = filter(relation("test"), dsl.and(condition1, condition2));
+
+    assertEquals(
+        aggregation(merged, ImmutableList.of(dsl.count(a)), ImmutableList.of(b)),
+        optimize(aggregation(filters, ImmutableList.of(dsl.count(a)), ImmutableList.of(b))));
+    assertEquals(dedupe(merged, a), optimize(dedupe(filters, a)));
+    assertEquals(project(merged, a), optimize(project(filters, a)));
+    assertEquals(remove(merged, a), optimize(remove(filters, a)));
+    assertEquals(
+        sort(merged, 10, Pair.of(SortOption.PPL_ASC, a)),
+        optimize(sort(filters, 10, Pair.of(SortOption.PPL_ASC, a))));
+    assertEquals(
+        eval(merged, Pair.of(x, dsl.add(a, literal(1)))),
+        optimize(eval(filters, Pair.of(x, dsl.add(a, literal(1))))));
+    assertEquals(
+        rename(merged, ImmutableMap.of(c, y)),
+        optimize(rename(filters, ImmutableMap.of(c, y))));
+
+    LogicalPlan sorted = sort(filters, 10, Pair.of(SortOption.PPL_ASC, a));
+    assertEquals(
+        filter(sort(merged, 10, Pair.of(SortOption.PPL_ASC, a)), condition1),
+        optimize(filter(sorted, condition1)));
+  }
+
+  @Test
+  public void plan_without_child_is_not_changed() {
+    LogicalPlan values = LogicalPlanDSL.values(Collections.singletonList(literal(1)));
+    assertSame(values, optimize(values));
+  }
+
+  @Test
+  public void apply_additional_rules_after_default_rules() {
+    Rule removeFilterOnRelation = new Rule() {
+      @Override
+      public LogicalPlan visitFilter(LogicalFilter plan, Object context) {
+        LogicalPlan child = plan.getChild().get(0);
+        return child instanceof LogicalRelation ? child : plan;
+      }
+    };
+    LogicalPlanOptimizer optimizer = LogicalPlanOptimizer.create(functionRepository);
+
+    assertSame(optimizer, optimizer.withRules(emptyList()));
+    assertEquals(
+        project(relation("test"), a),
+        optimizer.withRules(Arrays.asList(removeFilterOnRelation)).optimize(
+            project(
+                filter(
+                    filter(relation("test"), dsl.greater(a, literal(1))),
+                    dsl.less(b, literal(2))),
+                a)));
+  }
+
+  private LogicalPlan optimize(LogicalPlan plan) {
+    return LogicalPlanOptimizer.create(functionRepository).optimize(plan);
+  }
+}
@@ -19,15 +19,26 @@ import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.I
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasItem;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.monitor.AlwaysHealthyMonitor;
+import com.amazon.opendistroforelasticsearch.sql.monitor.ResourceMonitor;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.jupiter.api.Test;
 
 class AggregationOperatorTest extends PhysicalPlanTestBase {
@@ -73,4 +84,169 @@ class AggregationOperatorTest extends PhysicalPlanTestBase {
         ExprValueUtils.tupleValue(ImmutableMap.of("action", "POST", "sum(response)", 700))
     ));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void count_sum_avg_with_high_cardinality_groups() {
+    assertHighCardinalityAggregation(Long.MAX_VALUE);
+  }
+
+  @Test
+  public void count_sum_avg_with_spilled_groups() {
+    assertHighCardinalityAggregation(2048);
+  }
+
+  @Test
+  public void count_sum_avg_with_groups_spilled_to_max_level() {
+    assertHighCardinalityAggregation(0);
+  }
+
+  @Test
+  public void count_sum_avg_with_groups_aggregated_in_parallel() {
+    assertHighCardinalityAggregation(Long.MAX_VALUE, 20000, 4);
+  }
+
+  @Test
+  public void count_sum_avg_with_groups_spilled_in_parallel() {
+    assertHighCardinalityAggregation(4096, 20000, 4);
+  }
+
+  @Test
+  public void aggregation_without_input_in_parallel() {
+    PhysicalPlan plan = new AggregationOperator(new TestScan(Collections.emptyList()),
+        Collections.singletonList(dsl.count(DSL.ref("value", INTEGER))),
+        Collections.singletonList(DSL.ref("key", INTEGER)), Long.MAX_VALUE,
+        ForkJoinPool.commonPool(), 4);
+    assertEquals(0, execute(plan).size());
+  }
+
+  @Test
+  public void close_before_spilled_groups_are_read() {
+    PhysicalPlan plan = highCardinalityAggregation(0, 1000, 1);
+    plan.open();
+    assertTrue(plan.hasNext());
+    plan.next();
+    plan.close();
+  }
+
+  @Test
+  public void groups_memory_is_reserved_until_close() {
+    TestMemoryMonitor monitor = new TestMemoryMonitor(Long.MAX_VALUE);
+    AggregationOperator plan = highCardinalityAggregation(Long.MAX_VALUE, 1000, 1, monitor);
+    assertEquals(monitor, plan.getMonitor());
+
+    assertEquals(100, execute(plan).size());
+    assertTrue(monitor.peak > 0);
+    assertEquals(0, monitor.used);
+    assertTrue(plan.getPeakMemory() > 0);
+  }
+
+  @Test
+  public void groups_memory_is_released_in_parallel() {
+    TestMemoryMonitor monitor = new TestMemoryMonitor(Long.MAX_VALUE);
+    assertEquals(100, execute(highCardinalityAggregation(4096, 20000, 4, monitor)).size());
+    assertEquals(0, monitor.used);
+  }
+
+  @Test
+  public void aggregation_fails_once_memory_is_rejected() {
+    PhysicalPlan plan = highCardinalityAggregation(Long.MAX_VALUE, 1000, 1,
+        new TestMemoryMonitor(0));
+    assertThrows(IllegalStateException.class, plan::open);
+  }
+
+  private AggregationOperator highCardinalityAggregation(long memoryLimit, int rows,
+                                                        int parallelism) {
+    return highCardinalityAggregation(memoryLimit, rows, parallelism,
+        AlwaysHealthyMonitor.ALWAYS_HEALTHY_MONITOR);
+  }
+
+  private AggregationOperator highCardinalityAggregation(long memoryLimit, int rows,
+                                                        int parallelism,
+                                                        ResourceMonitor monitor) {
+    ImmutableList.Builder<ExprValue> inputs = new ImmutableList.Builder<>();
+    for (int i = 0; i < rows; i++) {
+      inputs.add(ExprValueUtils.tupleValue(ImmutableMap.of("key", i % 100, "value", i)));
+    }
+    return new AggregationOperator(new TestScan(inputs.build()),
+        Arrays.asList(dsl.count(DSL.ref("value", INTEGER)), dsl.sum(DSL.ref("value", INTEGER)),
+            dsl.avg(DSL.ref("value", INTEGER))),
+        Collections.singletonList(DSL.ref("key", INTEGER)), memoryLimit,
+        ForkJoinPool.commonPool(), parallelism, monitor);
+  }
+
+  private void assertHighCardinalityAggregation(long memoryLimit) {
+    assertHighCardinalityAggregation(memoryLimit, 1000, 1);
+  }
+
+  /**
+   * The rows are grouped by 100 keys, each group has rows / 100 rows.
+   */
+  private void assertHighCardinalityAggregation(long memoryLimit, int rows, int parallelism) {
+    List<ExprValue> result = execute(highCardinalityAggregation(memoryLimit, rows, parallelism));
+    int count = rows / 100;
+    assertEquals(100, result.size());
+    Set<Integer> keys = new HashSet<>();
+    for (ExprValue row : result) {
+      Map<String, ExprValue> tuple = ExprValueUtils.getTupleValue(row);
+      int key = ExprValueUtils.getIntegerValue(tuple.get("key"));
+      assertTrue(keys.add(key));
+      assertEquals(count, ExprValueUtils.getIntegerValue(tuple.get("count(value)")));
+      assertEquals(key * count + 50 * count * (count - 1),
+          ExprValueUtils.getIntegerValue(tuple.get("sum(value)")));
+      assertEquals(key + 50d * (count - 1),
+          ExprValueUtils.getDoubleValue(tuple.get("avg(value)")));
+    }
+  }
+
+  @Test
+  public void count_with_colliding_group_keys() {
+    List<ExprValue> inputs = Arrays.asList(
+        ExprValueUtils.tupleValue(ImmutableMap.of("k1", 1, "k2", 31)),
+        ExprValueUtils.tupleValue(ImmutableMap.of("k1", 2, "k2", 0)),
+        ExprValueUtils.tupleValue(ImmutableMap.of("k1", 1, "k2", 31)),
+        ExprValueUtils.tupleValue(ImmutableMap.of("k1", 1, "k2", 0)));
+    PhysicalPlan plan = new AggregationOperator(new TestScan(inputs),
+        Collections.singletonList(dsl.count(DSL.ref("k1", INTEGER))),
+        Arrays.asList(DSL.ref("k1", INTEGER), DSL.ref("k2", INTEGER)));
+    assertThat(execute(plan), containsInAnyOrder(
+        ExprValueUtils.tupleValue(ImmutableMap.of("k1", 1, "k2", 31, "count(k1)", 2)),
+        ExprValueUtils.tupleValue(ImmutableMap.of("k1", 2, "k2", 0, "count(k1)", 1)),
+        ExprValueUtils.tupleValue(ImmutableMap.of("k1", 1, "k2", 0, "count(k1)", 1))
+    ));
+  }
+
+  @Test
+  public void count_with_colliding_group_keys_spilled_to_max_level() {
+    // the group keys (k1, 62 - 31 * k1) have the same hash, so they are always spilled to the
+    // same partition, one of them is kept in memory at each level.
+    ImmutableList.Builder<ExprValue> inputs = new ImmutableList.Builder<>();
+    inputs.add(ExprValueUtils.tupleValue(ImmutableMap.of("k1", 0, "k2", 0)));
+    for (int k1 = 0; k1 < 6; k1++) {
+      inputs.add(ExprValueUtils.tupleValue(ImmutableMap.of("k1", k1, "k2", 62 - 31 * k1)));
+    }
+    PhysicalPlan plan = new AggregationOperator(new TestScan(inputs.build()),
+        Collections.singletonList(dsl.count(DSL.ref("k1", INTEGER))),
+        Arrays.asList(DSL.ref("k1", INTEGER), DSL.ref("k2", INTEGER)), 0);
+    List<ExprValue> result = execute(plan);
+    assertEquals(7, result.size());
+    assertThat(result, hasItem(
+        ExprValueUtils.tupleValue(ImmutableMap.of("k1", 5, "k2", -93, "count(k1)", 1))));
+  }
+
+  @Test
+  public void sum_with_missing_group_key() {
+    PhysicalPlan plan = new AggregationOperator(new TestScan(),
+        Collections.singletonList(dsl.sum(DSL.ref("response", INTEGER))),
+        Collections.singletonList(DSL.ref("referer", STRING)));
+    List<ExprValue> result = execute(plan);
+    assertEquals(3, result.size());
+    assertThat(result, containsInAnyOrder(
+        ExprValueUtils.tupleValue(
+            ImmutableMap.of("referer", "www.amazon.com", "sum(response)", 804)),
+        ExprValueUtils.tupleValue(
+            ImmutableMap.of("referer", "www.google.com", "sum(response)", 200)),
+        ExprTupleValue.fromExprValueMap(ImmutableMap.of("referer", ExprValueUtils.LITERAL_MISSING,
+            "sum(response)", ExprValueUtils.integerValue(500)))
+    ));
+  }
+}
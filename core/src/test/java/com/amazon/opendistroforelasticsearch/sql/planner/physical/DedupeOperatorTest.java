@@ -21,12 +21,18 @@ import static com.amazon.opendistroforelasticsearch.sql.planner.physical.Physica
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.DedupeOperator.Deduper;
 import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -268,4 +274,44 @@ class DedupeOperatorTest extends PhysicalPlanTestBase {
     // first time seen 1
     assertEquals(1, deduper.seenTimes(1));
   }
+
+  @Test
+  public void seen_keys_memory_is_reserved_until_close() {
+    TestMemoryMonitor monitor = new TestMemoryMonitor(Long.MAX_VALUE);
+    PhysicalPlan plan = new DedupeOperator(new TestScan(distinctRows(1000)),
+        Collections.singletonList(DSL.ref("region", STRING)), 1, false, false, monitor);
+    plan.open();
+    while (plan.hasNext()) {
+      plan.next();
+    }
+    assertTrue(monitor.used > 0);
+
+    plan.close();
+    assertEquals(0, monitor.used);
+    assertTrue(((DedupeOperator) plan).getPeakMemory() > 0);
+  }
+
+  @Test
+  public void consecutive_dedupe_does_not_reserve_memory() {
+    TestMemoryMonitor monitor = new TestMemoryMonitor(0);
+    assertEquals(1000, execute(new DedupeOperator(new TestScan(distinctRows(1000)),
+        Collections.singletonList(DSL.ref("region", STRING)), 1, false, true, monitor)).size());
+  }
+
+  @Test
+  public void dedupe_fails_once_memory_is_rejected() {
+    PhysicalPlan plan = new DedupeOperator(new TestScan(distinctRows(1)),
+        Collections.singletonList(DSL.ref("region", STRING)), 1, false, false,
+        new TestMemoryMonitor(0));
+    plan.open();
+    assertThrows(IllegalStateException.class, plan::hasNext);
+  }
+
+  private List<ExprValue> distinctRows(int size) {
+    List<ExprValue> rows = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      rows.add(tupleValue(ImmutableMap.of("region", "region-" + i)));
+    }
+    return rows;
+  }
 }
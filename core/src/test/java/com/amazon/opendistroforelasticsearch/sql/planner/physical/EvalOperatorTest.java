@@ -23,6 +23,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.iterableWithSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
 
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
@@ -30,6 +31,7 @@ import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
 import com.google.common.collect.ImmutableMap;
 import java.util.List;
+import java.util.Map;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -131,6 +133,32 @@ class EvalOperatorTest extends PhysicalPlanTestBase {
             hasItems(ExprValueUtils.tupleValue(ImmutableMap.of("distance", 200, "time", 10)))));
   }
 
+  @Test
+  public void replace_field_evaluated_by_previous_expression() {
+    when(inputPlan.hasNext()).thenReturn(true, false);
+    when(inputPlan.next())
+        .thenReturn(ExprValueUtils.tupleValue(ImmutableMap.of("distance", 100, "time", 10)));
+
+    PhysicalPlan plan =
+        eval(
+            inputPlan,
+            ImmutablePair.of(
+                DSL.ref("distance", INTEGER),
+                dsl.multiply(DSL.ref("distance", INTEGER), DSL.literal(2))),
+            ImmutablePair.of(
+                DSL.ref("speed", INTEGER),
+                dsl.divide(DSL.ref("distance", INTEGER), DSL.ref("time", INTEGER))),
+            ImmutablePair.of(
+                DSL.ref("distance", INTEGER),
+                dsl.add(DSL.ref("distance", INTEGER), DSL.literal(1))));
+    assertThat(
+        execute(plan),
+        allOf(
+            iterableWithSize(1),
+            hasItems(ExprValueUtils.tupleValue(
+                ImmutableMap.of("distance", 201, "time", 10, "speed", 20)))));
+  }
+
   @Test
   public void do_nothing_with_none_tuple_value() {
     when(inputPlan.hasNext()).thenReturn(true, false);
@@ -141,4 +169,43 @@ class EvalOperatorTest extends PhysicalPlanTestBase {
 
     assertThat(result, allOf(iterableWithSize(1), hasItems(ExprValueUtils.integerValue(1))));
   }
+
+  @Test
+  public void create_new_field_from_reference_literal_and_missing_field() {
+    when(inputPlan.hasNext()).thenReturn(true, false);
+    when(inputPlan.next())
+        .thenReturn(ExprValueUtils.tupleValue(ImmutableMap.of("distance", 100, "time", 10)));
+    PhysicalPlan plan =
+        eval(
+            inputPlan,
+            ImmutablePair.of(DSL.ref("length", INTEGER), DSL.ref("distance", INTEGER)),
+            ImmutablePair.of(DSL.ref("unit", STRING), DSL.literal("km")),
+            ImmutablePair.of(DSL.ref("speed", INTEGER),
+                dsl.divide(DSL.ref("length", INTEGER), DSL.ref("duration", INTEGER))));
+    List<ExprValue> result = execute(plan);
+
+    assertThat(result, iterableWithSize(1));
+    Map<String, ExprValue> tuple = ExprValueUtils.getTupleValue(result.get(0));
+    assertEquals(ExprValueUtils.integerValue(100), tuple.get("length"));
+    assertEquals(ExprValueUtils.stringValue("km"), tuple.get("unit"));
+    assertEquals(ExprValueUtils.missingValue(), tuple.get("speed"));
+  }
+
+  @Test
+  public void create_new_field_in_batch() {
+    PhysicalPlan plan =
+        eval(
+            new TestScan(),
+            ImmutablePair.of(
+                DSL.ref("doubleResponse", INTEGER),
+                dsl.multiply(DSL.ref("response", INTEGER), DSL.literal(2))));
+    assertThat(
+        executeBatch(plan, 2),
+        allOf(
+            iterableWithSize(5),
+            hasItems(
+                ExprValueUtils.tupleValue(
+                    ImmutableMap.of("ip", "74.125.19.106", "action", "POST", "response", 500,
+                        "doubleResponse", 1000)))));
+  }
 }
@@ -40,4 +40,22 @@ class FilterOperatorTest extends PhysicalPlanTestBase {
             .of("ip", "209.160.24.63", "action", "GET", "response", 404, "referer",
                 "www.amazon.com"))));
   }
+
+  @Test
+  public void filterBatchTest() {
+    FilterOperator plan = new FilterOperator(new TestScan(),
+        dsl.equal(DSL.ref("response", INTEGER), DSL.literal(404)));
+    List<ExprValue> result = executeBatch(plan, 2);
+    assertEquals(1, result.size());
+    assertThat(result, containsInAnyOrder(ExprValueUtils
+        .tupleValue(ImmutableMap
+            .of("ip", "209.160.24.63", "action", "GET", "response", 404, "referer",
+                "www.amazon.com"))));
+  }
+
+  @Test
+  public void filterBatchWithConstantConditionTest() {
+    FilterOperator plan = new FilterOperator(new TestScan(), DSL.literal(true));
+    assertEquals(5, executeBatch(plan, 2).size());
+  }
 }
\ No newline at end of file
@@ -98,7 +98,8 @@ class PhysicalPlanNodeVisitorTest extends PhysicalPlanTestBase {
     assertNull(remove.accept(new PhysicalPlanNodeVisitor<Integer, Object>() {
     }, null));
 
-    PhysicalPlan eval = PhysicalPlanDSL.eval(plan, Pair.of(ref, ref));
+    PhysicalPlan eval = PhysicalPlanDSL.eval(plan,
+        Pair.of(DSL.ref("response", INTEGER), DSL.ref("response", INTEGER)));
     assertNull(eval.accept(new PhysicalPlanNodeVisitor<Integer, Object>() {
     }, null));
 
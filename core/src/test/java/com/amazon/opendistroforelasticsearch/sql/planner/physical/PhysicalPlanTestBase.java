@@ -15,6 +15,7 @@
 
 package com.amazon.opendistroforelasticsearch.sql.planner.physical;
 
+import com.amazon.opendistroforelasticsearch.sql.data.batch.RowBatch;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
@@ -24,6 +25,7 @@ import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
 import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
 import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
+import com.amazon.opendistroforelasticsearch.sql.monitor.ResourceMonitor;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import java.util.Iterator;
@@ -91,10 +93,57 @@ public class PhysicalPlanTestBase {
     return builder.build();
   }
 
+  protected List<ExprValue> executeBatch(PhysicalPlan plan, int batchSize) {
+    ImmutableList.Builder<ExprValue> builder = new ImmutableList.Builder<>();
+    plan.open();
+    for (RowBatch batch = plan.nextBatch(batchSize); !batch.isEmpty();
+         batch = plan.nextBatch(batchSize)) {
+      batch.forEach(builder::add);
+    }
+    plan.close();
+    return builder.build();
+  }
+
+  /**
+   * Monitor which tracks the bytes in use and the peak, and rejects the reservation beyond limit.
+   */
+  protected static class TestMemoryMonitor extends ResourceMonitor {
+    private final long limit;
+    protected long used = 0;
+    protected long peak = 0;
+
+    public TestMemoryMonitor(long limit) {
+      this.limit = limit;
+    }
+
+    @Override
+    public boolean isHealthy() {
+      return true;
+    }
+
+    @Override
+    public synchronized void reserveMemory(long bytes, String label) {
+      if (used + bytes > limit) {
+        throw new IllegalStateException("Not enough memory for " + label);
+      }
+      used += bytes;
+      peak = Math.max(peak, used);
+    }
+
+    @Override
+    public synchronized void releaseMemory(long bytes) {
+      used -= bytes;
+    }
+  }
+
   protected static class TestScan extends PhysicalPlan {
     private final Iterator<ExprValue> iterator;
 
     public TestScan() {
+      this(inputs);
+    }
+
+    public TestScan(List<ExprValue> inputs) {
       iterator = inputs.iterator();
     }
 
@@ -15,6 +15,9 @@
 
 package com.amazon.opendistroforelasticsearch.sql.planner.physical;
 
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.missingValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
 import static com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlanDSL.project;
@@ -22,8 +25,11 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.iterableWithSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.when;
 
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
@@ -88,4 +94,82 @@ class ProjectOperatorTest extends PhysicalPlanTestBase {
                 ExprValueUtils.tupleValue(ImmutableMap.of("response", 200, "action", "GET")),
                 ExprValueUtils.tupleValue(ImmutableMap.of("action", "POST")))));
   }
+
+  @Test
+  public void project_batch_ignore_missing_value() {
+    PhysicalPlan plan = project(new TestScan(), DSL.ref("action", STRING),
+        DSL.ref("referer", STRING));
+    List<ExprValue> result = executeBatch(plan, 3);
+
+    assertThat(
+        result,
+        allOf(
+            iterableWithSize(5),
+            hasItems(
+                ExprValueUtils.tupleValue(
+                    ImmutableMap.of("action", "GET", "referer", "www.amazon.com")),
+                ExprValueUtils.tupleValue(ImmutableMap.of("action", "POST")))));
+  }
+
+  @Test
+  public void project_fields_share_value_array_of_input() {
+    ExprTupleValue first = ExprTupleValue.fromExprValueMap(
+        ImmutableMap.of("action", stringValue("GET"), "response", integerValue(200)));
+    ExprTupleValue second = ExprTupleValue.fromExprValueMap(
+        ImmutableMap.of("action", stringValue("POST"), "response", integerValue(500)),
+        first.getSchema());
+    when(inputPlan.hasNext()).thenReturn(true, true, false);
+    when(inputPlan.next()).thenReturn(first, second);
+    PhysicalPlan plan = project(inputPlan, DSL.ref("response", INTEGER));
+    List<ExprValue> result = execute(plan);
+
+    assertEquals(ExprValueUtils.tupleValue(ImmutableMap.of("response", 200)), result.get(0));
+    assertEquals(ExprValueUtils.tupleValue(ImmutableMap.of("response", 500)), result.get(1));
+    assertSame(((ExprTupleValue) result.get(0)).getSchema(),
+        ((ExprTupleValue) result.get(1)).getSchema());
+  }
+
+  @Test
+  public void project_field_with_missing_value_in_input() {
+    when(inputPlan.hasNext()).thenReturn(true, false);
+    when(inputPlan.next()).thenReturn(ExprTupleValue.fromExprValueMap(
+        ImmutableMap.of("action", missingValue(), "response", integerValue(200))));
+    PhysicalPlan plan = project(inputPlan, DSL.ref("response", INTEGER), DSL.ref("action", STRING));
+    List<ExprValue> result = execute(plan);
+
+    assertThat(
+        result,
+        allOf(
+            iterableWithSize(1),
+            hasItems(ExprValueUtils.tupleValue(ImmutableMap.of("response", 200)))));
+  }
+
+  @Test
+  public void project_literal() {
+    when(inputPlan.hasNext()).thenReturn(true, false);
+    when(inputPlan.next())
+        .thenReturn(ExprValueUtils.tupleValue(ImmutableMap.of("action", "GET", "response", 200)));
+    PhysicalPlan plan = project(inputPlan, DSL.literal(1), DSL.ref("action", STRING));
+    List<ExprValue> result = execute(plan);
+
+    assertThat(
+        result,
+        allOf(
+            iterableWithSize(1),
+            hasItems(ExprValueUtils.tupleValue(ImmutableMap.of("1", 1, "action", "GET")))));
+  }
+
+  @Test
+  public void project_int_value() {
+    when(inputPlan.hasNext()).thenReturn(true, false);
+    when(inputPlan.next()).thenReturn(integerValue(1));
+    PhysicalPlan plan = project(inputPlan, DSL.ref("action", STRING));
+    List<ExprValue> result = execute(plan);
+
+    assertThat(
+        result,
+        allOf(
+            iterableWithSize(1),
+            hasItems(ExprValueUtils.tupleValue(ImmutableMap.of()))));
+  }
 }
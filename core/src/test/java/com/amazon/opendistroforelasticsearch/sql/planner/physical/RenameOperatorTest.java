@@ -21,6 +21,7 @@ import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.S
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.when;
 
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
@@ -67,4 +68,32 @@ public class RenameOperatorTest extends PhysicalPlanTestBase {
     assertEquals(1, result.size());
     assertThat(result, containsInAnyOrder(ExprValueUtils.integerValue(1)));
   }
+
+  @Test
+  public void rename_shares_value_array_of_input() {
+    when(inputPlan.hasNext()).thenReturn(true, false);
+    when(inputPlan.next())
+        .thenReturn(ExprValueUtils.tupleValue(ImmutableMap.of("action", "GET", "response", 200)));
+    PhysicalPlan plan = new RenameOperator(
+        inputPlan,
+        ImmutableMap.of(DSL.ref("action", STRING), DSL.ref("method", STRING))
+    );
+    List<ExprValue> result = execute(plan);
+    assertThat(result, containsInAnyOrder(
+        ExprValueUtils.tupleValue(ImmutableMap.of("method", "GET", "response", 200))));
+  }
+
+  @Test
+  public void rename_to_existing_field_should_fail() {
+    when(inputPlan.hasNext()).thenReturn(true, false);
+    when(inputPlan.next())
+        .thenReturn(ExprValueUtils.tupleValue(ImmutableMap.of("action", "GET", "response", 200)));
+    PhysicalPlan plan = new RenameOperator(
+        inputPlan,
+        ImmutableMap.of(DSL.ref("action", STRING), DSL.ref("response", STRING))
+    );
+    IllegalArgumentException exception =
+        assertThrows(IllegalArgumentException.class, () -> execute(plan));
+    assertEquals("duplicate field name response after rename", exception.getMessage());
+  }
 }
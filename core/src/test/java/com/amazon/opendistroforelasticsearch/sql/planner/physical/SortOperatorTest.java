@@ -15,6 +15,8 @@
 
 package com.amazon.opendistroforelasticsearch.sql.planner.physical;
 
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.getIntegerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.getTupleValue;
 import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.tupleValue;
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
 import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
@@ -22,21 +24,37 @@ import static com.amazon.opendistroforelasticsearch.sql.planner.physical.Physica
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.SortOption;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
 class SortOperatorTest extends PhysicalPlanTestBase {
-  @Mock
+  @Mock(answer = Answers.CALLS_REAL_METHODS)
   private PhysicalPlan inputPlan;
 
   /**
@@ -292,4 +310,158 @@ class SortOperatorTest extends PhysicalPlanTestBase {
         0,
         execute(sort(inputPlan, 1, Pair.of(SortOption.PPL_ASC, ref("response", INTEGER)))).size());
   }
+
+  @Test
+  public void sort_with_duplicate_values_is_stable() {
+    List<ExprValue> inputs = inputs(100);
+    assertEquals(
+        stableSorted(inputs, 100),
+        execute(new SortOperator(new TestScan(inputs), 100, SORT_BY_KEY)));
+  }
+
+  @Test
+  public void sort_with_spilled_runs() {
+    List<ExprValue> inputs = inputs(100);
+    assertEquals(
+        stableSorted(inputs, 100),
+        execute(new SortOperator(new TestScan(inputs), 100, SORT_BY_KEY, 0)));
+    assertEquals(
+        stableSorted(inputs, 100),
+        execute(new SortOperator(new TestScan(inputs), 100, SORT_BY_KEY, 1024)));
+  }
+
+  @Test
+  public void sort_top_k_with_spilled_runs() {
+    List<ExprValue> inputs = inputs(100);
+    assertEquals(
+        stableSorted(inputs, 15),
+        execute(new SortOperator(new TestScan(inputs), 15, SORT_BY_KEY)));
+    assertEquals(
+        stableSorted(inputs, 15),
+        execute(new SortOperator(new TestScan(inputs), 15, SORT_BY_KEY, 2048)));
+  }
+
+  @Test
+  public void sort_without_count() {
+    List<ExprValue> inputs = inputs(100);
+    assertEquals(
+        stableSorted(inputs, 100),
+        execute(new SortOperator(new TestScan(inputs), null, SORT_BY_KEY, 1024)));
+  }
+
+  @Test
+  public void sort_with_zero_count() {
+    assertEquals(0,
+        execute(new SortOperator(new TestScan(inputs(10)), 0, SORT_BY_KEY)).size());
+  }
+
+  @Test
+  public void sort_key_is_evaluated_once_per_row() {
+    Expression key = spy(ref("key", INTEGER));
+    List<ExprValue> inputs = inputs(100);
+    assertEquals(
+        stableSorted(inputs, 100),
+        execute(new SortOperator(new TestScan(inputs), 100,
+            Collections.singletonList(Pair.of(SortOption.PPL_ASC, key)))));
+    verify(key, times(100)).valueOf(any());
+  }
+
+  @Test
+  public void close_before_spilled_runs_are_read() {
+    PhysicalPlan plan = new SortOperator(new TestScan(inputs(10)), 10, SORT_BY_KEY, 0);
+    plan.open();
+    assertTrue(plan.hasNext());
+    plan.next();
+    plan.close();
+  }
+
+  @Test
+  public void sort_runs_in_parallel() {
+    List<ExprValue> inputs = inputs(5000);
+    assertEquals(
+        stableSorted(inputs, 5000),
+        execute(new SortOperator(new TestScan(inputs), null, SORT_BY_KEY, Long.MAX_VALUE,
+            ForkJoinPool.commonPool(), 4)));
+    assertEquals(
+        stableSorted(inputs, 3000),
+        execute(new SortOperator(new TestScan(inputs), 3000, SORT_BY_KEY, Long.MAX_VALUE,
+            ForkJoinPool.commonPool(), 4)));
+  }
+
+  @Test
+  public void sort_spilled_runs_in_parallel() {
+    List<ExprValue> inputs = inputs(5000);
+    assertEquals(
+        stableSorted(inputs, 5000),
+        execute(new SortOperator(new TestScan(inputs), null, SORT_BY_KEY, 256 * 1024,
+            ForkJoinPool.commonPool(), 4)));
+  }
+
+  @Test
+  public void buffered_rows_memory_is_reserved_until_close() {
+    TestMemoryMonitor monitor = new TestMemoryMonitor(Long.MAX_VALUE);
+    List<ExprValue> inputs = inputs(5000);
+    PhysicalPlan plan = new SortOperator(new TestScan(inputs), null, SORT_BY_KEY, Long.MAX_VALUE,
+        null, 1, monitor);
+    plan.open();
+    assertTrue(monitor.used > 0);
+    List<ExprValue> result = new ArrayList<>();
+    plan.forEachRemaining(result::add);
+    plan.close();
+
+    assertEquals(stableSorted(inputs, 5000), result);
+    assertEquals(0, monitor.used);
+    assertEquals(monitor, ((SortOperator) plan).getMonitor());
+    assertTrue(((SortOperator) plan).getPeakMemory() > 0);
+  }
+
+  @Test
+  public void spilled_rows_memory_is_released() {
+    TestMemoryMonitor monitor = new TestMemoryMonitor(Long.MAX_VALUE);
+    List<ExprValue> inputs = inputs(5000);
+    assertEquals(
+        stableSorted(inputs, 5000),
+        execute(new SortOperator(new TestScan(inputs), null, SORT_BY_KEY, 256 * 1024,
+            null, 1, monitor)));
+    assertTrue(monitor.peak < 512 * 1024);
+    assertEquals(0, monitor.used);
+  }
+
+  @Test
+  public void top_rows_memory_is_bounded() {
+    TestMemoryMonitor monitor = new TestMemoryMonitor(Long.MAX_VALUE);
+    List<ExprValue> inputs = inputs(5000);
+    assertEquals(
+        stableSorted(inputs, 10),
+        execute(new SortOperator(new TestScan(inputs), 10, SORT_BY_KEY, Long.MAX_VALUE,
+            null, 1, monitor)));
+    assertTrue(monitor.peak <= 2 * 64 * 1024);
+    assertEquals(0, monitor.used);
+  }
+
+  @Test
+  public void sort_fails_once_memory_is_rejected() {
+    TestMemoryMonitor monitor = new TestMemoryMonitor(0);
+    PhysicalPlan plan = new SortOperator(new TestScan(inputs(10)), null, SORT_BY_KEY,
+        Long.MAX_VALUE, null, 1, monitor);
+    assertThrows(IllegalStateException.class, plan::open);
+  }
+
+  private static final List<Pair<SortOption, Expression>> SORT_BY_KEY =
+      Collections.singletonList(Pair.of(SortOption.PPL_ASC, ref("key", INTEGER)));
+
+  private List<ExprValue> inputs(int size) {
+    ImmutableList.Builder<ExprValue> inputs = new ImmutableList.Builder<>();
+    for (int i = 0; i < size; i++) {
+      inputs.add(tupleValue(ImmutableMap.of("key", (i * 7) % 10, "seq", i)));
+    }
+    return inputs.build();
+  }
+
+  private List<ExprValue> stableSorted(List<ExprValue> inputs, int count) {
+    return inputs.stream()
+        .sorted(Comparator.comparing(row -> getIntegerValue(getTupleValue(row).get("key"))))
+        .limit(count)
+        .collect(Collectors.toList());
+  }
 }
@@ -0,0 +1,64 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.planner.physical.spill;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+
+class MergeSortedIteratorTest {
+
+  @Test
+  public void merge_sorted_runs() {
+    List<Iterator<Integer>> runs = Arrays.asList(
+        Arrays.asList(1, 4, 7).iterator(),
+        Collections.<Integer>emptyList().iterator(),
+        Arrays.asList(2, 5, 8).iterator(),
+        Arrays.asList(3, 6, 9).iterator());
+    assertEquals(ImmutableList.of(1, 2, 3, 4, 5, 6, 7, 8, 9),
+        ImmutableList.copyOf(new MergeSortedIterator<>(runs, Comparator.naturalOrder())));
+  }
+
+  @Test
+  public void merge_is_stable() {
+    List<Iterator<Pair<Integer, String>>> runs = Arrays.asList(
+        Arrays.asList(Pair.of(1, "a"), Pair.of(2, "a")).iterator(),
+        Arrays.asList(Pair.of(1, "b"), Pair.of(2, "b")).iterator());
+    assertEquals(
+        ImmutableList.of(Pair.of(1, "a"), Pair.of(1, "b"), Pair.of(2, "a"), Pair.of(2, "b")),
+        ImmutableList.copyOf(
+            new MergeSortedIterator<>(runs, Comparator.comparing(Pair::getLeft))));
+  }
+
+  @Test
+  public void merge_without_runs() {
+    Iterator<Integer> iterator =
+        new MergeSortedIterator<>(Collections.emptyList(), Comparator.<Integer>naturalOrder());
+    assertFalse(iterator.hasNext());
+    assertThrows(NoSuchElementException.class, iterator::next);
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.planner.physical.spill;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.google.common.collect.ImmutableList;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SpillFileTest {
+
+  @Test
+  public void write_and_read(@TempDir Path directory) {
+    SpillFile spillFile = SpillFile.create(directory, "test");
+    spillFile.write(integerValue(1));
+    spillFile.write(stringValue("a"));
+    assertEquals(2, spillFile.getSize());
+    assertTrue(Files.exists(spillFile.getPath()));
+
+    Iterator<ExprValue> iterator = spillFile.read();
+    assertEquals(ImmutableList.of(integerValue(1), stringValue("a")),
+        ImmutableList.copyOf(iterator));
+    assertFalse(Files.exists(spillFile.getPath()));
+    assertThrows(NoSuchElementException.class, iterator::next);
+  }
+
+  @Test
+  public void close_deletes_file(@TempDir Path directory) {
+    SpillFile spillFile = SpillFile.create(directory, "test");
+    spillFile.write(integerValue(1));
+    spillFile.read();
+    spillFile.close();
+    assertFalse(Files.exists(spillFile.getPath()));
+    spillFile.close();
+  }
+
+  @Test
+  public void create_in_temporary_directory() {
+    SpillFile spillFile = SpillFile.create("test");
+    assertTrue(Files.exists(spillFile.getPath()));
+    spillFile.close();
+    assertFalse(Files.exists(spillFile.getPath()));
+  }
+
+  @Test
+  public void create_in_missing_directory(@TempDir Path directory) {
+    Path missing = directory.resolve("missing");
+    IllegalStateException exception =
+        assertThrows(IllegalStateException.class, () -> SpillFile.create(missing, "test"));
+    assertEquals(String.format("Failed to create spill file in [%s]", missing),
+        exception.getMessage());
+  }
+
+  @Test
+  public void read_deleted_file(@TempDir Path directory) throws Exception {
+    SpillFile spillFile = SpillFile.create(directory, "test");
+    spillFile.write(integerValue(1));
+    Files.delete(spillFile.getPath());
+    IllegalStateException exception =
+        assertThrows(IllegalStateException.class, spillFile::read);
+    assertEquals(String.format("Failed to access spill file [%s]", spillFile.getPath()),
+        exception.getMessage());
+  }
+}
@@ -13,22 +13,17 @@
  *   permissions and limitations under the License.
  */
 
-package com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple;
+package com.amazon.opendistroforelasticsearch.sql.storage;
 
-import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
-import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
-import java.util.function.Function;
-import lombok.RequiredArgsConstructor;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
-/**
- * Lazy Implementation of {@link BindingTuple}.
- */
-@RequiredArgsConstructor
-public class LazyBindingTuple extends BindingTuple {
-  private final Function<String, ExprValue> lazyBinding;
+import org.junit.jupiter.api.Test;
+
+class StorageEngineTest {
 
-  @Override
-  public ExprValue resolve(ReferenceExpression ref) {
-    return lazyBinding.apply(ref.getAttr());
+  @Test
+  public void metadata_version_is_unknown_by_default() {
+    StorageEngine storageEngine = name -> null;
+    assertFalse(storageEngine.getMetadataVersion().isPresent());
   }
 }
@@ -17,8 +17,10 @@ package com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple;
 
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.amazon.opendistroforelasticsearch.sql.exception.ExpressionEvaluationException;
 import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
@@ -42,6 +44,12 @@ class BindingTupleTest {
         bindingTuple.resolve(DSL.ref("ip_missing", STRING)));
   }
 
+  @Test
+  public void binding_tuple_is_shared_by_the_tuple_value() {
+    ExprValue tupleValue = ExprValueUtils.tupleValue(ImmutableMap.of("ip", "209.160.24.63"));
+    assertSame(tupleValue.bindingTuples(), tupleValue.bindingTuples());
+  }
+
   @Test
   public void resolve_from_empty_tuple() {
     assertEquals(ExprValueUtils.LITERAL_MISSING,
@@ -20,6 +20,7 @@ import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMapp
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.request.ElasticsearchRequest;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.response.ElasticsearchResponse;
 import java.util.Map;
+import java.util.OptionalLong;
 
 /**
  * Elasticsearch client abstraction to wrap different Elasticsearch client implementation. For
@@ -35,6 +36,14 @@ public interface ElasticsearchClient {
    */
   Map<String, IndexMapping> getIndexMappings(String indexExpression);
 
+  /**
+   * Get the version of cluster metadata, which changes whenever any index is created, deleted or
+   * has its mapping updated.
+   *
+   * @return metadata version, or empty if the version is not available
+   */
+  OptionalLong getMetadataVersion();
+
   /**
    * Perform search query in the search request.
    *
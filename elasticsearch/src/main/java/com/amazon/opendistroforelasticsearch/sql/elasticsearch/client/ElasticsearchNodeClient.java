@@ -17,13 +17,14 @@
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.client;
 
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMapping;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMappingCache;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.request.ElasticsearchRequest;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.response.ElasticsearchResponse;
-import com.carrotsearch.hppc.cursors.ObjectObjectCursor;
 import com.google.common.collect.ImmutableMap;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.Map;
+import java.util.OptionalLong;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import lombok.RequiredArgsConstructor;
@@ -32,6 +33,7 @@ import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.support.IndicesOptions;
 import org.elasticsearch.client.node.NodeClient;
 import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.metadata.IndexMetadata;
 import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
 import org.elasticsearch.cluster.metadata.MappingMetadata;
 import org.elasticsearch.cluster.service.ClusterService;
@@ -55,6 +57,9 @@ public class ElasticsearchNodeClient implements ElasticsearchClient {
   /** Node client provided by Elasticsearch container. */
   private final NodeClient client;
 
+  /** Node level index mapping cache shared by all node clients. */
+  private final IndexMappingCache mappingCache;
+
   /** Index name expression resolver to get concrete index name. */
   private final IndexNameExpressionResolver resolver = new IndexNameExpressionResolver();
 
@@ -64,8 +69,8 @@ public class ElasticsearchNodeClient implements ElasticsearchClient {
    * Get field mappings of index by an index expression. Majority is copied from legacy
    * LocalClusterState.
    *
-   * <p>For simplicity, removed type (deprecated) and field filter in argument list. Also removed
-   * mapping cache, cluster state listener (mainly for performance and debugging).
+   * <p>For simplicity, removed type (deprecated) and field filter in argument list. The mapping of
+   * each concrete index is cached in {@link IndexMappingCache} until its mapping version changes.
    *
    * @param indexExpression index name expression
    * @return index mapping(s) in our class to isolate Elasticsearch API. IndexNotFoundException is
@@ -73,19 +78,25 @@ public class ElasticsearchNodeClient implements ElasticsearchClient {
    */
   @Override
   public Map<String, IndexMapping> getIndexMappings(String indexExpression) {
-    try {
-      ClusterState state = clusterService.state();
-      String[] concreteIndices = resolveIndexExpression(state, new String[] {indexExpression});
+    ClusterState state = clusterService.state();
+    String[] concreteIndices = resolveIndexExpression(state, new String[] {indexExpression});
 
-      return populateIndexMappings(
-          state.metadata().findMappings(concreteIndices, ALL_TYPES, ALL_FIELDS));
-    } catch (IOException e) {
-      throw new IllegalStateException(
-          "Failed to read mapping in cluster state for index pattern [" + indexExpression + "]", e);
+    ImmutableMap.Builder<String, IndexMapping> result = ImmutableMap.builder();
+    for (String index : concreteIndices) {
+      IndexMetadata indexMetadata = state.metadata().index(index);
+      result.put(index, mappingCache.getIndexMapping(
+          indexMetadata.getIndexUUID(),
+          indexMetadata.getMappingVersion(),
+          () -> readIndexMapping(state, index, indexExpression)));
     }
+    return result.build();
+  }
+
+  @Override
+  public OptionalLong getMetadataVersion() {
+    return OptionalLong.of(clusterService.state().metadata().version());
   }
 
-  /** TODO: Scroll doesn't work for aggregation. Support aggregation later. */
   @Override
   public ElasticsearchResponse search(ElasticsearchRequest request) {
     SearchResponse esResponse;
@@ -121,15 +132,15 @@ public class ElasticsearchNodeClient implements ElasticsearchClient {
     return resolver.concreteIndexNames(state, IndicesOptions.strictExpandOpen(), indices);
   }
 
-  private Map<String, IndexMapping> populateIndexMappings(
-      ImmutableOpenMap<String, ImmutableOpenMap<String, MappingMetadata>> indexMappings) {
-
-    ImmutableMap.Builder<String, IndexMapping> result = ImmutableMap.builder();
-    for (ObjectObjectCursor<String, ImmutableOpenMap<String, MappingMetadata>> cursor :
-        indexMappings) {
-      result.put(cursor.key, populateIndexMapping(cursor.value));
+  private IndexMapping readIndexMapping(ClusterState state, String index,
+                                        String indexExpression) {
+    try {
+      return populateIndexMapping(
+          state.metadata().findMappings(new String[] {index}, ALL_TYPES, ALL_FIELDS).get(index));
+    } catch (IOException e) {
+      throw new IllegalStateException(
+          "Failed to read mapping in cluster state for index pattern [" + indexExpression + "]", e);
     }
-    return result.build();
   }
 
   private IndexMapping populateIndexMapping(
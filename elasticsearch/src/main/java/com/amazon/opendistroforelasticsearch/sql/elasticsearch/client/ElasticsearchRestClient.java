@@ -21,6 +21,7 @@ import com.amazon.opendistroforelasticsearch.sql.elasticsearch.request.Elasticse
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.response.ElasticsearchResponse;
 import java.io.IOException;
 import java.util.Map;
+import java.util.OptionalLong;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.elasticsearch.action.search.ClearScrollRequest;
@@ -53,6 +54,14 @@ public class ElasticsearchRestClient implements ElasticsearchClient {
     }
   }
 
+  /**
+   * The cluster state is not fetched from remote for each query, so the version is unknown.
+   */
+  @Override
+  public OptionalLong getMetadataVersion() {
+    return OptionalLong.empty();
+  }
+
   @Override
   public ElasticsearchResponse search(ElasticsearchRequest request) {
     try {
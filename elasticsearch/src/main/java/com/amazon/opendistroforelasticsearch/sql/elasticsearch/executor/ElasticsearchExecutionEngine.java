@@ -17,10 +17,14 @@
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor;
 
 import com.amazon.opendistroforelasticsearch.sql.common.response.ResponseListener;
+import com.amazon.opendistroforelasticsearch.sql.common.response.StreamingResponseListener;
+import com.amazon.opendistroforelasticsearch.sql.data.batch.RowBatch;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.client.ElasticsearchClient;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector.ExecutionProtector;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector.ProfilePlan;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
+import com.amazon.opendistroforelasticsearch.sql.executor.QueryContext;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
 import java.util.ArrayList;
 import java.util.List;
@@ -36,24 +40,74 @@ public class ElasticsearchExecutionEngine implements ExecutionEngine {
 
   @Override
   public void execute(PhysicalPlan physicalPlan, ResponseListener<QueryResponse> listener) {
-    PhysicalPlan plan = executionProtector.protect(physicalPlan);
+    stream(physicalPlan, new StreamingResponseListener<QueryResponse>() {
+      private final List<ExprValue> result = new ArrayList<>();
+
+      @Override
+      public void onChunk(QueryResponse chunk) {
+        result.addAll(chunk.getResults());
+      }
+
+      @Override
+      public void onComplete() {
+        listener.onResponse(new QueryResponse(result));
+      }
+
+      @Override
+      public void onFailure(Exception e) {
+        listener.onFailure(e);
+      }
+    });
+  }
+
+  /**
+   * Each batch of the plan output is passed to the listener as one chunk once it is produced.
+   */
+  @Override
+  public void stream(PhysicalPlan physicalPlan,
+                     StreamingResponseListener<QueryResponse> listener) {
+    run(executionProtector.protect(physicalPlan), null, listener);
+  }
+
+  /**
+   * The plan stops between the batches once the context is cancelled or timed out. If the context
+   * is profiling, the profile of the plan is set to the context before the listener completes.
+   */
+  @Override
+  public void stream(PhysicalPlan physicalPlan, QueryContext context,
+                     StreamingResponseListener<QueryResponse> listener) {
+    run(executionProtector.protect(physicalPlan, context), context, listener);
+  }
+
+  /**
+   * Run the plan and pass its output to the listener. Exactly one of onComplete and onFailure is
+   * called, after the plan is closed.
+   */
+  private void run(PhysicalPlan plan, QueryContext context,
+                   StreamingResponseListener<QueryResponse> listener) {
     client.schedule(
         () -> {
           try {
-            List<ExprValue> result = new ArrayList<>();
             plan.open();
 
-            while (plan.hasNext()) {
-              result.add(plan.next());
+            for (RowBatch batch = plan.nextBatch(RowBatch.DEFAULT_BATCH_SIZE); !batch.isEmpty();
+                 batch = plan.nextBatch(RowBatch.DEFAULT_BATCH_SIZE)) {
+              List<ExprValue> chunk = new ArrayList<>(batch.size());
+              batch.forEach(chunk::add);
+              listener.onChunk(new QueryResponse(chunk));
             }
 
-            QueryResponse response = new QueryResponse(result);
-            listener.onResponse(response);
+            if (plan instanceof ProfilePlan) {
+              context.setProfile(((ProfilePlan) plan).profile());
+            }
           } catch (Exception e) {
             listener.onFailure(e);
+            return;
           } finally {
             plan.close();
           }
+          // out of the try, so the listener failing to complete doesn't fail it again
+          listener.onComplete();
         });
   }
 }
@@ -0,0 +1,99 @@
+/*
+ *
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector;
+
+import com.amazon.opendistroforelasticsearch.sql.data.batch.RowBatch;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.executor.QueryContext;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlanNodeVisitor;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A PhysicalPlan which stops the delegate plan once the {@link QueryContext} is cancelled or
+ * timed out. The context is checked on open, on every batch and every {@link #CHECK_INTERVAL}
+ * rows, which bounds the overhead of the check in the row-at-a-time path.
+ */
+@ToString
+@RequiredArgsConstructor
+@EqualsAndHashCode
+public class CancellablePlan extends PhysicalPlan {
+  /**
+   * Number of rows between two checks in row-at-a-time path.
+   */
+  static final int CHECK_INTERVAL = 1024;
+
+  /**
+   * Delegated PhysicalPlan.
+   */
+  private final PhysicalPlan delegate;
+
+  /**
+   * QueryContext.
+   */
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final QueryContext context;
+
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private int rowCount = 0;
+
+  @Override
+  public <R, C> R accept(PhysicalPlanNodeVisitor<R, C> visitor, C context) {
+    return delegate.accept(visitor, context);
+  }
+
+  @Override
+  public void open() {
+    context.checkCancelled();
+    delegate.open();
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+
+  @Override
+  public List<PhysicalPlan> getChild() {
+    return delegate.getChild();
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (++rowCount % CHECK_INTERVAL == 0) {
+      context.checkCancelled();
+    }
+    return delegate.hasNext();
+  }
+
+  @Override
+  public ExprValue next() {
+    return delegate.next();
+  }
+
+  @Override
+  public RowBatch nextBatch(int batchSize) {
+    context.checkCancelled();
+    return delegate.nextBatch(batchSize);
+  }
+}
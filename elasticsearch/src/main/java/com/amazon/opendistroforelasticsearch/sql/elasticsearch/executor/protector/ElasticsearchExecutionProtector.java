@@ -17,6 +17,9 @@
 
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector;
 
+import com.amazon.opendistroforelasticsearch.sql.common.setting.Settings;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.ElasticsearchIndexScan;
+import com.amazon.opendistroforelasticsearch.sql.executor.QueryContext;
 import com.amazon.opendistroforelasticsearch.sql.monitor.ResourceMonitor;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.AggregationOperator;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.DedupeOperator;
@@ -29,7 +32,14 @@ import com.amazon.opendistroforelasticsearch.sql.planner.physical.RemoveOperator
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.RenameOperator;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.SortOperator;
 import com.amazon.opendistroforelasticsearch.sql.storage.TableScanOperator;
+import com.google.common.collect.ImmutableMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import lombok.RequiredArgsConstructor;
+import org.elasticsearch.common.unit.ByteSizeValue;
 
 /**
  * Elasticsearch Execution Protector.
@@ -42,59 +52,142 @@ public class ElasticsearchExecutionProtector extends ExecutionProtector {
    */
   private final ResourceMonitor resourceMonitor;
 
+  /**
+   * Settings which provide the memory limit of operators.
+   */
+  private final Settings settings;
+
+  /**
+   * Fork/join pool shared by the operators which run in parallel.
+   */
+  private final ForkJoinPool pool;
+
   public PhysicalPlan protect(PhysicalPlan physicalPlan) {
     return physicalPlan.accept(this, null);
   }
 
+  /**
+   * The table scan is decorated with {@link CancellablePlan} as well, because all the operators
+   * pull the rows from the scan, including the ones which consume the whole input in open. If the
+   * context is profiling, each operator is decorated with {@link ProfilePlan} in addition.
+   */
+  @Override
+  public PhysicalPlan protect(PhysicalPlan physicalPlan, QueryContext context) {
+    return physicalPlan.accept(this, context);
+  }
+
   @Override
   public PhysicalPlan visitFilter(FilterOperator node, Object context) {
-    return new FilterOperator(visitInput(node.getInput(), context), node.getConditions());
+    return profile(new FilterOperator(visitInput(node.getInput(), context),
+        node.getConditions()), context);
   }
 
   @Override
   public PhysicalPlan visitAggregation(AggregationOperator node, Object context) {
-    return new AggregationOperator(visitInput(node.getInput(), context), node.getAggregatorList(),
-        node.getGroupByExprList());
+    AggregationOperator operator = new AggregationOperator(visitInput(node.getInput(), context),
+        node.getAggregatorList(), node.getGroupByExprList(), operatorMemoryLimit(), pool,
+        operatorParallelism(), resourceMonitor);
+    return profile(operator, context, () -> peakMemory(operator.getPeakMemory()));
   }
 
   @Override
   public PhysicalPlan visitRename(RenameOperator node, Object context) {
-    return new RenameOperator(visitInput(node.getInput(), context), node.getMapping());
+    return profile(new RenameOperator(visitInput(node.getInput(), context), node.getMapping()),
+        context);
   }
 
   /**
-   * Decorate with {@link ResourceMonitorPlan}.
+   * Decorate with {@link ResourceMonitorPlan}, and {@link CancellablePlan} if the plan runs in
+   * {@link QueryContext}. The index scan reserves the memory of each page from the monitor.
    */
   @Override
   public PhysicalPlan visitTableScan(TableScanOperator node, Object context) {
-    return new ResourceMonitorPlan(node, resourceMonitor);
+    if (node instanceof ElasticsearchIndexScan) {
+      ((ElasticsearchIndexScan) node).setResourceMonitor(resourceMonitor);
+    }
+    if (context == null) {
+      return new ResourceMonitorPlan(node, resourceMonitor);
+    }
+    ResourceMonitorPlan plan = new ResourceMonitorPlan(
+        new CancellablePlan(node, (QueryContext) context), resourceMonitor);
+    if (node instanceof ElasticsearchIndexScan) {
+      ElasticsearchIndexScan scan = (ElasticsearchIndexScan) node;
+      return profile(plan, node, context, () -> ImmutableMap.of(
+          "es_wait_millis", TimeUnit.NANOSECONDS.toMillis(scan.getWaitNanos()),
+          "fetched_bytes", scan.getFetchedBytes()));
+    }
+    return profile(plan, node, context, Collections::emptyMap);
   }
 
   @Override
   public PhysicalPlan visitProject(ProjectOperator node, Object context) {
-    return new ProjectOperator(visitInput(node.getInput(), context), node.getProjectList());
+    return profile(new ProjectOperator(visitInput(node.getInput(), context),
+        node.getProjectList()), context);
   }
 
   @Override
   public PhysicalPlan visitRemove(RemoveOperator node, Object context) {
-    return new RemoveOperator(visitInput(node.getInput(), context), node.getRemoveList());
+    return profile(new RemoveOperator(visitInput(node.getInput(), context),
+        node.getRemoveList()), context);
   }
 
   @Override
   public PhysicalPlan visitEval(EvalOperator node, Object context) {
-    return new EvalOperator(visitInput(node.getInput(), context), node.getExpressionList());
+    return profile(new EvalOperator(visitInput(node.getInput(), context),
+        node.getExpressionList()), context);
   }
 
   @Override
   public PhysicalPlan visitDedupe(DedupeOperator node, Object context) {
-    return new DedupeOperator(visitInput(node.getInput(), context), node.getDedupeList(),
-        node.getAllowedDuplication(), node.getKeepEmpty(), node.getConsecutive());
+    DedupeOperator operator = new DedupeOperator(visitInput(node.getInput(), context),
+        node.getDedupeList(), node.getAllowedDuplication(), node.getKeepEmpty(),
+        node.getConsecutive(), resourceMonitor);
+    return profile(operator, context, () -> peakMemory(operator.getPeakMemory()));
   }
 
   @Override
   public PhysicalPlan visitSort(SortOperator node, Object context) {
-    return new SortOperator(visitInput(node.getInput(), context), node.getCount(),
-        node.getSortList());
+    SortOperator operator = new SortOperator(visitInput(node.getInput(), context),
+        node.getCount(), node.getSortList(), operatorMemoryLimit(), pool, operatorParallelism(),
+        resourceMonitor);
+    return profile(operator, context, () -> peakMemory(operator.getPeakMemory()));
+  }
+
+  private PhysicalPlan profile(PhysicalPlan operator, Object context) {
+    return profile(operator, context, Collections::emptyMap);
+  }
+
+  private PhysicalPlan profile(PhysicalPlan operator, Object context,
+                               Supplier<Map<String, Long>> metrics) {
+    return profile(operator, operator, context, metrics);
+  }
+
+  /**
+   * Decorate the plan of the operator with {@link ProfilePlan} if the context is profiling.
+   */
+  private PhysicalPlan profile(PhysicalPlan plan, PhysicalPlan operator, Object context,
+                               Supplier<Map<String, Long>> metrics) {
+    if (context instanceof QueryContext && ((QueryContext) context).isProfiling()) {
+      return new ProfilePlan(plan, operator.getClass().getSimpleName(), metrics);
+    }
+    return plan;
+  }
+
+  private Map<String, Long> peakMemory(long bytes) {
+    return ImmutableMap.of("peak_memory_bytes", bytes);
+  }
+
+  private long operatorMemoryLimit() {
+    ByteSizeValue limit = settings.getSettingValue(Settings.Key.PPL_QUERY_OPERATOR_MEMORY_LIMIT);
+    return limit.getBytes();
+  }
+
+  /**
+   * The parallelism of operator is bounded by the parallelism of the shared pool.
+   */
+  private int operatorParallelism() {
+    int parallelism = settings.getSettingValue(Settings.Key.PPL_QUERY_OPERATOR_PARALLELISM);
+    return Math.min(parallelism, pool.getParallelism());
   }
 
   PhysicalPlan visitInput(PhysicalPlan node, Object context) {
@@ -17,6 +17,7 @@
 
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector;
 
+import com.amazon.opendistroforelasticsearch.sql.executor.QueryContext;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlanNodeVisitor;
 
@@ -29,4 +30,10 @@ public abstract class ExecutionProtector extends PhysicalPlanNodeVisitor<Physica
    * Decorated the PhysicalPlan to run in resource sensitive mode.
    */
   public abstract PhysicalPlan protect(PhysicalPlan physicalPlan);
+
+  /**
+   * Decorated the PhysicalPlan to run in resource sensitive mode and stop once the
+   * {@link QueryContext} is cancelled or timed out.
+   */
+  public abstract PhysicalPlan protect(PhysicalPlan physicalPlan, QueryContext context);
 }
@@ -17,6 +17,7 @@
 
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector;
 
+import com.amazon.opendistroforelasticsearch.sql.executor.QueryContext;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
 
 /**
@@ -28,4 +29,9 @@ public class NoopExecutionProtector extends ExecutionProtector {
   public PhysicalPlan protect(PhysicalPlan physicalPlan) {
     return physicalPlan;
   }
+
+  @Override
+  public PhysicalPlan protect(PhysicalPlan physicalPlan, QueryContext context) {
+    return new CancellablePlan(physicalPlan, context);
+  }
 }
@@ -0,0 +1,137 @@
+/*
+ *
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector;
+
+import com.amazon.opendistroforelasticsearch.sql.data.batch.RowBatch;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.executor.QueryProfile;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlanNodeVisitor;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A PhysicalPlan which collects the runtime profile of the delegate plan, i.e. the rows returned
+ * and the wall time spent in open and in pulling the rows. Each operator is decorated in profiling
+ * mode, so the input of the delegate is a ProfilePlan as well, which builds the children of the
+ * profile.
+ */
+@ToString
+@RequiredArgsConstructor
+@EqualsAndHashCode
+public class ProfilePlan extends PhysicalPlan {
+  /**
+   * Delegated PhysicalPlan.
+   */
+  private final PhysicalPlan delegate;
+
+  /**
+   * Name of the delegated operator.
+   */
+  private final String name;
+
+  /**
+   * Metrics specific to the delegated operator, which are read once the profile is built.
+   */
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private final Supplier<Map<String, Long>> metrics;
+
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private long rows = 0;
+
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  private long timeNanos = 0;
+
+  @Override
+  public <R, C> R accept(PhysicalPlanNodeVisitor<R, C> visitor, C context) {
+    return delegate.accept(visitor, context);
+  }
+
+  @Override
+  public void open() {
+    long start = System.nanoTime();
+    try {
+      delegate.open();
+    } finally {
+      timeNanos += System.nanoTime() - start;
+    }
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+
+  @Override
+  public List<PhysicalPlan> getChild() {
+    return delegate.getChild();
+  }
+
+  @Override
+  public boolean hasNext() {
+    long start = System.nanoTime();
+    try {
+      return delegate.hasNext();
+    } finally {
+      timeNanos += System.nanoTime() - start;
+    }
+  }
+
+  @Override
+  public ExprValue next() {
+    long start = System.nanoTime();
+    try {
+      ExprValue row = delegate.next();
+      rows++;
+      return row;
+    } finally {
+      timeNanos += System.nanoTime() - start;
+    }
+  }
+
+  @Override
+  public RowBatch nextBatch(int batchSize) {
+    long start = System.nanoTime();
+    try {
+      RowBatch batch = delegate.nextBatch(batchSize);
+      rows += batch.size();
+      return batch;
+    } finally {
+      timeNanos += System.nanoTime() - start;
+    }
+  }
+
+  /**
+   * Build the profile of the delegate and its inputs collected so far.
+   */
+  public QueryProfile profile() {
+    List<QueryProfile> children = getChild().stream()
+        .filter(ProfilePlan.class::isInstance)
+        .map(child -> ((ProfilePlan) child).profile())
+        .collect(Collectors.toList());
+    return new QueryProfile(name, rows, timeNanos, metrics.get(), children);
+  }
+}
@@ -17,6 +17,7 @@
 
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector;
 
+import com.amazon.opendistroforelasticsearch.sql.data.batch.RowBatch;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.monitor.ResourceMonitor;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
@@ -27,7 +28,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 
 /**
- * A PhysicalPlan which will run the delegate plan in resource protection manner.
+ * A PhysicalPlan which will run the delegate plan in resource protection manner. The memory of the
+ * rows fetched is reserved by the table scan page by page, e.g. ElasticsearchIndexScan, so it is
+ * accounted whether the rows are consumed one by one or in batches.
  */
 @ToString
 @RequiredArgsConstructor
@@ -76,4 +79,9 @@ public class ResourceMonitorPlan extends PhysicalPlan {
   public ExprValue next() {
     return delegate.next();
   }
+
+  @Override
+  public RowBatch nextBatch(int batchSize) {
+    return delegate.nextBatch(batchSize);
+  }
 }
@@ -19,7 +19,9 @@ package com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping;
 import static java.util.Collections.emptyMap;
 
 import com.google.common.collect.ImmutableMap;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -36,6 +38,14 @@ public class IndexMapping {
   /** Field mappings from field name to field type in Elasticsearch date type system. */
   private final Map<String, String> fieldMappings;
 
+  /**
+   * Field types transformed by each transform function. Index mapping is cached per index by
+   * {@link IndexMappingCache} so the transformed types are computed once per mapping version.
+   */
+  @ToString.Exclude
+  private final Map<Function<String, ?>, Map<String, ?>> transformedFieldTypes =
+      new ConcurrentHashMap<>();
+
   public IndexMapping(Map<String, String> fieldMappings) {
     this.fieldMappings = fieldMappings;
   }
@@ -64,15 +74,18 @@ public class IndexMapping {
   }
 
   /**
-   * Get all field types and transform raw string type to expected type.
+   * Get all field types and transform raw string type to expected type. The result is cached per
+   * transform function, so the function should be a constant instead of a capturing lambda.
    *
    * @param transform transform function to transform field type in string to another type
    * @param <T> expected field type class
-   * @return mapping from field name to field type
+   * @return read-only mapping from field name to field type
    */
+  @SuppressWarnings("unchecked")
   public <T> Map<String, T> getAllFieldTypes(Function<String, T> transform) {
-    return fieldMappings.entrySet().stream()
-        .collect(Collectors.toMap(Map.Entry::getKey, e -> transform.apply(e.getValue())));
+    return (Map<String, T>) transformedFieldTypes.computeIfAbsent(transform,
+        key -> Collections.unmodifiableMap(fieldMappings.entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, e -> transform.apply(e.getValue())))));
   }
 
   @SuppressWarnings("unchecked")
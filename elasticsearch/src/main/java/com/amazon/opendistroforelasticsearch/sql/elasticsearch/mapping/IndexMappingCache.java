@@ -0,0 +1,106 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping;
+
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.elasticsearch.cluster.ClusterChangedEvent;
+import org.elasticsearch.cluster.ClusterStateListener;
+import org.elasticsearch.index.Index;
+
+/**
+ * Node level cache of index mappings which saves re-reading and flattening the mapping source in
+ * cluster state for every query.
+ * <ol>
+ *   <li>{@link IndexMapping} of each concrete index, keyed by index UUID and valid as long as the
+ *   mapping version of the index is the same.</li>
+ *   <li>Field types merged from all the indices an index expression is resolved to, valid as long
+ *   as the cluster metadata version is the same. This also saves resolving the index expression
+ *   which is expensive for pattern matching hundreds of indices.</li>
+ * </ol>
+ * The versions guarantee the cached value is never stale. The cluster state listener only evicts
+ * the entries which can never be hit again, ex. mapping of deleted index.
+ */
+public class IndexMappingCache implements ClusterStateListener {
+
+  /** Index mappings by index UUID. */
+  private final Map<String, Versioned<IndexMapping>> indexMappings = new ConcurrentHashMap<>();
+
+  /** Merged field types by index expression. */
+  private final Map<String, Versioned<Map<String, ExprType>>> fieldTypes =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Get index mapping of a concrete index.
+   *
+   * @param indexUuid       index UUID
+   * @param mappingVersion  current mapping version of the index
+   * @param loader          loader to read index mapping on cache miss
+   * @return index mapping
+   */
+  public IndexMapping getIndexMapping(String indexUuid, long mappingVersion,
+                                      Supplier<IndexMapping> loader) {
+    return get(indexMappings, indexUuid, mappingVersion, loader);
+  }
+
+  /**
+   * Get merged field types of all the indices which an index expression is resolved to.
+   *
+   * @param indexExpression index name expression
+   * @param metadataVersion current cluster metadata version
+   * @param loader          loader to resolve index and merge field types on cache miss
+   * @return field types
+   */
+  public Map<String, ExprType> getFieldTypes(String indexExpression, long metadataVersion,
+                                             Supplier<Map<String, ExprType>> loader) {
+    return get(fieldTypes, indexExpression, metadataVersion, loader);
+  }
+
+  public int size() {
+    return indexMappings.size() + fieldTypes.size();
+  }
+
+  @Override
+  public void clusterChanged(ClusterChangedEvent event) {
+    if (event.metadataChanged()) {
+      fieldTypes.clear();
+    }
+    for (Index index : event.indicesDeleted()) {
+      indexMappings.remove(index.getUUID());
+    }
+  }
+
+  private <T> T get(Map<String, Versioned<T>> cache, String key, long version,
+                    Supplier<T> loader) {
+    Versioned<T> cached = cache.get(key);
+    if (cached != null && cached.version == version) {
+      return cached.value;
+    }
+    T value = loader.get();
+    cache.put(key, new Versioned<>(version, value));
+    return value;
+  }
+
+  @RequiredArgsConstructor
+  private static class Versioned<T> {
+    private final long version;
+    private final T value;
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.monitor;
+
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
+
+/**
+ * Accounts the memory reserved by the query operators against the request circuit breaker of the
+ * node. The breaker trips the query with {@link CircuitBreakingException} once the total estimated
+ * bytes of all the requests on the node exceed its limit, and the bytes in use are reported in
+ * the breaker section of node stats. The breaker of the node is only available once the node is
+ * started, so the memory is not accounted until the breaker is set.
+ */
+public class ElasticsearchMemoryBreaker {
+
+  private volatile CircuitBreaker breaker = new NoopCircuitBreaker(CircuitBreaker.REQUEST);
+
+  public void setCircuitBreaker(CircuitBreaker breaker) {
+    this.breaker = breaker;
+  }
+
+  /**
+   * Add the bytes to the breaker.
+   * @param bytes estimated bytes to reserve
+   * @param label label of the operator which is reported once the breaker trips
+   * @throws CircuitBreakingException if the breaker trips
+   */
+  public void reserve(long bytes, String label) {
+    breaker.addEstimateBytesAndMaybeBreak(bytes, label);
+  }
+
+  /**
+   * Remove the bytes reserved before from the breaker.
+   */
+  public void release(long bytes) {
+    breaker.addWithoutBreaking(-bytes);
+  }
+
+  /**
+   * Get the bytes in use of the breaker, which are reserved by all the requests on the node.
+   */
+  public long getUsed() {
+    return breaker.getUsed();
+  }
+}
@@ -17,42 +17,21 @@ package com.amazon.opendistroforelasticsearch.sql.elasticsearch.monitor;
 
 import com.amazon.opendistroforelasticsearch.sql.common.setting.Settings;
 import com.amazon.opendistroforelasticsearch.sql.monitor.ResourceMonitor;
-import io.github.resilience4j.core.IntervalFunction;
-import io.github.resilience4j.retry.Retry;
-import io.github.resilience4j.retry.RetryConfig;
-import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.elasticsearch.common.unit.ByteSizeValue;
 
 /**
- * {@link ResourceMonitor} implementation on Elasticsearch. When the heap memory usage exceeds
- * certain threshold, the monitor is not healthy.
+ * {@link ResourceMonitor} implementation on Elasticsearch. The memory reserved by the operators is
+ * accounted by {@link ElasticsearchMemoryBreaker}, and the monitor is not healthy once the bytes in
+ * use of the breaker reach the query memory limit.
  * Todo, add metrics.
  */
 @Log4j2
+@RequiredArgsConstructor
 public class ElasticsearchResourceMonitor extends ResourceMonitor {
   private final Settings settings;
-  private final Retry retry;
-  private final ElasticsearchMemoryHealthy memoryMonitor;
-
-  /**
-   * Constructor of ElasticsearchCircuitBreaker.
-   */
-  public ElasticsearchResourceMonitor(
-      Settings settings,
-      ElasticsearchMemoryHealthy memoryMonitor) {
-    this.settings = settings;
-    RetryConfig config =
-        RetryConfig.custom()
-            .maxAttempts(3)
-            .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(1000))
-            .retryExceptions(ElasticsearchMemoryHealthy.MemoryUsageExceedException.class)
-            .ignoreExceptions(
-                ElasticsearchMemoryHealthy.MemoryUsageExceedFastFailureException.class)
-            .build();
-    retry = Retry.of("mem", config);
-    this.memoryMonitor = memoryMonitor;
-  }
+  private final ElasticsearchMemoryBreaker memoryBreaker;
 
   /**
    * Is Healthy.
@@ -61,15 +40,22 @@ public class ElasticsearchResourceMonitor extends ResourceMonitor {
    */
   @Override
   public boolean isHealthy() {
-    try {
-      ByteSizeValue limit = settings.getSettingValue(Settings.Key.PPL_QUERY_MEMORY_LIMIT);
-      Supplier<Boolean> booleanSupplier =
-          Retry.decorateSupplier(retry,
-              () -> memoryMonitor
-                  .isMemoryHealthy(limit.getBytes()));
-      return booleanSupplier.get();
-    } catch (Exception e) {
-      return false;
+    ByteSizeValue limit = settings.getSettingValue(Settings.Key.PPL_QUERY_MEMORY_LIMIT);
+    long used = memoryBreaker.getUsed();
+    if (used < limit.getBytes()) {
+      return true;
     }
+    log.warn("Memory used:{} exceed limit:{}", used, limit.getBytes());
+    return false;
+  }
+
+  @Override
+  public void reserveMemory(long bytes, String label) {
+    memoryBreaker.reserve(bytes, label);
+  }
+
+  @Override
+  public void releaseMemory(long bytes) {
+    memoryBreaker.release(bytes);
   }
 }
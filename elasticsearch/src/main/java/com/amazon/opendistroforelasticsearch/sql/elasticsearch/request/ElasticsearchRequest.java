@@ -55,15 +55,19 @@ public class ElasticsearchRequest {
   private final SearchSourceBuilder sourceBuilder = new SearchSourceBuilder();
 
   /**
-   * Generate Elasticsearch search request.
+   * Generate Elasticsearch search request. Scroll doesn't work for aggregation, so the request with
+   * aggregation is not scrolled and the next page is requested by a new search instead.
    *
    * @return search request
    */
   public SearchRequest searchRequest() {
-    return new SearchRequest()
+    SearchRequest request = new SearchRequest()
         .indices(indexName)
-        .scroll(DEFAULT_SCROLL_TIMEOUT)
         .source(sourceBuilder);
+    if (sourceBuilder.aggregations() == null) {
+      request.scroll(DEFAULT_SCROLL_TIMEOUT);
+    }
+    return request;
   }
 
   /**
@@ -18,10 +18,12 @@ package com.amazon.opendistroforelasticsearch.sql.elasticsearch.response;
 
 import java.util.Iterator;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.ToString;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.aggregations.Aggregations;
 
 /** Elasticsearch search response. */
 @EqualsAndHashCode
@@ -31,8 +33,13 @@ public class ElasticsearchResponse implements Iterable<SearchHit> {
   /** Search query result (non-aggregation). */
   private final SearchHits hits;
 
+  /** Aggregation result, or null if no aggregation in the request. */
+  @Getter
+  private final Aggregations aggregations;
+
   public ElasticsearchResponse(SearchResponse esResponse) {
-    this.hits = esResponse.getHits(); // TODO: aggregation result is separate and not in SearchHit[]
+    this.hits = esResponse.getHits();
+    this.aggregations = esResponse.getAggregations();
   }
 
   /**
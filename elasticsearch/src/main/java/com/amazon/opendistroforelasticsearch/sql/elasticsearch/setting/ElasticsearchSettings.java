@@ -31,6 +31,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.unit.TimeValue;
 
 /**
  * Setting implementation on Elasticsearch.
@@ -53,6 +54,29 @@ public class ElasticsearchSettings extends Settings {
       Setting.Property.NodeScope,
       Setting.Property.Dynamic);
 
+  private static final Setting<?> PPL_QUERY_OPERATOR_MEMORY_LIMIT_SETTINGS =
+      Setting.memorySizeSetting(
+          Key.PPL_QUERY_OPERATOR_MEMORY_LIMIT.getKeyValue(),
+          "5%",
+          Setting.Property.NodeScope,
+          Setting.Property.Dynamic);
+
+  private static final Setting<?> PPL_QUERY_OPERATOR_PARALLELISM_SETTINGS = Setting.intSetting(
+      Key.PPL_QUERY_OPERATOR_PARALLELISM.getKeyValue(),
+      1,
+      1,
+      Setting.Property.NodeScope,
+      Setting.Property.Dynamic);
+
+  /**
+   * Default timeout of the query, which could be overridden per request. -1 means no timeout.
+   */
+  private static final Setting<?> PPL_QUERY_TIMEOUT_SETTINGS = Setting.timeSetting(
+      Key.PPL_QUERY_TIMEOUT.getKeyValue(),
+      TimeValue.MINUS_ONE,
+      Setting.Property.NodeScope,
+      Setting.Property.Dynamic);
+
   /**
    * Construct ElasticsearchSetting.
    * The ElasticsearchSetting must be singleton.
@@ -61,6 +85,14 @@ public class ElasticsearchSettings extends Settings {
     ImmutableMap.Builder<Key, Setting<?>> settingBuilder = new ImmutableMap.Builder<>();
     register(settingBuilder, clusterSettings, Key.PPL_QUERY_MEMORY_LIMIT,
         PPL_QUERY_MEMORY_LIMIT_SETTINGS, new Updater(Key.PPL_QUERY_MEMORY_LIMIT));
+    register(settingBuilder, clusterSettings, Key.PPL_QUERY_OPERATOR_MEMORY_LIMIT,
+        PPL_QUERY_OPERATOR_MEMORY_LIMIT_SETTINGS,
+        new Updater(Key.PPL_QUERY_OPERATOR_MEMORY_LIMIT));
+    register(settingBuilder, clusterSettings, Key.PPL_QUERY_OPERATOR_PARALLELISM,
+        PPL_QUERY_OPERATOR_PARALLELISM_SETTINGS,
+        new Updater(Key.PPL_QUERY_OPERATOR_PARALLELISM));
+    register(settingBuilder, clusterSettings, Key.PPL_QUERY_TIMEOUT,
+        PPL_QUERY_TIMEOUT_SETTINGS, new Updater(Key.PPL_QUERY_TIMEOUT));
     defaultSettings = settingBuilder.build();
   }
 
@@ -102,6 +134,11 @@ public class ElasticsearchSettings extends Settings {
    * Used by Plugin to init Setting.
    */
   public static List<Setting<?>> pluginSettings() {
-    return new ImmutableList.Builder<Setting<?>>().add(PPL_QUERY_MEMORY_LIMIT_SETTINGS).build();
+    return new ImmutableList.Builder<Setting<?>>()
+        .add(PPL_QUERY_MEMORY_LIMIT_SETTINGS)
+        .add(PPL_QUERY_OPERATOR_MEMORY_LIMIT_SETTINGS)
+        .add(PPL_QUERY_OPERATOR_PARALLELISM_SETTINGS)
+        .add(PPL_QUERY_TIMEOUT_SETTINGS)
+        .build();
   }
 }
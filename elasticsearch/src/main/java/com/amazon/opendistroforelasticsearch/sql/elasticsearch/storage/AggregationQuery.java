@@ -0,0 +1,83 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleSchema;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.tuple.Pair;
+import org.elasticsearch.search.aggregations.Aggregations;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregation;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+
+/**
+ * Composite aggregation pushed down to index scan. The buckets are fetched one page at a time
+ * and the after key of each page is set on the aggregation for the next one. Each bucket is
+ * converted to one row in the same format as aggregation operator. The rows of one page share
+ * the schema.
+ */
+@RequiredArgsConstructor
+public class AggregationQuery {
+
+  /** Composite aggregation. */
+  @Getter
+  private final CompositeAggregationBuilder builder;
+
+  /** Group by expression and its value in the bucket, in the order of output. */
+  private final List<Pair<Expression, Function<CompositeAggregation.Bucket, ExprValue>>> groupBys;
+
+  /** Aggregator and its value in the bucket, in the order of output. */
+  private final List<Pair<Expression, Function<CompositeAggregation.Bucket, ExprValue>>> metrics;
+
+  /**
+   * Convert the buckets of one page into rows, and move to the next page.
+   *
+   * @param aggregations aggregation results of the page
+   * @return rows, or empty if all the buckets have been returned
+   */
+  public List<ExprValue> parse(Aggregations aggregations) {
+    CompositeAggregation composite = aggregations.get(builder.getName());
+    List<ExprValue> rows = new ArrayList<>();
+    ExprTupleSchema schema = null;
+    for (CompositeAggregation.Bucket bucket : composite.getBuckets()) {
+      LinkedHashMap<String, ExprValue> row = new LinkedHashMap<>();
+      for (Pair<Expression, Function<CompositeAggregation.Bucket, ExprValue>> groupBy : groupBys) {
+        row.put(groupBy.getLeft().toString(), groupBy.getRight().apply(bucket));
+      }
+      for (Pair<Expression, Function<CompositeAggregation.Bucket, ExprValue>> metric : metrics) {
+        row.put(metric.getLeft().toString(), metric.getRight().apply(bucket));
+      }
+      ExprTupleValue tupleValue = ExprTupleValue.fromExprValueMap(row, schema);
+      schema = tupleValue.getSchema();
+      rows.add(tupleValue);
+    }
+
+    Map<String, Object> afterKey = composite.afterKey();
+    if (afterKey != null) {
+      builder.aggregateAfter(afterKey);
+    }
+    return rows;
+  }
+}
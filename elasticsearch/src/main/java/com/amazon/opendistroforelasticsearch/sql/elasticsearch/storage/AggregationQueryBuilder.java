@@ -0,0 +1,200 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_NULL;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.LiteralExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.Aggregator;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionName;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.tuple.Pair;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregation;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeValuesSourceBuilder;
+import org.elasticsearch.search.aggregations.bucket.composite.TermsValuesSourceBuilder;
+import org.elasticsearch.search.aggregations.metrics.Avg;
+import org.elasticsearch.search.aggregations.metrics.Sum;
+import org.elasticsearch.search.aggregations.metrics.ValueCount;
+
+/**
+ * Translate aggregation with group by into Elasticsearch composite aggregation. Each group by
+ * field becomes a terms source with missing bucket, so the documents without the field are in
+ * the group of NULL as well. Count, sum and avg become metric sub-aggregations.
+ *
+ * <p>Sum and avg is NULL if any document in the group has NULL or MISSING value, which is told by
+ * comparing the value count of the field with the document count of the bucket.
+ */
+@RequiredArgsConstructor
+public class AggregationQueryBuilder {
+
+  /** Name of composite aggregation. */
+  public static final String COMPOSITE_NAME = "composite_buckets";
+
+  /** Number of buckets in one page. */
+  public static final int PAGE_SIZE = 1000;
+
+  /** Elasticsearch types which could be grouped by terms source. */
+  private static final Set<String> GROUP_BY_TYPES =
+      ImmutableSet.of("keyword", "integer", "long", "double", "boolean");
+
+  /** Elasticsearch types whose values could be counted. */
+  private static final Set<String> COUNT_TYPES =
+      ImmutableSet.of("keyword", "integer", "long", "float", "double", "boolean");
+
+  /**
+   * Elasticsearch types which could be summed up. Long is not included, because the sum is
+   * calculated in double which loses precision for large long values.
+   */
+  private static final Set<String> SUM_TYPES = ImmutableSet.of("integer", "double");
+
+  /** Elasticsearch types which could be averaged. */
+  private static final Set<String> AVG_TYPES = ImmutableSet.of("integer", "long", "double");
+
+  /** Elasticsearch type of field by name, or null if unknown. */
+  private final Function<String, String> fieldTypes;
+
+  /**
+   * Build composite aggregation.
+   *
+   * @param aggregators aggregators
+   * @param groupByList group by expressions
+   * @return composite aggregation, or empty if any aggregator or group by cannot be translated
+   */
+  public Optional<AggregationQuery> build(List<Aggregator> aggregators,
+                                          List<Expression> groupByList) {
+    if (groupByList.isEmpty()) {
+      return Optional.empty();
+    }
+
+    List<CompositeValuesSourceBuilder<?>> sources = new ArrayList<>();
+    List<Pair<Expression, Function<CompositeAggregation.Bucket, ExprValue>>> groupBys =
+        new ArrayList<>();
+    for (Expression groupBy : groupByList) {
+      Optional<String> field = field(groupBy, GROUP_BY_TYPES);
+      if (!field.isPresent()) {
+        return Optional.empty();
+      }
+      String name = "group_" + sources.size();
+      sources.add(new TermsValuesSourceBuilder(name).field(field.get()).missingBucket(true));
+      groupBys.add(Pair.of(groupBy,
+          bucket -> value(bucket.getKey().get(name), groupBy.type())));
+    }
+
+    CompositeAggregationBuilder builder =
+        new CompositeAggregationBuilder(COMPOSITE_NAME, sources).size(PAGE_SIZE);
+    List<Pair<Expression, Function<CompositeAggregation.Bucket, ExprValue>>> metrics =
+        new ArrayList<>();
+    for (Aggregator aggregator : aggregators) {
+      Optional<Function<CompositeAggregation.Bucket, ExprValue>> metric =
+          metric(aggregator, "metric_" + metrics.size(), builder);
+      if (!metric.isPresent()) {
+        return Optional.empty();
+      }
+      metrics.add(Pair.of(aggregator, metric.get()));
+    }
+    return Optional.of(new AggregationQuery(builder, groupBys, metrics));
+  }
+
+  /**
+   * Add the sub-aggregations of the aggregator and return how its value is read from bucket.
+   */
+  private Optional<Function<CompositeAggregation.Bucket, ExprValue>> metric(
+      Aggregator aggregator, String name, CompositeAggregationBuilder builder) {
+    FunctionName function = aggregator.getFunctionName();
+    Expression arg = (Expression) aggregator.getArguments().get(0);
+    ExprType type = aggregator.type();
+    String countName = name + "_count";
+
+    if (BuiltinFunctionName.COUNT.getName().equals(function)) {
+      if (arg instanceof LiteralExpression && !arg.valueOf(null).isNull()) {
+        return Optional.of(bucket -> value(bucket.getDocCount(), type));
+      }
+      return field(arg, COUNT_TYPES).map(field -> {
+        builder.subAggregation(AggregationBuilders.count(name).field(field));
+        return bucket -> value(valueCount(bucket, name), type);
+      });
+    } else if (BuiltinFunctionName.SUM.getName().equals(function)) {
+      return field(arg, SUM_TYPES).map(field -> {
+        builder.subAggregation(AggregationBuilders.sum(name).field(field));
+        builder.subAggregation(AggregationBuilders.count(countName).field(field));
+        return bucket -> hasNull(bucket, countName) ? LITERAL_NULL
+            : value(((Sum) bucket.getAggregations().get(name)).getValue(), type);
+      });
+    } else if (BuiltinFunctionName.AVG.getName().equals(function)) {
+      return field(arg, AVG_TYPES).map(field -> {
+        builder.subAggregation(AggregationBuilders.avg(name).field(field));
+        builder.subAggregation(AggregationBuilders.count(countName).field(field));
+        return bucket -> hasNull(bucket, countName) ? LITERAL_NULL
+            : value(((Avg) bucket.getAggregations().get(name)).getValue(), type);
+      });
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Field name of the expression if it is a reference to field of the Elasticsearch types.
+   */
+  private Optional<String> field(Expression expr, Set<String> types) {
+    if (expr instanceof ReferenceExpression) {
+      String field = ((ReferenceExpression) expr).getAttr();
+      if (types.contains(fieldTypes.apply(field))) {
+        return Optional.of(field);
+      }
+    }
+    return Optional.empty();
+  }
+
+  private static long valueCount(CompositeAggregation.Bucket bucket, String name) {
+    return ((ValueCount) bucket.getAggregations().get(name)).getValue();
+  }
+
+  private static boolean hasNull(CompositeAggregation.Bucket bucket, String countName) {
+    return valueCount(bucket, countName) != bucket.getDocCount();
+  }
+
+  /**
+   * Convert value in aggregation result to the expression type.
+   */
+  private static ExprValue value(Object value, ExprType type) {
+    if (value == null) {
+      return LITERAL_NULL;
+    }
+    if (type == ExprCoreType.INTEGER) {
+      return ExprValueUtils.integerValue(((Number) value).intValue());
+    } else if (type == ExprCoreType.LONG) {
+      return ExprValueUtils.longValue(((Number) value).longValue());
+    } else if (type == ExprCoreType.DOUBLE) {
+      return ExprValueUtils.doubleValue(((Number) value).doubleValue());
+    }
+    return ExprValueUtils.fromObjectValue(value);
+  }
+}
@@ -20,15 +20,33 @@ import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.client.ElasticsearchClient;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMapping;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMappingCache;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
 import com.amazon.opendistroforelasticsearch.sql.planner.DefaultImplementor;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalAggregation;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalFilter;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalRelation;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalSort;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.AggregationOperator;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.FilterOperator;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.SortOperator;
 import com.amazon.opendistroforelasticsearch.sql.storage.Table;
 import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.search.sort.SortBuilder;
 
 /** Elasticsearch table (index) implementation. */
 @RequiredArgsConstructor
@@ -51,9 +69,19 @@ public class ElasticsearchIndex implements Table {
           .put("object", ExprCoreType.STRUCT)
           .build();
 
+  /** Transform function from Elasticsearch data type to expression type. */
+  private static final Function<String, ExprType> ES_TYPE_TO_EXPR_TYPE =
+      esType -> ES_TYPE_TO_EXPR_TYPE_MAPPING.getOrDefault(esType, ExprCoreType.UNKNOWN);
+
+  /** Placeholder of the type of field which is mapped differently across the indices. */
+  private static final String UNKNOWN_ES_TYPE = "unknown";
+
   /** Elasticsearch client connection. */
   private final ElasticsearchClient client;
 
+  /** Node level index mapping cache. */
+  private final IndexMappingCache mappingCache;
+
   /** Current Elasticsearch index name. */
   private final String indexName;
 
@@ -64,18 +92,28 @@ public class ElasticsearchIndex implements Table {
    */
   @Override
   public Map<String, ExprType> getFieldTypes() {
+    OptionalLong metadataVersion = client.getMetadataVersion();
+    if (metadataVersion.isPresent()) {
+      return mappingCache.getFieldTypes(
+          indexName, metadataVersion.getAsLong(), this::mergeFieldTypes);
+    }
+    return mergeFieldTypes();
+  }
+
+  private Map<String, ExprType> mergeFieldTypes() {
     Map<String, ExprType> fieldTypes = new HashMap<>();
     Map<String, IndexMapping> indexMappings = client.getIndexMappings(indexName);
     for (IndexMapping indexMapping : indexMappings.values()) {
-      fieldTypes.putAll(indexMapping.getAllFieldTypes(this::transformESTypeToExprType));
+      fieldTypes.putAll(indexMapping.getAllFieldTypes(ES_TYPE_TO_EXPR_TYPE));
     }
-    return fieldTypes;
+    return Collections.unmodifiableMap(fieldTypes);
   }
 
-  /** TODO: Push down operations to index scan operator as much as possible in future. */
+  /** TODO: Push down more operations to index scan operator as much as possible in future. */
   @Override
   public PhysicalPlan implement(LogicalPlan plan) {
     ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, indexName);
+    SourceFieldsCollector.collect(plan).ifPresent(indexScan::pushDownProjects);
 
     /*
      * Visit logical plan with index scan as context so logical operators visited, such as
@@ -87,11 +125,109 @@ public class ElasticsearchIndex implements Table {
           public PhysicalPlan visitRelation(LogicalRelation node, ElasticsearchIndexScan context) {
             return indexScan;
           }
+
+          /*
+           * The conjuncts of the filter condition which could be translated to query DSL are
+           * pushed down to index scan, and only the rest is evaluated by filter operator.
+           */
+          @Override
+          public PhysicalPlan visitFilter(LogicalFilter node, ElasticsearchIndexScan context) {
+            PhysicalPlan child = visitChild(node, context);
+            if (child != context || context.isLimited() || context.isAggregated()) {
+              return new FilterOperator(child, node.getCondition());
+            }
+
+            FilterQueryBuilder queryBuilder = new FilterQueryBuilder(getFieldEsTypes()::get);
+            List<Expression> conjuncts = new ArrayList<>();
+            splitConjuncts(node.getCondition(), conjuncts);
+            List<Expression> residue = new ArrayList<>();
+            for (Expression conjunct : conjuncts) {
+              Optional<QueryBuilder> query = queryBuilder.build(conjunct);
+              if (query.isPresent()) {
+                context.pushDownFilter(query.get());
+              } else {
+                residue.add(conjunct);
+              }
+            }
+
+            if (residue.size() == conjuncts.size()) {
+              return new FilterOperator(context, node.getCondition());
+            }
+            PhysicalPlan plan = context;
+            for (Expression condition : residue) {
+              plan = new FilterOperator(plan, condition);
+            }
+            return plan;
+          }
+
+          /*
+           * Sort on plain fields is pushed down to index scan along with its count, so that the
+           * top documents are selected by the shards.
+           */
+          @Override
+          public PhysicalPlan visitSort(LogicalSort node, ElasticsearchIndexScan context) {
+            PhysicalPlan child = visitChild(node, context);
+            if (child == context && !context.isSorted() && !context.isAggregated()) {
+              Optional<List<SortBuilder<?>>> sorts =
+                  new SortQueryBuilder(getFieldEsTypes()::get).build(node.getSortList());
+              if (sorts.isPresent()) {
+                context.pushDownSort(sorts.get());
+                if (node.getCount() != null) {
+                  context.pushDownLimit(node.getCount());
+                }
+                return context;
+              }
+            }
+            return new SortOperator(child, node.getCount(), node.getSortList());
+          }
+
+          /*
+           * Aggregation with group by is pushed down to index scan as composite aggregation, so
+           * the documents are aggregated by the shards instead of scrolled.
+           */
+          @Override
+          public PhysicalPlan visitAggregation(LogicalAggregation node,
+                                               ElasticsearchIndexScan context) {
+            PhysicalPlan child = visitChild(node, context);
+            if (child == context && !context.isLimited() && !context.isAggregated()) {
+              Optional<AggregationQuery> aggregation =
+                  new AggregationQueryBuilder(getFieldEsTypes()::get)
+                      .build(node.getAggregatorList(), node.getGroupByList());
+              if (aggregation.isPresent()) {
+                context.pushDownAggregation(aggregation.get());
+                return context;
+              }
+            }
+            return new AggregationOperator(
+                child, node.getAggregatorList(), node.getGroupByList());
+          }
         },
         indexScan);
   }
 
-  private ExprCoreType transformESTypeToExprType(String esType) {
-    return ES_TYPE_TO_EXPR_TYPE_MAPPING.getOrDefault(esType, ExprCoreType.UNKNOWN);
+  /**
+   * Elasticsearch types of all fields. If a field has different types across the indices, its type
+   * is unknown.
+   */
+  private Map<String, String> getFieldEsTypes() {
+    Map<String, String> fieldTypes = new HashMap<>();
+    for (IndexMapping indexMapping : client.getIndexMappings(indexName).values()) {
+      indexMapping.getAllFieldTypes(Function.identity()).forEach(
+          (field, type) -> fieldTypes.merge(field, type,
+              (oldType, newType) -> oldType.equals(newType) ? oldType : UNKNOWN_ES_TYPE));
+    }
+    return fieldTypes;
+  }
+
+  private static void splitConjuncts(Expression condition, List<Expression> conjuncts) {
+    if (condition instanceof FunctionExpression
+        && ((FunctionExpression) condition).getFunctionName().equals(
+            BuiltinFunctionName.AND.getName())) {
+      for (Expression arg : ((FunctionExpression) condition).getArguments()) {
+        splitConjuncts(arg, conjuncts);
+      }
+    } else {
+      conjuncts.add(condition);
+    }
   }
 }
@@ -16,67 +16,381 @@
 
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage;
 
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleSchema;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.client.ElasticsearchClient;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.request.ElasticsearchRequest;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.response.ElasticsearchResponse;
+import com.amazon.opendistroforelasticsearch.sql.monitor.AlwaysHealthyMonitor;
+import com.amazon.opendistroforelasticsearch.sql.monitor.ResourceMonitor;
 import com.amazon.opendistroforelasticsearch.sql.storage.TableScanOperator;
-import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.ToString;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.SortBuilder;
 
-/** Elasticsearch index scan operator. */
+/**
+ * Elasticsearch index scan operator. The search hits are fetched lazily one page at a time. While
+ * the current page is consumed, the next page is prefetched asynchronously, so at most one page
+ * is in flight ahead of the consumer. The memory of the current page is reserved from the resource
+ * monitor until the next page is consumed or the scan is closed.
+ */
 @EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
 @ToString(onlyExplicitlyIncluded = true)
 public class ElasticsearchIndexScan extends TableScanOperator {
 
+  /**
+   * Max number of documents in one page, which is the default of index.max_result_window. A
+   * limit up to this is returned in the first page without scrolling further.
+   */
+  public static final int MAX_PAGE_SIZE = 10000;
+
+  /**
+   * Estimated bytes of each row in the page besides its source, e.g. the search hit and the tuple
+   * value parsed from it.
+   */
+  static final long ROW_OVERHEAD = 256;
+
+  /** Max number of schemas interned by one scan, the schemas of other field lists are not kept. */
+  static final int MAX_INTERNED_SCHEMAS = 64;
+
   /** Elasticsearch client. */
   private final ElasticsearchClient client;
 
   /** Search request. */
   @EqualsAndHashCode.Include @ToString.Include private final ElasticsearchRequest request;
 
-  /** Search response for current batch. */
-  private Iterator<SearchHit> hits;
+  /** Max number of documents to return, or null if unlimited. */
+  @EqualsAndHashCode.Include @ToString.Include private Integer limit;
+
+  /** Number of documents returned so far. */
+  private int returned = 0;
+
+  /** Composite aggregation pushed down, or null if the documents are scanned. */
+  private AggregationQuery aggregation;
+
+  /** Rows of current page. */
+  private Iterator<ExprValue> rows;
+
+  /** Prefetch of next page, or null if all the pages have been fetched. */
+  private Prefetch nextPage;
+
+  /** Schemas interned by the field names, so the hits with the same fields share one schema. */
+  private final Map<List<String>, ExprTupleSchema> schemas = new HashMap<>();
+
+  /** Schema of the last hit, which is checked before the interned schemas. */
+  private ExprTupleSchema lastSchema;
+
+  /** Wall time in nanoseconds the consumer waited for the search responses. */
+  @Getter private long waitNanos = 0;
+
+  /** Bytes of document source fetched. */
+  @Getter private long fetchedBytes = 0;
+
+  /** Monitor which the memory of the current page is reserved from. */
+  @Setter private ResourceMonitor resourceMonitor = AlwaysHealthyMonitor.ALWAYS_HEALTHY_MONITOR;
+
+  /** Bytes reserved for the current page. */
+  private long pageBytes = 0;
 
   public ElasticsearchIndexScan(ElasticsearchClient client, String indexName) {
     this.client = client;
     this.request = new ElasticsearchRequest(indexName);
   }
 
+  /**
+   * Push down filter query which is added to the search request in filter context, so the
+   * documents are not scored. Multiple filters pushed down are combined by AND.
+   *
+   * @param filter filter query
+   */
+  public void pushDownFilter(QueryBuilder filter) {
+    SearchSourceBuilder source = request.getSourceBuilder();
+    BoolQueryBuilder query = (BoolQueryBuilder) source.query();
+    if (query == null) {
+      query = QueryBuilders.boolQuery();
+      source.query(query);
+    }
+    query.filter(filter);
+  }
+
+  /**
+   * Push down the fields referenced by the query, so only these fields are fetched from document
+   * source. The source is not fetched at all if no field is referenced.
+   *
+   * @param fields referenced fields
+   */
+  public void pushDownProjects(Set<String> fields) {
+    SearchSourceBuilder source = request.getSourceBuilder();
+    if (fields.isEmpty()) {
+      source.fetchSource(false);
+    } else {
+      source.fetchSource(fields.stream().sorted().toArray(String[]::new), null);
+    }
+  }
+
+  /**
+   * Push down sort which is added to the search request after the sorts pushed down already.
+   *
+   * @param sorts field sorts
+   */
+  public void pushDownSort(List<SortBuilder<?>> sorts) {
+    sorts.forEach(request.getSourceBuilder()::sort);
+  }
+
+  /**
+   * Push down limit. The documents are fetched in one page if the limit fits in it, otherwise the
+   * scroll stops once the limit is reached.
+   *
+   * @param limit max number of documents to return
+   */
+  public void pushDownLimit(int limit) {
+    this.limit = limit;
+    // Size 0 is rejected in scroll context
+    request.getSourceBuilder().size(Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+  }
+
+  /**
+   * Is the order of documents fixed by sort pushed down already. Limit is only pushed down along
+   * with sort, so a limited scan is always sorted.
+   */
+  public boolean isSorted() {
+    return request.getSourceBuilder().sorts() != null;
+  }
+
+  /**
+   * Is the number of documents bounded by limit pushed down already. Any filter or sort pushed
+   * down after it would be applied before the limit instead.
+   */
+  public boolean isLimited() {
+    return limit != null;
+  }
+
+  /**
+   * Push down aggregation. The documents are not fetched, instead the buckets of aggregation are
+   * returned as rows page by page.
+   *
+   * @param aggregation composite aggregation
+   */
+  public void pushDownAggregation(AggregationQuery aggregation) {
+    this.aggregation = aggregation;
+    request.getSourceBuilder().size(0).aggregation(aggregation.getBuilder());
+  }
+
+  /**
+   * Is the aggregation pushed down already. Any filter or sort pushed down after it would be
+   * applied on the documents instead of the buckets.
+   */
+  public boolean isAggregated() {
+    return aggregation != null;
+  }
+
+  /**
+   * Describe the index and the search request body with the filter, source fields, sort, size
+   * and aggregation pushed down. The limit is also included if the scroll stops at it.
+   */
+  @Override
+  public Map<String, Object> explain() {
+    Map<String, Object> explain = new LinkedHashMap<>();
+    explain.put("index", request.getIndexName());
+    explain.put("request", XContentHelper.convertToMap(
+        XContentType.JSON.xContent(), request.getSourceBuilder().toString(), true));
+    if (isLimited()) {
+      explain.put("limit", limit);
+    }
+    return explain;
+  }
+
   @Override
   public void open() {
     super.open();
-
-    // For now pull all results immediately once open
-    List<ElasticsearchResponse> responses = new ArrayList<>();
-    ElasticsearchResponse response = client.search(request);
-    while (!response.isEmpty()) {
-      responses.add(response);
-      response = client.search(request);
-    }
-    hits = Iterables.concat(responses.toArray(new ElasticsearchResponse[0])).iterator();
+    advance(await(() -> client.search(request)));
   }
 
   @Override
   public boolean hasNext() {
-    return hits.hasNext();
+    if (isLimited() && returned >= limit) {
+      return false;
+    }
+    while (!rows.hasNext()) {
+      if (nextPage == null) {
+        return false;
+      }
+      advance(await(nextPage::get));
+    }
+    return true;
   }
 
   @Override
   public ExprValue next() {
-    return ExprValueUtils.fromObjectValue(hits.next().getSourceAsMap());
+    returned++;
+    return rows.next();
   }
 
   @Override
   public void close() {
     super.close();
+    releasePageMemory();
 
+    if (nextPage != null) {
+      nextPage.cancel();
+      nextPage = null;
+    }
     client.cleanup(request);
   }
+
+  /**
+   * Get the search response and count the time waited for it.
+   */
+  private ElasticsearchResponse await(Supplier<ElasticsearchResponse> search) {
+    long start = System.nanoTime();
+    try {
+      return search.get();
+    } finally {
+      waitNanos += System.nanoTime() - start;
+    }
+  }
+
+  /**
+   * Consume the fetched page and start prefetching the next one unless the scroll is exhausted or
+   * the page already has all the documents within limit.
+   */
+  private void advance(ElasticsearchResponse response) {
+    releasePageMemory();
+    rows = rowsOf(response);
+    if (!rows.hasNext() || (isLimited() && limit <= MAX_PAGE_SIZE)) {
+      nextPage = null;
+    } else {
+      nextPage = new Prefetch();
+      client.schedule(nextPage::run);
+    }
+  }
+
+  /**
+   * Rows of the page, which are either the buckets of aggregation or the source of search hits.
+   * The after key of aggregation is updated before the next page is requested. The memory of the
+   * page is estimated by the size of the hit sources, and reserved before the hits are parsed.
+   */
+  private Iterator<ExprValue> rowsOf(ElasticsearchResponse response) {
+    if (aggregation != null) {
+      List<ExprValue> buckets = aggregation.parse(response.getAggregations());
+      reservePageMemory(buckets.size() * ROW_OVERHEAD);
+      return buckets.iterator();
+    }
+    if (response.isEmpty()) {
+      return Collections.emptyIterator();
+    }
+    List<SearchHit> hits = new ArrayList<>();
+    long sourceBytes = 0;
+    for (SearchHit hit : response) {
+      hits.add(hit);
+      if (hit.getSourceRef() != null) {
+        sourceBytes += hit.getSourceRef().length();
+      }
+    }
+    fetchedBytes += sourceBytes;
+    reservePageMemory(hits.size() * ROW_OVERHEAD + sourceBytes);
+    return Iterators.transform(hits.iterator(), hit -> {
+      Map<String, Object> source = hit.getSourceAsMap();
+      Map<String, ExprValue> valueMap = new LinkedHashMap<>();
+      if (source != null) {
+        source.forEach((field, value) ->
+            valueMap.put(field, ExprValueUtils.fromObjectValue(value)));
+      }
+      return new ExprTupleValue(schemaOf(valueMap.keySet()),
+          valueMap.values().toArray(new ExprValue[0]));
+    });
+  }
+
+  /**
+   * Schema of the hit with the field names. The schema of the last hit is reused without building
+   * the key if the consecutive hits have the same fields.
+   */
+  private ExprTupleSchema schemaOf(Collection<String> fieldNames) {
+    if (lastSchema != null && lastSchema.hasFieldNames(fieldNames)) {
+      return lastSchema;
+    }
+    List<String> key = new ArrayList<>(fieldNames);
+    ExprTupleSchema schema = schemas.get(key);
+    if (schema == null) {
+      schema = ExprTupleSchema.of(key);
+      if (schemas.size() < MAX_INTERNED_SCHEMAS) {
+        schemas.put(key, schema);
+      }
+    }
+    lastSchema = schema;
+    return schema;
+  }
+
+  private void reservePageMemory(long bytes) {
+    resourceMonitor.reserveMemory(bytes, "<table scan>");
+    pageBytes = bytes;
+  }
+
+  private void releasePageMemory() {
+    if (pageBytes > 0) {
+      resourceMonitor.releaseMemory(pageBytes);
+      pageBytes = 0;
+    }
+  }
+
+  /**
+   * Search of next page which is run by the scheduled task, or by the consumer if it is needed
+   * before the task starts. Whoever comes first runs it while holding the lock, so the consumer
+   * never waits for a task queued behind it in the same thread pool.
+   */
+  private class Prefetch {
+    private boolean started = false;
+    private ElasticsearchResponse response;
+    private RuntimeException failure;
+
+    synchronized void run() {
+      if (started) {
+        return;
+      }
+      started = true;
+      try {
+        response = client.search(request);
+      } catch (RuntimeException e) {
+        failure = e;
+      }
+    }
+
+    synchronized ElasticsearchResponse get() {
+      run();
+      if (failure != null) {
+        throw failure;
+      }
+      return response;
+    }
+
+    /**
+     * Skip the search if not started yet, otherwise wait for it to finish before the scroll is
+     * cleaned up.
+     */
+    synchronized void cancel() {
+      started = true;
+    }
+  }
 }
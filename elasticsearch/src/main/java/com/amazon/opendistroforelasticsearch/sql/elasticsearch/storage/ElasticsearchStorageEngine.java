@@ -17,8 +17,10 @@
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage;
 
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.client.ElasticsearchClient;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMappingCache;
 import com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine;
 import com.amazon.opendistroforelasticsearch.sql.storage.Table;
+import java.util.OptionalLong;
 import lombok.RequiredArgsConstructor;
 
 /** Elasticsearch storage engine implementation. */
@@ -28,8 +30,16 @@ public class ElasticsearchStorageEngine implements StorageEngine {
   /** Elasticsearch client connection. */
   private final ElasticsearchClient client;
 
+  /** Node level index mapping cache. */
+  private final IndexMappingCache mappingCache;
+
   @Override
   public Table getTable(String name) {
-    return new ElasticsearchIndex(client, name);
+    return new ElasticsearchIndex(client, mappingCache, name);
+  }
+
+  @Override
+  public OptionalLong getMetadataVersion() {
+    return client.getMetadataVersion();
   }
 }
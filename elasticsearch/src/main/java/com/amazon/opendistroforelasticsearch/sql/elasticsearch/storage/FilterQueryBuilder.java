@@ -0,0 +1,206 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.BOOLEAN;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.DOUBLE;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.LONG;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName.EQUAL;
+import static com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName.GREATER;
+import static com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName.GTE;
+import static com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName.LESS;
+import static com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName.LTE;
+import static com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName.NOTEQUAL;
+import static org.elasticsearch.index.query.QueryBuilders.boolQuery;
+import static org.elasticsearch.index.query.QueryBuilders.rangeQuery;
+import static org.elasticsearch.index.query.QueryBuilders.termQuery;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.LiteralExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+
+/**
+ * Translate filter condition into Elasticsearch query DSL. The query matches exactly the documents
+ * on which the condition evaluates to TRUE, so a condition which cannot be translated faithfully
+ * is rejected and left to the filter operator.
+ *
+ * <p>NOT is pushed down to the comparisons by De Morgan's law instead of translated to must_not.
+ * Because a range comparison on NULL or MISSING field is neither TRUE nor FALSE, the document
+ * must match neither the comparison nor its negation.
+ */
+@RequiredArgsConstructor
+public class FilterQueryBuilder {
+
+  /**
+   * Elasticsearch types whose values are compared by term query the same way as the literal of
+   * the expression type. Text field is analyzed and float field loses precision, so neither of
+   * them is pushed down.
+   */
+  private static final Map<String, ExprCoreType> TERM_TYPES =
+      ImmutableMap.<String, ExprCoreType>builder()
+          .put("keyword", STRING)
+          .put("integer", INTEGER)
+          .put("long", LONG)
+          .put("double", DOUBLE)
+          .put("boolean", BOOLEAN)
+          .build();
+
+  /** Elasticsearch types which could be compared by range query. */
+  private static final Set<String> RANGE_TYPES = ImmutableSet.of("integer", "long", "double");
+
+  private static final Map<BuiltinFunctionName, BiFunction<RangeQueryBuilder, Object,
+      RangeQueryBuilder>> RANGES =
+      ImmutableMap.of(
+          LESS, RangeQueryBuilder::lt,
+          LTE, RangeQueryBuilder::lte,
+          GREATER, RangeQueryBuilder::gt,
+          GTE, RangeQueryBuilder::gte);
+
+  /** Comparison which is TRUE if and only if the original one is FALSE. */
+  private static final Map<BuiltinFunctionName, BuiltinFunctionName> NEGATED =
+      ImmutableMap.<BuiltinFunctionName, BuiltinFunctionName>builder()
+          .put(EQUAL, NOTEQUAL)
+          .put(NOTEQUAL, EQUAL)
+          .put(LESS, GTE)
+          .put(LTE, GREATER)
+          .put(GREATER, LTE)
+          .put(GTE, LESS)
+          .build();
+
+  /** Comparison with the operands swapped. */
+  private static final Map<BuiltinFunctionName, BuiltinFunctionName> SWAPPED =
+      ImmutableMap.<BuiltinFunctionName, BuiltinFunctionName>builder()
+          .put(EQUAL, EQUAL)
+          .put(NOTEQUAL, NOTEQUAL)
+          .put(LESS, GREATER)
+          .put(LTE, GTE)
+          .put(GREATER, LESS)
+          .put(GTE, LTE)
+          .build();
+
+  /** Elasticsearch type of field by name, or null if unknown. */
+  private final Function<String, String> fieldTypes;
+
+  /**
+   * Build query for the condition.
+   *
+   * @param condition filter condition
+   * @return query, or empty if any part of the condition cannot be translated
+   */
+  public Optional<QueryBuilder> build(Expression condition) {
+    return build(condition, false);
+  }
+
+  private Optional<QueryBuilder> build(Expression expr, boolean negated) {
+    if (!(expr instanceof FunctionExpression)) {
+      return Optional.empty();
+    }
+    FunctionExpression func = (FunctionExpression) expr;
+    Optional<BuiltinFunctionName> name =
+        BuiltinFunctionName.of(func.getFunctionName().getFunctionName());
+    if (!name.isPresent()) {
+      return Optional.empty();
+    }
+
+    switch (name.get()) {
+      case AND:
+        return bool(!negated, func.getArguments(), negated);
+      case OR:
+        return bool(negated, func.getArguments(), negated);
+      case NOT:
+        return build(func.getArguments().get(0), !negated);
+      default:
+        return compare(name.get(), func.getArguments(), negated);
+    }
+  }
+
+  private Optional<QueryBuilder> bool(boolean conjunction, List<Expression> args,
+                                      boolean negated) {
+    BoolQueryBuilder query = boolQuery();
+    for (Expression arg : args) {
+      Optional<QueryBuilder> clause = build(arg, negated);
+      if (!clause.isPresent()) {
+        return Optional.empty();
+      }
+      if (conjunction) {
+        query.filter(clause.get());
+      } else {
+        query.should(clause.get());
+      }
+    }
+    return Optional.of(query);
+  }
+
+  private Optional<QueryBuilder> compare(BuiltinFunctionName op, List<Expression> args,
+                                         boolean negated) {
+    if (!NEGATED.containsKey(op)) {
+      return Optional.empty();
+    }
+    if (negated) {
+      op = NEGATED.get(op);
+    }
+
+    Expression left = args.get(0);
+    Expression right = args.get(1);
+    if (left instanceof LiteralExpression) {
+      op = SWAPPED.get(op);
+      left = args.get(1);
+      right = args.get(0);
+    }
+    if (!(left instanceof ReferenceExpression) || !(right instanceof LiteralExpression)) {
+      return Optional.empty();
+    }
+
+    String field = ((ReferenceExpression) left).getAttr();
+    String fieldType = fieldTypes.apply(field);
+    ExprValue value = right.valueOf(null);
+    if (value.isNull() || value.isMissing() || value.type() != TERM_TYPES.get(fieldType)) {
+      return Optional.empty();
+    }
+
+    switch (op) {
+      case EQUAL:
+        return Optional.of(termQuery(field, value.value()));
+      case NOTEQUAL:
+        // NULL or MISSING field is not equal to any literal, which matches must_not as well
+        return Optional.of(boolQuery().mustNot(termQuery(field, value.value())));
+      default:
+        if (!RANGE_TYPES.contains(fieldType)) {
+          return Optional.empty();
+        }
+        return Optional.of(RANGES.get(op).apply(rangeQuery(field), value.value()));
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage;
+
+import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort;
+import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.SortOption;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.tuple.Pair;
+import org.elasticsearch.search.sort.SortBuilder;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
+
+/**
+ * Translate sort list into Elasticsearch field sorts. Only plain fields with doc values are
+ * translated, and NULL or MISSING values are placed first or last by the missing option in the
+ * same way as sort operator.
+ */
+@RequiredArgsConstructor
+public class SortQueryBuilder {
+
+  /** Elasticsearch types which could be sorted by doc values. Text field cannot be sorted. */
+  private static final Set<String> SORTABLE_TYPES =
+      ImmutableSet.of("keyword", "integer", "long", "float", "double", "boolean");
+
+  /** Elasticsearch type of field by name, or null if unknown. */
+  private final Function<String, String> fieldTypes;
+
+  /**
+   * Build field sorts for the sort list.
+   *
+   * @param sortList sort list
+   * @return field sorts, or empty if any sort key cannot be translated
+   */
+  public Optional<List<SortBuilder<?>>> build(List<Pair<SortOption, Expression>> sortList) {
+    List<SortBuilder<?>> sorts = new ArrayList<>();
+    for (Pair<SortOption, Expression> pair : sortList) {
+      if (!(pair.getRight() instanceof ReferenceExpression)) {
+        return Optional.empty();
+      }
+      String field = ((ReferenceExpression) pair.getRight()).getAttr();
+      if (!SORTABLE_TYPES.contains(fieldTypes.apply(field))) {
+        return Optional.empty();
+      }
+
+      SortOption option = pair.getLeft();
+      sorts.add(
+          SortBuilders.fieldSort(field)
+              .order(Sort.SortOrder.ASC.equals(option.getSortOrder())
+                  ? SortOrder.ASC : SortOrder.DESC)
+              .missing(Sort.NullOrder.NULL_FIRST.equals(option.getNullOrder())
+                  ? "_first" : "_last"));
+    }
+    return Optional.of(sorts);
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.Aggregator;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalAggregation;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalDedupe;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalEval;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalFilter;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanNodeVisitor;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalProject;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalRename;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalSort;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Collect the fields referenced by logical plan, which are the only ones that need to be fetched
+ * from document source. The visitor returns true if the output of the plan is bounded by project
+ * or aggregation. Otherwise, all the fields in the document are part of the output.
+ */
+public class SourceFieldsCollector extends LogicalPlanNodeVisitor<Boolean, Set<String>> {
+
+  /**
+   * Collect the fields referenced by logical plan.
+   *
+   * @param plan logical plan
+   * @return referenced fields, or empty if all the fields are needed
+   */
+  public static Optional<Set<String>> collect(LogicalPlan plan) {
+    Set<String> fields = new HashSet<>();
+    if (plan.accept(new SourceFieldsCollector(), fields)) {
+      return Optional.of(fields);
+    }
+    return Optional.empty();
+  }
+
+  @Override
+  protected Boolean visitNode(LogicalPlan plan, Set<String> fields) {
+    boolean bounded = false;
+    for (LogicalPlan child : plan.getChild()) {
+      bounded |= child.accept(this, fields);
+    }
+    return bounded;
+  }
+
+  @Override
+  public Boolean visitFilter(LogicalFilter plan, Set<String> fields) {
+    collectFields(plan.getCondition(), fields);
+    return visitNode(plan, fields);
+  }
+
+  @Override
+  public Boolean visitAggregation(LogicalAggregation plan, Set<String> fields) {
+    plan.getAggregatorList().forEach(aggregator -> collectFields(aggregator, fields));
+    plan.getGroupByList().forEach(groupBy -> collectFields(groupBy, fields));
+    visitNode(plan, fields);
+    return true;
+  }
+
+  @Override
+  public Boolean visitDedupe(LogicalDedupe plan, Set<String> fields) {
+    plan.getDedupeList().forEach(expr -> collectFields(expr, fields));
+    return visitNode(plan, fields);
+  }
+
+  @Override
+  public Boolean visitRename(LogicalRename plan, Set<String> fields) {
+    plan.getRenameMap().forEach((from, to) -> {
+      collectFields(from, fields);
+      collectFields(to, fields);
+    });
+    return visitNode(plan, fields);
+  }
+
+  @Override
+  public Boolean visitProject(LogicalProject plan, Set<String> fields) {
+    plan.getProjectList().forEach(expr -> collectFields(expr, fields));
+    visitNode(plan, fields);
+    return true;
+  }
+
+  @Override
+  public Boolean visitEval(LogicalEval plan, Set<String> fields) {
+    plan.getExpressions().forEach(pair -> collectFields(pair.getRight(), fields));
+    return visitNode(plan, fields);
+  }
+
+  @Override
+  public Boolean visitSort(LogicalSort plan, Set<String> fields) {
+    plan.getSortList().forEach(pair -> collectFields(pair.getRight(), fields));
+    return visitNode(plan, fields);
+  }
+
+  private static void collectFields(Expression expr, Set<String> fields) {
+    if (expr instanceof ReferenceExpression) {
+      fields.add(((ReferenceExpression) expr).getAttr());
+    } else if (expr instanceof FunctionExpression) {
+      collectFields(((FunctionExpression) expr).getArguments(), fields);
+    } else if (expr instanceof Aggregator) {
+      collectFields(((Aggregator<?>) expr).getArguments(), fields);
+    }
+  }
+
+  private static void collectFields(List<Expression> exprs, Set<String> fields) {
+    exprs.forEach(expr -> collectFields(expr, fields));
+  }
+}
@@ -18,6 +18,8 @@ package com.amazon.opendistroforelasticsearch.sql.elasticsearch.client;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Answers.RETURNS_DEEP_STUBS;
@@ -25,10 +27,12 @@ import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMapping;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMappingCache;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.request.ElasticsearchRequest;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.response.ElasticsearchResponse;
 import com.google.common.base.Charsets;
@@ -36,8 +40,10 @@ import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.io.Resources;
 import java.io.IOException;
 import java.net.URL;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.OptionalLong;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.lucene.search.TotalHits;
 import org.elasticsearch.action.search.ClearScrollRequestBuilder;
@@ -54,6 +60,7 @@ import org.elasticsearch.common.xcontent.DeprecationHandler;
 import org.elasticsearch.common.xcontent.NamedXContentRegistry;
 import org.elasticsearch.common.xcontent.XContentParser;
 import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.Index;
 import org.elasticsearch.index.IndexNotFoundException;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
@@ -73,6 +80,8 @@ class ElasticsearchNodeClientTest {
   @Mock(answer = RETURNS_DEEP_STUBS)
   private NodeClient nodeClient;
 
+  private final IndexMappingCache mappingCache = new IndexMappingCache();
+
   @Test
   public void getIndexMappings() throws IOException {
     URL url = Resources.getResource(TEST_MAPPING_FILE);
@@ -118,11 +127,29 @@ class ElasticsearchNodeClientTest {
     assertEquals(0, indexMapping.size());
   }
 
+  @Test
+  public void getIndexMappingsCachedByMappingVersion() throws IOException {
+    String indexName = "test";
+    ClusterService clusterService = mockClusterService(indexName, "");
+    Metadata metadata = clusterService.state().metadata();
+    ElasticsearchNodeClient client =
+        new ElasticsearchNodeClient(clusterService, nodeClient, mappingCache);
+
+    IndexMapping indexMapping = client.getIndexMappings(indexName).get(indexName);
+    assertSame(indexMapping, client.getIndexMappings(indexName).get(indexName));
+    verify(metadata, times(1)).findMappings(any(), any(), any());
+
+    when(metadata.index(indexName).getMappingVersion()).thenReturn(2L);
+    assertNotSame(indexMapping, client.getIndexMappings(indexName).get(indexName));
+    verify(metadata, times(2)).findMappings(any(), any(), any());
+  }
+
   @Test
   public void getIndexMappingsWithIOException() {
     String indexName = "test";
     ClusterService clusterService = mockClusterService(indexName, new IOException());
-    ElasticsearchNodeClient client = new ElasticsearchNodeClient(clusterService, nodeClient);
+    ElasticsearchNodeClient client =
+        new ElasticsearchNodeClient(clusterService, nodeClient, mappingCache);
 
     assertThrows(IllegalStateException.class, () -> client.getIndexMappings(indexName));
   }
@@ -130,7 +157,7 @@ class ElasticsearchNodeClientTest {
   @Test
   public void getIndexMappingsWithNonExistIndex() {
     ElasticsearchNodeClient client =
-        new ElasticsearchNodeClient(mockClusterService("test"), nodeClient);
+        new ElasticsearchNodeClient(mockClusterService("test"), nodeClient, mappingCache);
 
     assertThrows(IndexNotFoundException.class, () -> client.getIndexMappings("non_exist_index"));
   }
@@ -141,10 +168,19 @@ class ElasticsearchNodeClientTest {
     assertTrue(ElasticsearchNodeClient.ALL_FIELDS.apply("any_index").test("any_field"));
   }
 
+  @Test
+  public void getMetadataVersion() {
+    ClusterService clusterService = mock(ClusterService.class, RETURNS_DEEP_STUBS);
+    when(clusterService.state().metadata().version()).thenReturn(10L);
+    ElasticsearchNodeClient client =
+        new ElasticsearchNodeClient(clusterService, nodeClient, mappingCache);
+    assertEquals(OptionalLong.of(10L), client.getMetadataVersion());
+  }
+
   @Test
   public void search() {
     ElasticsearchNodeClient client =
-        new ElasticsearchNodeClient(mock(ClusterService.class), nodeClient);
+        new ElasticsearchNodeClient(mock(ClusterService.class), nodeClient, mappingCache);
 
     // Mock first scroll request
     SearchResponse searchResponse = mock(SearchResponse.class);
@@ -193,7 +229,7 @@ class ElasticsearchNodeClientTest {
         .schedule(any(), any(), any());
 
     ElasticsearchNodeClient client =
-        new ElasticsearchNodeClient(mock(ClusterService.class), nodeClient);
+        new ElasticsearchNodeClient(mock(ClusterService.class), nodeClient, mappingCache);
     AtomicBoolean isRun = new AtomicBoolean(false);
     client.schedule(() -> isRun.set(true));
     assertTrue(isRun.get());
@@ -207,7 +243,7 @@ class ElasticsearchNodeClientTest {
     when(requestBuilder.get()).thenReturn(null);
 
     ElasticsearchNodeClient client =
-        new ElasticsearchNodeClient(mock(ClusterService.class), nodeClient);
+        new ElasticsearchNodeClient(mock(ClusterService.class), nodeClient, mappingCache);
     ElasticsearchRequest request = new ElasticsearchRequest("test");
     request.setScrollId("scroll123");
     client.cleanup(request);
@@ -222,7 +258,7 @@ class ElasticsearchNodeClientTest {
   @Test
   void cleanupWithoutScrollId() {
     ElasticsearchNodeClient client =
-        new ElasticsearchNodeClient(mock(ClusterService.class), nodeClient);
+        new ElasticsearchNodeClient(mock(ClusterService.class), nodeClient, mappingCache);
 
     ElasticsearchRequest request = new ElasticsearchRequest("test");
     client.cleanup(request);
@@ -231,7 +267,7 @@ class ElasticsearchNodeClientTest {
 
   private ElasticsearchNodeClient mockClient(String indexName, String mappings) {
     ClusterService clusterService = mockClusterService(indexName, mappings);
-    return new ElasticsearchNodeClient(clusterService, nodeClient);
+    return new ElasticsearchNodeClient(clusterService, nodeClient, mappingCache);
   }
 
   /** Mock getAliasAndIndexLookup() only for index name resolve test. */
@@ -265,11 +301,7 @@ class ElasticsearchNodeClientTest {
       }
       builder.put(indexName, metadata);
       when(mockMetaData.findMappings(any(), any(), any())).thenReturn(builder.build());
-
-      // IndexNameExpressionResolver use this method to check if index exists. If not,
-      // IndexNotFoundException is thrown.
-      when(mockMetaData.getIndicesLookup())
-              .thenReturn(ImmutableSortedMap.of(indexName, mock(IndexAbstraction.class)));
+      mockIndexMetadata(mockMetaData, indexName);
     } catch (IOException e) {
       throw new IllegalStateException("Failed to mock cluster service", e);
     }
@@ -285,14 +317,30 @@ class ElasticsearchNodeClientTest {
     when(mockState.metadata()).thenReturn(mockMetaData);
     try {
       when(mockMetaData.findMappings(any(), any(), any())).thenThrow(t);
-      when(mockMetaData.getIndicesLookup())
-              .thenReturn(ImmutableSortedMap.of(indexName, mock(IndexAbstraction.class)));
+      mockIndexMetadata(mockMetaData, indexName);
     } catch (IOException e) {
       throw new IllegalStateException("Failed to mock cluster service", e);
     }
     return mockService;
   }
 
+  /** Mock the index metadata resolved from index name and its mapping version. */
+  private void mockIndexMetadata(Metadata mockMetaData, String indexName) {
+    IndexMetadata indexMetadata = mock(IndexMetadata.class);
+    when(indexMetadata.getIndex()).thenReturn(new Index(indexName, indexName + "_uuid"));
+    when(indexMetadata.getState()).thenReturn(IndexMetadata.State.OPEN);
+    when(indexMetadata.getIndexUUID()).thenReturn(indexName + "_uuid");
+    when(indexMetadata.getMappingVersion()).thenReturn(1L);
+    when(mockMetaData.index(indexName)).thenReturn(indexMetadata);
+
+    // IndexNameExpressionResolver use this method to check if index exists. If not,
+    // IndexNotFoundException is thrown.
+    IndexAbstraction indexAbstraction = mock(IndexAbstraction.class);
+    when(indexAbstraction.getIndices()).thenReturn(Collections.singletonList(indexMetadata));
+    when(mockMetaData.getIndicesLookup())
+        .thenReturn(ImmutableSortedMap.of(indexName, indexAbstraction));
+  }
+
   private XContentParser createParser(String mappings) throws IOException {
     return XContentType.JSON
         .xContent()
@@ -110,6 +110,11 @@ class ElasticsearchRestClientTest {
     assertEquals("long", indexMapping.getFieldType("manager.salary"));
   }
 
+  @Test
+  void getMetadataVersion() {
+    assertFalse(client.getMetadataVersion().isPresent());
+  }
+
   @Test
   void getIndexMappingsWithIOException() throws IOException {
     when(restClient.indices().getMapping(any(GetMappingsRequest.class), any()))
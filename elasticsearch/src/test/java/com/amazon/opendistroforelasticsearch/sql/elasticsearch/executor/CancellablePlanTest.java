@@ -0,0 +1,120 @@
+/*
+ *
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector.CancellablePlan;
+import com.amazon.opendistroforelasticsearch.sql.exception.QueryCancelledException;
+import com.amazon.opendistroforelasticsearch.sql.executor.QueryContext;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlanNodeVisitor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CancellablePlanTest {
+  @Mock
+  private PhysicalPlan plan;
+
+  @Mock
+  private QueryContext queryContext;
+
+  @Mock
+  private PhysicalPlanNodeVisitor visitor;
+
+  @Mock
+  private Object context;
+
+  private CancellablePlan cancellablePlan;
+
+  @BeforeEach
+  public void setup() {
+    cancellablePlan = new CancellablePlan(plan, queryContext);
+  }
+
+  @Test
+  void openCancelled() {
+    doThrow(new QueryCancelledException("cancelled")).when(queryContext).checkCancelled();
+
+    assertThrows(QueryCancelledException.class, () -> cancellablePlan.open());
+    verify(plan, never()).open();
+  }
+
+  @Test
+  void openSuccess() {
+    cancellablePlan.open();
+    verify(queryContext, times(1)).checkCancelled();
+    verify(plan, times(1)).open();
+  }
+
+  @Test
+  void hasNextChecksInInterval() {
+    for (int i = 0; i < 2048; i++) {
+      cancellablePlan.hasNext();
+    }
+    verify(queryContext, times(2)).checkCancelled();
+    verify(plan, times(2048)).hasNext();
+  }
+
+  @Test
+  void nextSuccess() {
+    cancellablePlan.next();
+    verify(plan, times(1)).next();
+  }
+
+  @Test
+  void nextBatchChecksEveryBatch() {
+    cancellablePlan.nextBatch(10);
+    cancellablePlan.nextBatch(10);
+    verify(queryContext, times(2)).checkCancelled();
+    verify(plan, times(2)).nextBatch(10);
+  }
+
+  @Test
+  void nextBatchCancelled() {
+    doThrow(new QueryCancelledException("cancelled")).when(queryContext).checkCancelled();
+
+    assertThrows(QueryCancelledException.class, () -> cancellablePlan.nextBatch(10));
+    verify(plan, never()).nextBatch(10);
+  }
+
+  @Test
+  void closeSuccess() {
+    cancellablePlan.close();
+    verify(plan, times(1)).close();
+  }
+
+  @Test
+  void getChildSuccess() {
+    cancellablePlan.getChild();
+    verify(plan, times(1)).getChild();
+  }
+
+  @Test
+  void acceptSuccess() {
+    cancellablePlan.accept(visitor, context);
+    verify(plan, times(1)).accept(visitor, context);
+  }
+}
@@ -17,27 +17,43 @@
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor;
 
 import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.tupleValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
 import static com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine.QueryResponse;
 import static com.google.common.collect.ImmutableMap.of;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.amazon.opendistroforelasticsearch.sql.common.response.ResponseListener;
+import com.amazon.opendistroforelasticsearch.sql.common.response.StreamingResponseListener;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.client.ElasticsearchClient;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector.CancellablePlan;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector.ElasticsearchExecutionProtector;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector.ProfilePlan;
+import com.amazon.opendistroforelasticsearch.sql.exception.QueryCancelledException;
+import com.amazon.opendistroforelasticsearch.sql.executor.QueryContext;
+import com.amazon.opendistroforelasticsearch.sql.executor.QueryProfile;
+import com.amazon.opendistroforelasticsearch.sql.monitor.AlwaysHealthyMonitor;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlanDSL;
 import com.amazon.opendistroforelasticsearch.sql.storage.TableScanOperator;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.BeforeEach;
@@ -99,7 +115,7 @@ class ElasticsearchExecutionEngineTest {
   void executeWithFailure() {
     PhysicalPlan plan = mock(PhysicalPlan.class);
     RuntimeException expected = new RuntimeException("Execution error");
-    when(plan.hasNext()).thenThrow(expected);
+    when(plan.nextBatch(anyInt())).thenThrow(expected);
     when(protector.protect(plan)).thenReturn(plan);
 
     ElasticsearchExecutionEngine executor = new ElasticsearchExecutionEngine(client, protector);
@@ -121,6 +137,188 @@ class ElasticsearchExecutionEngineTest {
     verify(plan).close();
   }
 
+  @Test
+  void streamInChunks() {
+    List<ExprValue> expected = new ArrayList<>();
+    for (int i = 0; i < 1500; i++) {
+      expected.add(tupleValue(of("id", i)));
+    }
+    FakePhysicalPlan plan = new FakePhysicalPlan(expected.iterator());
+    when(protector.protect(plan)).thenReturn(plan);
+
+    ElasticsearchExecutionEngine executor = new ElasticsearchExecutionEngine(client, protector);
+    List<Integer> chunkSizes = new ArrayList<>();
+    List<ExprValue> actual = new ArrayList<>();
+    AtomicBoolean completed = new AtomicBoolean(false);
+    executor.stream(
+        plan,
+        new StreamingResponseListener<QueryResponse>() {
+          @Override
+          public void onChunk(QueryResponse chunk) {
+            assertFalse(completed.get());
+            chunkSizes.add(chunk.getResults().size());
+            actual.addAll(chunk.getResults());
+          }
+
+          @Override
+          public void onComplete() {
+            completed.set(true);
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+            fail("Error occurred during execution", e);
+          }
+        });
+
+    assertEquals(Arrays.asList(1024, 476), chunkSizes);
+    assertEquals(expected, actual);
+    assertTrue(completed.get());
+    assertTrue(plan.hasClosed);
+  }
+
+  @Test
+  void streamNotFailedIfListenerFailsToComplete() {
+    FakePhysicalPlan plan =
+        new FakePhysicalPlan(Collections.singletonList(tupleValue(of("id", 1))).iterator());
+    when(protector.protect(plan)).thenReturn(plan);
+
+    ElasticsearchExecutionEngine executor = new ElasticsearchExecutionEngine(client, protector);
+    RuntimeException expected = new RuntimeException("Failed to send response");
+    RuntimeException actual = assertThrows(RuntimeException.class, () -> executor.stream(
+        plan,
+        new StreamingResponseListener<QueryResponse>() {
+          @Override
+          public void onChunk(QueryResponse chunk) {
+          }
+
+          @Override
+          public void onComplete() {
+            assertTrue(plan.hasClosed);
+            throw expected;
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+            fail("Listener failed again after completion", e);
+          }
+        }));
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  void streamInContextStopsOnceCancelled() {
+    List<ExprValue> rows = new ArrayList<>();
+    for (int i = 0; i < 1500; i++) {
+      rows.add(tupleValue(of("id", i)));
+    }
+    FakePhysicalPlan plan = new FakePhysicalPlan(rows.iterator());
+    QueryContext context = new QueryContext();
+    when(protector.protect(plan, context)).thenReturn(new CancellablePlan(plan, context));
+
+    ElasticsearchExecutionEngine executor = new ElasticsearchExecutionEngine(client, protector);
+    List<Integer> chunkSizes = new ArrayList<>();
+    AtomicReference<Exception> actual = new AtomicReference<>();
+    executor.stream(
+        plan,
+        context,
+        new StreamingResponseListener<QueryResponse>() {
+          @Override
+          public void onChunk(QueryResponse chunk) {
+            chunkSizes.add(chunk.getResults().size());
+            context.cancel("by user request");
+          }
+
+          @Override
+          public void onComplete() {
+            fail("Expected cancellation didn't happen");
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+            actual.set(e);
+          }
+        });
+
+    assertEquals(Arrays.asList(1024), chunkSizes);
+    assertTrue(actual.get() instanceof QueryCancelledException);
+    assertTrue(plan.hasClosed);
+  }
+
+  @Test
+  void streamInProfilingContextSetsProfile() {
+    FakePhysicalPlan plan = new FakePhysicalPlan(Arrays.asList(
+        tupleValue(of("id", 1)), tupleValue(of("id", 2))).iterator());
+    QueryContext context = new QueryContext(null, true);
+    when(protector.protect(plan, context))
+        .thenReturn(new ProfilePlan(plan, "FakePhysicalPlan", Collections::emptyMap));
+
+    ElasticsearchExecutionEngine executor = new ElasticsearchExecutionEngine(client, protector);
+    AtomicReference<QueryProfile> actual = new AtomicReference<>();
+    executor.stream(
+        plan,
+        context,
+        new StreamingResponseListener<QueryResponse>() {
+          @Override
+          public void onChunk(QueryResponse chunk) {
+          }
+
+          @Override
+          public void onComplete() {
+            actual.set(context.getProfile());
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+            fail("Error occurred during execution", e);
+          }
+        });
+
+    assertEquals("FakePhysicalPlan", actual.get().getName());
+    assertEquals(2, actual.get().getRows());
+    assertTrue(plan.hasClosed);
+  }
+
+  @Test
+  void streamWithProtectorInProfilingContextSetsProfileOfEachOperator() {
+    FakePhysicalPlan scan = new FakePhysicalPlan(Arrays.asList(
+        tupleValue(of("id", 1)), tupleValue(of("id", 2))).iterator());
+    PhysicalPlan plan = PhysicalPlanDSL.project(scan, ref("id", INTEGER));
+    QueryContext context = new QueryContext(null, true);
+
+    ElasticsearchExecutionEngine executor = new ElasticsearchExecutionEngine(client,
+        new ElasticsearchExecutionProtector(new AlwaysHealthyMonitor(), null,
+            ForkJoinPool.commonPool()));
+    List<ExprValue> actual = new ArrayList<>();
+    executor.stream(
+        plan,
+        context,
+        new StreamingResponseListener<QueryResponse>() {
+          @Override
+          public void onChunk(QueryResponse chunk) {
+            actual.addAll(chunk.getResults());
+          }
+
+          @Override
+          public void onComplete() {
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+            fail("Error occurred during execution", e);
+          }
+        });
+
+    assertEquals(2, actual.size());
+    QueryProfile profile = context.getProfile();
+    assertEquals("ProjectOperator", profile.getName());
+    assertEquals(2, profile.getRows());
+    assertEquals(1, profile.getChildren().size());
+    assertEquals("FakePhysicalPlan", profile.getChildren().get(0).getName());
+    assertEquals(2, profile.getChildren().get(0).getRows());
+    assertTrue(scan.hasClosed);
+  }
+
   @RequiredArgsConstructor
   private static class FakePhysicalPlan extends TableScanOperator {
     private final Iterator<ExprValue> it;
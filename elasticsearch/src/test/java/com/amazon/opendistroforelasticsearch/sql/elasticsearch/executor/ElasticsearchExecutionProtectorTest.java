@@ -24,26 +24,47 @@ import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
 import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
 import static com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlanDSL.filter;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort;
+import com.amazon.opendistroforelasticsearch.sql.common.setting.Settings;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprBooleanValue;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.client.ElasticsearchClient;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector.CancellablePlan;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector.ElasticsearchExecutionProtector;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector.ProfilePlan;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector.ResourceMonitorPlan;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.response.ElasticsearchResponse;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.ElasticsearchIndexScan;
+import com.amazon.opendistroforelasticsearch.sql.executor.QueryContext;
+import com.amazon.opendistroforelasticsearch.sql.executor.QueryProfile;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
 import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.Aggregator;
 import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.AvgAggregator;
 import com.amazon.opendistroforelasticsearch.sql.monitor.ResourceMonitor;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.AggregationOperator;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.DedupeOperator;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlanDSL;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.SortOperator;
+import com.amazon.opendistroforelasticsearch.sql.storage.TableScanOperator;
 import com.google.common.collect.ImmutableMap;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.search.SearchHit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -58,15 +79,23 @@ class ElasticsearchExecutionProtectorTest {
   @Mock
   private ResourceMonitor resourceMonitor;
 
+  @Mock
+  private Settings settings;
+
+  private final ForkJoinPool pool = new ForkJoinPool(2);
+
   private ElasticsearchExecutionProtector executionProtector;
 
   @BeforeEach
   public void setup() {
-    executionProtector = new ElasticsearchExecutionProtector(resourceMonitor);
+    executionProtector = new ElasticsearchExecutionProtector(resourceMonitor, settings, pool);
   }
 
   @Test
   public void testProtectIndexScan() {
+    when(settings.getSettingValue(Settings.Key.PPL_QUERY_OPERATOR_MEMORY_LIMIT))
+        .thenReturn(new ByteSizeValue(1024));
+    when(settings.getSettingValue(Settings.Key.PPL_QUERY_OPERATOR_PARALLELISM)).thenReturn(1);
     String indexName = "test";
     ReferenceExpression include = ref("age", INTEGER);
     ReferenceExpression exclude = ref("name", STRING);
@@ -126,6 +155,170 @@ class ElasticsearchExecutionProtectorTest {
     );
   }
 
+  @Test
+  public void testProtectIndexScanInContext() {
+    Expression filterExpr = literal(ExprBooleanValue.ofTrue());
+    ElasticsearchIndexScan scan = new ElasticsearchIndexScan(client, "test");
+    QueryContext context = new QueryContext();
+
+    assertEquals(
+        filter(
+            new ResourceMonitorPlan(new CancellablePlan(scan, context), resourceMonitor),
+            filterExpr),
+        executionProtector.protect(filter(scan, filterExpr), context));
+  }
+
+  @Test
+  public void testProtectIndexScanReservesPageMemory() {
+    ElasticsearchResponse response = mock(ElasticsearchResponse.class);
+    when(response.isEmpty()).thenReturn(false);
+    when(response.iterator()).thenReturn(Collections.singletonList(new SearchHit(1)).iterator());
+    when(client.search(any())).thenReturn(response);
+    when(resourceMonitor.isHealthy()).thenReturn(true);
+
+    PhysicalPlan plan = executionProtector.protect(new ElasticsearchIndexScan(client, "test"));
+    plan.open();
+    verify(resourceMonitor).reserveMemory(anyLong(), eq("<table scan>"));
+    plan.close();
+    verify(resourceMonitor).releaseMemory(anyLong());
+  }
+
+  @Test
+  public void testProtectInProfilingContext() {
+    when(settings.getSettingValue(Settings.Key.PPL_QUERY_OPERATOR_MEMORY_LIMIT))
+        .thenReturn(new ByteSizeValue(1024));
+    when(settings.getSettingValue(Settings.Key.PPL_QUERY_OPERATOR_PARALLELISM)).thenReturn(1);
+    Expression filterExpr = literal(ExprBooleanValue.ofTrue());
+    List<Expression> groupByExprs = Arrays.asList(ref("age", INTEGER));
+    List<Aggregator> aggregators = Arrays.asList(new AvgAggregator(groupByExprs, DOUBLE));
+    QueryContext context = new QueryContext(null, true);
+
+    PhysicalPlan plan = executionProtector.protect(
+        PhysicalPlanDSL.project(
+            PhysicalPlanDSL.dedupe(
+                PhysicalPlanDSL.sort(
+                    PhysicalPlanDSL.eval(
+                        PhysicalPlanDSL.remove(
+                            PhysicalPlanDSL.rename(
+                                PhysicalPlanDSL.agg(
+                                    filter(
+                                        new ElasticsearchIndexScan(client, "test"),
+                                        filterExpr),
+                                    aggregators,
+                                    groupByExprs),
+                                ImmutableMap.of(ref("age", INTEGER), ref("years", INTEGER))),
+                            ref("name", STRING)),
+                        Pair.of(ref("decade", INTEGER), ref("years", INTEGER))),
+                    100,
+                    Pair.of(Sort.SortOption.PPL_ASC, ref("years", INTEGER))),
+                ref("years", INTEGER)),
+            ref("years", INTEGER)),
+        context);
+    assertTrue(plan instanceof ProfilePlan);
+
+    List<String> operators = Arrays.asList("ProjectOperator", "DedupeOperator", "SortOperator",
+        "EvalOperator", "RemoveOperator", "RenameOperator", "AggregationOperator",
+        "FilterOperator", "ElasticsearchIndexScan");
+    QueryProfile profile = ((ProfilePlan) plan).profile();
+    for (String operator : operators) {
+      assertEquals(operator, profile.getName());
+      if (Arrays.asList("DedupeOperator", "SortOperator", "AggregationOperator")
+          .contains(operator)) {
+        assertEquals(ImmutableMap.of("peak_memory_bytes", 0L), profile.getMetrics());
+      }
+      if (!profile.getChildren().isEmpty()) {
+        profile = profile.getChildren().get(0);
+      }
+    }
+    assertEquals(ImmutableMap.of("es_wait_millis", 0L, "fetched_bytes", 0L),
+        profile.getMetrics());
+    assertEquals(Collections.emptyList(), profile.getChildren());
+  }
+
+  @Test
+  public void testProtectOtherTableScanInProfilingContext() {
+    TableScanOperator scan = mock(TableScanOperator.class);
+
+    PhysicalPlan plan = executionProtector.visitTableScan(scan, new QueryContext(null, true));
+    assertEquals(
+        new ProfilePlan(
+            new ResourceMonitorPlan(new CancellablePlan(scan, new QueryContext()), resourceMonitor),
+            scan.getClass().getSimpleName(), Collections::emptyMap),
+        plan);
+    assertEquals(Collections.emptyMap(), ((ProfilePlan) plan).profile().getMetrics());
+  }
+
+  @Test
+  public void testProtectAggregationWithMemoryLimit() {
+    when(settings.getSettingValue(Settings.Key.PPL_QUERY_OPERATOR_MEMORY_LIMIT))
+        .thenReturn(new ByteSizeValue(1024));
+    when(settings.getSettingValue(Settings.Key.PPL_QUERY_OPERATOR_PARALLELISM)).thenReturn(1);
+    List<Expression> groupByExprs = Arrays.asList(ref("age", INTEGER));
+    List<Aggregator> aggregators = Arrays.asList(new AvgAggregator(groupByExprs, DOUBLE));
+
+    AggregationOperator aggregation = (AggregationOperator) executionProtector.protect(
+        PhysicalPlanDSL.agg(null, aggregators, groupByExprs));
+    assertEquals(1024L, aggregation.getMemoryLimit());
+  }
+
+  @Test
+  public void testProtectAggregationWithParallelism() {
+    when(settings.getSettingValue(Settings.Key.PPL_QUERY_OPERATOR_MEMORY_LIMIT))
+        .thenReturn(new ByteSizeValue(1024));
+    when(settings.getSettingValue(Settings.Key.PPL_QUERY_OPERATOR_PARALLELISM)).thenReturn(4);
+    List<Expression> groupByExprs = Arrays.asList(ref("age", INTEGER));
+    List<Aggregator> aggregators = Arrays.asList(new AvgAggregator(groupByExprs, DOUBLE));
+
+    AggregationOperator aggregation = (AggregationOperator) executionProtector.protect(
+        PhysicalPlanDSL.agg(null, aggregators, groupByExprs));
+    assertEquals(pool, aggregation.getPool());
+    assertEquals(2, aggregation.getParallelism());
+  }
+
+  @Test
+  public void testProtectOperatorsWithResourceMonitor() {
+    when(settings.getSettingValue(Settings.Key.PPL_QUERY_OPERATOR_MEMORY_LIMIT))
+        .thenReturn(new ByteSizeValue(1024));
+    when(settings.getSettingValue(Settings.Key.PPL_QUERY_OPERATOR_PARALLELISM)).thenReturn(1);
+    List<Expression> groupByExprs = Arrays.asList(ref("age", INTEGER));
+    List<Aggregator> aggregators = Arrays.asList(new AvgAggregator(groupByExprs, DOUBLE));
+
+    DedupeOperator dedupe = (DedupeOperator) executionProtector.protect(
+        PhysicalPlanDSL.dedupe(
+            PhysicalPlanDSL.sort(
+                PhysicalPlanDSL.agg(null, aggregators, groupByExprs),
+                100, Pair.of(Sort.SortOption.PPL_ASC, ref("age", INTEGER))),
+            ref("age", INTEGER)));
+    SortOperator sort = (SortOperator) dedupe.getInput();
+    AggregationOperator aggregation = (AggregationOperator) sort.getInput();
+    assertEquals(resourceMonitor, dedupe.getMonitor());
+    assertEquals(resourceMonitor, sort.getMonitor());
+    assertEquals(resourceMonitor, aggregation.getMonitor());
+  }
+
+  @Test
+  public void testProtectSortWithMemoryLimit() {
+    when(settings.getSettingValue(Settings.Key.PPL_QUERY_OPERATOR_MEMORY_LIMIT))
+        .thenReturn(new ByteSizeValue(1024));
+    when(settings.getSettingValue(Settings.Key.PPL_QUERY_OPERATOR_PARALLELISM)).thenReturn(1);
+
+    SortOperator sort = (SortOperator) executionProtector.protect(
+        PhysicalPlanDSL.sort(null, 100, Pair.of(Sort.SortOption.PPL_ASC, ref("name", STRING))));
+    assertEquals(1024L, sort.getMemoryLimit());
+  }
+
+  @Test
+  public void testProtectSortWithParallelism() {
+    when(settings.getSettingValue(Settings.Key.PPL_QUERY_OPERATOR_MEMORY_LIMIT))
+        .thenReturn(new ByteSizeValue(1024));
+    when(settings.getSettingValue(Settings.Key.PPL_QUERY_OPERATOR_PARALLELISM)).thenReturn(1);
+
+    SortOperator sort = (SortOperator) executionProtector.protect(
+        PhysicalPlanDSL.sort(null, 100, Pair.of(Sort.SortOption.PPL_ASC, ref("name", STRING))));
+    assertEquals(pool, sort.getPool());
+    assertEquals(1, sort.getParallelism());
+  }
+
   @Test
   public void testWithoutProtection() {
     Expression filterExpr = literal(ExprBooleanValue.ofTrue());
@@ -0,0 +1,118 @@
+/*
+ *
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.amazon.opendistroforelasticsearch.sql.data.batch.RowBatch;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector.ProfilePlan;
+import com.amazon.opendistroforelasticsearch.sql.executor.QueryProfile;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlanNodeVisitor;
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ProfilePlanTest {
+  @Mock
+  private PhysicalPlan plan;
+
+  @Mock
+  private PhysicalPlan scan;
+
+  @Mock
+  private PhysicalPlanNodeVisitor visitor;
+
+  @Mock
+  private Object context;
+
+  private ProfilePlan profilePlan;
+
+  @BeforeEach
+  public void setup() {
+    profilePlan = new ProfilePlan(plan, "ProjectOperator", Collections::emptyMap);
+  }
+
+  @Test
+  void countRowsReturned() {
+    when(plan.hasNext()).thenReturn(true, false);
+    when(plan.next()).thenReturn(integerValue(1));
+    when(plan.nextBatch(10)).thenReturn(RowBatch.of(integerValue(2), integerValue(3)));
+
+    profilePlan.open();
+    while (profilePlan.hasNext()) {
+      profilePlan.next();
+    }
+    profilePlan.nextBatch(10);
+
+    QueryProfile profile = profilePlan.profile();
+    assertEquals("ProjectOperator", profile.getName());
+    assertEquals(3, profile.getRows());
+    assertTrue(profile.getTimeNanos() > 0);
+    verify(plan, times(1)).open();
+  }
+
+  @Test
+  void countTimeOfFailedCall() {
+    when(plan.nextBatch(10)).thenThrow(new IllegalStateException("failed"));
+
+    assertThrows(IllegalStateException.class, () -> profilePlan.nextBatch(10));
+    assertEquals(0, profilePlan.profile().getRows());
+    assertTrue(profilePlan.profile().getTimeNanos() > 0);
+  }
+
+  @Test
+  void profileOfChildren() {
+    ProfilePlan scanProfilePlan = new ProfilePlan(scan, "ElasticsearchIndexScan",
+        () -> ImmutableMap.of("fetched_bytes", 120L));
+    when(plan.getChild()).thenReturn(Arrays.asList(scanProfilePlan, scan));
+    when(scan.nextBatch(10)).thenReturn(RowBatch.of(integerValue(1), integerValue(2)));
+    scanProfilePlan.nextBatch(10);
+
+    QueryProfile profile = profilePlan.profile();
+    assertEquals(2, profile.getRowsIn());
+    assertEquals(1, profile.getChildren().size());
+    QueryProfile scanProfile = profile.getChildren().get(0);
+    assertEquals("ElasticsearchIndexScan", scanProfile.getName());
+    assertEquals(ImmutableMap.of("fetched_bytes", 120L), scanProfile.getMetrics());
+    assertEquals(Collections.emptyList(), scanProfile.getChildren());
+  }
+
+  @Test
+  void closeSuccess() {
+    profilePlan.close();
+    verify(plan, times(1)).close();
+  }
+
+  @Test
+  void acceptSuccess() {
+    profilePlan.accept(visitor, context);
+    verify(plan, times(1)).accept(visitor, context);
+  }
+}
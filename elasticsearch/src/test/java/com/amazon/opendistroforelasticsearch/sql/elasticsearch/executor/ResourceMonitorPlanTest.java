@@ -23,6 +23,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.amazon.opendistroforelasticsearch.sql.data.batch.RowBatch;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector.ResourceMonitorPlan;
 import com.amazon.opendistroforelasticsearch.sql.monitor.ResourceMonitor;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
@@ -83,6 +84,13 @@ class ResourceMonitorPlanTest {
     verify(plan, times(1)).hasNext();
   }
 
+  @Test
+  void nextBatchSuccess() {
+    when(plan.nextBatch(10)).thenReturn(new RowBatch(10));
+    monitorPlan.nextBatch(10);
+    verify(plan, times(1)).nextBatch(10);
+  }
+
   @Test
   void closeSuccess() {
     monitorPlan.close();
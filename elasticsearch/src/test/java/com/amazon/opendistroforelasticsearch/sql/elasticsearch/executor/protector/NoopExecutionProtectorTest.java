@@ -19,6 +19,7 @@ package com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protect
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import com.amazon.opendistroforelasticsearch.sql.executor.QueryContext;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -38,4 +39,13 @@ class NoopExecutionProtectorTest {
 
     assertEquals(plan, protectedPlan);
   }
-}
\ No newline at end of file
+
+  @Test
+  void protectInContext() {
+    NoopExecutionProtector executionProtector = new NoopExecutionProtector();
+    QueryContext context = new QueryContext();
+    PhysicalPlan protectedPlan = executionProtector.protect(plan, context);
+
+    assertEquals(new CancellablePlan(plan, context), protectedPlan);
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import com.google.common.collect.ImmutableMap;
+import java.util.Collections;
+import java.util.Map;
+import org.elasticsearch.cluster.ClusterChangedEvent;
+import org.elasticsearch.index.Index;
+import org.junit.jupiter.api.Test;
+
+class IndexMappingCacheTest {
+
+  private final IndexMappingCache cache = new IndexMappingCache();
+
+  @Test
+  public void getIndexMappingCachedByMappingVersion() {
+    IndexMapping mapping = getIndexMapping("uuid", 1L);
+    assertSame(mapping, getIndexMapping("uuid", 1L));
+    assertNotSame(mapping, getIndexMapping("uuid", 2L));
+    assertNotSame(mapping, getIndexMapping("another_uuid", 1L));
+  }
+
+  @Test
+  public void getFieldTypesCachedByMetadataVersion() {
+    Map<String, ExprType> fieldTypes = getFieldTypes("test*", 1L);
+    assertSame(fieldTypes, getFieldTypes("test*", 1L));
+    assertNotSame(fieldTypes, getFieldTypes("test*", 2L));
+    assertNotSame(fieldTypes, getFieldTypes("test", 2L));
+  }
+
+  @Test
+  public void evictDeletedIndexMapping() {
+    getIndexMapping("uuid", 1L);
+    getIndexMapping("another_uuid", 1L);
+    assertEquals(2, cache.size());
+
+    ClusterChangedEvent event = mock(ClusterChangedEvent.class);
+    when(event.indicesDeleted())
+        .thenReturn(Collections.singletonList(new Index("test", "uuid")));
+    cache.clusterChanged(event);
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void evictFieldTypesIfMetadataChanged() {
+    getFieldTypes("test*", 1L);
+    assertEquals(1, cache.size());
+
+    ClusterChangedEvent event = mock(ClusterChangedEvent.class);
+    when(event.metadataChanged()).thenReturn(true);
+    cache.clusterChanged(event);
+    assertEquals(0, cache.size());
+  }
+
+  private IndexMapping getIndexMapping(String indexUuid, long mappingVersion) {
+    return cache.getIndexMapping(indexUuid, mappingVersion,
+        () -> new IndexMapping(ImmutableMap.of("name", "keyword")));
+  }
+
+  private Map<String, ExprType> getFieldTypes(String indexExpression, long metadataVersion) {
+    return cache.getFieldTypes(indexExpression, metadataVersion,
+        () -> ImmutableMap.of("name", STRING));
+  }
+}
@@ -22,9 +22,11 @@ import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import com.google.common.collect.ImmutableMap;
 import java.util.Map;
+import java.util.function.Function;
 import org.junit.jupiter.api.Test;
 
 class IndexMappingTest {
@@ -44,4 +46,11 @@ class IndexMappingTest {
         fieldTypes,
         allOf(aMapWithSize(2), hasEntry("name", "our_type"), hasEntry("age", "our_type")));
   }
+
+  @Test
+  public void getAllFieldTypesCachedPerTransform() {
+    IndexMapping indexMapping = new IndexMapping(ImmutableMap.of("name", "text"));
+    Function<String, String> transform = type -> "our_type";
+    assertSame(indexMapping.getAllFieldTypes(transform), indexMapping.getAllFieldTypes(transform));
+  }
 }
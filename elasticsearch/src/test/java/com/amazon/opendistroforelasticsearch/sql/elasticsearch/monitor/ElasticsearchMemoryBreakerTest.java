@@ -0,0 +1,79 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.monitor;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.amazon.opendistroforelasticsearch.sql.common.setting.Settings;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ElasticsearchMemoryBreakerTest {
+
+  @Mock
+  private CircuitBreaker circuitBreaker;
+
+  @Mock
+  private Settings settings;
+
+  @Test
+  void notAccountedBeforeBreakerIsSet() {
+    ElasticsearchMemoryBreaker memoryBreaker = new ElasticsearchMemoryBreaker();
+
+    assertDoesNotThrow(() -> memoryBreaker.reserve(Long.MAX_VALUE, "<test>"));
+    assertDoesNotThrow(() -> memoryBreaker.release(Long.MAX_VALUE));
+  }
+
+  @Test
+  void reserveAndRelease() {
+    ElasticsearchMemoryBreaker memoryBreaker = new ElasticsearchMemoryBreaker();
+    memoryBreaker.setCircuitBreaker(circuitBreaker);
+
+    memoryBreaker.reserve(100L, "<test>");
+    verify(circuitBreaker).addEstimateBytesAndMaybeBreak(100L, "<test>");
+    memoryBreaker.release(100L);
+    verify(circuitBreaker).addWithoutBreaking(-100L);
+  }
+
+  @Test
+  void getUsedOfBreaker() {
+    when(circuitBreaker.getUsed()).thenReturn(100L);
+    ElasticsearchMemoryBreaker memoryBreaker = new ElasticsearchMemoryBreaker();
+    memoryBreaker.setCircuitBreaker(circuitBreaker);
+
+    assertEquals(100L, memoryBreaker.getUsed());
+  }
+
+  @Test
+  void resourceMonitorReservesFromBreaker() {
+    ElasticsearchMemoryBreaker memoryBreaker = new ElasticsearchMemoryBreaker();
+    memoryBreaker.setCircuitBreaker(circuitBreaker);
+    ElasticsearchResourceMonitor resourceMonitor =
+        new ElasticsearchResourceMonitor(settings, memoryBreaker);
+
+    resourceMonitor.reserveMemory(100L, "<test>");
+    verify(circuitBreaker).addEstimateBytesAndMaybeBreak(100L, "<test>");
+    resourceMonitor.releaseMemory(100L);
+    verify(circuitBreaker).addWithoutBreaking(-100L);
+  }
+}
@@ -17,12 +17,10 @@ package com.amazon.opendistroforelasticsearch.sql.elasticsearch.monitor;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.amazon.opendistroforelasticsearch.sql.common.setting.Settings;
+import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -37,54 +35,38 @@ class ElasticsearchResourceMonitorTest {
   private Settings settings;
 
   @Mock
-  private ElasticsearchMemoryHealthy memoryMonitor;
+  private CircuitBreaker circuitBreaker;
+
+  private ElasticsearchResourceMonitor resourceMonitor;
 
   @BeforeEach
   public void setup() {
     when(settings.getSettingValue(Settings.Key.PPL_QUERY_MEMORY_LIMIT))
         .thenReturn(new ByteSizeValue(10L));
+    ElasticsearchMemoryBreaker memoryBreaker = new ElasticsearchMemoryBreaker();
+    memoryBreaker.setCircuitBreaker(circuitBreaker);
+    resourceMonitor = new ElasticsearchResourceMonitor(settings, memoryBreaker);
   }
 
   @Test
   void isHealthy() {
-    when(memoryMonitor.isMemoryHealthy(anyLong())).thenReturn(true);
+    when(circuitBreaker.getUsed()).thenReturn(9L);
 
-    ElasticsearchResourceMonitor resourceMonitor =
-        new ElasticsearchResourceMonitor(settings, memoryMonitor);
     assertTrue(resourceMonitor.isHealthy());
   }
 
   @Test
-  void notHealthyFastFailure() {
-    when(memoryMonitor.isMemoryHealthy(anyLong())).thenThrow(
-        ElasticsearchMemoryHealthy.MemoryUsageExceedFastFailureException.class);
+  void notHealthyOnceUsedReachesLimit() {
+    when(circuitBreaker.getUsed()).thenReturn(10L);
 
-    ElasticsearchResourceMonitor resourceMonitor =
-        new ElasticsearchResourceMonitor(settings, memoryMonitor);
     assertFalse(resourceMonitor.isHealthy());
-    verify(memoryMonitor, times(1)).isMemoryHealthy(anyLong());
   }
 
   @Test
-  void notHealthyWithRetry() {
-    when(memoryMonitor.isMemoryHealthy(anyLong())).thenThrow(
-        ElasticsearchMemoryHealthy.MemoryUsageExceedException.class);
-
+  void healthyBeforeBreakerIsSet() {
     ElasticsearchResourceMonitor resourceMonitor =
-        new ElasticsearchResourceMonitor(settings, memoryMonitor);
-    assertFalse(resourceMonitor.isHealthy());
-    verify(memoryMonitor, times(3)).isMemoryHealthy(anyLong());
-  }
-
-  @Test
-  void healthyWithRetry() {
+        new ElasticsearchResourceMonitor(settings, new ElasticsearchMemoryBreaker());
 
-    when(memoryMonitor.isMemoryHealthy(anyLong())).thenThrow(
-        ElasticsearchMemoryHealthy.MemoryUsageExceedException.class).thenReturn(true);
-
-    ElasticsearchResourceMonitor resourceMonitor =
-        new ElasticsearchResourceMonitor(settings, memoryMonitor);
     assertTrue(resourceMonitor.isHealthy());
-    verify(memoryMonitor, times(2)).isMemoryHealthy(anyLong());
   }
 }
@@ -23,6 +23,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchScrollRequest;
 import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.junit.jupiter.api.Test;
 
@@ -42,6 +43,18 @@ class ElasticsearchRequestTest {
         request.searchRequest());
   }
 
+  @Test
+  void searchRequestWithoutScrollForAggregation() {
+    request.getSourceBuilder().size(0).aggregation(AggregationBuilders.terms("names"));
+
+    assertEquals(
+        new SearchRequest()
+            .indices("test")
+            .source(
+                new SearchSourceBuilder().size(0).aggregation(AggregationBuilders.terms("names"))),
+        request.searchRequest());
+  }
+
   @Test
   void isScrollStarted() {
     assertFalse(request.isScrollStarted());
@@ -18,14 +18,17 @@ package com.amazon.opendistroforelasticsearch.sql.elasticsearch.response;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.when;
 
+import java.util.Collections;
 import org.apache.lucene.search.TotalHits;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.aggregations.Aggregations;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -76,4 +79,11 @@ class ElasticsearchResponseTest {
       i++;
     }
   }
+
+  @Test
+  void aggregations() {
+    Aggregations aggregations = new Aggregations(Collections.emptyList());
+    when(esResponse.getAggregations()).thenReturn(aggregations);
+    assertSame(aggregations, new ElasticsearchResponse(esResponse).getAggregations());
+  }
 }
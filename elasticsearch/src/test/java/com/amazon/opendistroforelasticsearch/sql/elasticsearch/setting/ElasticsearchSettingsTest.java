@@ -17,6 +17,7 @@
 
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.setting;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -26,6 +27,7 @@ import java.util.List;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -45,6 +47,31 @@ class ElasticsearchSettingsTest {
     assertNotNull(sizeValue);
   }
 
+  @Test
+  void getOperatorMemoryLimit() {
+    ElasticsearchSettings settings = new ElasticsearchSettings(clusterSettings);
+    ByteSizeValue sizeValue =
+        settings.getSettingValue(Settings.Key.PPL_QUERY_OPERATOR_MEMORY_LIMIT);
+
+    assertNotNull(sizeValue);
+  }
+
+  @Test
+  void getOperatorParallelism() {
+    ElasticsearchSettings settings = new ElasticsearchSettings(clusterSettings);
+    Integer parallelism = settings.getSettingValue(Settings.Key.PPL_QUERY_OPERATOR_PARALLELISM);
+
+    assertEquals(1, parallelism);
+  }
+
+  @Test
+  void getQueryTimeout() {
+    ElasticsearchSettings settings = new ElasticsearchSettings(clusterSettings);
+    TimeValue timeout = settings.getSettingValue(Settings.Key.PPL_QUERY_TIMEOUT);
+
+    assertEquals(TimeValue.MINUS_ONE, timeout);
+  }
+
   @Test
   void pluginSettings() {
     List<Setting<?>> settings = ElasticsearchSettings.pluginSettings();
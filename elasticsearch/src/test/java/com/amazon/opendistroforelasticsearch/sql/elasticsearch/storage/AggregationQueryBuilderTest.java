@@ -0,0 +1,274 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_NULL;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.doubleValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.longValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.DOUBLE;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.LONG;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.AggregationQueryBuilder.COMPOSITE_NAME;
+import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.AggregationQueryBuilder.PAGE_SIZE;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.AggregationState;
+import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.Aggregator;
+import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.AvgAggregator;
+import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.CountAggregator;
+import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionName;
+import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.elasticsearch.search.aggregations.Aggregation;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.Aggregations;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregation;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.composite.TermsValuesSourceBuilder;
+import org.elasticsearch.search.aggregations.metrics.Avg;
+import org.elasticsearch.search.aggregations.metrics.Sum;
+import org.elasticsearch.search.aggregations.metrics.ValueCount;
+import org.junit.jupiter.api.Test;
+
+class AggregationQueryBuilderTest {
+
+  private final DSL dsl = new ExpressionConfig().dsl(new ExpressionConfig().functionRepository());
+
+  private final AggregationQueryBuilder queryBuilder =
+      new AggregationQueryBuilder(
+          ImmutableMap.<String, String>builder()
+              .put("name", "keyword")
+              .put("address", "text")
+              .put("age", "integer")
+              .put("account_number", "long")
+              .put("balance", "double")
+              .build()::get);
+
+  @Test
+  void buildCompositeAggregation() {
+    Optional<AggregationQuery> query =
+        queryBuilder.build(
+            Arrays.asList(
+                dsl.count(literal(1)),
+                dsl.count(ref("balance", DOUBLE)),
+                dsl.sum(ref("age", INTEGER)),
+                new AvgAggregator(Arrays.asList(ref("balance", DOUBLE)), DOUBLE)),
+            Arrays.asList(ref("name", STRING), ref("account_number", LONG)));
+
+    assertTrue(query.isPresent());
+    assertEquals(
+        new CompositeAggregationBuilder(
+            COMPOSITE_NAME,
+            Arrays.asList(
+                new TermsValuesSourceBuilder("group_0").field("name").missingBucket(true),
+                new TermsValuesSourceBuilder("group_1").field("account_number")
+                    .missingBucket(true)))
+            .size(PAGE_SIZE)
+            .subAggregation(AggregationBuilders.count("metric_1").field("balance"))
+            .subAggregation(AggregationBuilders.sum("metric_2").field("age"))
+            .subAggregation(AggregationBuilders.count("metric_2_count").field("age"))
+            .subAggregation(AggregationBuilders.avg("metric_3").field("balance"))
+            .subAggregation(AggregationBuilders.count("metric_3_count").field("balance")),
+        query.get().getBuilder());
+  }
+
+  @Test
+  void parseBucketsIntoRows() {
+    AggregationQuery query =
+        queryBuilder.build(
+            Arrays.asList(
+                dsl.count(literal(1)),
+                dsl.count(ref("balance", DOUBLE)),
+                dsl.sum(ref("age", INTEGER)),
+                new AvgAggregator(Arrays.asList(ref("balance", DOUBLE)), DOUBLE)),
+            Arrays.asList(ref("name", STRING), ref("account_number", LONG))).get();
+
+    Map<String, Object> nullKey = new LinkedHashMap<>();
+    nullKey.put("group_0", null);
+    nullKey.put("group_1", 2L);
+    Map<String, Object> afterKey = ImmutableMap.of("group_0", "John", "group_1", 1L);
+    List<ExprValue> rows =
+        query.parse(
+            composite(
+                afterKey,
+                bucket(nullKey, 2,
+                    valueCount("metric_1", 1), sum("metric_2", 50.0),
+                    valueCount("metric_2_count", 2), avg("metric_3", 10.0),
+                    valueCount("metric_3_count", 1)),
+                bucket(afterKey, 3,
+                    valueCount("metric_1", 3), sum("metric_2", 60.0),
+                    valueCount("metric_2_count", 2), avg("metric_3", 10.5),
+                    valueCount("metric_3_count", 3))));
+
+    assertEquals(
+        Arrays.asList(
+            row(LITERAL_NULL, longValue(2L), integerValue(2), integerValue(1), integerValue(50),
+                LITERAL_NULL),
+            row(stringValue("John"), longValue(1L), integerValue(3), integerValue(3),
+                LITERAL_NULL, doubleValue(10.5))),
+        rows);
+    assertEquals(
+        query.getBuilder(),
+        queryBuilder.build(
+            Arrays.asList(
+                dsl.count(literal(1)),
+                dsl.count(ref("balance", DOUBLE)),
+                dsl.sum(ref("age", INTEGER)),
+                new AvgAggregator(Arrays.asList(ref("balance", DOUBLE)), DOUBLE)),
+            Arrays.asList(ref("name", STRING), ref("account_number", LONG)))
+            .get().getBuilder().aggregateAfter(afterKey));
+  }
+
+  @Test
+  void parseLastPage() {
+    AggregationQuery query =
+        queryBuilder.build(
+            Arrays.asList(dsl.count(literal(1))), Arrays.asList(ref("name", STRING))).get();
+    assertEquals(Collections.emptyList(), query.parse(composite(null)));
+    assertEquals(
+        queryBuilder.build(
+            Arrays.asList(dsl.count(literal(1))), Arrays.asList(ref("name", STRING)))
+            .get().getBuilder(),
+        query.getBuilder());
+  }
+
+  @Test
+  void notBuildIfGroupByUnsupported() {
+    List<Aggregator> aggregators = Arrays.asList(dsl.count(literal(1)));
+    assertEquals(Optional.empty(), queryBuilder.build(aggregators, Collections.emptyList()));
+    assertEquals(
+        Optional.empty(),
+        queryBuilder.build(aggregators, Arrays.asList(ref("address", STRING))));
+    assertEquals(
+        Optional.empty(),
+        queryBuilder.build(aggregators, Arrays.asList(dsl.abs(ref("age", INTEGER)))));
+  }
+
+  @Test
+  void notBuildIfAggregatorUnsupported() {
+    List<Expression> groupByList = Arrays.asList(ref("name", STRING));
+    assertEquals(
+        Optional.empty(),
+        queryBuilder.build(Arrays.asList(dsl.count(ref("address", STRING))), groupByList));
+    assertEquals(
+        Optional.empty(),
+        queryBuilder.build(
+            Arrays.asList(new CountAggregator(Arrays.asList(literal(LITERAL_NULL)), INTEGER)),
+            groupByList));
+    assertEquals(
+        Optional.empty(),
+        queryBuilder.build(
+            Arrays.asList(dsl.sum(ref("account_number", LONG))), groupByList));
+    assertEquals(
+        Optional.empty(),
+        queryBuilder.build(
+            Arrays.asList(new AvgAggregator(Arrays.asList(ref("name", STRING)), DOUBLE)),
+            groupByList));
+    assertEquals(
+        Optional.empty(),
+        queryBuilder.build(
+            Arrays.asList(new TestAggregator(Arrays.asList(ref("age", INTEGER)))),
+            groupByList));
+  }
+
+  private ExprValue row(ExprValue name, ExprValue accountNumber, ExprValue count,
+                        ExprValue countBalance, ExprValue sumAge, ExprValue avgBalance) {
+    LinkedHashMap<String, ExprValue> map = new LinkedHashMap<>();
+    map.put("name", name);
+    map.put("account_number", accountNumber);
+    map.put("count(1)", count);
+    map.put("count(balance)", countBalance);
+    map.put("sum(age)", sumAge);
+    map.put("avg(balance)", avgBalance);
+    return ExprTupleValue.fromExprValueMap(map);
+  }
+
+  private Aggregations composite(Map<String, Object> afterKey,
+                                 CompositeAggregation.Bucket... buckets) {
+    CompositeAggregation composite = mock(CompositeAggregation.class);
+    when(composite.getName()).thenReturn(COMPOSITE_NAME);
+    doReturn(Arrays.asList(buckets)).when(composite).getBuckets();
+    when(composite.afterKey()).thenReturn(afterKey);
+    return new Aggregations(Arrays.asList(composite));
+  }
+
+  private CompositeAggregation.Bucket bucket(Map<String, Object> key, long docCount,
+                                             Aggregation... metrics) {
+    CompositeAggregation.Bucket bucket = mock(CompositeAggregation.Bucket.class);
+    when(bucket.getKey()).thenReturn(key);
+    when(bucket.getDocCount()).thenReturn(docCount);
+    when(bucket.getAggregations()).thenReturn(new Aggregations(Arrays.asList(metrics)));
+    return bucket;
+  }
+
+  private ValueCount valueCount(String name, long value) {
+    ValueCount metric = mock(ValueCount.class);
+    when(metric.getName()).thenReturn(name);
+    when(metric.getValue()).thenReturn(value);
+    return metric;
+  }
+
+  private Sum sum(String name, double value) {
+    Sum metric = mock(Sum.class);
+    when(metric.getName()).thenReturn(name);
+    when(metric.getValue()).thenReturn(value);
+    return metric;
+  }
+
+  private Avg avg(String name, double value) {
+    Avg metric = mock(Avg.class);
+    when(metric.getName()).thenReturn(name);
+    when(metric.getValue()).thenReturn(value);
+    return metric;
+  }
+
+  private static class TestAggregator extends Aggregator<AggregationState> {
+    TestAggregator(List<Expression> arguments) {
+      super(FunctionName.of("test"), arguments, INTEGER);
+    }
+
+    @Override
+    public AggregationState create() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public AggregationState iterate(BindingTuple tuple, AggregationState state) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
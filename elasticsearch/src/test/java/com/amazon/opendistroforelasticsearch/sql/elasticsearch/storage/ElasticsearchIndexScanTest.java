@@ -16,22 +16,46 @@
 
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage;
 
+import static org.elasticsearch.index.query.QueryBuilders.boolQuery;
+import static org.elasticsearch.index.query.QueryBuilders.rangeQuery;
+import static org.elasticsearch.index.query.QueryBuilders.termQuery;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleSchema;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.client.ElasticsearchClient;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.request.ElasticsearchRequest;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.response.ElasticsearchResponse;
+import com.amazon.opendistroforelasticsearch.sql.monitor.ResourceMonitor;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.composite.TermsValuesSourceBuilder;
+import org.elasticsearch.search.sort.SortBuilders;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -54,6 +78,148 @@ class ElasticsearchIndexScanTest {
     verify(client).cleanup(any());
   }
 
+  @Test
+  void pushDownFilters() {
+    mockResponse();
+    try (ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, "employees")) {
+      indexScan.pushDownFilter(termQuery("name", "John"));
+      indexScan.pushDownFilter(rangeQuery("age").gt(30));
+      indexScan.open();
+      assertFalse(indexScan.hasNext());
+    }
+
+    ElasticsearchRequest request = new ElasticsearchRequest("employees");
+    request.getSourceBuilder().query(
+        boolQuery().filter(termQuery("name", "John")).filter(rangeQuery("age").gt(30)));
+    verify(client).search(request);
+  }
+
+  @Test
+  void pushDownProjects() {
+    mockResponse(new SearchHit[] {employee(1, "John", "IT")});
+    try (ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, "employees")) {
+      indexScan.pushDownProjects(ImmutableSet.of("name", "department"));
+      indexScan.open();
+      assertTrue(indexScan.hasNext());
+      assertEquals(tupleValue(employee(1, "John", "IT")), indexScan.next());
+      assertFalse(indexScan.hasNext());
+    }
+
+    ElasticsearchRequest request = new ElasticsearchRequest("employees");
+    request.getSourceBuilder().fetchSource(new String[] {"department", "name"}, null);
+    verify(client, times(2)).search(request);
+  }
+
+  @Test
+  void pushDownEmptyProjects() {
+    mockResponse(new SearchHit[] {new SearchHit(1)});
+    try (ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, "employees")) {
+      indexScan.pushDownProjects(ImmutableSet.of());
+      indexScan.open();
+      assertTrue(indexScan.hasNext());
+      assertEquals(ExprValueUtils.tupleValue(ImmutableMap.of()), indexScan.next());
+      assertFalse(indexScan.hasNext());
+    }
+
+    ElasticsearchRequest request = new ElasticsearchRequest("employees");
+    request.getSourceBuilder().fetchSource(false);
+    verify(client, times(2)).search(request);
+  }
+
+  @Test
+  void pushDownSortAndLimit() {
+    mockResponse(
+        new SearchHit[] {employee(1, "John", "IT"), employee(2, "Smith", "HR"),
+            employee(3, "Allen", "IT")});
+    try (ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, "employees")) {
+      assertFalse(indexScan.isSorted());
+      assertFalse(indexScan.isLimited());
+      indexScan.pushDownSort(Arrays.asList(SortBuilders.fieldSort("name")));
+      indexScan.pushDownLimit(2);
+      assertTrue(indexScan.isSorted());
+      assertTrue(indexScan.isLimited());
+
+      indexScan.open();
+      assertTrue(indexScan.hasNext());
+      assertEquals(tupleValue(employee(1, "John", "IT")), indexScan.next());
+      assertTrue(indexScan.hasNext());
+      assertEquals(tupleValue(employee(2, "Smith", "HR")), indexScan.next());
+      assertFalse(indexScan.hasNext());
+    }
+
+    ElasticsearchRequest request = new ElasticsearchRequest("employees");
+    request.getSourceBuilder().sort(SortBuilders.fieldSort("name")).size(2);
+    verify(client).search(request);
+    verify(client).cleanup(any());
+  }
+
+  @Test
+  void pushDownZeroLimit() {
+    mockResponse(new SearchHit[] {employee(1, "John", "IT")});
+    try (ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, "employees")) {
+      indexScan.pushDownLimit(0);
+      indexScan.open();
+      assertFalse(indexScan.hasNext());
+    }
+
+    ElasticsearchRequest request = new ElasticsearchRequest("employees");
+    request.getSourceBuilder().size(1);
+    verify(client).search(request);
+  }
+
+  @Test
+  void pushDownLimitLargerThanPage() {
+    mockResponse(
+        new SearchHit[] {employee(1, "John", "IT"), employee(2, "Smith", "HR")},
+        new SearchHit[] {employee(3, "Allen", "IT")});
+    try (ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, "employees")) {
+      indexScan.pushDownLimit(ElasticsearchIndexScan.MAX_PAGE_SIZE + 1);
+      indexScan.open();
+      assertTrue(indexScan.hasNext());
+      assertEquals(tupleValue(employee(1, "John", "IT")), indexScan.next());
+      assertTrue(indexScan.hasNext());
+      assertEquals(tupleValue(employee(2, "Smith", "HR")), indexScan.next());
+      assertTrue(indexScan.hasNext());
+      assertEquals(tupleValue(employee(3, "Allen", "IT")), indexScan.next());
+      assertFalse(indexScan.hasNext());
+    }
+    verify(client, times(3)).search(any());
+  }
+
+  @Test
+  void pushDownAggregation() {
+    CompositeAggregationBuilder builder =
+        new CompositeAggregationBuilder(
+            "composite_buckets",
+            Arrays.asList(new TermsValuesSourceBuilder("group_0").field("department")));
+    AggregationQuery aggregation = mock(AggregationQuery.class);
+    when(aggregation.getBuilder()).thenReturn(builder);
+    ExprValue row = ExprValueUtils.tupleValue(ImmutableMap.of("department", "IT"));
+    when(aggregation.parse(any()))
+        .thenReturn(Arrays.asList(row))
+        .thenReturn(Collections.emptyList());
+    when(client.search(any())).thenReturn(mock(ElasticsearchResponse.class));
+    ResourceMonitor monitor = mock(ResourceMonitor.class);
+
+    try (ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, "employees")) {
+      assertFalse(indexScan.isAggregated());
+      indexScan.pushDownAggregation(aggregation);
+      assertTrue(indexScan.isAggregated());
+
+      indexScan.setResourceMonitor(monitor);
+      indexScan.open();
+      verify(monitor).reserveMemory(ElasticsearchIndexScan.ROW_OVERHEAD, "<table scan>");
+      assertTrue(indexScan.hasNext());
+      assertEquals(row, indexScan.next());
+      assertFalse(indexScan.hasNext());
+      verify(monitor).releaseMemory(ElasticsearchIndexScan.ROW_OVERHEAD);
+    }
+
+    ElasticsearchRequest request = new ElasticsearchRequest("employees");
+    request.getSourceBuilder().size(0).aggregation(builder);
+    verify(client, times(2)).search(request);
+  }
+
   @Test
   void queryAllResults() {
     mockResponse(
@@ -77,6 +243,189 @@ class ElasticsearchIndexScanTest {
     verify(client).cleanup(any());
   }
 
+  @Test
+  void queryAllResultsWithPrefetch() {
+    mockResponse(
+        new SearchHit[] {employee(1, "John", "IT"), employee(2, "Smith", "HR")},
+        new SearchHit[] {employee(3, "Allen", "IT")});
+    doAnswer(invocation -> {
+      ((Runnable) invocation.getArgument(0)).run();
+      return null;
+    }).when(client).schedule(any());
+
+    try (ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, "employees")) {
+      indexScan.open();
+      verify(client, times(2)).search(any());
+
+      assertTrue(indexScan.hasNext());
+      assertEquals(tupleValue(employee(1, "John", "IT")), indexScan.next());
+      assertTrue(indexScan.hasNext());
+      assertEquals(tupleValue(employee(2, "Smith", "HR")), indexScan.next());
+      assertTrue(indexScan.hasNext());
+      assertEquals(tupleValue(employee(3, "Allen", "IT")), indexScan.next());
+      assertFalse(indexScan.hasNext());
+    }
+    verify(client, times(3)).search(any());
+    verify(client).cleanup(any());
+  }
+
+  @Test
+  void fetchNextPageOnlyWhenNeeded() {
+    mockResponse(
+        new SearchHit[] {employee(1, "John", "IT")},
+        new SearchHit[] {employee(2, "Smith", "HR")});
+
+    try (ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, "employees")) {
+      indexScan.open();
+      assertTrue(indexScan.hasNext());
+      assertEquals(tupleValue(employee(1, "John", "IT")), indexScan.next());
+      verify(client, times(1)).search(any());
+    }
+    verify(client, times(1)).search(any());
+    verify(client).cleanup(any());
+  }
+
+  @Test
+  void prefetchFailureIsThrownWhenPageIsConsumed() {
+    ElasticsearchResponse response = mock(ElasticsearchResponse.class);
+    when(response.isEmpty()).thenReturn(false);
+    when(response.iterator())
+        .thenReturn(Arrays.asList(employee(1, "John", "IT")).iterator());
+    when(client.search(any()))
+        .thenReturn(response)
+        .thenThrow(new IllegalStateException("search failed"));
+    doAnswer(invocation -> {
+      ((Runnable) invocation.getArgument(0)).run();
+      return null;
+    }).when(client).schedule(any());
+
+    try (ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, "employees")) {
+      indexScan.open();
+      assertTrue(indexScan.hasNext());
+      assertEquals(tupleValue(employee(1, "John", "IT")), indexScan.next());
+      IllegalStateException exception =
+          assertThrows(IllegalStateException.class, indexScan::hasNext);
+      assertEquals("search failed", exception.getMessage());
+    }
+    verify(client).cleanup(any());
+  }
+
+  @Test
+  void countWaitTimeAndFetchedBytes() {
+    SearchHit john = employee(1, "John", "IT");
+    SearchHit smith = employee(2, "Smith", "HR");
+    mockResponse(new SearchHit[] {john, new SearchHit(3)}, new SearchHit[] {smith});
+    try (ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, "employees")) {
+      indexScan.open();
+      indexScan.forEachRemaining(row -> { });
+
+      assertEquals(john.getSourceRef().length() + smith.getSourceRef().length(),
+          indexScan.getFetchedBytes());
+      assertTrue(indexScan.getWaitNanos() > 0);
+    }
+  }
+
+  @Test
+  void reservePageMemoryUntilNextPageOrClose() {
+    SearchHit john = employee(1, "John", "IT");
+    SearchHit smith = employee(2, "Smith", "HR");
+    mockResponse(new SearchHit[] {john, new SearchHit(3)}, new SearchHit[] {smith});
+    ResourceMonitor monitor = mock(ResourceMonitor.class);
+    long firstPage = 2 * ElasticsearchIndexScan.ROW_OVERHEAD + john.getSourceRef().length();
+    long secondPage = ElasticsearchIndexScan.ROW_OVERHEAD + smith.getSourceRef().length();
+
+    try (ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, "employees")) {
+      indexScan.setResourceMonitor(monitor);
+      indexScan.open();
+      verify(monitor).reserveMemory(firstPage, "<table scan>");
+
+      indexScan.next();
+      indexScan.next();
+      verify(monitor, never()).releaseMemory(anyLong());
+      assertTrue(indexScan.hasNext());
+      verify(monitor).releaseMemory(firstPage);
+      verify(monitor).reserveMemory(secondPage, "<table scan>");
+      indexScan.next();
+    }
+    verify(monitor).releaseMemory(secondPage);
+    verify(monitor, times(2)).releaseMemory(anyLong());
+  }
+
+  @Test
+  void reservePageMemoryWhenConsumedInBatches() {
+    SearchHit john = employee(1, "John", "IT");
+    SearchHit smith = employee(2, "Smith", "HR");
+    mockResponse(new SearchHit[] {john}, new SearchHit[] {smith});
+    ResourceMonitor monitor = mock(ResourceMonitor.class);
+    long firstPage = ElasticsearchIndexScan.ROW_OVERHEAD + john.getSourceRef().length();
+    long secondPage = ElasticsearchIndexScan.ROW_OVERHEAD + smith.getSourceRef().length();
+
+    try (ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, "employees")) {
+      indexScan.setResourceMonitor(monitor);
+      indexScan.open();
+      assertEquals(2, indexScan.nextBatch(10).size());
+      verify(monitor).reserveMemory(firstPage, "<table scan>");
+      verify(monitor).reserveMemory(secondPage, "<table scan>");
+      verify(monitor).releaseMemory(firstPage);
+      verify(monitor).releaseMemory(secondPage);
+    }
+    verify(monitor, times(2)).releaseMemory(anyLong());
+  }
+
+  @Test
+  void internSchemaOfHitsWithSameFields() {
+    int max = ElasticsearchIndexScan.MAX_INTERNED_SCHEMAS;
+    List<SearchHit> hits = new ArrayList<>();
+    hits.add(employee(1, "John", "IT"));
+    hits.add(employee(2, "Smith", "HR"));
+    for (int i = 1; i < max; i++) {
+      hits.add(hit(i, "{\"field" + i + "\":" + i + "}"));
+    }
+    hits.add(hit(max, "{\"other\":1}"));
+    hits.add(employee(3, "Allen", "IT"));
+    hits.add(hit(max + 1, "{\"other\":2}"));
+    mockResponse(hits.toArray(new SearchHit[0]));
+
+    List<ExprTupleSchema> schemas = new ArrayList<>();
+    try (ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, "employees")) {
+      indexScan.open();
+      indexScan.forEachRemaining(row -> schemas.add(((ExprTupleValue) row).getSchema()));
+    }
+    assertEquals(max + 4, schemas.size());
+    assertSame(schemas.get(0), schemas.get(1));
+    assertSame(schemas.get(0), schemas.get(max + 2));
+    assertNotSame(schemas.get(max + 1), schemas.get(max + 3));
+    assertEquals(Arrays.asList("name", "department"), fieldNames(schemas.get(max + 2)));
+    assertEquals(Arrays.asList("other"), fieldNames(schemas.get(max + 3)));
+  }
+
+  @Test
+  void explainPushDowns() {
+    try (ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, "employees")) {
+      assertEquals(ImmutableMap.of("index", "employees", "request", ImmutableMap.of()),
+          indexScan.explain());
+
+      indexScan.pushDownFilter(termQuery("department", "IT"));
+      indexScan.pushDownProjects(ImmutableSet.of("name"));
+      indexScan.pushDownSort(Arrays.asList(SortBuilders.fieldSort("name")));
+      indexScan.pushDownLimit(2);
+
+      ElasticsearchRequest request = new ElasticsearchRequest("employees");
+      request.getSourceBuilder()
+          .query(boolQuery().filter(termQuery("department", "IT")))
+          .fetchSource(new String[] {"name"}, null)
+          .sort(SortBuilders.fieldSort("name"))
+          .size(2);
+      assertEquals(
+          ImmutableMap.of(
+              "index", "employees",
+              "request", XContentHelper.convertToMap(
+                  XContentType.JSON.xContent(), request.getSourceBuilder().toString(), true),
+              "limit", 2),
+          indexScan.explain());
+    }
+  }
+
   private void mockResponse(SearchHit[]... searchHitBatches) {
     when(client.search(any()))
         .thenAnswer(
@@ -110,6 +459,20 @@ class ElasticsearchIndexScanTest {
     return hit;
   }
 
+  private SearchHit hit(int docId, String source) {
+    SearchHit hit = new SearchHit(docId);
+    hit.sourceRef(new BytesArray(source));
+    return hit;
+  }
+
+  private List<String> fieldNames(ExprTupleSchema schema) {
+    List<String> names = new ArrayList<>();
+    for (int i = 0; i < schema.size(); i++) {
+      names.add(schema.fieldName(i));
+    }
+    return names;
+  }
+
   private ExprValue tupleValue(SearchHit hit) {
     return ExprValueUtils.tupleValue(hit.getSourceAsMap());
   }
@@ -29,11 +29,18 @@ import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalP
 import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.remove;
 import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.rename;
 import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.sort;
+import static org.elasticsearch.index.query.QueryBuilders.rangeQuery;
+import static org.elasticsearch.index.query.QueryBuilders.termQuery;
+import static org.elasticsearch.search.sort.SortBuilders.fieldSort;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.aMapWithSize;
 import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort;
@@ -43,20 +50,26 @@ import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.client.ElasticsearchClient;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMapping;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMappingCache;
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
 import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.Aggregator;
 import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.AvgAggregator;
+import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlanDSL;
 import com.amazon.opendistroforelasticsearch.sql.storage.Table;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
+import org.elasticsearch.search.sort.SortOrder;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -65,8 +78,12 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 class ElasticsearchIndexTest {
 
+  private final DSL dsl = new ExpressionConfig().dsl(new ExpressionConfig().functionRepository());
+
   @Mock private ElasticsearchClient client;
 
+  private final IndexMappingCache mappingCache = new IndexMappingCache();
+
   @Test
   void getFieldTypes() {
     when(client.getIndexMappings("test"))
@@ -87,7 +104,7 @@ class ElasticsearchIndexTest {
                         .put("birthday", "date")
                         .build())));
 
-    Table index = new ElasticsearchIndex(client, "test");
+    Table index = new ElasticsearchIndex(client, mappingCache, "test");
     Map<String, ExprType> fieldTypes = index.getFieldTypes();
     assertThat(
         fieldTypes,
@@ -105,11 +122,29 @@ class ElasticsearchIndexTest {
             hasEntry("birthday", ExprCoreType.UNKNOWN)));
   }
 
+  @Test
+  void getFieldTypesCachedByMetadataVersion() {
+    when(client.getMetadataVersion())
+        .thenReturn(OptionalLong.of(1L), OptionalLong.of(1L), OptionalLong.of(2L));
+    when(client.getIndexMappings("test"))
+        .thenReturn(ImmutableMap.of("test", new IndexMapping(ImmutableMap.of("name", "keyword"))));
+
+    Map<String, ExprType> fieldTypes =
+        new ElasticsearchIndex(client, mappingCache, "test").getFieldTypes();
+    assertSame(fieldTypes, new ElasticsearchIndex(client, mappingCache, "test").getFieldTypes());
+
+    Map<String, ExprType> reloaded =
+        new ElasticsearchIndex(client, mappingCache, "test").getFieldTypes();
+    assertNotSame(fieldTypes, reloaded);
+    assertEquals(fieldTypes, reloaded);
+    verify(client, times(2)).getIndexMappings("test");
+  }
+
   @Test
   void implementRelationOperatorOnly() {
     String indexName = "test";
     LogicalPlan plan = relation(indexName);
-    Table index = new ElasticsearchIndex(client, indexName);
+    Table index = new ElasticsearchIndex(client, mappingCache, indexName);
     assertEquals(new ElasticsearchIndexScan(client, indexName), index.implement(plan));
   }
 
@@ -149,7 +184,9 @@ class ElasticsearchIndexTest {
                 dedupeField),
             include);
 
-    Table index = new ElasticsearchIndex(client, indexName);
+    ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, indexName);
+    indexScan.pushDownProjects(ImmutableSet.of("age", "name", "name1", "lastname"));
+    Table index = new ElasticsearchIndex(client, mappingCache, indexName);
     assertEquals(
         PhysicalPlanDSL.project(
             PhysicalPlanDSL.dedupe(
@@ -158,8 +195,7 @@ class ElasticsearchIndexTest {
                         PhysicalPlanDSL.remove(
                             PhysicalPlanDSL.rename(
                                 PhysicalPlanDSL.agg(
-                                    PhysicalPlanDSL.filter(
-                                        new ElasticsearchIndexScan(client, indexName), filterExpr),
+                                    PhysicalPlanDSL.filter(indexScan, filterExpr),
                                     aggregators,
                                     groupByExprs),
                                 mappings),
@@ -171,4 +207,233 @@ class ElasticsearchIndexTest {
             include),
         index.implement(plan));
   }
+
+  @Test
+  void implementFilterWithPushDown() {
+    String indexName = "test";
+    when(client.getIndexMappings(indexName))
+        .thenReturn(
+            ImmutableMap.of(
+                indexName,
+                new IndexMapping(ImmutableMap.of("name", "keyword", "age", "integer"))));
+    Expression residue = dsl.like(ref("name", STRING), literal("J%"));
+    LogicalPlan plan =
+        filter(
+            relation(indexName),
+            dsl.and(
+                dsl.and(dsl.equal(ref("name", STRING), literal("John")), residue),
+                dsl.greater(ref("age", INTEGER), literal(30))));
+
+    ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, indexName);
+    indexScan.pushDownFilter(termQuery("name", "John"));
+    indexScan.pushDownFilter(rangeQuery("age").gt(30));
+    Table index = new ElasticsearchIndex(client, mappingCache, indexName);
+    assertEquals(PhysicalPlanDSL.filter(indexScan, residue), index.implement(plan));
+  }
+
+  @Test
+  void implementStackedFiltersWithPushDown() {
+    String indexName = "test";
+    when(client.getIndexMappings(indexName))
+        .thenReturn(
+            ImmutableMap.of(
+                indexName,
+                new IndexMapping(ImmutableMap.of("name", "keyword", "age", "integer"))));
+    LogicalPlan plan =
+        filter(
+            filter(relation(indexName), dsl.equal(ref("name", STRING), literal("John"))),
+            dsl.not(dsl.greater(ref("age", INTEGER), literal(30))));
+
+    ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, indexName);
+    indexScan.pushDownFilter(termQuery("name", "John"));
+    indexScan.pushDownFilter(rangeQuery("age").lte(30));
+    Table index = new ElasticsearchIndex(client, mappingCache, indexName);
+    assertEquals(indexScan, index.implement(plan));
+  }
+
+  @Test
+  void implementFilterWithoutPushDownAboveResidue() {
+    String indexName = "test";
+    when(client.getIndexMappings(indexName))
+        .thenReturn(
+            ImmutableMap.of(indexName, new IndexMapping(ImmutableMap.of("name", "keyword"))));
+    Expression residue = dsl.like(ref("name", STRING), literal("J%"));
+    Expression condition = dsl.equal(ref("name", STRING), literal("John"));
+    LogicalPlan plan = filter(filter(relation(indexName), residue), condition);
+
+    Table index = new ElasticsearchIndex(client, mappingCache, indexName);
+    assertEquals(
+        PhysicalPlanDSL.filter(
+            PhysicalPlanDSL.filter(new ElasticsearchIndexScan(client, indexName), residue),
+            condition),
+        index.implement(plan));
+  }
+
+  @Test
+  void implementFilterWithoutPushDownIfFieldTypeConflicts() {
+    String indexName = "test*";
+    when(client.getIndexMappings(indexName))
+        .thenReturn(
+            ImmutableMap.of(
+                "test1", new IndexMapping(ImmutableMap.of("name", "keyword", "age", "integer")),
+                "test2", new IndexMapping(ImmutableMap.of("name", "keyword", "age", "text"))));
+    Expression condition =
+        dsl.and(
+            dsl.equal(ref("name", STRING), literal("John")),
+            dsl.equal(ref("age", INTEGER), literal(30)));
+    LogicalPlan plan = filter(relation(indexName), condition);
+
+    ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, indexName);
+    indexScan.pushDownFilter(termQuery("name", "John"));
+    Table index = new ElasticsearchIndex(client, mappingCache, indexName);
+    assertEquals(
+        PhysicalPlanDSL.filter(indexScan, dsl.equal(ref("age", INTEGER), literal(30))),
+        index.implement(plan));
+  }
+
+  @Test
+  void implementSortWithPushDown() {
+    String indexName = "test";
+    when(client.getIndexMappings(indexName))
+        .thenReturn(
+            ImmutableMap.of(
+                indexName,
+                new IndexMapping(ImmutableMap.of("name", "keyword", "age", "integer"))));
+    LogicalPlan plan =
+        filter(
+            sort(
+                filter(relation(indexName), dsl.equal(ref("name", STRING), literal("John"))),
+                10,
+                ImmutablePair.of(SortOption.PPL_DESC, ref("age", INTEGER))),
+            dsl.greater(ref("age", INTEGER), literal(30)));
+
+    ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, indexName);
+    indexScan.pushDownFilter(termQuery("name", "John"));
+    indexScan.pushDownSort(
+        Arrays.asList(fieldSort("age").order(SortOrder.DESC).missing("_last")));
+    indexScan.pushDownLimit(10);
+    Table index = new ElasticsearchIndex(client, mappingCache, indexName);
+    assertEquals(
+        PhysicalPlanDSL.filter(indexScan, dsl.greater(ref("age", INTEGER), literal(30))),
+        index.implement(plan));
+  }
+
+  @Test
+  void implementSortWithoutCountWithPushDown() {
+    String indexName = "test";
+    when(client.getIndexMappings(indexName))
+        .thenReturn(
+            ImmutableMap.of(
+                indexName,
+                new IndexMapping(ImmutableMap.of("name", "keyword", "age", "integer"))));
+    Pair<SortOption, Expression> sortByName =
+        ImmutablePair.of(SortOption.PPL_ASC, ref("name", STRING));
+    LogicalPlan plan =
+        sort(
+            sort(relation(indexName), null,
+                ImmutablePair.of(SortOption.PPL_ASC, ref("age", INTEGER))),
+            null,
+            sortByName);
+
+    ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, indexName);
+    indexScan.pushDownSort(
+        Arrays.asList(fieldSort("age").order(SortOrder.ASC).missing("_first")));
+    Table index = new ElasticsearchIndex(client, mappingCache, indexName);
+    assertEquals(PhysicalPlanDSL.sort(indexScan, null, sortByName), index.implement(plan));
+  }
+
+  @Test
+  void implementSortWithoutPushDown() {
+    String indexName = "test";
+    when(client.getIndexMappings(indexName))
+        .thenReturn(
+            ImmutableMap.of(indexName, new IndexMapping(ImmutableMap.of("address", "text"))));
+    Pair<SortOption, Expression> sortByAddress =
+        ImmutablePair.of(SortOption.PPL_ASC, ref("address", STRING));
+    LogicalPlan plan = sort(relation(indexName), 10, sortByAddress);
+
+    Table index = new ElasticsearchIndex(client, mappingCache, indexName);
+    assertEquals(
+        PhysicalPlanDSL.sort(new ElasticsearchIndexScan(client, indexName), 10, sortByAddress),
+        index.implement(plan));
+  }
+
+  @Test
+  void implementAggregationWithPushDown() {
+    String indexName = "test";
+    Map<String, String> mapping = ImmutableMap.of("name", "keyword", "age", "integer");
+    when(client.getIndexMappings(indexName))
+        .thenReturn(ImmutableMap.of(indexName, new IndexMapping(mapping)));
+    List<Aggregator> aggregators = Arrays.asList(dsl.count(ref("age", INTEGER)));
+    List<Expression> groupByList = Arrays.asList(ref("age", INTEGER));
+    Expression havingCondition = dsl.greater(ref("count(age)", INTEGER), literal(1));
+    Pair<SortOption, Expression> sortByCount =
+        ImmutablePair.of(SortOption.PPL_DESC, ref("count(age)", INTEGER));
+    LogicalPlan plan =
+        sort(
+            filter(
+                aggregation(
+                    filter(relation(indexName), dsl.equal(ref("name", STRING), literal("John"))),
+                    aggregators,
+                    groupByList),
+                havingCondition),
+            10,
+            sortByCount);
+
+    ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, indexName);
+    indexScan.pushDownProjects(ImmutableSet.of("name", "age", "count(age)"));
+    indexScan.pushDownFilter(termQuery("name", "John"));
+    indexScan.pushDownAggregation(
+        new AggregationQueryBuilder(mapping::get).build(aggregators, groupByList).get());
+    Table index = new ElasticsearchIndex(client, mappingCache, indexName);
+    assertEquals(
+        PhysicalPlanDSL.sort(PhysicalPlanDSL.filter(indexScan, havingCondition), 10, sortByCount),
+        index.implement(plan));
+  }
+
+  @Test
+  void implementAggregationWithoutPushDown() {
+    String indexName = "test";
+    Map<String, String> mapping = ImmutableMap.of("address", "text", "age", "integer");
+    when(client.getIndexMappings(indexName))
+        .thenReturn(ImmutableMap.of(indexName, new IndexMapping(mapping)));
+    List<Aggregator> aggregators = Arrays.asList(dsl.count(ref("age", INTEGER)));
+    List<Expression> groupByText = Arrays.asList(ref("address", STRING));
+    List<Expression> groupByAge = Arrays.asList(ref("age", INTEGER));
+    Pair<SortOption, Expression> sortByAge =
+        ImmutablePair.of(SortOption.PPL_ASC, ref("age", INTEGER));
+
+    ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, indexName);
+    indexScan.pushDownProjects(ImmutableSet.of("address", "age"));
+    Table index = new ElasticsearchIndex(client, mappingCache, indexName);
+    assertEquals(
+        PhysicalPlanDSL.agg(indexScan, aggregators, groupByText),
+        index.implement(aggregation(relation(indexName), aggregators, groupByText)));
+
+    ElasticsearchIndexScan sortedScan = new ElasticsearchIndexScan(client, indexName);
+    sortedScan.pushDownProjects(ImmutableSet.of("age"));
+    sortedScan.pushDownSort(
+        Arrays.asList(fieldSort("age").order(SortOrder.ASC).missing("_first")));
+    sortedScan.pushDownLimit(10);
+    assertEquals(
+        PhysicalPlanDSL.agg(sortedScan, aggregators, groupByAge),
+        index.implement(
+            aggregation(sort(relation(indexName), 10, sortByAge), aggregators, groupByAge)));
+
+    ElasticsearchIndexScan aggregatedScan = new ElasticsearchIndexScan(client, indexName);
+    aggregatedScan.pushDownProjects(ImmutableSet.of("age"));
+    aggregatedScan.pushDownAggregation(
+        new AggregationQueryBuilder(mapping::get).build(aggregators, groupByAge).get());
+    assertEquals(
+        PhysicalPlanDSL.agg(aggregatedScan, aggregators, groupByAge),
+        index.implement(
+            aggregation(
+                aggregation(relation(indexName), aggregators, groupByAge),
+                aggregators,
+                groupByAge)));
+    assertEquals(
+        PhysicalPlanDSL.sort(aggregatedScan, 10, sortByAge),
+        index.implement(
+            sort(aggregation(relation(indexName), aggregators, groupByAge), 10, sortByAge)));
+  }
 }
@@ -16,10 +16,14 @@
 
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.when;
 
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.client.ElasticsearchClient;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMappingCache;
 import com.amazon.opendistroforelasticsearch.sql.storage.Table;
+import java.util.OptionalLong;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -32,8 +36,15 @@ class ElasticsearchStorageEngineTest {
 
   @Test
   public void getTable() {
-    ElasticsearchStorageEngine engine = new ElasticsearchStorageEngine(client);
+    ElasticsearchStorageEngine engine = new ElasticsearchStorageEngine(client, new IndexMappingCache());
     Table table = engine.getTable("test");
     assertNotNull(table);
   }
+
+  @Test
+  public void getMetadataVersion() {
+    when(client.getMetadataVersion()).thenReturn(OptionalLong.of(1L));
+    ElasticsearchStorageEngine engine = new ElasticsearchStorageEngine(client, new IndexMappingCache());
+    assertEquals(OptionalLong.of(1L), engine.getMetadataVersion());
+  }
 }
@@ -0,0 +1,222 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_MISSING;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_NULL;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.BOOLEAN;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.DOUBLE;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.FLOAT;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.LONG;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+import static com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName.EQUAL;
+import static org.elasticsearch.index.query.QueryBuilders.boolQuery;
+import static org.elasticsearch.index.query.QueryBuilders.rangeQuery;
+import static org.elasticsearch.index.query.QueryBuilders.termQuery;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
+import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionName;
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class FilterQueryBuilderTest {
+
+  private final DSL dsl = new ExpressionConfig().dsl(new ExpressionConfig().functionRepository());
+
+  private final FilterQueryBuilder queryBuilder =
+      new FilterQueryBuilder(
+          ImmutableMap.<String, String>builder()
+              .put("name", "keyword")
+              .put("address", "text")
+              .put("age", "integer")
+              .put("account_number", "long")
+              .put("balance1", "float")
+              .put("balance2", "double")
+              .put("gender", "boolean")
+              .build()::get);
+
+  @Test
+  void buildTermQueryForEqual() {
+    assertEquals(
+        Optional.of(termQuery("name", "John")),
+        queryBuilder.build(dsl.equal(ref("name", STRING), literal("John"))));
+    assertEquals(
+        Optional.of(termQuery("age", 30)),
+        queryBuilder.build(dsl.equal(literal(30), ref("age", INTEGER))));
+    assertEquals(
+        Optional.of(termQuery("gender", true)),
+        queryBuilder.build(dsl.equal(ref("gender", BOOLEAN), literal(true))));
+  }
+
+  @Test
+  void buildMustNotTermQueryForNotEqual() {
+    assertEquals(
+        Optional.of(boolQuery().mustNot(termQuery("account_number", 1L))),
+        queryBuilder.build(dsl.notequal(ref("account_number", LONG), literal(1L))));
+  }
+
+  @Test
+  void buildRangeQuery() {
+    assertEquals(
+        Optional.of(rangeQuery("age").lt(30)),
+        queryBuilder.build(dsl.less(ref("age", INTEGER), literal(30))));
+    assertEquals(
+        Optional.of(rangeQuery("age").lte(30)),
+        queryBuilder.build(dsl.lte(ref("age", INTEGER), literal(30))));
+    assertEquals(
+        Optional.of(rangeQuery("balance2").gt(1.5)),
+        queryBuilder.build(dsl.greater(ref("balance2", DOUBLE), literal(1.5))));
+    assertEquals(
+        Optional.of(rangeQuery("account_number").gte(1L)),
+        queryBuilder.build(dsl.gte(ref("account_number", LONG), literal(1L))));
+  }
+
+  @Test
+  void swapOperandsIfLiteralOnLeft() {
+    assertEquals(
+        Optional.of(rangeQuery("age").gt(30)),
+        queryBuilder.build(dsl.less(literal(30), ref("age", INTEGER))));
+    assertEquals(
+        Optional.of(rangeQuery("age").lte(30)),
+        queryBuilder.build(dsl.gte(literal(30), ref("age", INTEGER))));
+  }
+
+  @Test
+  void buildBoolQueryForAndOr() {
+    assertEquals(
+        Optional.of(
+            boolQuery()
+                .filter(termQuery("name", "John"))
+                .filter(
+                    boolQuery()
+                        .should(rangeQuery("age").lt(20))
+                        .should(rangeQuery("age").gt(60)))),
+        queryBuilder.build(
+            dsl.and(
+                dsl.equal(ref("name", STRING), literal("John")),
+                dsl.or(
+                    dsl.less(ref("age", INTEGER), literal(20)),
+                    dsl.greater(ref("age", INTEGER), literal(60))))));
+  }
+
+  @Test
+  void pushNotDownToComparison() {
+    assertEquals(
+        Optional.of(rangeQuery("age").gte(30)),
+        queryBuilder.build(dsl.not(dsl.less(ref("age", INTEGER), literal(30)))));
+    assertEquals(
+        Optional.of(termQuery("name", "John")),
+        queryBuilder.build(dsl.not(dsl.notequal(ref("name", STRING), literal("John")))));
+    assertEquals(
+        Optional.of(
+            boolQuery()
+                .should(boolQuery().mustNot(termQuery("name", "John")))
+                .should(rangeQuery("age").gt(30))),
+        queryBuilder.build(
+            dsl.not(
+                dsl.and(
+                    dsl.equal(ref("name", STRING), literal("John")),
+                    dsl.lte(ref("age", INTEGER), literal(30))))));
+    assertEquals(
+        Optional.of(
+            boolQuery()
+                .filter(rangeQuery("age").lte(20))
+                .filter(rangeQuery("age").lt(60))),
+        queryBuilder.build(
+            dsl.not(
+                dsl.or(
+                    dsl.greater(ref("age", INTEGER), literal(20)),
+                    dsl.not(dsl.less(ref("age", INTEGER), literal(60)))))));
+  }
+
+  @Test
+  void notBuildQueryForUnsupportedFieldType() {
+    assertEquals(
+        Optional.empty(),
+        queryBuilder.build(dsl.equal(ref("address", STRING), literal("Seattle"))));
+    assertEquals(
+        Optional.empty(),
+        queryBuilder.build(dsl.equal(ref("balance1", FLOAT), literal(1.5f))));
+    assertEquals(
+        Optional.empty(),
+        queryBuilder.build(dsl.equal(ref("unknown", STRING), literal("John"))));
+    assertEquals(
+        Optional.empty(),
+        queryBuilder.build(dsl.equal(ref("age", LONG), literal(30L))));
+    assertEquals(
+        Optional.empty(),
+        queryBuilder.build(dsl.less(ref("name", STRING), literal("John"))));
+  }
+
+  @Test
+  void notBuildQueryForUnsupportedExpression() {
+    assertEquals(Optional.empty(), queryBuilder.build(literal(true)));
+    assertEquals(
+        Optional.empty(),
+        queryBuilder.build(dsl.like(ref("name", STRING), literal("J%"))));
+    assertEquals(
+        Optional.empty(),
+        queryBuilder.build(dsl.equal(ref("name", STRING), ref("address", STRING))));
+    assertEquals(
+        Optional.empty(),
+        queryBuilder.build(dsl.greater(dsl.abs(ref("age", INTEGER)), literal(30))));
+    assertEquals(
+        Optional.empty(),
+        queryBuilder.build(
+            dsl.or(
+                dsl.equal(ref("name", STRING), literal("John")),
+                dsl.like(ref("name", STRING), literal("J%")))));
+    assertEquals(
+        Optional.empty(),
+        queryBuilder.build(
+            function(EQUAL.getName(), ref("name", STRING), literal(LITERAL_NULL))));
+    assertEquals(
+        Optional.empty(),
+        queryBuilder.build(
+            function(EQUAL.getName(), ref("name", STRING), literal(LITERAL_MISSING))));
+    assertEquals(
+        Optional.empty(),
+        queryBuilder.build(
+            function(FunctionName.of("unknown"), ref("name", STRING), literal("John"))));
+  }
+
+  private FunctionExpression function(FunctionName name, Expression... args) {
+    return new FunctionExpression(name, Arrays.asList(args)) {
+      @Override
+      public ExprValue valueOf(Environment<Expression, ExprValue> env) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public ExprType type() {
+        return BOOLEAN;
+      }
+    };
+  }
+}
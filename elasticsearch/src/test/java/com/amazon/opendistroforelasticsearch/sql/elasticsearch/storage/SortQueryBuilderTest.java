@@ -0,0 +1,84 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.SortOption;
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.Optional;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
+import org.junit.jupiter.api.Test;
+
+class SortQueryBuilderTest {
+
+  private final DSL dsl = new ExpressionConfig().dsl(new ExpressionConfig().functionRepository());
+
+  private final SortQueryBuilder queryBuilder =
+      new SortQueryBuilder(
+          ImmutableMap.of("name", "keyword", "address", "text", "age", "integer")::get);
+
+  @Test
+  void buildFieldSorts() {
+    assertEquals(
+        Optional.of(
+            Arrays.asList(
+                SortBuilders.fieldSort("age").order(SortOrder.DESC).missing("_last"),
+                SortBuilders.fieldSort("name").order(SortOrder.ASC).missing("_first"))),
+        queryBuilder.build(
+            Arrays.asList(
+                sortField(SortOption.PPL_DESC, ref("age", INTEGER)),
+                sortField(SortOption.PPL_ASC, ref("name", STRING)))));
+  }
+
+  @Test
+  void notBuildFieldSortsIfAnyKeyUnsupported() {
+    assertEquals(
+        Optional.empty(),
+        queryBuilder.build(
+            Arrays.asList(
+                sortField(SortOption.PPL_ASC, ref("name", STRING)),
+                sortField(SortOption.PPL_ASC, ref("address", STRING)))));
+    assertEquals(
+        Optional.empty(),
+        queryBuilder.build(
+            Arrays.asList(sortField(SortOption.PPL_ASC, ref("unknown", STRING)))));
+    assertEquals(
+        Optional.empty(),
+        queryBuilder.build(
+            Arrays.asList(
+                sortField(SortOption.PPL_ASC, dsl.abs(ref("age", INTEGER))))));
+    assertEquals(
+        Optional.empty(),
+        queryBuilder.build(Arrays.asList(sortField(SortOption.PPL_ASC, literal(1)))));
+  }
+
+  private Pair<SortOption, Expression> sortField(SortOption option, Expression expr) {
+    return ImmutablePair.of(option, expr);
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.DOUBLE;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.aggregation;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.dedupe;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.eval;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.filter;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.project;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.relation;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.remove;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.rename;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.sort;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.SortOption;
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.junit.jupiter.api.Test;
+
+class SourceFieldsCollectorTest {
+
+  private final DSL dsl = new ExpressionConfig().dsl(new ExpressionConfig().functionRepository());
+
+  @Test
+  void collectFieldsReferencedByProject() {
+    assertEquals(
+        Optional.of(ImmutableSet.of("name", "age", "age2", "balance", "gender", "city", "address")),
+        SourceFieldsCollector.collect(
+            project(
+                sort(
+                    dedupe(
+                        eval(
+                            rename(
+                                filter(
+                                    relation("test"),
+                                    dsl.greater(ref("age", INTEGER), literal(30))),
+                                ImmutableMap.of(ref("city", STRING), ref("address", STRING))),
+                            ImmutablePair.of(
+                                ref("age2", INTEGER),
+                                dsl.multiply(ref("age", INTEGER), literal(2)))),
+                        ref("gender", STRING)),
+                    10,
+                    ImmutablePair.of(SortOption.PPL_ASC, ref("balance", DOUBLE))),
+                ref("name", STRING), ref("age2", INTEGER))));
+  }
+
+  @Test
+  void collectFieldsReferencedByAggregation() {
+    assertEquals(
+        Optional.of(ImmutableSet.of("age", "gender")),
+        SourceFieldsCollector.collect(
+            remove(
+                aggregation(
+                    relation("test"),
+                    Arrays.asList(dsl.avg(ref("age", INTEGER))),
+                    Arrays.asList(ref("gender", STRING))),
+                ref("gender", STRING))));
+  }
+
+  @Test
+  void collectNoFieldIfNotReferenced() {
+    assertEquals(
+        Optional.of(Collections.emptySet()),
+        SourceFieldsCollector.collect(
+            aggregation(
+                relation("test"),
+                Arrays.asList(dsl.count(literal(1))),
+                Collections.emptyList())));
+  }
+
+  @Test
+  void collectNothingIfAllFieldsNeeded() {
+    assertEquals(
+        Optional.empty(),
+        SourceFieldsCollector.collect(
+            remove(
+                filter(relation("test"), dsl.greater(ref("age", INTEGER), literal(30))),
+                ref("name", STRING))));
+  }
+}
@@ -19,25 +19,33 @@ package com.amazon.opendistroforelasticsearch.sql.ppl;
 import static com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style.PRETTY;
 
 import com.amazon.opendistroforelasticsearch.sql.common.response.ResponseListener;
+import com.amazon.opendistroforelasticsearch.sql.common.setting.Settings;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.client.ElasticsearchClient;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.client.ElasticsearchRestClient;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.ElasticsearchExecutionEngine;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector.ElasticsearchExecutionProtector;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMappingCache;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.ElasticsearchStorageEngine;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine.QueryResponse;
 import com.amazon.opendistroforelasticsearch.sql.monitor.AlwaysHealthyMonitor;
+import com.amazon.opendistroforelasticsearch.sql.planner.LogicalPlanCache;
 import com.amazon.opendistroforelasticsearch.sql.ppl.config.PPLServiceConfig;
 import com.amazon.opendistroforelasticsearch.sql.ppl.domain.PPLQueryRequest;
 import com.amazon.opendistroforelasticsearch.sql.protocol.response.QueryResult;
 import com.amazon.opendistroforelasticsearch.sql.protocol.response.format.SimpleJsonResponseFormatter;
 import com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine;
+import com.google.common.collect.ImmutableMap;
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicReference;
 import org.elasticsearch.client.Node;
 import org.elasticsearch.client.Request;
 import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
@@ -61,9 +69,12 @@ public class StandaloneIT extends PPLIntegTestCase {
     ElasticsearchClient client = new ElasticsearchRestClient(restClient);
     AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
     context.registerBean(StorageEngine.class,
-        () -> new ElasticsearchStorageEngine(client));
+        () -> new ElasticsearchStorageEngine(client, new IndexMappingCache()));
     context.registerBean(ExecutionEngine.class, () -> new ElasticsearchExecutionEngine(client,
-        new ElasticsearchExecutionProtector(new AlwaysHealthyMonitor())));
+        new ElasticsearchExecutionProtector(new AlwaysHealthyMonitor(), defaultSettings(),
+            ForkJoinPool.commonPool())));
+    context.registerBean(LogicalPlanCache.class,
+        () -> new LogicalPlanCache(LogicalPlanCache.DEFAULT_CAPACITY));
     context.register(PPLServiceConfig.class);
     context.refresh();
 
@@ -122,4 +133,18 @@ public class StandaloneIT extends PPLIntegTestCase {
         });
     return actual.get();
   }
+
+  private Settings defaultSettings() {
+    return new Settings() {
+      private final Map<Key, Object> defaultSettings = ImmutableMap.of(
+          Key.PPL_QUERY_OPERATOR_MEMORY_LIMIT, new ByteSizeValue(100, ByteSizeUnit.MB),
+          Key.PPL_QUERY_OPERATOR_PARALLELISM, 1);
+
+      @SuppressWarnings("unchecked")
+      @Override
+      public <T> T getSettingValue(Key key) {
+        return (T) defaultSettings.get(key);
+      }
+    };
+  }
 }
@@ -15,6 +15,7 @@
 
 package com.amazon.opendistroforelasticsearch.sql.legacy.antlr;
 
+import com.amazon.opendistroforelasticsearch.sql.common.antlr.TwoStageParser;
 import com.amazon.opendistroforelasticsearch.sql.legacy.antlr.parser.OpenDistroSqlLexer;
 import com.amazon.opendistroforelasticsearch.sql.legacy.antlr.parser.OpenDistroSqlParser;
 import com.amazon.opendistroforelasticsearch.sql.legacy.antlr.semantic.scope.SemanticContext;
@@ -33,6 +34,8 @@ import org.antlr.v4.runtime.tree.ParseTree;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -42,6 +45,15 @@ public class OpenDistroSqlAnalyzer {
 
     private static final Logger LOG = LogManager.getLogger();
 
+    /** Representative queries parsed by {@link #warmUp()} */
+    static final List<String> WARM_UP_QUERIES = Arrays.asList(
+        "SELECT * FROM t",
+        "SELECT a, b AS c FROM t WHERE a > 1 AND b = 'x' ORDER BY a DESC LIMIT 10",
+        "SELECT a, COUNT(*) AS cnt FROM t GROUP BY a HAVING COUNT(*) > 1",
+        "SELECT t1.a, t2.b FROM t1 JOIN t2 ON t1.id = t2.id WHERE t1.c IS NOT NULL",
+        "SELECT ABS(a) + 1 FROM t WHERE a IN (1, 2) OR b LIKE 'x%' OR c BETWEEN 1 AND 10"
+    );
+
     /** Original sql query */
     private final SqlAnalysisConfig config;
 
@@ -75,8 +87,15 @@ public class OpenDistroSqlAnalyzer {
      */
     public ParseTree analyzeSyntax(String sql) {
         OpenDistroSqlParser parser = createParser(createLexer(sql));
-        parser.addErrorListener(new SyntaxAnalysisErrorListener());
-        return parser.root();
+        return TwoStageParser.parse(parser, new SyntaxAnalysisErrorListener(), OpenDistroSqlParser::root);
+    }
+
+    /**
+     * Parse the representative queries to prime the DFA cache shared by all parser instances,
+     * so the first queries after node start don't pay for building it.
+     */
+    public void warmUp() {
+        WARM_UP_QUERIES.forEach(this::analyzeSyntax);
     }
 
     /**
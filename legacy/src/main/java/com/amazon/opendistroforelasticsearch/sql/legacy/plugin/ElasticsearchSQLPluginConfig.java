@@ -17,21 +17,28 @@
 
 package com.amazon.opendistroforelasticsearch.sql.legacy.plugin;
 
+import com.amazon.opendistroforelasticsearch.sql.common.setting.Settings;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.client.ElasticsearchClient;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.client.ElasticsearchNodeClient;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.ElasticsearchExecutionEngine;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector.ElasticsearchExecutionProtector;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector.ExecutionProtector;
-import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector.NoopExecutionProtector;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMappingCache;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.monitor.ElasticsearchMemoryBreaker;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.monitor.ElasticsearchResourceMonitor;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.ElasticsearchStorageEngine;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
+import com.amazon.opendistroforelasticsearch.sql.monitor.ResourceMonitor;
 import com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine;
+import java.util.concurrent.ForkJoinPool;
 import org.elasticsearch.client.node.NodeClient;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 
 /**
- * Elasticsearch Plugin Config for SQL.
+ * Elasticsearch Plugin Config for SQL. The SQL queries are protected the same way as the PPL
+ * queries, so they are cancellable and profiled in the query context as well.
  */
 public class ElasticsearchSQLPluginConfig {
   @Autowired
@@ -40,14 +47,26 @@ public class ElasticsearchSQLPluginConfig {
   @Autowired
   private NodeClient nodeClient;
 
+  @Autowired
+  private IndexMappingCache mappingCache;
+
+  @Autowired
+  private ElasticsearchMemoryBreaker memoryBreaker;
+
+  @Autowired
+  private Settings settings;
+
+  @Autowired
+  private ForkJoinPool operatorPool;
+
   @Bean
   public ElasticsearchClient client() {
-    return new ElasticsearchNodeClient(clusterService, nodeClient);
+    return new ElasticsearchNodeClient(clusterService, nodeClient, mappingCache);
   }
 
   @Bean
   public StorageEngine storageEngine() {
-    return new ElasticsearchStorageEngine(client());
+    return new ElasticsearchStorageEngine(client(), mappingCache);
   }
 
   @Bean
@@ -55,8 +74,13 @@ public class ElasticsearchSQLPluginConfig {
     return new ElasticsearchExecutionEngine(client(), protector());
   }
 
+  @Bean
+  public ResourceMonitor resourceMonitor() {
+    return new ElasticsearchResourceMonitor(settings, memoryBreaker);
+  }
+
   @Bean
   public ExecutionProtector protector() {
-    return new NoopExecutionProtector();
+    return new ElasticsearchExecutionProtector(resourceMonitor(), settings, operatorPool);
   }
 }
@@ -24,25 +24,24 @@ import static org.elasticsearch.rest.RestStatus.OK;
 import com.amazon.opendistroforelasticsearch.sql.ast.tree.UnresolvedPlan;
 import com.amazon.opendistroforelasticsearch.sql.common.antlr.SyntaxCheckException;
 import com.amazon.opendistroforelasticsearch.sql.common.response.ResponseListener;
-import com.amazon.opendistroforelasticsearch.sql.elasticsearch.security.SecurityAccess;
+import com.amazon.opendistroforelasticsearch.sql.common.response.StreamingResponseListener;
+import com.amazon.opendistroforelasticsearch.sql.executor.QueryContext;
+import com.amazon.opendistroforelasticsearch.sql.executor.explain.ExplainResponse;
 import com.amazon.opendistroforelasticsearch.sql.protocol.response.QueryResult;
+import com.amazon.opendistroforelasticsearch.sql.protocol.response.format.ExplainJsonResponseFormatter;
 import com.amazon.opendistroforelasticsearch.sql.protocol.response.format.SimpleJsonResponseFormatter;
+import com.amazon.opendistroforelasticsearch.sql.protocol.response.format.StreamingJsonResponseFormatter;
 import com.amazon.opendistroforelasticsearch.sql.sql.SQLService;
-import com.amazon.opendistroforelasticsearch.sql.sql.config.SQLServiceConfig;
 import com.amazon.opendistroforelasticsearch.sql.sql.domain.SQLQueryRequest;
-import java.io.IOException;
-import java.security.PrivilegedExceptionAction;
 import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.client.node.NodeClient;
-import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.rest.BaseRestHandler;
 import org.elasticsearch.rest.BytesRestResponse;
 import org.elasticsearch.rest.RestChannel;
 import org.elasticsearch.rest.RestRequest;
 import org.elasticsearch.rest.RestStatus;
-import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
 /**
  * New SQL REST action handler. This will not be registered to Elasticsearch unless:
@@ -55,11 +54,14 @@ public class RestSQLQueryAction extends BaseRestHandler {
 
   public static final RestChannelConsumer NOT_SUPPORTED_YET = null;
 
-  private final ClusterService clusterService;
+  /**
+   * SQL service which is created once and shared by all the requests.
+   */
+  private final SQLService sqlService;
 
-  public RestSQLQueryAction(ClusterService clusterService) {
+  public RestSQLQueryAction(SQLService sqlService) {
     super();
-    this.clusterService = clusterService;
+    this.sqlService = sqlService;
   }
 
   @Override
@@ -80,64 +82,82 @@ public class RestSQLQueryAction extends BaseRestHandler {
   /**
    * Prepare REST channel consumer for a SQL query request.
    * @param request     SQL request
-   * @param nodeClient  node client
    * @return            channel consumer
    */
-  public RestChannelConsumer prepareRequest(SQLQueryRequest request, NodeClient nodeClient) {
+  public RestChannelConsumer prepareRequest(SQLQueryRequest request) {
+    return prepareRequest(request, false);
+  }
+
+  /**
+   * Prepare REST channel consumer for a SQL query request. The query is parsed upfront to fall
+   * back to the old engine if the syntax is not supported yet, while the logical plan of the query
+   * is looked up in the plan cache of the SQL service when the request is executed.
+   * @param request     SQL request
+   * @param profile     return the runtime profile of the operators along with the result
+   * @return            channel consumer
+   */
+  public RestChannelConsumer prepareRequest(SQLQueryRequest request, boolean profile) {
     if (!request.isSupported()) {
       return NOT_SUPPORTED_YET;
     }
 
-    SQLService sqlService = createSQLService(nodeClient);
     UnresolvedPlan ast;
     try {
       ast = sqlService.parse(request.getQuery());
     } catch (SyntaxCheckException e) {
       return NOT_SUPPORTED_YET;
     }
-    return channel -> sqlService.execute(ast, createListener(channel));
+    if (request.isExplainRequest()) {
+      return channel -> sqlService.explain(ast, createExplainListener(channel));
+    }
+    QueryContext context = new QueryContext(null, profile);
+    return channel -> sqlService.stream(request, context, createListener(context, channel));
   }
 
-  private SQLService createSQLService(NodeClient client) {
-    return doPrivileged(() -> {
-      AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
-      context.registerBean(ClusterService.class, () -> clusterService);
-      context.registerBean(NodeClient.class, () -> client);
-      context.register(ElasticsearchSQLPluginConfig.class);
-      context.register(SQLServiceConfig.class);
-      context.refresh();
-      return context.getBean(SQLService.class);
-    });
+  private ResponseListener<ExplainResponse> createExplainListener(RestChannel channel) {
+    SimpleJsonResponseFormatter formatter = new SimpleJsonResponseFormatter(PRETTY);
+    ExplainJsonResponseFormatter explainFormatter = new ExplainJsonResponseFormatter(PRETTY);
+    return new ResponseListener<ExplainResponse>() {
+      @Override
+      public void onResponse(ExplainResponse response) {
+        sendResponse(channel, OK, explainFormatter.format(response));
+      }
+
+      @Override
+      public void onFailure(Exception e) {
+        LOG.error("Error happened during explain", e);
+        sendResponse(channel, INTERNAL_SERVER_ERROR, formatter.format(e));
+      }
+    };
   }
 
   // TODO: duplicate code here as in RestPPLQueryAction
-  private ResponseListener<QueryResponse> createListener(RestChannel channel) {
+  private StreamingResponseListener<QueryResponse> createListener(QueryContext context,
+                                                                  RestChannel channel) {
     SimpleJsonResponseFormatter formatter = new SimpleJsonResponseFormatter(PRETTY);
-    return new ResponseListener<QueryResponse>() {
+    StreamingJsonResponseFormatter streamingFormatter = new StreamingJsonResponseFormatter(PRETTY);
+    return new StreamingResponseListener<QueryResponse>() {
       @Override
-      public void onResponse(QueryResponse response) {
-        sendResponse(OK, formatter.format(new QueryResult(response.getResults())));
+      public void onChunk(QueryResponse chunk) {
+        streamingFormatter.append(new QueryResult(chunk.getResults()));
       }
 
       @Override
-      public void onFailure(Exception e) {
-        LOG.error("Error happened during query handling", e);
-        sendResponse(INTERNAL_SERVER_ERROR, formatter.format(e));
+      public void onComplete() {
+        sendResponse(channel, OK, streamingFormatter.format(context.getProfile()));
       }
 
-      private void sendResponse(RestStatus status, String content) {
-        channel.sendResponse(new BytesRestResponse(
-            status, "application/json; charset=UTF-8", content));
+      @Override
+      public void onFailure(Exception e) {
+        LOG.error("Error happened during query handling", e);
+        sendResponse(channel, INTERNAL_SERVER_ERROR, formatter.format(e));
       }
     };
   }
 
-  private <T> T doPrivileged(PrivilegedExceptionAction<T> action) {
-    try {
-      return SecurityAccess.doPrivileged(action);
-    } catch (IOException e) {
-      throw new IllegalStateException("Failed to perform privileged action", e);
-    }
+  private void sendResponse(RestChannel channel, RestStatus status, String content) {
+    channel.sendResponse(new BytesRestResponse(
+        status, "application/json; charset=UTF-8", content));
   }
 
 }
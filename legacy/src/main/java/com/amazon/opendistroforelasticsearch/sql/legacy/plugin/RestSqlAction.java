@@ -41,13 +41,13 @@ import com.amazon.opendistroforelasticsearch.sql.legacy.rewriter.matchtoterm.Ver
 import com.amazon.opendistroforelasticsearch.sql.legacy.utils.JsonPrettyFormatter;
 import com.amazon.opendistroforelasticsearch.sql.legacy.utils.LogUtils;
 import com.amazon.opendistroforelasticsearch.sql.legacy.utils.QueryDataAnonymizer;
+import com.amazon.opendistroforelasticsearch.sql.sql.SQLService;
 import com.amazon.opendistroforelasticsearch.sql.sql.domain.SQLQueryRequest;
 import com.google.common.collect.ImmutableList;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.client.node.NodeClient;
-import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.index.IndexNotFoundException;
 import org.elasticsearch.rest.BaseRestHandler;
@@ -96,10 +96,10 @@ public class RestSqlAction extends BaseRestHandler {
      */
     private final RestSQLQueryAction newSqlQueryHandler;
 
-    public RestSqlAction(Settings settings, ClusterService clusterService) {
+    public RestSqlAction(Settings settings, SQLService sqlService) {
         super();
         this.allowExplicitIndex = MULTI_ALLOW_EXPLICIT_INDEX.get(settings);
-        this.newSqlQueryHandler = new RestSQLQueryAction(clusterService);
+        this.newSqlQueryHandler = new RestSQLQueryAction(sqlService);
     }
 
     @Override
@@ -151,7 +151,8 @@ public class RestSqlAction extends BaseRestHandler {
                                                                     sqlRequest.getSql(),
                                                                     request.path(),
                                                                     format.getFormatName());
-                RestChannelConsumer result = newSqlQueryHandler.prepareRequest(newSqlRequest, client);
+                RestChannelConsumer result = newSqlQueryHandler.prepareRequest(newSqlRequest,
+                    request.paramAsBoolean("profile", false));
                 if (result != RestSQLQueryAction.NOT_SUPPORTED_YET) {
                     LOG.info("[{}] Request {} is handled by new SQL query engine",
                         LogUtils.getRequestId(), newSqlRequest);
@@ -130,6 +130,11 @@ public class SyntaxAnalysisTest {
         validate("SELECT * FROM accounts WHERE age + 1 = 10");
     }
 
+    @Test
+    public void warmUpQueriesShouldPass() {
+        analyzer.warmUp();
+    }
+
     private void expectValidationFailWithErrorMessage(String query, String... messages) {
         exception.expect(SyntaxAnalysisException.class);
         exception.expectMessage(allOf(Arrays.stream(messages).
@@ -19,26 +19,58 @@ package com.amazon.opendistroforelasticsearch.sql.legacy.plugin;
 import static com.amazon.opendistroforelasticsearch.sql.legacy.plugin.RestSQLQueryAction.NOT_SUPPORTED_YET;
 import static com.amazon.opendistroforelasticsearch.sql.legacy.plugin.RestSqlAction.EXPLAIN_API_ENDPOINT;
 import static com.amazon.opendistroforelasticsearch.sql.legacy.plugin.RestSqlAction.QUERY_API_ENDPOINT;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
+import com.amazon.opendistroforelasticsearch.sql.planner.LogicalPlanCache;
+import com.amazon.opendistroforelasticsearch.sql.sql.SQLService;
+import com.amazon.opendistroforelasticsearch.sql.sql.config.SQLServiceConfig;
 import com.amazon.opendistroforelasticsearch.sql.sql.domain.SQLQueryRequest;
-import org.elasticsearch.client.node.NodeClient;
-import org.elasticsearch.cluster.service.ClusterService;
+import com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine;
+import java.util.OptionalLong;
+import org.elasticsearch.common.CheckedConsumer;
+import org.elasticsearch.rest.RestChannel;
 import org.json.JSONObject;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
 @RunWith(MockitoJUnitRunner.class)
 public class RestSQLQueryActionTest {
 
   @Mock
-  private ClusterService clusterService;
+  private StorageEngine storageEngine;
 
   @Mock
-  private NodeClient nodeClient;
+  private ExecutionEngine executionEngine;
+
+  @Mock
+  private RestChannel channel;
+
+  private final LogicalPlanCache planCache =
+      new LogicalPlanCache(LogicalPlanCache.DEFAULT_CAPACITY);
+
+  private SQLService sqlService;
+
+  @Before
+  public void setup() {
+    AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+    context.registerBean(StorageEngine.class, () -> storageEngine);
+    context.registerBean(ExecutionEngine.class, () -> executionEngine);
+    context.registerBean(LogicalPlanCache.class, () -> planCache);
+    context.register(SQLServiceConfig.class);
+    context.refresh();
+    sqlService = context.getBean(SQLService.class);
+  }
 
   @Test
   public void handleQueryThatCanSupport() {
@@ -48,8 +80,40 @@ public class RestSQLQueryActionTest {
         QUERY_API_ENDPOINT,
         "");
 
-    RestSQLQueryAction queryAction = new RestSQLQueryAction(clusterService);
-    assertNotSame(NOT_SUPPORTED_YET, queryAction.prepareRequest(request, nodeClient));
+    RestSQLQueryAction queryAction = new RestSQLQueryAction(sqlService);
+    assertNotSame(NOT_SUPPORTED_YET, queryAction.prepareRequest(request));
+  }
+
+  @Test
+  public void handleQueryWithPlanCache() throws Exception {
+    when(storageEngine.getMetadataVersion()).thenReturn(OptionalLong.of(1L));
+    SQLQueryRequest request = new SQLQueryRequest(
+        new JSONObject("{\"query\": \"SELECT -123\"}"),
+        "SELECT -123",
+        QUERY_API_ENDPOINT,
+        "");
+
+    RestSQLQueryAction queryAction = new RestSQLQueryAction(sqlService);
+    for (int i = 0; i < 2; i++) {
+      CheckedConsumer<RestChannel, Exception> consumer = queryAction.prepareRequest(request);
+      consumer.accept(channel);
+    }
+
+    assertEquals(1, planCache.missCount());
+    assertEquals(1, planCache.hitCount());
+    verify(executionEngine, times(2)).stream(any(), any(), any());
+  }
+
+  @Test
+  public void handleExplainThatCanSupport() {
+    SQLQueryRequest request = new SQLQueryRequest(
+        new JSONObject("{\"query\": \"SELECT -123\"}"),
+        "SELECT -123",
+        EXPLAIN_API_ENDPOINT,
+        "");
+
+    RestSQLQueryAction queryAction = new RestSQLQueryAction(sqlService);
+    assertNotSame(NOT_SUPPORTED_YET, queryAction.prepareRequest(request));
   }
 
   @Test
@@ -60,8 +124,8 @@ public class RestSQLQueryActionTest {
         EXPLAIN_API_ENDPOINT,
         "");
 
-    RestSQLQueryAction queryAction = new RestSQLQueryAction(clusterService);
-    assertSame(NOT_SUPPORTED_YET, queryAction.prepareRequest(request, nodeClient));
+    RestSQLQueryAction queryAction = new RestSQLQueryAction(sqlService);
+    assertSame(NOT_SUPPORTED_YET, queryAction.prepareRequest(request));
   }
 
   @Test
@@ -72,8 +136,8 @@ public class RestSQLQueryActionTest {
         QUERY_API_ENDPOINT,
         "");
 
-    RestSQLQueryAction queryAction = new RestSQLQueryAction(clusterService);
-    assertSame(NOT_SUPPORTED_YET, queryAction.prepareRequest(request, nodeClient));
+    RestSQLQueryAction queryAction = new RestSQLQueryAction(sqlService);
+    assertSame(NOT_SUPPORTED_YET, queryAction.prepareRequest(request));
   }
 
 }
\ No newline at end of file
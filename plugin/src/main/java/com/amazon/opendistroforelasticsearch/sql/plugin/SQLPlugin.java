@@ -15,23 +15,47 @@
 
 package com.amazon.opendistroforelasticsearch.sql.plugin;
 
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMappingCache;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.monitor.ElasticsearchMemoryBreaker;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.security.SecurityAccess;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.setting.ElasticsearchSettings;
+import com.amazon.opendistroforelasticsearch.sql.legacy.antlr.OpenDistroSqlAnalyzer;
+import com.amazon.opendistroforelasticsearch.sql.legacy.antlr.SqlAnalysisConfig;
 import com.amazon.opendistroforelasticsearch.sql.legacy.esdomain.LocalClusterState;
 import com.amazon.opendistroforelasticsearch.sql.legacy.executor.AsyncRestExecutor;
+import com.amazon.opendistroforelasticsearch.sql.legacy.metrics.GaugeMetric;
 import com.amazon.opendistroforelasticsearch.sql.legacy.metrics.Metrics;
+import com.amazon.opendistroforelasticsearch.sql.legacy.plugin.ElasticsearchSQLPluginConfig;
 import com.amazon.opendistroforelasticsearch.sql.legacy.plugin.RestSqlAction;
 import com.amazon.opendistroforelasticsearch.sql.legacy.plugin.RestSqlSettingsAction;
 import com.amazon.opendistroforelasticsearch.sql.legacy.plugin.RestSqlStatsAction;
 import com.amazon.opendistroforelasticsearch.sql.legacy.plugin.SqlSettings;
+import com.amazon.opendistroforelasticsearch.sql.planner.LogicalPlanCache;
+import com.amazon.opendistroforelasticsearch.sql.plugin.rest.ElasticsearchPluginConfig;
 import com.amazon.opendistroforelasticsearch.sql.plugin.rest.RestPPLQueryAction;
+import com.amazon.opendistroforelasticsearch.sql.plugin.transport.QueryTaskAction;
+import com.amazon.opendistroforelasticsearch.sql.plugin.transport.TransportQueryTaskAction;
+import com.amazon.opendistroforelasticsearch.sql.ppl.PPLService;
+import com.amazon.opendistroforelasticsearch.sql.ppl.antlr.PPLSyntaxParser;
+import com.amazon.opendistroforelasticsearch.sql.ppl.config.PPLServiceConfig;
+import com.amazon.opendistroforelasticsearch.sql.sql.SQLService;
+import com.amazon.opendistroforelasticsearch.sql.sql.antlr.SQLSyntaxParser;
+import com.amazon.opendistroforelasticsearch.sql.sql.config.SQLServiceConfig;
 import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.security.PrivilegedExceptionAction;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.function.Supplier;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionResponse;
 import org.elasticsearch.client.Client;
+import org.elasticsearch.client.node.NodeClient;
 import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
 import org.elasticsearch.cluster.node.DiscoveryNodes;
 import org.elasticsearch.cluster.service.ClusterService;
@@ -55,9 +79,20 @@ import org.elasticsearch.threadpool.ExecutorBuilder;
 import org.elasticsearch.threadpool.FixedExecutorBuilder;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.watcher.ResourceWatcherService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
 public class SQLPlugin extends Plugin implements ActionPlugin {
 
+  private static final String OPERATOR_THREAD_NAME_PREFIX = "sql-operator-worker-";
+
+  private static final String PPL_PLAN_CACHE_HIT_COUNT = "ppl_plan_cache_hit_count";
+
+  private static final String PPL_PLAN_CACHE_MISS_COUNT = "ppl_plan_cache_miss_count";
+
+  private static final String SQL_PLAN_CACHE_HIT_COUNT = "sql_plan_cache_hit_count";
+
+  private static final String SQL_PLAN_CACHE_MISS_COUNT = "sql_plan_cache_miss_count";
+
   /**
    * Sql plugin specific settings in ES cluster settings.
    */
@@ -70,6 +105,42 @@ public class SQLPlugin extends Plugin implements ActionPlugin {
    */
   private com.amazon.opendistroforelasticsearch.sql.common.setting.Settings pluginSettings;
 
+  /**
+   * Fork/join pool shared by the query operators which run in parallel. The size is bounded by
+   * the allocated processors.
+   */
+  private ForkJoinPool operatorPool;
+
+  /**
+   * Logical plan caches shared by all the PPL and SQL queries respectively.
+   */
+  private final LogicalPlanCache pplPlanCache =
+      new LogicalPlanCache(LogicalPlanCache.DEFAULT_CAPACITY);
+
+  private final LogicalPlanCache sqlPlanCache =
+      new LogicalPlanCache(LogicalPlanCache.DEFAULT_CAPACITY);
+
+  /**
+   * Index mapping cache shared by the PPL and SQL engines, which is registered as cluster state
+   * listener to evict the mappings of deleted indices.
+   */
+  private final IndexMappingCache mappingCache = new IndexMappingCache();
+
+  /**
+   * Memory breaker of the PPL and SQL queries. It is returned as plugin component, so the request
+   * circuit breaker of the node is injected into it once the query action is created.
+   */
+  private final ElasticsearchMemoryBreaker memoryBreaker = new ElasticsearchMemoryBreaker();
+
+  /**
+   * PPL and SQL services which are wired once when the plugin starts and shared by all the
+   * requests. The state of each query is kept in the objects created per request, e.g. the
+   * analysis context and the physical plan.
+   */
+  private PPLService pplService;
+
+  private SQLService sqlService;
+
   public String name() {
     return "sql";
   }
@@ -78,6 +149,16 @@ public class SQLPlugin extends Plugin implements ActionPlugin {
     return "Use sql to query elasticsearch.";
   }
 
+  /**
+   * The query runs as a cancellable task of the action, so it is visible to the task management
+   * API and could be cancelled by it.
+   */
+  @Override
+  public List<ActionHandler<? extends ActionRequest, ? extends ActionResponse>> getActions() {
+    return Collections.singletonList(
+        new ActionHandler<>(QueryTaskAction.INSTANCE, TransportQueryTaskAction.class));
+  }
+
   @Override
   public List<RestHandler> getRestHandlers(Settings settings, RestController restController,
                                            ClusterSettings clusterSettings,
@@ -87,13 +168,16 @@ public class SQLPlugin extends Plugin implements ActionPlugin {
                                            Supplier<DiscoveryNodes> nodesInCluster) {
     Objects.requireNonNull(clusterService, "Cluster service is required");
     Objects.requireNonNull(pluginSettings, "Cluster settings is required");
+    Objects.requireNonNull(pplService, "PPL service is required");
+    Objects.requireNonNull(sqlService, "SQL service is required");
 
     LocalClusterState.state().setResolver(indexNameExpressionResolver);
     Metrics.getInstance().registerDefaultMetrics();
+    registerPlanCacheMetrics();
 
     return Arrays.asList(
-        new RestPPLQueryAction(restController, clusterService, pluginSettings),
-        new RestSqlAction(settings, clusterService),
+        new RestPPLQueryAction(restController, pplService, pluginSettings),
+        new RestSqlAction(settings, sqlService),
         new RestSqlStatsAction(settings, restController),
         new RestSqlSettingsAction(settings, restController)
     );
@@ -112,15 +196,20 @@ public class SQLPlugin extends Plugin implements ActionPlugin {
                                              Supplier<RepositoriesService>
                                                        repositoriesServiceSupplier) {
     this.clusterService = clusterService;
+    clusterService.addListener(mappingCache);
     this.pluginSettings = new ElasticsearchSettings(clusterService.getClusterSettings());
+    this.operatorPool = new ForkJoinPool(
+        EsExecutors.allocatedProcessors(environment.settings()), OperatorWorkerThread::new,
+        null, false);
 
     LocalClusterState.state().setClusterService(clusterService);
     LocalClusterState.state().setSqlSettings(sqlSettings);
 
-    return super
-        .createComponents(client, clusterService, threadPool, resourceWatcherService, scriptService,
-            contentRegistry, environment, nodeEnvironment, namedWriteableRegistry,
-            indexNameResolver, repositoriesServiceSupplier);
+    this.pplService = createPPLService((NodeClient) client);
+    this.sqlService = createSQLService((NodeClient) client);
+    warmUpParsers();
+
+    return Collections.singletonList(memoryBreaker);
   }
 
   @Override
@@ -136,6 +225,13 @@ public class SQLPlugin extends Plugin implements ActionPlugin {
     );
   }
 
+  @Override
+  public void close() {
+    if (operatorPool != null) {
+      operatorPool.shutdownNow();
+    }
+  }
+
   @Override
   public List<Setting<?>> getSettings() {
     ImmutableList<Setting<?>> settings =
@@ -144,4 +240,78 @@ public class SQLPlugin extends Plugin implements ActionPlugin {
     return settings;
   }
 
+  /**
+   * Prime the DFA cache of the SQL, PPL and legacy SQL parsers which is shared by all parser
+   * instances, so the first queries after node start are not slowed down by building it.
+   */
+  private void warmUpParsers() {
+    new SQLSyntaxParser().warmUp();
+    new PPLSyntaxParser().warmUp();
+    new OpenDistroSqlAnalyzer(new SqlAnalysisConfig(true, false, 0)).warmUp();
+  }
+
+  private PPLService createPPLService(NodeClient client) {
+    return doPrivileged(() -> {
+      AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+      context.registerBean(ClusterService.class, () -> clusterService);
+      context.registerBean(NodeClient.class, () -> client);
+      context.registerBean(
+          com.amazon.opendistroforelasticsearch.sql.common.setting.Settings.class,
+          () -> pluginSettings);
+      context.registerBean(ForkJoinPool.class, () -> operatorPool);
+      context.registerBean(LogicalPlanCache.class, () -> pplPlanCache);
+      context.registerBean(IndexMappingCache.class, () -> mappingCache);
+      context.registerBean(ElasticsearchMemoryBreaker.class, () -> memoryBreaker);
+      context.register(ElasticsearchPluginConfig.class);
+      context.register(PPLServiceConfig.class);
+      context.refresh();
+      return context.getBean(PPLService.class);
+    });
+  }
+
+  private SQLService createSQLService(NodeClient client) {
+    return doPrivileged(() -> {
+      AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+      context.registerBean(ClusterService.class, () -> clusterService);
+      context.registerBean(NodeClient.class, () -> client);
+      context.registerBean(
+          com.amazon.opendistroforelasticsearch.sql.common.setting.Settings.class,
+          () -> pluginSettings);
+      context.registerBean(ForkJoinPool.class, () -> operatorPool);
+      context.registerBean(LogicalPlanCache.class, () -> sqlPlanCache);
+      context.registerBean(IndexMappingCache.class, () -> mappingCache);
+      context.registerBean(ElasticsearchMemoryBreaker.class, () -> memoryBreaker);
+      context.register(ElasticsearchSQLPluginConfig.class);
+      context.register(SQLServiceConfig.class);
+      context.refresh();
+      return context.getBean(SQLService.class);
+    });
+  }
+
+  private void registerPlanCacheMetrics() {
+    Metrics metrics = Metrics.getInstance();
+    metrics.registerMetric(new GaugeMetric<>(PPL_PLAN_CACHE_HIT_COUNT, pplPlanCache::hitCount));
+    metrics.registerMetric(new GaugeMetric<>(PPL_PLAN_CACHE_MISS_COUNT, pplPlanCache::missCount));
+    metrics.registerMetric(new GaugeMetric<>(SQL_PLAN_CACHE_HIT_COUNT, sqlPlanCache::hitCount));
+    metrics.registerMetric(new GaugeMetric<>(SQL_PLAN_CACHE_MISS_COUNT, sqlPlanCache::missCount));
+  }
+
+  private <T> T doPrivileged(PrivilegedExceptionAction<T> action) {
+    try {
+      return SecurityAccess.doPrivileged(action);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to perform privileged action", e);
+    }
+  }
+
+  /**
+   * Worker thread of the operator pool. The thread is created by the plugin code with the plugin
+   * permissions instead of the restricted ones of the default fork/join thread factory.
+   */
+  private static class OperatorWorkerThread extends ForkJoinWorkerThread {
+    OperatorWorkerThread(ForkJoinPool pool) {
+      super(pool);
+      setName(OPERATOR_THREAD_NAME_PREFIX + getPoolIndex());
+    }
+  }
 }
@@ -22,12 +22,14 @@ import com.amazon.opendistroforelasticsearch.sql.elasticsearch.client.Elasticsea
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.ElasticsearchExecutionEngine;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector.ElasticsearchExecutionProtector;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector.ExecutionProtector;
-import com.amazon.opendistroforelasticsearch.sql.elasticsearch.monitor.ElasticsearchMemoryHealthy;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMappingCache;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.monitor.ElasticsearchMemoryBreaker;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.monitor.ElasticsearchResourceMonitor;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.ElasticsearchStorageEngine;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
 import com.amazon.opendistroforelasticsearch.sql.monitor.ResourceMonitor;
 import com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine;
+import java.util.concurrent.ForkJoinPool;
 import org.elasticsearch.client.node.NodeClient;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -47,17 +49,26 @@ public class ElasticsearchPluginConfig {
   @Autowired
   private NodeClient nodeClient;
 
+  @Autowired
+  private IndexMappingCache mappingCache;
+
+  @Autowired
+  private ElasticsearchMemoryBreaker memoryBreaker;
+
   @Autowired
   private Settings settings;
 
+  @Autowired
+  private ForkJoinPool operatorPool;
+
   @Bean
   public ElasticsearchClient client() {
-    return new ElasticsearchNodeClient(clusterService, nodeClient);
+    return new ElasticsearchNodeClient(clusterService, nodeClient, mappingCache);
   }
 
   @Bean
   public StorageEngine storageEngine() {
-    return new ElasticsearchStorageEngine(client());
+    return new ElasticsearchStorageEngine(client(), mappingCache);
   }
 
   @Bean
@@ -67,11 +78,11 @@ public class ElasticsearchPluginConfig {
 
   @Bean
   public ResourceMonitor resourceMonitor() {
-    return new ElasticsearchResourceMonitor(settings, new ElasticsearchMemoryHealthy());
+    return new ElasticsearchResourceMonitor(settings, memoryBreaker);
   }
 
   @Bean
   public ExecutionProtector protector() {
-    return new ElasticsearchExecutionProtector(resourceMonitor());
+    return new ElasticsearchExecutionProtector(resourceMonitor(), settings, operatorPool);
   }
 }
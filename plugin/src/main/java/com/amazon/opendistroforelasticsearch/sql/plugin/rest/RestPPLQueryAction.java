@@ -20,59 +20,78 @@ import static org.elasticsearch.rest.RestStatus.INTERNAL_SERVER_ERROR;
 import static org.elasticsearch.rest.RestStatus.OK;
 
 import com.amazon.opendistroforelasticsearch.sql.common.response.ResponseListener;
+import com.amazon.opendistroforelasticsearch.sql.common.response.StreamingResponseListener;
 import com.amazon.opendistroforelasticsearch.sql.common.setting.Settings;
-import com.amazon.opendistroforelasticsearch.sql.elasticsearch.security.SecurityAccess;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine.QueryResponse;
+import com.amazon.opendistroforelasticsearch.sql.executor.QueryContext;
+import com.amazon.opendistroforelasticsearch.sql.executor.explain.ExplainResponse;
 import com.amazon.opendistroforelasticsearch.sql.plugin.request.PPLQueryRequestFactory;
+import com.amazon.opendistroforelasticsearch.sql.plugin.transport.QueryTaskAction;
+import com.amazon.opendistroforelasticsearch.sql.plugin.transport.QueryTaskRequest;
+import com.amazon.opendistroforelasticsearch.sql.plugin.transport.QueryTaskResponse;
 import com.amazon.opendistroforelasticsearch.sql.ppl.PPLService;
-import com.amazon.opendistroforelasticsearch.sql.ppl.config.PPLServiceConfig;
+import com.amazon.opendistroforelasticsearch.sql.ppl.domain.PPLQueryRequest;
 import com.amazon.opendistroforelasticsearch.sql.protocol.response.QueryResult;
+import com.amazon.opendistroforelasticsearch.sql.protocol.response.format.ExplainJsonResponseFormatter;
 import com.amazon.opendistroforelasticsearch.sql.protocol.response.format.SimpleJsonResponseFormatter;
-import java.io.IOException;
-import java.security.PrivilegedExceptionAction;
-import java.util.Collections;
+import com.amazon.opendistroforelasticsearch.sql.protocol.response.format.StreamingJsonResponseFormatter;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.client.node.NodeClient;
-import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.rest.BaseRestHandler;
 import org.elasticsearch.rest.BytesRestResponse;
 import org.elasticsearch.rest.RestChannel;
 import org.elasticsearch.rest.RestController;
 import org.elasticsearch.rest.RestRequest;
 import org.elasticsearch.rest.RestStatus;
-import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.elasticsearch.rest.action.RestCancellableNodeClient;
 
 public class RestPPLQueryAction extends BaseRestHandler {
   public static final String QUERY_API_ENDPOINT = "/_opendistro/_ppl";
+  public static final String EXPLAIN_API_ENDPOINT = "/_opendistro/_ppl/_explain";
+
+  /**
+   * URL parameter which overrides the query timeout setting.
+   */
+  private static final String TIMEOUT_PARAM = "timeout";
+
+  /**
+   * URL parameter which returns the runtime profile of the operators along with the result.
+   */
+  private static final String PROFILE_PARAM = "profile";
 
   private static final Logger LOG = LogManager.getLogger();
 
   /**
-   * Cluster service required by bean initialization.
+   * PPL service which is created once and shared by all the requests.
    */
-  private final ClusterService clusterService;
+  private final PPLService pplService;
 
   /**
-   * Settings required by been initialization.
+   * Settings which provide the default query timeout.
    */
-  private final Settings pluginSettings;
+  private final Settings settings;
 
   /**
    * Constructor of RestPPLQueryAction.
    */
-  public RestPPLQueryAction(RestController restController, ClusterService clusterService,
-                            Settings pluginSettings) {
+  public RestPPLQueryAction(RestController restController, PPLService pplService,
+                            Settings settings) {
     super();
-    this.clusterService = clusterService;
-    this.pluginSettings = pluginSettings;
+    this.pplService = pplService;
+    this.settings = settings;
   }
 
   @Override
   public List<Route> routes() {
-    return Collections.singletonList(
-        new Route(RestRequest.Method.POST, QUERY_API_ENDPOINT)
+    return Arrays.asList(
+        new Route(RestRequest.Method.POST, QUERY_API_ENDPOINT),
+        new Route(RestRequest.Method.POST, EXPLAIN_API_ENDPOINT)
     );
   }
 
@@ -81,45 +100,84 @@ public class RestPPLQueryAction extends BaseRestHandler {
     return "ppl_query_action";
   }
 
+  /**
+   * The query runs as a cancellable task, which is cancelled once the HTTP connection is closed
+   * or by the task management API, and stops once the timeout is exceeded. The explain request
+   * runs as the same task but only plans the query without executing it.
+   */
   @Override
   protected RestChannelConsumer prepareRequest(RestRequest request, NodeClient nodeClient) {
-    PPLService pplService = createPPLService(nodeClient);
-    return channel -> pplService.execute(
-        PPLQueryRequestFactory.getPPLRequest(request), createListener(channel));
+    PPLQueryRequest pplRequest = PPLQueryRequestFactory.getPPLRequest(request);
+    TimeValue timeout = request.paramAsTime(TIMEOUT_PARAM,
+        settings.getSettingValue(Settings.Key.PPL_QUERY_TIMEOUT));
+    QueryTaskRequest taskRequest;
+    if (isExplainRequest(request)) {
+      taskRequest = new QueryTaskRequest(pplRequest.getRequest(),
+          Duration.ofMillis(timeout.millis()), false,
+          (context, listener) -> pplService.explain(pplRequest, createExplainListener(listener)));
+    } else {
+      taskRequest = new QueryTaskRequest(pplRequest.getRequest(),
+          Duration.ofMillis(timeout.millis()), request.paramAsBoolean(PROFILE_PARAM, false),
+          (context, listener) -> pplService.stream(pplRequest, context,
+              createListener(context, listener)));
+    }
+    return channel -> new RestCancellableNodeClient(nodeClient, request.getHttpChannel())
+        .execute(QueryTaskAction.INSTANCE, taskRequest, createResponseListener(channel));
   }
 
   /**
-   * Ideally, the AnnotationConfigApplicationContext should be shared across Plugin. By default,
-   * spring construct all the bean as singleton. Currently, there are no better solution to
-   * create the bean in protocol scope. The limitations are
-   * alt-1, add annotation for bean @Scope(value = SCOPE_PROTOTYPE, proxyMode = TARGET_CLASS), it
-   * works by add the proxy,
-   * but when running in Elasticsearch, all the operation need security permission whic is hard
-   * to control.
-   * alt-2, using ObjectFactory with @Autowired, it also works, but require add to all the
-   * configuration.
-   * We will revisit the current solution if any major issue found.
+   * The rows are formatted chunk by chunk as they are produced, so the result values are not
+   * kept until the whole response is ready. The profile is only set to the context if profiling.
    */
-  private PPLService createPPLService(NodeClient client) {
-    return doPrivileged(() -> {
-      AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
-      context.registerBean(ClusterService.class, () -> clusterService);
-      context.registerBean(NodeClient.class, () -> client);
-      context.registerBean(Settings.class, () -> pluginSettings);
-      context.register(ElasticsearchPluginConfig.class);
-      context.register(PPLServiceConfig.class);
-      context.refresh();
-      return context.getBean(PPLService.class);
-    });
+  private StreamingResponseListener<QueryResponse> createListener(
+      QueryContext context, ActionListener<QueryTaskResponse> listener) {
+    StreamingJsonResponseFormatter streamingFormatter = new StreamingJsonResponseFormatter(PRETTY);
+    return new StreamingResponseListener<QueryResponse>() {
+      @Override
+      public void onChunk(QueryResponse chunk) {
+        streamingFormatter.append(new QueryResult(chunk.getResults()));
+      }
+
+      @Override
+      public void onComplete() {
+        listener.onResponse(
+            new QueryTaskResponse(streamingFormatter.format(context.getProfile())));
+      }
+
+      @Override
+      public void onFailure(Exception e) {
+        listener.onFailure(e);
+      }
+    };
+  }
+
+  private ResponseListener<ExplainResponse> createExplainListener(
+      ActionListener<QueryTaskResponse> listener) {
+    ExplainJsonResponseFormatter formatter = new ExplainJsonResponseFormatter(PRETTY);
+    return new ResponseListener<ExplainResponse>() {
+      @Override
+      public void onResponse(ExplainResponse response) {
+        listener.onResponse(new QueryTaskResponse(formatter.format(response)));
+      }
+
+      @Override
+      public void onFailure(Exception e) {
+        listener.onFailure(e);
+      }
+    };
+  }
+
+  private boolean isExplainRequest(RestRequest request) {
+    return request.path().endsWith("/_explain");
   }
 
-  private ResponseListener<QueryResponse> createListener(RestChannel channel) {
+  private ActionListener<QueryTaskResponse> createResponseListener(RestChannel channel) {
     SimpleJsonResponseFormatter formatter =
         new SimpleJsonResponseFormatter(PRETTY); // TODO: decide format and pretty from URL param
-    return new ResponseListener<QueryResponse>() {
+    return new ActionListener<QueryTaskResponse>() {
       @Override
-      public void onResponse(QueryResponse response) {
-        sendResponse(OK, formatter.format(new QueryResult(response.getResults())));
+      public void onResponse(QueryTaskResponse response) {
+        sendResponse(OK, response.getContent());
       }
 
       @Override
@@ -135,12 +193,4 @@ public class RestPPLQueryAction extends BaseRestHandler {
     };
   }
 
-  private <T> T doPrivileged(PrivilegedExceptionAction<T> action) {
-    try {
-      return SecurityAccess.doPrivileged(action);
-    } catch (IOException e) {
-      throw new IllegalStateException("Failed to perform privileged action", e);
-    }
-  }
-
 }
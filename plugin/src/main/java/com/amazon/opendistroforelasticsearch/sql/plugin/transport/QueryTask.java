@@ -0,0 +1,52 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.plugin.transport;
+
+import com.amazon.opendistroforelasticsearch.sql.executor.QueryContext;
+import java.util.Map;
+import lombok.Getter;
+import org.elasticsearch.tasks.CancellableTask;
+import org.elasticsearch.tasks.TaskId;
+
+/**
+ * Cancellable task of the query. Cancelling the task, either by the task management API or by
+ * closing the HTTP connection, cancels the {@link QueryContext} the query runs in.
+ */
+public class QueryTask extends CancellableTask {
+
+  @Getter
+  private final QueryContext context;
+
+  /**
+   * Constructor of QueryTask.
+   */
+  public QueryTask(long id, String type, String action, String description,
+                   TaskId parentTaskId, Map<String, String> headers, QueryContext context) {
+    super(id, type, action, description, parentTaskId, headers);
+    this.context = context;
+  }
+
+  @Override
+  public boolean shouldCancelChildrenOnCancellation() {
+    return true;
+  }
+
+  @Override
+  protected void onCancelled() {
+    context.cancel(getReasonCancelled());
+  }
+}
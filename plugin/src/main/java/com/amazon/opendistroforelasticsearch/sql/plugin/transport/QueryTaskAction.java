@@ -0,0 +1,33 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.plugin.transport;
+
+import org.elasticsearch.action.ActionType;
+
+/**
+ * Action of the query which runs as a cancellable task on the local node.
+ */
+public class QueryTaskAction extends ActionType<QueryTaskResponse> {
+
+  public static final String NAME = "cluster:admin/opendistro/ppl/query";
+
+  public static final QueryTaskAction INSTANCE = new QueryTaskAction();
+
+  private QueryTaskAction() {
+    super(NAME, QueryTaskResponse::new);
+  }
+}
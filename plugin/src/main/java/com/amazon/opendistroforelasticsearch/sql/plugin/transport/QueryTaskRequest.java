@@ -0,0 +1,103 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.plugin.transport;
+
+import com.amazon.opendistroforelasticsearch.sql.executor.QueryContext;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionRequestValidationException;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.tasks.Task;
+import org.elasticsearch.tasks.TaskId;
+
+/**
+ * Request of the query task. The request is only executed on the local node which receives the
+ * REST request, so the query is carried as the executor. The query text, timeout and profile flag
+ * are serialized, but the executor isn't, so the request read from the stream fails to execute.
+ */
+@RequiredArgsConstructor
+public class QueryTaskRequest extends ActionRequest {
+
+  /**
+   * Query text which is shown as the task description.
+   */
+  private final String query;
+
+  /**
+   * Max time the query is allowed to run, no timeout if null or not positive.
+   */
+  private final Duration timeout;
+
+  /**
+   * Collect the runtime profile of the operators if true.
+   */
+  private final boolean profile;
+
+  /**
+   * Executor which runs the query in the context and completes the listener.
+   */
+  @Getter
+  private final BiConsumer<QueryContext, ActionListener<QueryTaskResponse>> executor;
+
+  /**
+   * Constructor of QueryTaskRequest read from the stream, whose executor fails the listener
+   * because the query is only executed on the node which receives it.
+   */
+  public QueryTaskRequest(StreamInput in) throws IOException {
+    super(in);
+    this.query = in.readString();
+    TimeValue timeValue = in.readOptionalTimeValue();
+    this.timeout = (timeValue == null) ? null : Duration.ofNanos(timeValue.nanos());
+    this.profile = in.readBoolean();
+    this.executor = (context, listener) -> listener.onFailure(
+        new IllegalStateException("Query task request is only executed locally"));
+  }
+
+  @Override
+  public ActionRequestValidationException validate() {
+    return null;
+  }
+
+  @Override
+  public String getDescription() {
+    return query;
+  }
+
+  @Override
+  public Task createTask(long id, String type, String action, TaskId parentTaskId,
+                         Map<String, String> headers) {
+    return new QueryTask(id, type, action, getDescription(), parentTaskId, headers,
+        new QueryContext(timeout, profile));
+  }
+
+  @Override
+  public void writeTo(StreamOutput out) throws IOException {
+    super.writeTo(out);
+    out.writeString(query);
+    out.writeOptionalTimeValue(
+        (timeout == null) ? null : TimeValue.timeValueNanos(timeout.toNanos()));
+    out.writeBoolean(profile);
+  }
+}
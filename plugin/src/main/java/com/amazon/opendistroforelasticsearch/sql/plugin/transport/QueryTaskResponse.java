@@ -0,0 +1,46 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.plugin.transport;
+
+import java.io.IOException;
+import lombok.Getter;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+
+/**
+ * Response of the query task, which is the formatted query result.
+ */
+public class QueryTaskResponse extends ActionResponse {
+
+  @Getter
+  private final String content;
+
+  public QueryTaskResponse(String content) {
+    this.content = content;
+  }
+
+  public QueryTaskResponse(StreamInput in) throws IOException {
+    super(in);
+    this.content = in.readString();
+  }
+
+  @Override
+  public void writeTo(StreamOutput out) throws IOException {
+    out.writeString(content);
+  }
+}
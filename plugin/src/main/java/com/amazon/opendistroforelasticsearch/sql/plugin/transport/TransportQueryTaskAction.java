@@ -0,0 +1,54 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.plugin.transport;
+
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.monitor.ElasticsearchMemoryBreaker;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.support.ActionFilters;
+import org.elasticsearch.action.support.TransportAction;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.indices.breaker.CircuitBreakerService;
+import org.elasticsearch.tasks.Task;
+import org.elasticsearch.transport.TransportService;
+
+/**
+ * Transport action which runs the query in the context of its {@link QueryTask}. The task is
+ * registered to the task manager until the listener is completed. It extends TransportAction
+ * rather than HandledTransportAction, so no transport handler is registered and the request is
+ * never executed on a remote node. The request circuit breaker is only available from the node
+ * injector, so it is handed to the memory breaker of the queries once the action is created.
+ */
+public class TransportQueryTaskAction extends TransportAction<QueryTaskRequest, QueryTaskResponse> {
+
+  /**
+   * Constructor of TransportQueryTaskAction.
+   */
+  @Inject
+  public TransportQueryTaskAction(TransportService transportService, ActionFilters actionFilters,
+                                  CircuitBreakerService circuitBreakerService,
+                                  ElasticsearchMemoryBreaker memoryBreaker) {
+    super(QueryTaskAction.NAME, actionFilters, transportService.getTaskManager());
+    memoryBreaker.setCircuitBreaker(circuitBreakerService.getBreaker(CircuitBreaker.REQUEST));
+  }
+
+  @Override
+  protected void doExecute(Task task, QueryTaskRequest request,
+                           ActionListener<QueryTaskResponse> listener) {
+    request.getExecutor().accept(((QueryTask) task).getContext(), listener);
+  }
+}
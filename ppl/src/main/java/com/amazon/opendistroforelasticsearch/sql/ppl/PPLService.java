@@ -17,11 +17,17 @@ package com.amazon.opendistroforelasticsearch.sql.ppl;
 
 import static com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine.QueryResponse;
 
-import com.amazon.opendistroforelasticsearch.sql.analysis.AnalysisContext;
 import com.amazon.opendistroforelasticsearch.sql.analysis.Analyzer;
+import com.amazon.opendistroforelasticsearch.sql.analysis.ParameterizedPlan;
+import com.amazon.opendistroforelasticsearch.sql.analysis.ParameterizedQuery;
 import com.amazon.opendistroforelasticsearch.sql.ast.tree.UnresolvedPlan;
 import com.amazon.opendistroforelasticsearch.sql.common.response.ResponseListener;
+import com.amazon.opendistroforelasticsearch.sql.common.response.StreamingResponseListener;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
+import com.amazon.opendistroforelasticsearch.sql.executor.QueryContext;
+import com.amazon.opendistroforelasticsearch.sql.executor.explain.ExplainResponse;
+import com.amazon.opendistroforelasticsearch.sql.executor.explain.PlanExplainer;
+import com.amazon.opendistroforelasticsearch.sql.planner.LogicalPlanCache;
 import com.amazon.opendistroforelasticsearch.sql.planner.Planner;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
@@ -39,10 +45,16 @@ public class PPLService {
 
   private final Analyzer analyzer;
 
-  private final StorageEngine storageEngine;
+  private final Planner planner;
 
   private final ExecutionEngine executionEngine;
 
+  private final StorageEngine storageEngine;
+
+  private final LogicalPlanCache planCache;
+
+  private final PlanExplainer explainer = new PlanExplainer();
+
   /**
    * Execute the {@link PPLQueryRequest}, using {@link ResponseListener} to get response.
    * @param request {@link PPLQueryRequest}
@@ -50,20 +62,77 @@ public class PPLService {
    */
   public void execute(PPLQueryRequest request, ResponseListener<QueryResponse> listener) {
     try {
-      // 1.Parse query and convert parse tree (CST) to abstract syntax tree (AST)
-      ParseTree cst = parser.analyzeSyntax(request.getRequest());
-      UnresolvedPlan ast = cst.accept(new AstBuilder(new AstExpressionBuilder()));
+      executionEngine.execute(plan(request), listener);
+    } catch (Exception e) {
+      listener.onFailure(e);
+    }
+  }
 
-      // 2.Analyze abstract syntax to generate logical plan
-      LogicalPlan logicalPlan = analyzer.analyze(ast, new AnalysisContext());
+  /**
+   * Execute the {@link PPLQueryRequest}, using {@link StreamingResponseListener} to get response
+   * chunk by chunk.
+   * @param request {@link PPLQueryRequest}
+   * @param listener {@link StreamingResponseListener}
+   */
+  public void stream(PPLQueryRequest request,
+                     StreamingResponseListener<QueryResponse> listener) {
+    try {
+      executionEngine.stream(plan(request), listener);
+    } catch (Exception e) {
+      listener.onFailure(e);
+    }
+  }
 
-      // 3.Generate optimal physical plan from logical plan
-      PhysicalPlan physicalPlan = new Planner(storageEngine).plan(logicalPlan);
+  /**
+   * Execute the {@link PPLQueryRequest} in the {@link QueryContext}, which stops the execution
+   * once the query is cancelled or timed out.
+   * @param request {@link PPLQueryRequest}
+   * @param context {@link QueryContext}
+   * @param listener {@link StreamingResponseListener}
+   */
+  public void stream(PPLQueryRequest request, QueryContext context,
+                     StreamingResponseListener<QueryResponse> listener) {
+    try {
+      executionEngine.stream(plan(request), context, listener);
+    } catch (Exception e) {
+      listener.onFailure(e);
+    }
+  }
 
-      // 4.Execute physical plan and send response
-      executionEngine.execute(physicalPlan, listener);
+  /**
+   * Explain the {@link PPLQueryRequest} without executing it, using {@link ResponseListener} to
+   * get the analyzed, optimized and physical plan.
+   * @param request {@link PPLQueryRequest}
+   * @param listener {@link ResponseListener}
+   */
+  public void explain(PPLQueryRequest request, ResponseListener<ExplainResponse> listener) {
+    try {
+      listener.onResponse(explainer.explain(analyzeOrGetCached(request), planner));
     } catch (Exception e) {
       listener.onFailure(e);
     }
   }
+
+  private PhysicalPlan plan(PPLQueryRequest request) {
+    // 1.Get logical plan of the query analyzed before, or analyze the query if not cached
+    LogicalPlan logicalPlan = analyzeOrGetCached(request);
+
+    // 2.Generate optimal physical plan from logical plan
+    return planner.plan(logicalPlan);
+  }
+
+  private LogicalPlan analyzeOrGetCached(PPLQueryRequest request) {
+    ParameterizedQuery query = parser.parameterize(request.getRequest());
+    return planCache.get(query, storageEngine.getMetadataVersion(), () -> analyze(query));
+  }
+
+  private ParameterizedPlan analyze(ParameterizedQuery query) {
+    // 1.Parse query and convert parse tree (CST) to abstract syntax tree (AST)
+    ParseTree cst = parser.analyzeSyntax(query.getQuery());
+    AstExpressionBuilder expressionBuilder = new AstExpressionBuilder();
+    UnresolvedPlan ast = cst.accept(new AstBuilder(expressionBuilder));
+
+    // 2.Analyze abstract syntax to generate logical plan whose literals are the parameters
+    return analyzer.analyze(ast, query, expressionBuilder.getLiteralTokens());
+  }
 }
@@ -15,25 +15,116 @@
 
 package com.amazon.opendistroforelasticsearch.sql.ppl.antlr;
 
+import static com.amazon.opendistroforelasticsearch.sql.common.utils.StringUtils.unquoteIdentifier;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.doubleValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
+
+import com.amazon.opendistroforelasticsearch.sql.analysis.ParameterizedQuery;
+import com.amazon.opendistroforelasticsearch.sql.analysis.ParameterizedQuery.LiteralToken;
 import com.amazon.opendistroforelasticsearch.sql.common.antlr.CaseInsensitiveCharStream;
 import com.amazon.opendistroforelasticsearch.sql.common.antlr.SyntaxAnalysisErrorListener;
+import com.amazon.opendistroforelasticsearch.sql.common.antlr.TwoStageParser;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.ppl.antlr.parser.OpenDistroPPLLexer;
 import com.amazon.opendistroforelasticsearch.sql.ppl.antlr.parser.OpenDistroPPLParser;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.Token;
 import org.antlr.v4.runtime.tree.ParseTree;
 
 /**
  * PPL Syntax Parser.
  */
 public class PPLSyntaxParser {
+  /**
+   * Representative queries parsed by {@link #warmUp()}.
+   */
+  static final List<String> WARM_UP_QUERIES = Arrays.asList(
+      "source=t",
+      "search source=t age=1 name=\"x\"",
+      "source=t | where age > 1 and name != 'x' | fields age, name",
+      "source=t | eval total=abs(age) + 1 | sort - total",
+      "source=t | stats count(age), avg(balance) by city | rename city as town",
+      "source=t | dedup age, name keepempty=true | fields - city"
+  );
+
+  /**
+   * Types of the literal tokens, which are replaced by the placeholder in the template.
+   */
+  private static final Set<Integer> LITERAL_TOKEN_TYPES = ImmutableSet.of(
+      OpenDistroPPLLexer.INTEGER_LITERAL,
+      OpenDistroPPLLexer.DECIMAL_LITERAL,
+      OpenDistroPPLLexer.DQUOTA_STRING,
+      OpenDistroPPLLexer.SQUOTA_STRING
+  );
+
   /**
    * Analyze the query syntax.
    */
   public ParseTree analyzeSyntax(String query) {
     OpenDistroPPLParser parser = createParser(createLexer(query));
-    parser.addErrorListener(new SyntaxAnalysisErrorListener());
-    return parser.root();
+    return TwoStageParser.parse(parser, new SyntaxAnalysisErrorListener(),
+        OpenDistroPPLParser::root);
+  }
+
+  /**
+   * Lex the query into the template and the literal tokens. The template is the tokens on the
+   * default channel, which are read by the parser, separated by a single space with each literal
+   * token replaced by the placeholder. So the queries differing only in the whitespaces, comments
+   * or literal values share the cached plan.
+   * @param query   a PPL query
+   * @return        parameterized query
+   */
+  public ParameterizedQuery parameterize(String query) {
+    List<? extends Token> tokens = createLexer(query).getAllTokens();
+    StringJoiner template = new StringJoiner(" ");
+    List<LiteralToken> literals = new ArrayList<>();
+    for (int index = 0; index < tokens.size(); index++) {
+      Token token = tokens.get(index);
+      if (token.getChannel() != Token.DEFAULT_CHANNEL) {
+        continue;
+      }
+      if (LITERAL_TOKEN_TYPES.contains(token.getType())) {
+        template.add(ParameterizedQuery.PLACEHOLDER);
+        literals.add(new LiteralToken(index, token.getText(), literalValue(token)));
+      } else {
+        template.add(token.getText());
+      }
+    }
+    return new ParameterizedQuery(query, template.toString(), literals);
+  }
+
+  /**
+   * Parse the value of the literal token in the same way as the AST builder.
+   */
+  private ExprValue literalValue(Token token) {
+    try {
+      switch (token.getType()) {
+        case OpenDistroPPLLexer.INTEGER_LITERAL:
+          return integerValue(Integer.valueOf(token.getText()));
+        case OpenDistroPPLLexer.DECIMAL_LITERAL:
+          return doubleValue(Double.valueOf(token.getText()));
+        default:
+          return stringValue(unquoteIdentifier(token.getText()));
+      }
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Parse the representative queries to prime the DFA cache which is shared by all the parser
+   * instances, so the first queries after node start don't pay for building it.
+   */
+  public void warmUp() {
+    WARM_UP_QUERIES.forEach(this::analyzeSyntax);
   }
 
   private OpenDistroPPLParser createParser(Lexer lexer) {
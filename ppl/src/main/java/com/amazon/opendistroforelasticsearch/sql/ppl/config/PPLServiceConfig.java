@@ -20,6 +20,9 @@ import com.amazon.opendistroforelasticsearch.sql.analysis.ExpressionAnalyzer;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
 import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import com.amazon.opendistroforelasticsearch.sql.planner.LogicalPlanCache;
+import com.amazon.opendistroforelasticsearch.sql.planner.Planner;
+import com.amazon.opendistroforelasticsearch.sql.planner.optimizer.LogicalPlanOptimizer;
 import com.amazon.opendistroforelasticsearch.sql.ppl.PPLService;
 import com.amazon.opendistroforelasticsearch.sql.ppl.antlr.PPLSyntaxParser;
 import com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine;
@@ -41,14 +44,23 @@ public class PPLServiceConfig {
   @Autowired
   private BuiltinFunctionRepository functionRepository;
 
+  @Autowired
+  private LogicalPlanCache planCache;
+
   @Bean
   public Analyzer analyzer() {
     return new Analyzer(new ExpressionAnalyzer(functionRepository), storageEngine);
   }
 
+  @Bean
+  public Planner planner() {
+    return new Planner(storageEngine, LogicalPlanOptimizer.create(functionRepository));
+  }
+
   @Bean
   public PPLService pplService() {
-    return new PPLService(new PPLSyntaxParser(), analyzer(), storageEngine, executionEngine);
+    return new PPLService(new PPLSyntaxParser(), analyzer(), planner(), executionEngine,
+        storageEngine, planCache);
   }
 
 }
@@ -58,13 +58,23 @@ import com.amazon.opendistroforelasticsearch.sql.ppl.antlr.parser.OpenDistroPPLP
 import com.amazon.opendistroforelasticsearch.sql.ppl.utils.ArgumentFactory;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.stream.Collectors;
+import lombok.Getter;
 import org.antlr.v4.runtime.ParserRuleContext;
 
 /**
  * Class of building AST Expression nodes.
  */
 public class AstExpressionBuilder extends OpenDistroPPLParserBaseVisitor<UnresolvedExpression> {
+
+  /**
+   * Index of the query token which each literal is parsed from, by identity.
+   */
+  @Getter
+  private final Map<Literal, Integer> literalTokens = new IdentityHashMap<>();
+
   /**
    * Eval clause.
    */
@@ -211,17 +221,17 @@ public class AstExpressionBuilder extends OpenDistroPPLParserBaseVisitor<Unresol
 
   @Override
   public UnresolvedExpression visitStringLiteral(StringLiteralContext ctx) {
-    return new Literal(unquoteIdentifier(ctx.getText()), DataType.STRING);
+    return literal(ctx, new Literal(unquoteIdentifier(ctx.getText()), DataType.STRING));
   }
 
   @Override
   public UnresolvedExpression visitIntegerLiteral(IntegerLiteralContext ctx) {
-    return new Literal(Integer.valueOf(ctx.getText()), DataType.INTEGER);
+    return literal(ctx, new Literal(Integer.valueOf(ctx.getText()), DataType.INTEGER));
   }
 
   @Override
   public UnresolvedExpression visitDecimalLiteral(DecimalLiteralContext ctx) {
-    return new Literal(Double.valueOf(ctx.getText()), DataType.DOUBLE);
+    return literal(ctx, new Literal(Double.valueOf(ctx.getText()), DataType.DOUBLE));
   }
 
   @Override
@@ -229,4 +239,8 @@ public class AstExpressionBuilder extends OpenDistroPPLParserBaseVisitor<Unresol
     return new Literal(Boolean.valueOf(ctx.getText()), DataType.BOOLEAN);
   }
 
+  private Literal literal(ParserRuleContext ctx, Literal literal) {
+    literalTokens.put(literal, ctx.getStart().getTokenIndex());
+    return literal;
+  }
 }
@@ -16,20 +16,27 @@
 package com.amazon.opendistroforelasticsearch.sql.ppl;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 
 import com.amazon.opendistroforelasticsearch.sql.common.response.ResponseListener;
+import com.amazon.opendistroforelasticsearch.sql.common.response.StreamingResponseListener;
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine.QueryResponse;
+import com.amazon.opendistroforelasticsearch.sql.executor.QueryContext;
+import com.amazon.opendistroforelasticsearch.sql.executor.explain.ExplainResponse;
+import com.amazon.opendistroforelasticsearch.sql.planner.LogicalPlanCache;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.ValuesOperator;
 import com.amazon.opendistroforelasticsearch.sql.ppl.config.PPLServiceConfig;
 import com.amazon.opendistroforelasticsearch.sql.ppl.domain.PPLQueryRequest;
 import com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine;
 import com.amazon.opendistroforelasticsearch.sql.storage.Table;
 import com.google.common.collect.ImmutableMap;
 import java.util.Collections;
+import java.util.OptionalLong;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -44,6 +51,8 @@ public class PPLServiceTest {
 
   private PPLService pplService;
 
+  private LogicalPlanCache planCache = new LogicalPlanCache(LogicalPlanCache.DEFAULT_CAPACITY);
+
   @Mock
   private StorageEngine storageEngine;
 
@@ -67,6 +76,7 @@ public class PPLServiceTest {
 
     context.registerBean(StorageEngine.class, () -> storageEngine);
     context.registerBean(ExecutionEngine.class, () -> executionEngine);
+    context.registerBean(LogicalPlanCache.class, () -> planCache);
     context.register(PPLServiceConfig.class);
     context.refresh();
     pplService = context.getBean(PPLService.class);
@@ -94,6 +104,48 @@ public class PPLServiceTest {
         });
   }
 
+  @Test
+  public void testExecuteSameQueryShouldReuseLogicalPlan() {
+    when(storageEngine.getMetadataVersion()).thenReturn(OptionalLong.of(1L));
+    ResponseListener<QueryResponse> listener = new ResponseListener<QueryResponse>() {
+      @Override
+      public void onResponse(QueryResponse pplQueryResponse) {
+
+      }
+
+      @Override
+      public void onFailure(Exception e) {
+        Assert.fail();
+      }
+    };
+
+    pplService.execute(new PPLQueryRequest("search source=t a=1", null), listener);
+    pplService.execute(new PPLQueryRequest("search  source=t\n a=1", null), listener);
+    Assert.assertEquals(1L, planCache.missCount());
+    Assert.assertEquals(1L, planCache.hitCount());
+  }
+
+  @Test
+  public void testExecuteQueryWithDifferentLiteralShouldBindLogicalPlan() {
+    when(storageEngine.getMetadataVersion()).thenReturn(OptionalLong.of(1L));
+    ResponseListener<QueryResponse> listener = new ResponseListener<QueryResponse>() {
+      @Override
+      public void onResponse(QueryResponse pplQueryResponse) {
+
+      }
+
+      @Override
+      public void onFailure(Exception e) {
+        Assert.fail();
+      }
+    };
+
+    pplService.execute(new PPLQueryRequest("search source=t a=1", null), listener);
+    pplService.execute(new PPLQueryRequest("search source=t a=2", null), listener);
+    Assert.assertEquals(1L, planCache.missCount());
+    Assert.assertEquals(1L, planCache.hitCount());
+  }
+
   @Test
   public void testExecuteWithIllegalQueryShouldBeCaughtByHandler() {
     pplService.execute(new PPLQueryRequest("search", null), new ResponseListener<QueryResponse>() {
@@ -108,4 +160,139 @@ public class PPLServiceTest {
       }
     });
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testStreamShouldPass() {
+    doAnswer(invocation -> {
+      StreamingResponseListener<QueryResponse> listener = invocation.getArgument(1);
+      listener.onChunk(new QueryResponse(Collections.emptyList()));
+      listener.onComplete();
+      return null;
+    }).when(executionEngine).stream(any(), any());
+
+    pplService.stream(new PPLQueryRequest("search source=t a=1", null),
+        new StreamingResponseListener<QueryResponse>() {
+          @Override
+          public void onChunk(QueryResponse chunk) {
+
+          }
+
+          @Override
+          public void onComplete() {
+
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+            Assert.fail();
+          }
+        });
+  }
+
+  @Test
+  public void testStreamInContextShouldPass() {
+    QueryContext queryContext = new QueryContext();
+    doAnswer(invocation -> {
+      StreamingResponseListener<QueryResponse> listener = invocation.getArgument(2);
+      listener.onChunk(new QueryResponse(Collections.emptyList()));
+      listener.onComplete();
+      return null;
+    }).when(executionEngine).stream(any(), eq(queryContext), any());
+
+    pplService.stream(new PPLQueryRequest("search source=t a=1", null), queryContext,
+        new StreamingResponseListener<QueryResponse>() {
+          @Override
+          public void onChunk(QueryResponse chunk) {
+
+          }
+
+          @Override
+          public void onComplete() {
+
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+            Assert.fail();
+          }
+        });
+  }
+
+  @Test
+  public void testStreamInContextWithIllegalQueryShouldBeCaughtByHandler() {
+    pplService.stream(new PPLQueryRequest("search", null), new QueryContext(),
+        new StreamingResponseListener<QueryResponse>() {
+          @Override
+          public void onChunk(QueryResponse chunk) {
+            Assert.fail();
+          }
+
+          @Override
+          public void onComplete() {
+            Assert.fail();
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+
+          }
+        });
+  }
+
+  @Test
+  public void testStreamWithIllegalQueryShouldBeCaughtByHandler() {
+    pplService.stream(new PPLQueryRequest("search", null),
+        new StreamingResponseListener<QueryResponse>() {
+          @Override
+          public void onChunk(QueryResponse chunk) {
+            Assert.fail();
+          }
+
+          @Override
+          public void onComplete() {
+            Assert.fail();
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+
+          }
+        });
+  }
+
+  @Test
+  public void testExplainShouldPass() {
+    when(table.implement(any())).thenReturn(new ValuesOperator(Collections.emptyList()));
+
+    pplService.explain(new PPLQueryRequest("search source=t a=1", null),
+        new ResponseListener<ExplainResponse>() {
+          @Override
+          public void onResponse(ExplainResponse response) {
+            Assert.assertEquals("LogicalFilter", response.getAnalyzed().getName());
+            Assert.assertEquals("LogicalFilter", response.getOptimized().getName());
+            Assert.assertEquals("ValuesOperator", response.getPhysical().getName());
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+            Assert.fail();
+          }
+        });
+  }
+
+  @Test
+  public void testExplainWithIllegalQueryShouldBeCaughtByHandler() {
+    pplService.explain(new PPLQueryRequest("search", null),
+        new ResponseListener<ExplainResponse>() {
+          @Override
+          public void onResponse(ExplainResponse response) {
+            Assert.fail();
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+
+          }
+        });
+  }
+}
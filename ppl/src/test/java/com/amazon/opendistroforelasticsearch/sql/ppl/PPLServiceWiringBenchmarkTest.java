@@ -0,0 +1,149 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.ppl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import com.amazon.opendistroforelasticsearch.sql.common.response.ResponseListener;
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
+import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
+import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine.QueryResponse;
+import com.amazon.opendistroforelasticsearch.sql.planner.LogicalPlanCache;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.ppl.config.PPLServiceConfig;
+import com.amazon.opendistroforelasticsearch.sql.ppl.domain.PPLQueryRequest;
+import com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine;
+import com.amazon.opendistroforelasticsearch.sql.storage.Table;
+import com.google.common.collect.ImmutableMap;
+import java.util.Collections;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Microbenchmark of the PPL service wiring in SQLPlugin. It compares building a Spring context
+ * for each request, as the REST action did before, with the singleton service built once at the
+ * plugin startup. The storage and execution engine are mocked, so the time measured is the
+ * wiring plus the parsing, analysis and planning of the query. The average time per request is
+ * printed instead of asserted, and the benchmark is not run by the build. To run it, remove the
+ * {@link Ignore} and run {@code ./gradlew :ppl:test --tests '*PPLServiceWiringBenchmarkTest' -i}.
+ */
+@Ignore("Manual benchmark, see the class comment to run it")
+@RunWith(MockitoJUnitRunner.class)
+public class PPLServiceWiringBenchmarkTest {
+
+  private static final int WARM_UP_REQUESTS = 20;
+
+  private static final int MEASURED_REQUESTS = 100;
+
+  private static final String QUERY = "source=t a=1 | eval b = a + 1 | fields a, b";
+
+  private final LogicalPlanCache planCache =
+      new LogicalPlanCache(LogicalPlanCache.DEFAULT_CAPACITY);
+
+  @Mock
+  private StorageEngine storageEngine;
+
+  @Mock
+  private ExecutionEngine executionEngine;
+
+  @Mock
+  private Table table;
+
+  @Mock
+  private PhysicalPlan plan;
+
+  /**
+   * Setup the mocked storage and execution engine.
+   */
+  @Before
+  public void setUp() {
+    when(table.getFieldTypes()).thenReturn(ImmutableMap.of("a", ExprCoreType.INTEGER));
+    when(table.implement(any())).thenReturn(plan);
+    when(storageEngine.getTable(any())).thenReturn(table);
+    when(storageEngine.getMetadataVersion()).thenReturn(OptionalLong.of(1L));
+    doAnswer(invocation -> {
+      ResponseListener<QueryResponse> listener = invocation.getArgument(1);
+      listener.onResponse(new QueryResponse(Collections.emptyList()));
+      return null;
+    }).when(executionEngine).execute(any(), any());
+  }
+
+  @Test
+  public void compareContextPerRequestWithSingletonService() {
+    long contextPerRequest = measure(() -> {
+      try (AnnotationConfigApplicationContext context = createContext()) {
+        execute(context.getBean(PPLService.class));
+      }
+    });
+    long singleton;
+    try (AnnotationConfigApplicationContext context = createContext()) {
+      PPLService pplService = context.getBean(PPLService.class);
+      singleton = measure(() -> execute(pplService));
+    }
+
+    System.out.printf("Average micros per request: context per request %d, singleton %d%n",
+        TimeUnit.NANOSECONDS.toMicros(contextPerRequest),
+        TimeUnit.NANOSECONDS.toMicros(singleton));
+  }
+
+  /**
+   * Run the request after warm-up.
+   * @return average nanos per request
+   */
+  private long measure(Runnable request) {
+    for (int i = 0; i < WARM_UP_REQUESTS; i++) {
+      request.run();
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_REQUESTS; i++) {
+      request.run();
+    }
+    return (System.nanoTime() - start) / MEASURED_REQUESTS;
+  }
+
+  private void execute(PPLService pplService) {
+    pplService.execute(new PPLQueryRequest(QUERY, null), new ResponseListener<QueryResponse>() {
+      @Override
+      public void onResponse(QueryResponse response) {
+      }
+
+      @Override
+      public void onFailure(Exception e) {
+        Assert.fail(e.getMessage());
+      }
+    });
+  }
+
+  private AnnotationConfigApplicationContext createContext() {
+    AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+    context.registerBean(StorageEngine.class, () -> storageEngine);
+    context.registerBean(ExecutionEngine.class, () -> executionEngine);
+    context.registerBean(LogicalPlanCache.class, () -> planCache);
+    context.register(PPLServiceConfig.class);
+    context.refresh();
+    return context;
+  }
+}
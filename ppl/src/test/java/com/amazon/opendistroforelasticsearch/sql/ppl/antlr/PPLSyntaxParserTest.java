@@ -15,8 +15,17 @@
 
 package com.amazon.opendistroforelasticsearch.sql.ppl.antlr;
 
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.doubleValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 
+import com.amazon.opendistroforelasticsearch.sql.analysis.ParameterizedQuery;
+import com.amazon.opendistroforelasticsearch.sql.analysis.ParameterizedQuery.LiteralToken;
+import java.util.Arrays;
+import java.util.stream.Collectors;
 import org.antlr.v4.runtime.tree.ParseTree;
 import org.junit.Rule;
 import org.junit.Test;
@@ -51,4 +60,42 @@ public class PPLSyntaxParserTest {
 
     new PPLSyntaxParser().analyzeSyntax("search a=1");
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testSyntaxErrorReportedAfterFallbackToLLMode() {
+    exceptionRule.expect(RuntimeException.class);
+    exceptionRule.expectMessage(
+        "Failed to parse query due to offending symbol [<EOF>] at: 'source=t | where' <--- HERE");
+
+    new PPLSyntaxParser().analyzeSyntax("source=t | where");
+  }
+
+  @Test
+  public void testParameterizeQueryIntoTemplateAndLiterals() {
+    PPLSyntaxParser parser = new PPLSyntaxParser();
+    ParameterizedQuery query = parser.parameterize(
+        "  source=t\n|  where a = 'x  y' and b > 1.5 and `c  d` = \"z\" + 10");
+    assertEquals("source = t | where a = ? and b > ? and `c  d` = ? + ?", query.getTemplate());
+    assertEquals(
+        Arrays.asList(stringValue("x  y"), doubleValue(1.5), stringValue("z"), integerValue(10)),
+        query.getLiterals().stream().map(LiteralToken::getValue).collect(Collectors.toList()));
+    assertEquals(parser.parameterize("source=t | where a = 'x'").getTemplate(),
+        parser.parameterize("source = t  |  where a = \"it\\\"s\"").getTemplate());
+  }
+
+  @Test
+  public void testParameterizeLiteralOutOfRange() {
+    ParameterizedQuery query = new PPLSyntaxParser().parameterize("source=t | head 3000000000");
+    assertEquals("3000000000", query.getLiterals().get(0).getText());
+    assertNull(query.getLiterals().get(0).getValue());
+  }
+
+  @Test
+  public void testWarmUpQueriesShouldPass() {
+    PPLSyntaxParser parser = new PPLSyntaxParser();
+    parser.warmUp();
+    for (String query : PPLSyntaxParser.WARM_UP_QUERIES) {
+      assertNotEquals(null, parser.analyzeSyntax(query));
+    }
+  }
+}
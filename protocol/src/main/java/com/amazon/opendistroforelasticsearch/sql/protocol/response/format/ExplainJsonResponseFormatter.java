@@ -0,0 +1,58 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.protocol.response.format;
+
+import com.amazon.opendistroforelasticsearch.sql.executor.explain.ExplainResponse;
+
+/**
+ * JSON response format of the plan explained. Each plan node is formatted with its name,
+ * description and children. For example,
+ *
+ * <pre>
+ *  {
+ *      "analyzed": {
+ *          "name": "LogicalFilter",
+ *          "description": {
+ *              "condition": "age &gt; 30"
+ *          },
+ *          "children": [...]
+ *      },
+ *      "optimized": {...},
+ *      "physical": {
+ *          "name": "ElasticsearchIndexScan",
+ *          "description": {
+ *              "index": "accounts",
+ *              "request": {
+ *                  "query": {...}
+ *              }
+ *          },
+ *          "children": []
+ *      }
+ *  }
+ * </pre>
+ */
+public class ExplainJsonResponseFormatter extends JsonResponseFormatter<ExplainResponse> {
+
+  public ExplainJsonResponseFormatter(Style style) {
+    super(style);
+  }
+
+  @Override
+  protected Object buildJsonObject(ExplainResponse response) {
+    return response;
+  }
+}
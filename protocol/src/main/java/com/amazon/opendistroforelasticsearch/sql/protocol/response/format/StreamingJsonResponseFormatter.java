@@ -0,0 +1,178 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.protocol.response.format;
+
+import static com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style.PRETTY;
+
+import com.amazon.opendistroforelasticsearch.sql.executor.QueryProfile;
+import com.amazon.opendistroforelasticsearch.sql.protocol.response.QueryResult;
+import com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style;
+import com.amazon.opendistroforelasticsearch.sql.protocol.response.format.SimpleJsonResponseFormatter.Column;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Formatter which writes the query result chunk by chunk in the same format as
+ * {@link SimpleJsonResponseFormatter}. Each row is serialized once its chunk is appended, so only
+ * the serialized rows are kept instead of all the result values. Because the total is written
+ * before the data rows, the response is assembled after the last chunk.
+ */
+public class StreamingJsonResponseFormatter {
+
+  /**
+   * Capacity reserved for the schema, total, size and profile written around the data rows.
+   */
+  private static final int EXTRA_CAPACITY = 1024;
+
+  private final int indentFactor;
+
+  private final List<Column> schema = new ArrayList<>();
+
+  private final StringWriter datarows = new StringWriter();
+
+  /**
+   * The first row is serialized only if another row follows, because single row array is
+   * formatted inline.
+   */
+  private JSONArray firstRow;
+
+  private long size = 0;
+
+  public StreamingJsonResponseFormatter(Style style) {
+    this.indentFactor = (style == PRETTY) ? 2 : 0;
+  }
+
+  /**
+   * Append the rows of one chunk. The schema is inferred from the first row.
+   *
+   * @param chunk chunk of query result
+   */
+  public void append(QueryResult chunk) {
+    if (size == 0) {
+      chunk.columnNameTypes().forEach((name, type) -> schema.add(new Column(name, type)));
+    }
+    for (Object[] values : chunk) {
+      JSONArray row = new JSONArray(values);
+      if (size == 0) {
+        firstRow = row;
+      } else {
+        if (size == 1) {
+          writeRow(firstRow);
+        }
+        datarows.write(',');
+        writeRow(row);
+      }
+      size++;
+    }
+  }
+
+  /**
+   * Format the response with all the rows appended.
+   *
+   * @return response string
+   */
+  public String format() {
+    return format(null);
+  }
+
+  /**
+   * Format the response with all the rows appended, followed by the profile of the query.
+   *
+   * @param profile query profile, or null if the query is not profiled
+   * @return response string
+   */
+  public String format(QueryProfile profile) {
+    StringWriter writer = new StringWriter(datarows.getBuffer().length() + EXTRA_CAPACITY);
+    writer.write('{');
+    writeKey(writer, "schema");
+    new JSONArray(schema).write(writer, indentFactor, indentFactor);
+    writer.write(',');
+    writeKey(writer, "total");
+    writer.write(String.valueOf(size));
+    writer.write(',');
+    writeKey(writer, "datarows");
+    writer.write('[');
+    if (size == 1) {
+      firstRow.write(writer, indentFactor, indentFactor);
+    } else if (size > 1) {
+      // append the buffer of the rows directly instead of copying it into an intermediate string
+      writer.getBuffer().append(datarows.getBuffer());
+      newLine(writer, indentFactor);
+    }
+    writer.write(']');
+    writer.write(',');
+    writeKey(writer, "size");
+    writer.write(String.valueOf(size));
+    if (profile != null) {
+      writer.write(',');
+      writeKey(writer, "profile");
+      toJson(profile).write(writer, indentFactor, indentFactor);
+    }
+    newLine(writer, 0);
+    writer.write('}');
+    return writer.toString();
+  }
+
+  /**
+   * Profile of the operator with the time in milliseconds, and the profiles of its inputs.
+   */
+  private JSONObject toJson(QueryProfile profile) {
+    JSONObject json = new JSONObject();
+    json.put("operator", profile.getName());
+    json.put("rows_in", profile.getRowsIn());
+    json.put("rows_out", profile.getRows());
+    json.put("time_millis", toMillis(profile.getTimeNanos()));
+    json.put("self_time_millis", toMillis(profile.getSelfTimeNanos()));
+    profile.getMetrics().forEach(json::put);
+    if (!profile.getChildren().isEmpty()) {
+      json.put("children", profile.getChildren().stream()
+          .map(this::toJson)
+          .collect(Collectors.toList()));
+    }
+    return json;
+  }
+
+  private double toMillis(long nanos) {
+    return nanos / 1000L / 1000.0;
+  }
+
+  private void writeRow(JSONArray row) {
+    newLine(datarows, 2 * indentFactor);
+    row.write(datarows, indentFactor, 2 * indentFactor);
+  }
+
+  private void writeKey(StringWriter writer, String key) {
+    newLine(writer, indentFactor);
+    writer.write(JSONObject.quote(key));
+    writer.write(':');
+    if (indentFactor > 0) {
+      writer.write(' ');
+    }
+  }
+
+  private void newLine(StringWriter writer, int indent) {
+    if (indentFactor > 0) {
+      writer.write('\n');
+      for (int i = 0; i < indent; i++) {
+        writer.write(' ');
+      }
+    }
+  }
+}
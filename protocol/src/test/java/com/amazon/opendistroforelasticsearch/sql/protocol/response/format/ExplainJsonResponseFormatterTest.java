@@ -0,0 +1,73 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.protocol.response.format;
+
+import static com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style.COMPACT;
+import static com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style.PRETTY;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.amazon.opendistroforelasticsearch.sql.executor.explain.ExplainNode;
+import com.amazon.opendistroforelasticsearch.sql.executor.explain.ExplainResponse;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Collections;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+class ExplainJsonResponseFormatterTest {
+
+  private final ExplainNode scan = new ExplainNode("ElasticsearchIndexScan",
+      ImmutableMap.of("index", "accounts",
+          "request", ImmutableMap.of("_source", ImmutableMap.of("includes", ImmutableList.of(
+              "age")))),
+      Collections.emptyList());
+
+  private final ExplainNode relation = new ExplainNode("LogicalRelation",
+      ImmutableMap.of("relationName", "accounts"), Collections.emptyList());
+
+  private final ExplainResponse response = new ExplainResponse(
+      new ExplainNode("LogicalProject", ImmutableMap.of("fields", ImmutableList.of("age")),
+          ImmutableList.of(relation)),
+      new ExplainNode("LogicalProject", ImmutableMap.of("fields", ImmutableList.of("age")),
+          ImmutableList.of(relation)),
+      scan);
+
+  private final String expected = "{"
+      + "\"analyzed\":{\"name\":\"LogicalProject\",\"description\":{\"fields\":[\"age\"]},"
+      + "\"children\":[{\"name\":\"LogicalRelation\","
+      + "\"description\":{\"relationName\":\"accounts\"},\"children\":[]}]},"
+      + "\"optimized\":{\"name\":\"LogicalProject\",\"description\":{\"fields\":[\"age\"]},"
+      + "\"children\":[{\"name\":\"LogicalRelation\","
+      + "\"description\":{\"relationName\":\"accounts\"},\"children\":[]}]},"
+      + "\"physical\":{\"name\":\"ElasticsearchIndexScan\","
+      + "\"description\":{\"index\":\"accounts\","
+      + "\"request\":{\"_source\":{\"includes\":[\"age\"]}}},\"children\":[]}"
+      + "}";
+
+  @Test
+  void formatResponse() {
+    String actual = new ExplainJsonResponseFormatter(COMPACT).format(response);
+    assertTrue(new JSONObject(expected).similar(new JSONObject(actual)));
+  }
+
+  @Test
+  void formatResponsePretty() {
+    String actual = new ExplainJsonResponseFormatter(PRETTY).format(response);
+    assertTrue(actual.contains("\n  \"physical\": {\n"));
+    assertTrue(new JSONObject(expected).similar(new JSONObject(actual)));
+  }
+}
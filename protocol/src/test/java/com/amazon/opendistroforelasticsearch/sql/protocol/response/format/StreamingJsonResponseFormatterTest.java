@@ -0,0 +1,118 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.protocol.response.format;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.tupleValue;
+import static com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style.COMPACT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.executor.QueryProfile;
+import com.amazon.opendistroforelasticsearch.sql.protocol.response.QueryResult;
+import com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+class StreamingJsonResponseFormatterTest {
+
+  @Test
+  void formatResponseInChunks() {
+    StreamingJsonResponseFormatter formatter = new StreamingJsonResponseFormatter(COMPACT);
+    formatter.append(new QueryResult(Collections.singletonList(
+        tupleValue(ImmutableMap.of("firstname", "John", "age", 20)))));
+    formatter.append(new QueryResult(Collections.emptyList()));
+    formatter.append(new QueryResult(Collections.singletonList(
+        tupleValue(ImmutableMap.of("firstname", "Smith", "age", 30)))));
+    assertEquals(
+        "{\"schema\":[{\"name\":\"firstname\",\"type\":\"string\"},"
+            + "{\"name\":\"age\",\"type\":\"integer\"}],"
+            + "\"total\":2,\"datarows\":[[\"John\",20],[\"Smith\",30]],\"size\":2}",
+        formatter.format());
+  }
+
+  @Test
+  void formatEmptyResponse() {
+    assertSameAsSimpleJsonFormat(Collections.emptyList(), 1);
+  }
+
+  @Test
+  void formatSingleRowResponse() {
+    assertSameAsSimpleJsonFormat(Collections.singletonList(
+        tupleValue(ImmutableMap.of("firstname", "John"))), 1);
+    assertSameAsSimpleJsonFormat(Collections.singletonList(
+        tupleValue(ImmutableMap.of("firstname", "John", "age", 20))), 1);
+  }
+
+  @Test
+  void formatMultipleRowsResponse() {
+    List<ExprValue> rows = Arrays.asList(
+        tupleValue(ImmutableMap.of("firstname", "John", "age", 20)),
+        tupleValue(ImmutableMap.of("firstname", "Smith", "age", 30)),
+        tupleValue(ImmutableMap.of("firstname", "Allen", "age", 40)));
+    assertSameAsSimpleJsonFormat(rows, 1);
+    assertSameAsSimpleJsonFormat(rows, 2);
+    assertSameAsSimpleJsonFormat(rows, 3);
+  }
+
+  @Test
+  void formatResponseWithProfile() {
+    QueryProfile scan = new QueryProfile("ElasticsearchIndexScan", 3, 2_500_000L,
+        ImmutableMap.of("es_wait_millis", 1L, "fetched_bytes", 120L), Collections.emptyList());
+    QueryProfile project = new QueryProfile("ProjectOperator", 3, 4_000_000L,
+        Collections.emptyMap(), Collections.singletonList(scan));
+    for (Style style : Style.values()) {
+      StreamingJsonResponseFormatter formatter = new StreamingJsonResponseFormatter(style);
+      formatter.append(new QueryResult(Collections.singletonList(
+          tupleValue(ImmutableMap.of("firstname", "John")))));
+
+      JSONObject response = new JSONObject(formatter.format(project));
+      assertEquals(1, response.getInt("size"));
+      JSONObject profile = response.getJSONObject("profile");
+      assertEquals("ProjectOperator", profile.getString("operator"));
+      assertEquals(3, profile.getLong("rows_in"));
+      assertEquals(3, profile.getLong("rows_out"));
+      assertEquals(4.0, profile.getDouble("time_millis"));
+      assertEquals(1.5, profile.getDouble("self_time_millis"));
+
+      JSONObject child = profile.getJSONArray("children").getJSONObject(0);
+      assertEquals("ElasticsearchIndexScan", child.getString("operator"));
+      assertEquals(0, child.getLong("rows_in"));
+      assertEquals(2.5, child.getDouble("time_millis"));
+      assertEquals(1, child.getLong("es_wait_millis"));
+      assertEquals(120, child.getLong("fetched_bytes"));
+      assertFalse(child.has("children"));
+    }
+  }
+
+  private void assertSameAsSimpleJsonFormat(List<ExprValue> rows, int chunkSize) {
+    for (Style style : Style.values()) {
+      StreamingJsonResponseFormatter formatter = new StreamingJsonResponseFormatter(style);
+      for (int from = 0; from < rows.size(); from += chunkSize) {
+        formatter.append(new QueryResult(
+            new ArrayList<>(rows.subList(from, Math.min(from + chunkSize, rows.size())))));
+      }
+      assertEquals(
+          new SimpleJsonResponseFormatter(style).format(new QueryResult(rows)),
+          formatter.format());
+    }
+  }
+}
@@ -18,10 +18,17 @@ package com.amazon.opendistroforelasticsearch.sql.sql;
 
 import com.amazon.opendistroforelasticsearch.sql.analysis.AnalysisContext;
 import com.amazon.opendistroforelasticsearch.sql.analysis.Analyzer;
+import com.amazon.opendistroforelasticsearch.sql.analysis.ParameterizedPlan;
+import com.amazon.opendistroforelasticsearch.sql.analysis.ParameterizedQuery;
 import com.amazon.opendistroforelasticsearch.sql.ast.tree.UnresolvedPlan;
 import com.amazon.opendistroforelasticsearch.sql.common.response.ResponseListener;
+import com.amazon.opendistroforelasticsearch.sql.common.response.StreamingResponseListener;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine.QueryResponse;
+import com.amazon.opendistroforelasticsearch.sql.executor.QueryContext;
+import com.amazon.opendistroforelasticsearch.sql.executor.explain.ExplainResponse;
+import com.amazon.opendistroforelasticsearch.sql.executor.explain.PlanExplainer;
+import com.amazon.opendistroforelasticsearch.sql.planner.LogicalPlanCache;
 import com.amazon.opendistroforelasticsearch.sql.planner.Planner;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
@@ -29,6 +36,7 @@ import com.amazon.opendistroforelasticsearch.sql.sql.antlr.SQLSyntaxParser;
 import com.amazon.opendistroforelasticsearch.sql.sql.domain.SQLQueryRequest;
 import com.amazon.opendistroforelasticsearch.sql.sql.parser.AstBuilder;
 import com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine;
+import java.util.Collections;
 import org.antlr.v4.runtime.tree.ParseTree;
 
 /**
@@ -40,27 +48,39 @@ public class SQLService {
 
   private final Analyzer analyzer;
 
-  private final StorageEngine storageEngine;
+  private final Planner planner;
 
   private final ExecutionEngine executionEngine;
 
+  private final StorageEngine storageEngine;
+
+  private final LogicalPlanCache planCache;
+
+  private final PlanExplainer explainer = new PlanExplainer();
+
   /**
    * Initialize SQL service.
    * @param parser              SQL syntax parser
    * @param analyzer            AST analyzer
-   * @param storageEngine       storage engine
+   * @param planner             planner
    * @param executionEngine     execution engine
+   * @param storageEngine       storage engine
+   * @param planCache           logical plan cache
    */
   public SQLService(SQLSyntaxParser parser, Analyzer analyzer,
-                    StorageEngine storageEngine, ExecutionEngine executionEngine) {
+                    Planner planner, ExecutionEngine executionEngine,
+                    StorageEngine storageEngine, LogicalPlanCache planCache) {
     this.parser = parser;
     this.analyzer = analyzer;
-    this.storageEngine = storageEngine;
+    this.planner = planner;
     this.executionEngine = executionEngine;
+    this.storageEngine = storageEngine;
+    this.planCache = planCache;
   }
 
   /**
-   * Parse, analyze, plan and execute the query.
+   * Parse, analyze, plan and execute the query. The logical plan analyzed before for the same
+   * query is reused.
    * @param request       SQL query request
    * @param listener      callback listener
    */
@@ -68,8 +88,7 @@ public class SQLService {
     try {
       executionEngine.execute(
                         plan(
-                            analyze(
-                                parse(request.getQuery()))), listener);
+                            cachedPlan(request)), listener);
     } catch (Exception e) {
       listener.onFailure(e);
     }
@@ -90,6 +109,70 @@ public class SQLService {
     }
   }
 
+  /**
+   * Given AST, run the remaining steps to execute it and stream the result chunk by chunk.
+   * @param ast         AST
+   * @param listener    streaming callback listener
+   */
+  public void stream(UnresolvedPlan ast, StreamingResponseListener<QueryResponse> listener) {
+    try {
+      executionEngine.stream(
+          plan(
+              analyze(ast)), listener);
+    } catch (Exception e) {
+      listener.onFailure(e);
+    }
+  }
+
+  /**
+   * Given AST, run the remaining steps to execute it in the {@link QueryContext} and stream the
+   * result chunk by chunk.
+   * @param ast         AST
+   * @param context     query context
+   * @param listener    streaming callback listener
+   */
+  public void stream(UnresolvedPlan ast, QueryContext context,
+                     StreamingResponseListener<QueryResponse> listener) {
+    try {
+      executionEngine.stream(
+          plan(
+              analyze(ast)), context, listener);
+    } catch (Exception e) {
+      listener.onFailure(e);
+    }
+  }
+
+  /**
+   * Parse, analyze, plan and execute the query in the {@link QueryContext} and stream the result
+   * chunk by chunk. The logical plan analyzed before for the same query is reused.
+   * @param request     SQL query request
+   * @param context     query context
+   * @param listener    streaming callback listener
+   */
+  public void stream(SQLQueryRequest request, QueryContext context,
+                     StreamingResponseListener<QueryResponse> listener) {
+    try {
+      executionEngine.stream(
+          plan(
+              cachedPlan(request)), context, listener);
+    } catch (Exception e) {
+      listener.onFailure(e);
+    }
+  }
+
+  /**
+   * Given AST, explain the analyzed, optimized and physical plan without executing it.
+   * @param ast         AST
+   * @param listener    callback listener
+   */
+  public void explain(UnresolvedPlan ast, ResponseListener<ExplainResponse> listener) {
+    try {
+      listener.onResponse(explainer.explain(analyze(ast), planner));
+    } catch (Exception e) {
+      listener.onFailure(e);
+    }
+  }
+
   /**
    * Parse query and convert parse tree (CST) to abstract syntax tree (AST).
    */
@@ -98,6 +181,23 @@ public class SQLService {
     return cst.accept(new AstBuilder());
   }
 
+  /**
+   * Get the logical plan of the query from the plan cache, or analyze it on cache miss.
+   */
+  private LogicalPlan cachedPlan(SQLQueryRequest request) {
+    ParameterizedQuery query = parser.parameterize(request.getQuery());
+    return planCache.get(query, storageEngine.getMetadataVersion(), () -> analyze(query));
+  }
+
+  /**
+   * Analyze the query into logical plan. The SQL query has no filter yet, and the literals in the
+   * select items name the output columns, so none of the literals is a parameter and the plan is
+   * only reused by the query with the same literals.
+   */
+  private ParameterizedPlan analyze(ParameterizedQuery query) {
+    return analyzer.analyze(parse(query.getQuery()), query, Collections.emptyMap());
+  }
+
   /**
    * Analyze abstract syntax to generate logical plan.
    */
@@ -109,7 +209,7 @@ public class SQLService {
    * Generate optimal physical plan from logical plan.
    */
   public PhysicalPlan plan(LogicalPlan logicalPlan) {
-    return new Planner(storageEngine).plan(logicalPlan);
+    return planner.plan(logicalPlan);
   }
 
 }
@@ -16,11 +16,27 @@
 
 package com.amazon.opendistroforelasticsearch.sql.sql.antlr;
 
+import static com.amazon.opendistroforelasticsearch.sql.common.utils.StringUtils.unquoteIdentifier;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.doubleValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
+
+import com.amazon.opendistroforelasticsearch.sql.analysis.ParameterizedQuery;
+import com.amazon.opendistroforelasticsearch.sql.analysis.ParameterizedQuery.LiteralToken;
 import com.amazon.opendistroforelasticsearch.sql.common.antlr.CaseInsensitiveCharStream;
 import com.amazon.opendistroforelasticsearch.sql.common.antlr.SyntaxAnalysisErrorListener;
+import com.amazon.opendistroforelasticsearch.sql.common.antlr.TwoStageParser;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.sql.antlr.parser.OpenDistroSQLLexer;
 import com.amazon.opendistroforelasticsearch.sql.sql.antlr.parser.OpenDistroSQLParser;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.Token;
 import org.antlr.v4.runtime.tree.ParseTree;
 
 /**
@@ -28,6 +44,27 @@ import org.antlr.v4.runtime.tree.ParseTree;
  */
 public class SQLSyntaxParser {
 
+  /**
+   * Representative queries parsed by {@link #warmUp()}.
+   */
+  static final List<String> WARM_UP_QUERIES = Arrays.asList(
+      "SELECT 1",
+      "SELECT 'hello', \"world\", 123, -1.5, true, false",
+      "SELECT ABS(-1) + 2 * (3 - 4) % 5 / 6"
+  );
+
+  /**
+   * Types of the literal tokens, which are replaced by the placeholder in the template.
+   */
+  private static final Set<Integer> LITERAL_TOKEN_TYPES = ImmutableSet.of(
+      OpenDistroSQLLexer.STRING_LITERAL,
+      OpenDistroSQLLexer.DECIMAL_LITERAL,
+      OpenDistroSQLLexer.ZERO_DECIMAL,
+      OpenDistroSQLLexer.ONE_DECIMAL,
+      OpenDistroSQLLexer.TWO_DECIMAL,
+      OpenDistroSQLLexer.REAL_LITERAL
+  );
+
   /**
    * Parse a SQL query by ANTLR parser.
    * @param query   a SQL query
@@ -36,8 +73,62 @@ public class SQLSyntaxParser {
   public ParseTree parse(String query) {
     OpenDistroSQLLexer lexer = new OpenDistroSQLLexer(new CaseInsensitiveCharStream(query));
     OpenDistroSQLParser parser = new OpenDistroSQLParser(new CommonTokenStream(lexer));
-    parser.addErrorListener(new SyntaxAnalysisErrorListener());
-    return parser.root();
+    return TwoStageParser.parse(parser, new SyntaxAnalysisErrorListener(),
+        OpenDistroSQLParser::root);
+  }
+
+  /**
+   * Lex the query into the template and the literal tokens. The template is the tokens on the
+   * default channel, which are read by the parser, separated by a single space with each literal
+   * token replaced by the placeholder. So the queries differing only in the whitespaces, comments
+   * or literal values share the cached plan.
+   * @param query   a SQL query
+   * @return        parameterized query
+   */
+  public ParameterizedQuery parameterize(String query) {
+    OpenDistroSQLLexer lexer = new OpenDistroSQLLexer(new CaseInsensitiveCharStream(query));
+    List<? extends Token> tokens = lexer.getAllTokens();
+    StringJoiner template = new StringJoiner(" ");
+    List<LiteralToken> literals = new ArrayList<>();
+    for (int index = 0; index < tokens.size(); index++) {
+      Token token = tokens.get(index);
+      if (token.getChannel() != Token.DEFAULT_CHANNEL) {
+        continue;
+      }
+      if (LITERAL_TOKEN_TYPES.contains(token.getType())) {
+        template.add(ParameterizedQuery.PLACEHOLDER);
+        literals.add(new LiteralToken(index, token.getText(), literalValue(token)));
+      } else {
+        template.add(token.getText());
+      }
+    }
+    return new ParameterizedQuery(query, template.toString(), literals);
+  }
+
+  /**
+   * Parse the value of the literal token in the same way as the AST builder.
+   */
+  private ExprValue literalValue(Token token) {
+    try {
+      switch (token.getType()) {
+        case OpenDistroSQLLexer.REAL_LITERAL:
+          return doubleValue(Double.valueOf(token.getText()));
+        case OpenDistroSQLLexer.STRING_LITERAL:
+          return stringValue(unquoteIdentifier(token.getText()));
+        default:
+          return integerValue(Integer.valueOf(token.getText()));
+      }
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Parse the representative queries to prime the DFA cache which is shared by all the parser
+   * instances, so the first queries after node start don't pay for building it.
+   */
+  public void warmUp() {
+    WARM_UP_QUERIES.forEach(this::parse);
   }
 
 }
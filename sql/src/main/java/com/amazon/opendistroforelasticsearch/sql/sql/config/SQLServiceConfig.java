@@ -21,6 +21,9 @@ import com.amazon.opendistroforelasticsearch.sql.analysis.ExpressionAnalyzer;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
 import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import com.amazon.opendistroforelasticsearch.sql.planner.LogicalPlanCache;
+import com.amazon.opendistroforelasticsearch.sql.planner.Planner;
+import com.amazon.opendistroforelasticsearch.sql.planner.optimizer.LogicalPlanOptimizer;
 import com.amazon.opendistroforelasticsearch.sql.sql.SQLService;
 import com.amazon.opendistroforelasticsearch.sql.sql.antlr.SQLSyntaxParser;
 import com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine;
@@ -45,14 +48,23 @@ public class SQLServiceConfig {
   @Autowired
   private BuiltinFunctionRepository functionRepository;
 
+  @Autowired
+  private LogicalPlanCache planCache;
+
   @Bean
   public Analyzer analyzer() {
     return new Analyzer(new ExpressionAnalyzer(functionRepository), storageEngine);
   }
 
+  @Bean
+  public Planner planner() {
+    return new Planner(storageEngine, LogicalPlanOptimizer.create(functionRepository));
+  }
+
   @Bean
   public SQLService sqlService() {
-    return new SQLService(new SQLSyntaxParser(), analyzer(), storageEngine, executionEngine);
+    return new SQLService(new SQLSyntaxParser(), analyzer(), planner(), executionEngine,
+        storageEngine, planCache);
   }
 
 }
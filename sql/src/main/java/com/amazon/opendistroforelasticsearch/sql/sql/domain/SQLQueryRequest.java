@@ -55,21 +55,24 @@ public class SQLQueryRequest {
 
   /**
    * Pre-check if the request can be supported by meeting the following criteria:
-   *  1.Not explain request
-   *  2.Only "query" field in payload. In other word, it's not a cursor request
+   *  1.Only "query" field in payload. In other word, it's not a cursor request
    *   (with either "fetch_size" or "cursor" field) or request with extra field
    *   such as "filter".
-   *  3.Response format expected is default JDBC format.
+   *  2.Response format expected is default JDBC format.
    *
    * @return  true if supported.
    */
   public boolean isSupported() {
-    return !isExplainRequest()
-        && isOnlyQueryFieldInPayload()
+    return isOnlyQueryFieldInPayload()
         && isDefaultFormat();
   }
 
-  private boolean isExplainRequest() {
+  /**
+   * Is the request to explain the query plan instead of executing it.
+   *
+   * @return  true if explain request.
+   */
+  public boolean isExplainRequest() {
     return path.endsWith("/_explain");
   }
 
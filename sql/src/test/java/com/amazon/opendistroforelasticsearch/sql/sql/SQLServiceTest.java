@@ -17,21 +17,30 @@
 package com.amazon.opendistroforelasticsearch.sql.sql;
 
 import static com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine.QueryResponse;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
 
+import com.amazon.opendistroforelasticsearch.sql.ast.dsl.AstDSL;
 import com.amazon.opendistroforelasticsearch.sql.ast.tree.UnresolvedPlan;
 import com.amazon.opendistroforelasticsearch.sql.common.response.ResponseListener;
+import com.amazon.opendistroforelasticsearch.sql.common.response.StreamingResponseListener;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
+import com.amazon.opendistroforelasticsearch.sql.executor.QueryContext;
+import com.amazon.opendistroforelasticsearch.sql.executor.explain.ExplainResponse;
+import com.amazon.opendistroforelasticsearch.sql.planner.LogicalPlanCache;
 import com.amazon.opendistroforelasticsearch.sql.sql.antlr.SQLSyntaxParser;
 import com.amazon.opendistroforelasticsearch.sql.sql.config.SQLServiceConfig;
 import com.amazon.opendistroforelasticsearch.sql.sql.domain.SQLQueryRequest;
 import com.amazon.opendistroforelasticsearch.sql.sql.parser.AstBuilder;
 import com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine;
 import java.util.Collections;
+import java.util.OptionalLong;
 import org.antlr.v4.runtime.tree.ParseTree;
 import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
@@ -48,6 +57,8 @@ class SQLServiceTest {
 
   private SQLService sqlService;
 
+  private LogicalPlanCache planCache = new LogicalPlanCache(LogicalPlanCache.DEFAULT_CAPACITY);
+
   @Mock
   private StorageEngine storageEngine;
 
@@ -58,6 +69,7 @@ class SQLServiceTest {
   public void setUp() {
     context.registerBean(StorageEngine.class, () -> storageEngine);
     context.registerBean(ExecutionEngine.class, () -> executionEngine);
+    context.registerBean(LogicalPlanCache.class, () -> planCache);
     context.register(SQLServiceConfig.class);
     context.refresh();
     sqlService = context.getBean(SQLService.class);
@@ -149,4 +161,215 @@ class SQLServiceTest {
         });
   }
 
-}
\ No newline at end of file
+  @Test
+  public void canStreamFromAst() {
+    doAnswer(invocation -> {
+      StreamingResponseListener<QueryResponse> listener = invocation.getArgument(1);
+      listener.onChunk(new QueryResponse(Collections.emptyList()));
+      listener.onComplete();
+      return null;
+    }).when(executionEngine).stream(any(), any());
+
+    ParseTree parseTree = new SQLSyntaxParser().parse("SELECT 123");
+    UnresolvedPlan ast = parseTree.accept(new AstBuilder());
+
+    sqlService.stream(ast,
+        new StreamingResponseListener<QueryResponse>() {
+          @Override
+          public void onChunk(QueryResponse chunk) {
+            assertNotNull(chunk);
+          }
+
+          @Override
+          public void onComplete() {
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+            fail(e);
+          }
+        });
+  }
+
+  @Test
+  public void canStreamFromAstInContext() {
+    QueryContext queryContext = new QueryContext(null, true);
+    doAnswer(invocation -> {
+      StreamingResponseListener<QueryResponse> listener = invocation.getArgument(2);
+      listener.onChunk(new QueryResponse(Collections.emptyList()));
+      listener.onComplete();
+      return null;
+    }).when(executionEngine).stream(any(), eq(queryContext), any());
+
+    ParseTree parseTree = new SQLSyntaxParser().parse("SELECT 123");
+    UnresolvedPlan ast = parseTree.accept(new AstBuilder());
+
+    sqlService.stream(ast, queryContext,
+        new StreamingResponseListener<QueryResponse>() {
+          @Override
+          public void onChunk(QueryResponse chunk) {
+            assertNotNull(chunk);
+          }
+
+          @Override
+          public void onComplete() {
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+            fail(e);
+          }
+        });
+  }
+
+  @Test
+  public void canCaptureErrorDuringStreamingFromAstInContext() {
+    doThrow(new RuntimeException()).when(executionEngine).stream(any(), any(), any());
+
+    ParseTree parseTree = new SQLSyntaxParser().parse("SELECT 123");
+    UnresolvedPlan ast = parseTree.accept(new AstBuilder());
+
+    sqlService.stream(ast, new QueryContext(),
+        new StreamingResponseListener<QueryResponse>() {
+          @Override
+          public void onChunk(QueryResponse chunk) {
+            fail();
+          }
+
+          @Override
+          public void onComplete() {
+            fail();
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+            assertNotNull(e);
+          }
+        });
+  }
+
+  @Test
+  public void canCaptureErrorDuringStreamingFromAst() {
+    doThrow(new RuntimeException()).when(executionEngine).stream(any(), any());
+
+    ParseTree parseTree = new SQLSyntaxParser().parse("SELECT 123");
+    UnresolvedPlan ast = parseTree.accept(new AstBuilder());
+
+    sqlService.stream(ast,
+        new StreamingResponseListener<QueryResponse>() {
+          @Override
+          public void onChunk(QueryResponse chunk) {
+            fail();
+          }
+
+          @Override
+          public void onComplete() {
+            fail();
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+            assertNotNull(e);
+          }
+        });
+  }
+
+  @Test
+  public void canStreamSqlQueryInContextFromPlanCache() {
+    when(storageEngine.getMetadataVersion()).thenReturn(OptionalLong.of(1L));
+    QueryContext queryContext = new QueryContext(null, true);
+    doAnswer(invocation -> {
+      StreamingResponseListener<QueryResponse> listener = invocation.getArgument(2);
+      listener.onChunk(new QueryResponse(Collections.emptyList()));
+      listener.onComplete();
+      return null;
+    }).when(executionEngine).stream(any(), eq(queryContext), any());
+
+    SQLQueryRequest request =
+        new SQLQueryRequest(new JSONObject(), "SELECT 123", "_opendistro/_sql", "jdbc");
+    StreamingResponseListener<QueryResponse> listener =
+        new StreamingResponseListener<QueryResponse>() {
+          @Override
+          public void onChunk(QueryResponse chunk) {
+            assertNotNull(chunk);
+          }
+
+          @Override
+          public void onComplete() {
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+            fail(e);
+          }
+        };
+    sqlService.stream(request, queryContext, listener);
+    sqlService.stream(request, queryContext, listener);
+
+    assertEquals(1, planCache.missCount());
+    assertEquals(1, planCache.hitCount());
+  }
+
+  @Test
+  public void canCaptureErrorDuringStreamingInContext() {
+    sqlService.stream(
+        new SQLQueryRequest(new JSONObject(), "SELECT", "_opendistro/_sql", ""),
+        new QueryContext(),
+        new StreamingResponseListener<QueryResponse>() {
+          @Override
+          public void onChunk(QueryResponse chunk) {
+            fail();
+          }
+
+          @Override
+          public void onComplete() {
+            fail();
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+            assertNotNull(e);
+          }
+        });
+  }
+
+  @Test
+  public void canExplainFromAst() {
+    ParseTree parseTree = new SQLSyntaxParser().parse("SELECT 123");
+    UnresolvedPlan ast = parseTree.accept(new AstBuilder());
+
+    sqlService.explain(ast,
+        new ResponseListener<ExplainResponse>() {
+          @Override
+          public void onResponse(ExplainResponse response) {
+            assertEquals("LogicalProject", response.getAnalyzed().getName());
+            assertEquals("LogicalProject", response.getOptimized().getName());
+            assertEquals("ProjectOperator", response.getPhysical().getName());
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+            fail(e);
+          }
+        });
+  }
+
+  @Test
+  public void canCaptureErrorDuringExplainFromAst() {
+    when(storageEngine.getTable(any())).thenThrow(new IllegalStateException("no such index"));
+
+    sqlService.explain(AstDSL.relation("test"),
+        new ResponseListener<ExplainResponse>() {
+          @Override
+          public void onResponse(ExplainResponse response) {
+            fail();
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+            assertEquals("no such index", e.getMessage());
+          }
+        });
+  }
+
+}
@@ -16,10 +16,22 @@
 
 package com.amazon.opendistroforelasticsearch.sql.sql.antlr;
 
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.doubleValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.amazon.opendistroforelasticsearch.sql.analysis.ParameterizedQuery;
+import com.amazon.opendistroforelasticsearch.sql.analysis.ParameterizedQuery.LiteralToken;
 import com.amazon.opendistroforelasticsearch.sql.common.antlr.SyntaxCheckException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
 import org.antlr.v4.runtime.tree.ParseTree;
 import org.junit.jupiter.api.Test;
 
@@ -38,4 +50,42 @@ class SQLSyntaxParserTest {
     assertThrows(SyntaxCheckException.class, () -> parser.parse("SELECT * FROM test"));
   }
 
+  @Test
+  public void syntaxErrorIsReportedAfterFallbackToLLMode() {
+    SyntaxCheckException exception =
+        assertThrows(SyntaxCheckException.class, () -> parser.parse("SELECT ABS(1"));
+    assertTrue(exception.getMessage().startsWith(
+        "Failed to parse query due to offending symbol [<EOF>] at: 'SELECT ABS(1' <--- HERE..."));
+  }
+
+  @Test
+  public void canParseAfterFailedQuery() {
+    assertThrows(SyntaxCheckException.class, () -> parser.parse("SELECT"));
+    assertNotNull(parser.parse("SELECT 1"));
+  }
+
+  @Test
+  public void canParameterizeQueryIntoTemplateAndLiterals() {
+    ParameterizedQuery query = parser.parameterize(
+        "  SELECT a,\n 'x  y' /* comment */, 1.5, 0, 12 FROM t -- comment\n");
+    assertEquals("SELECT a , ? , ? , ? , ? FROM t", query.getTemplate());
+    assertEquals(
+        Arrays.asList(stringValue("x  y"), doubleValue(1.5), integerValue(0), integerValue(12)),
+        query.getLiterals().stream().map(LiteralToken::getValue).collect(Collectors.toList()));
+    assertNotEquals(parser.parameterize("SELECT a -- c\nFROM t").getTemplate(),
+        parser.parameterize("SELECT a -- c FROM t").getTemplate());
+  }
+
+  @Test
+  public void canParameterizeLiteralOutOfRange() {
+    ParameterizedQuery query = parser.parameterize("SELECT 3000000000");
+    assertEquals("3000000000", query.getLiterals().get(0).getText());
+    assertNull(query.getLiterals().get(0).getValue());
+  }
+
+  @Test
+  public void canWarmUp() {
+    assertDoesNotThrow(parser::warmUp);
+  }
+
 }
\ No newline at end of file
@@ -28,6 +28,7 @@ public class SQLQueryRequestTest {
   public void shouldSupportQuery() {
     SQLQueryRequest request = SQLQueryRequestBuilder.request("SELECT 1").build();
     assertTrue(request.isSupported());
+    assertFalse(request.isExplainRequest());
   }
 
   @Test
@@ -48,12 +49,13 @@ public class SQLQueryRequestTest {
   }
 
   @Test
-  public void shouldNotSupportExplain() {
+  public void shouldSupportExplain() {
     SQLQueryRequest explainRequest =
         SQLQueryRequestBuilder.request("SELECT 1")
                               .path("_opendistro/_sql/_explain")
                               .build();
-    assertFalse(explainRequest.isSupported());
+    assertTrue(explainRequest.isSupported());
+    assertTrue(explainRequest.isExplainRequest());
   }
 
   @Test